@@ -0,0 +1,70 @@
+package com.eventprocessing.benchmarks;
+
+import com.eventprocessing.common.model.Event;
+import com.eventprocessing.common.tracing.OtlpSpanExporter;
+import com.eventprocessing.common.tracing.Tracer;
+import com.eventprocessing.dataingestion.entity.EventEntity;
+import com.eventprocessing.dataingestion.payload.PayloadCodec;
+import com.eventprocessing.dataingestion.payload.PayloadProperties;
+import com.eventprocessing.dataingestion.service.EventIngestionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EventIngestionService.convertToEntity, including hot-field promotion and, with
+ * compression on, deflating the payload with a trained dictionary
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EntityConversionBenchmark {
+
+    @Param({"small", "medium", "large"})
+    public String payloadSize;
+
+    @Param({"false", "true"})
+    public boolean compression;
+
+    private EventIngestionService service;
+    private Event event;
+
+    @Setup
+    public void setUp() {
+        PayloadProperties properties = new PayloadProperties();
+        properties.setCompressionEnabled(compression);
+        properties.setTrainingSamples(200);
+        properties.setHotFields(Map.of(
+                "user.created", List.of("userId"),
+                "payment.completed", List.of("userId", "orderId", "amount"),
+                "order.placed", List.of("userId", "orderId", "total")));
+        PayloadCodec codec = new PayloadCodec(Mockito.mock(MongoTemplate.class), properties);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OtlpSpanExporter exporter = new OtlpSpanExporter("http://localhost:0/v1/traces", "benchmark",
+                1, 1, 1000, meterRegistry);
+        Tracer tracer = new Tracer(false, 0, false, 0, exporter);
+
+        // Only the codec is used by the conversion
+        service = new EventIngestionService(null, null, codec, null, null, null, tracer);
+        event = EventFixtures.event(payloadSize);
+
+        // Train the dictionary so the measurement sees the steady state
+        for (int i = 0; i < properties.getTrainingSamples(); i++) {
+            service.convertToEntity(event);
+        }
+    }
+
+    @Benchmark
+    public EventEntity convertToEntity() {
+        return service.convertToEntity(event);
+    }
+}
@@ -0,0 +1,73 @@
+package com.eventprocessing.benchmarks;
+
+import com.eventprocessing.common.latency.LatencyRecorder;
+import com.eventprocessing.common.logging.PipelineLog;
+import com.eventprocessing.common.logging.PipelineLogProperties;
+import com.eventprocessing.common.model.Event;
+import com.eventprocessing.common.tracing.OtlpSpanExporter;
+import com.eventprocessing.common.tracing.Tracer;
+import com.eventprocessing.consumer.service.EventProcessingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EventProcessingService.processEvent on the success path with the simulated
+ * handler delay off: dispatch by event type, status transitions, the latency
+ * histograms, the handler JFR event and the sampled-out pipeline log line. The
+ * service is called directly, so the Resilience4j proxies are not part of it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventDispatchBenchmark {
+
+    @Param({"user.created", "order.placed", "payment.completed", "inventory.adjusted"})
+    public String eventType;
+
+    /**
+     * Whether the event is timed into the latency histograms, as live events are
+     */
+    @Param({"true", "false"})
+    public boolean tracked;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PipelineLog pipelineLog;
+    private EventProcessingService service;
+    private Event event;
+
+    @Setup
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        LatencyRecorder latencyRecorder = new LatencyRecorder(meterRegistry, null);
+
+        PipelineLogProperties logProperties = new PipelineLogProperties();
+        logProperties.setDefaultSampleRate(0);
+        pipelineLog = new PipelineLog(logProperties, "benchmark", meterRegistry);
+
+        OtlpSpanExporter exporter = new OtlpSpanExporter("http://localhost:0/v1/traces", "benchmark",
+                1, 1, 1000, meterRegistry);
+        Tracer tracer = new Tracer(false, 0, false, 0, exporter);
+
+        // The DLQ is only reached on failures
+        service = new EventProcessingService(null, latencyRecorder, tracer, pipelineLog);
+        service.setSimulateDelay(false);
+        event = EventFixtures.ofType(eventType);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        pipelineLog.shutdown();
+        meterRegistry.close();
+    }
+
+    @Benchmark
+    public Event processEvent() {
+        service.processEvent(event, tracked ? System.currentTimeMillis() : EventProcessingService.UNTRACKED);
+        return event;
+    }
+}
@@ -0,0 +1,104 @@
+package com.eventprocessing.benchmarks;
+
+import com.eventprocessing.common.model.Event;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Representative events of the three sizes seen in production: a small
+ * user.created, a mid-size payment.completed and an order.placed whose item list
+ * makes up most of its bytes
+ */
+public final class EventFixtures {
+
+    private EventFixtures() {
+    }
+
+    public static Event event(String size) {
+        return switch (size) {
+            case "small" -> userCreated();
+            case "medium" -> paymentCompleted();
+            case "large" -> orderPlaced(25);
+            default -> throw new IllegalArgumentException("Unknown payload size: " + size);
+        };
+    }
+
+    public static Event ofType(String eventType) {
+        return switch (eventType) {
+            case "user.created" -> userCreated();
+            case "payment.completed" -> paymentCompleted();
+            case "order.placed" -> orderPlaced(5);
+            default -> base(eventType, Map.of("value", 42));
+        };
+    }
+
+    static Event userCreated() {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("userId", "user-48213");
+        payload.put("email", "jane.doe@example.com");
+        payload.put("name", "Jane Doe");
+        payload.put("plan", "premium");
+        return base("user.created", payload);
+    }
+
+    static Event paymentCompleted() {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("paymentId", "pay-" + UUID.randomUUID());
+        payload.put("orderId", "order-99172");
+        payload.put("userId", "user-48213");
+        payload.put("amount", 149.95);
+        payload.put("currency", "EUR");
+        payload.put("method", "card");
+        Map<String, Object> card = new LinkedHashMap<>();
+        card.put("brand", "visa");
+        card.put("last4", "4242");
+        card.put("expMonth", 12);
+        card.put("expYear", 2028);
+        payload.put("card", card);
+        payload.put("capturedAt", Instant.parse("2024-05-01T10:15:30Z").toString());
+        return base("payment.completed", payload);
+    }
+
+    static Event orderPlaced(int items) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderId", "order-99172");
+        payload.put("userId", "user-48213");
+        payload.put("currency", "EUR");
+        List<Map<String, Object>> lines = new ArrayList<>(items);
+        double total = 0;
+        for (int i = 0; i < items; i++) {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("sku", "SKU-" + (10000 + i * 37));
+            line.put("name", "Catalog item " + i);
+            line.put("quantity", 1 + i % 3);
+            line.put("unitPrice", 9.99 + i);
+            line.put("tags", List.of("promo", "warehouse-" + i % 4));
+            total += (1 + i % 3) * (9.99 + i);
+            lines.add(line);
+        }
+        payload.put("items", lines);
+        payload.put("total", total);
+        Map<String, Object> shipping = new LinkedHashMap<>();
+        shipping.put("street", "Hauptstrasse 12");
+        shipping.put("city", "Berlin");
+        shipping.put("postalCode", "10115");
+        shipping.put("country", "DE");
+        payload.put("shippingAddress", shipping);
+        return base("order.placed", payload);
+    }
+
+    private static Event base(String eventType, Map<String, Object> payload) {
+        return Event.builder()
+                .eventType(eventType)
+                .payload(payload)
+                .correlationId("corr-" + UUID.randomUUID())
+                .source("web-checkout")
+                .metadata(Map.of("priority", "normal", "region", "eu-central-1"))
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.eventprocessing.benchmarks;
+
+import com.eventprocessing.common.model.Event;
+import com.eventprocessing.common.model.FailedEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FailedEvent construction for the DLQ, dominated by rendering the stack trace.
+ * Listener threads sit under deep Spring Kafka and Resilience4j stacks, so the
+ * exception is thrown at a configurable depth.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FailedEventBenchmark {
+
+    @Param({"16", "128"})
+    public int stackDepth;
+
+    private Event event;
+    private RuntimeException captured;
+
+    @Setup
+    public void setUp() {
+        event = EventFixtures.event("medium");
+        captured = throwAt(stackDepth);
+    }
+
+    /**
+     * Exception creation and stack walk plus the record
+     */
+    @Benchmark
+    public FailedEvent captureAndBuild() {
+        return FailedEvent.from(event, throwAt(stackDepth), "benchmark");
+    }
+
+    /**
+     * The record alone, from an exception captured once
+     */
+    @Benchmark
+    public FailedEvent build() {
+        return FailedEvent.from(event, captured, "benchmark");
+    }
+
+    private static RuntimeException throwAt(int depth) {
+        try {
+            recurse(depth);
+            throw new IllegalStateException("unreachable");
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    private static void recurse(int depth) {
+        if (depth <= 0) {
+            throw new IllegalStateException("Downstream call failed: connection reset");
+        }
+        recurse(depth - 1);
+    }
+}
@@ -0,0 +1,41 @@
+package com.eventprocessing.benchmarks;
+
+import com.eventprocessing.common.model.Event;
+import com.eventprocessing.common.util.JsonUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JsonUtil serialization of events, the first and last step of every hop
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonUtilBenchmark {
+
+    @Param({"small", "medium", "large"})
+    public String payloadSize;
+
+    private Event event;
+    private String json;
+
+    @Setup
+    public void setUp() {
+        event = EventFixtures.event(payloadSize);
+        json = JsonUtil.toJson(event);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return JsonUtil.toJson(event);
+    }
+
+    @Benchmark
+    public Event fromJson() {
+        return JsonUtil.fromJson(json, Event.class);
+    }
+}
@@ -0,0 +1,77 @@
+package com.eventprocessing.benchmarks;
+
+import com.eventprocessing.common.latency.StageHeaders;
+import com.eventprocessing.common.model.Event;
+import com.eventprocessing.common.util.JsonUtil;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kafka record value round trips: the pipeline's JsonUtil plus String serde, and
+ * Spring Kafka's JsonSerializer/JsonDeserializer on the same ObjectMapper for comparison
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KafkaSerdeBenchmark {
+
+    private static final String TOPIC = "events";
+
+    @Param({"small", "medium", "large"})
+    public String payloadSize;
+
+    private Event event;
+    private StringSerializer stringSerializer;
+    private StringDeserializer stringDeserializer;
+    private JsonSerializer<Event> jsonSerializer;
+    private JsonDeserializer<Event> jsonDeserializer;
+
+    @Setup
+    public void setUp() {
+        event = EventFixtures.event(payloadSize);
+        stringSerializer = new StringSerializer();
+        stringDeserializer = new StringDeserializer();
+        jsonSerializer = new JsonSerializer<>(JsonUtil.getObjectMapper());
+        jsonSerializer.setAddTypeInfo(false);
+        jsonDeserializer = new JsonDeserializer<>(Event.class, JsonUtil.getObjectMapper(), false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        stringSerializer.close();
+        stringDeserializer.close();
+        jsonSerializer.close();
+        jsonDeserializer.close();
+    }
+
+    /**
+     * What the producer and consumer do today, including the publish timestamp header
+     */
+    @Benchmark
+    public Event stringRoundTrip() {
+        RecordHeaders headers = new RecordHeaders();
+        StageHeaders.stamp(headers, StageHeaders.PUBLISHED_AT, System.currentTimeMillis());
+        byte[] bytes = stringSerializer.serialize(TOPIC, headers, JsonUtil.toJson(event));
+        return JsonUtil.fromJson(stringDeserializer.deserialize(TOPIC, headers, bytes), Event.class);
+    }
+
+    /**
+     * Bytes straight from Jackson, without the intermediate String
+     */
+    @Benchmark
+    public Event jsonRoundTrip() {
+        RecordHeaders headers = new RecordHeaders();
+        StageHeaders.stamp(headers, StageHeaders.PUBLISHED_AT, System.currentTimeMillis());
+        byte[] bytes = jsonSerializer.serialize(TOPIC, headers, event);
+        return jsonDeserializer.deserialize(TOPIC, headers, bytes);
+    }
+}
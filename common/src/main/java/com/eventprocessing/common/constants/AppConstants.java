@@ -9,6 +9,7 @@ public class AppConstants {
     public static final String KAFKA_TOPIC_EVENTS = "events";
     public static final String KAFKA_TOPIC_HIGH_PRIORITY = "high-priority-events";
     public static final String KAFKA_TOPIC_DLQ = "events-dlq";
+    public static final String KAFKA_TOPIC_REPLAY = "events-replay";
 
     // SQS Queue Names
     public static final String SQS_QUEUE_EVENTS = "event-processing-queue";
@@ -37,6 +38,12 @@ public class AppConstants {
     public static final String COLLECTION_FAILED_EVENTS = "failed_events";
     public static final String COLLECTION_METRICS = "metrics";
     public static final String COLLECTION_ALERTS = "alerts";
+    public static final String COLLECTION_ROLLUPS = "event_rollups";
+    public static final String COLLECTION_BACKFILL_JOBS = "backfill_jobs";
+    public static final String COLLECTION_SKETCHES = "sketches";
+
+    // Kafka Headers
+    public static final String HEADER_REPLAY_JOB = "replay-job-id";
 
     private AppConstants() {
         // Private constructor to prevent instantiation
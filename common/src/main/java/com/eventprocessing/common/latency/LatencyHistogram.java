@@ -0,0 +1,102 @@
+package com.eventprocessing.common.latency;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size log-linear histogram in the style of HdrHistogram: values below 128
+ * are counted exactly and every power-of-two range above is split into 64 linear
+ * sub-buckets, giving under 1.6% relative error up to 2^36 microseconds (about
+ * 19 hours). Recording is a single atomic increment and never allocates.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+    private static final int MAX_VALUE_BITS = 36;
+    private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    private static final int BUCKET_COUNT = MAX_VALUE_BITS - SUB_BUCKET_BITS + 2;
+    private static final int LENGTH = SUB_BUCKET_COUNT + (BUCKET_COUNT - 1) * SUB_BUCKET_HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(LENGTH);
+
+    /**
+     * Record a latency in microseconds; negative values count as 0, values past the range are clamped
+     */
+    public void record(long micros) {
+        counts.incrementAndGet(indexOf(Math.max(0, Math.min(micros, MAX_VALUE))));
+    }
+
+    /**
+     * Copy of the bucket counts, the basis for interval and cumulative percentiles
+     */
+    public long[] snapshot() {
+        long[] copy = new long[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            copy[i] = counts.get(i);
+        }
+        return copy;
+    }
+
+    /**
+     * Counts recorded between two snapshots
+     */
+    public static long[] delta(long[] current, long[] previous) {
+        long[] delta = new long[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            delta[i] = current[i] - (previous != null ? previous[i] : 0);
+        }
+        return delta;
+    }
+
+    public static long totalCount(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Highest value equivalent to the given percentile (0-100), 0 when empty
+     */
+    public static long valueAtPercentile(long[] counts, double percentile) {
+        long total = totalCount(counts);
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return highestEquivalentValue(i);
+            }
+        }
+        return highestEquivalentValue(counts.length - 1);
+    }
+
+    /**
+     * Number of recorded values at or below the given value
+     */
+    public static long countAtOrBelow(long[] counts, long micros) {
+        int limit = indexOf(Math.max(0, Math.min(micros, MAX_VALUE)));
+        long seen = 0;
+        for (int i = 0; i <= limit; i++) {
+            seen += counts[i];
+        }
+        return seen;
+    }
+
+    static int indexOf(long value) {
+        int bucket = Math.max(0, (63 - Long.numberOfLeadingZeros(value | 1)) - (SUB_BUCKET_BITS - 1));
+        int subBucket = (int) (value >>> bucket);
+        return bucket * SUB_BUCKET_HALF + subBucket;
+    }
+
+    static long highestEquivalentValue(int index) {
+        int bucket = index < SUB_BUCKET_COUNT ? 0 : (index / SUB_BUCKET_HALF) - 1;
+        long subBucket = index - (long) bucket * SUB_BUCKET_HALF;
+        return ((subBucket + 1) << bucket) - 1;
+    }
+}
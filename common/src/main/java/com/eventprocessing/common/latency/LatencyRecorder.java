@@ -0,0 +1,221 @@
+package com.eventprocessing.common.latency;
+
+import com.eventprocessing.common.constants.AppConstants;
+import com.eventprocessing.common.model.Event;
+import com.eventprocessing.common.model.EventTypeRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.cloudwatch.CloudWatchClient;
+import software.amazon.awssdk.services.cloudwatch.model.Dimension;
+import software.amazon.awssdk.services.cloudwatch.model.MetricDatum;
+import software.amazon.awssdk.services.cloudwatch.model.PutMetricDataRequest;
+import software.amazon.awssdk.services.cloudwatch.model.StandardUnit;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency histograms per pipeline stage and eventType. Each publish interval the
+ * counts recorded since the previous interval are turned into p50/p99/p99.9 and
+ * the share of samples within TARGET_LATENCY_MS, exposed as Micrometer gauges
+ * (pipeline.latency, pipeline.latency.slo.attainment) and sent to CloudWatch.
+ * Registered event types are looked up by id in an array per stage; only types
+ * missing from EventTypeRegistry go through a map keyed by name.
+ */
+@Slf4j
+@Component
+public class LatencyRecorder {
+
+    private static final double[] PERCENTILES = {50.0, 99.0, 99.9};
+    private static final String[] PERCENTILE_NAMES = {"P50", "P99", "P999"};
+    private static final String OTHER_TYPE = "other";
+    private static final int CLOUDWATCH_BATCH_SIZE = 20;
+
+    private final MeterRegistry meterRegistry;
+    private final CloudWatchClient cloudWatchClient;
+    private final Map<LatencyStage, Map<String, Series>> series = new EnumMap<>(LatencyStage.class);
+    private final Series[][] registered = new Series[LatencyStage.values().length][EventTypeRegistry.size()];
+
+    @Value("${spring.application.name:unknown}")
+    private String serviceName;
+
+    @Value("${aws.cloudwatch.namespace:EventProcessing}")
+    private String namespace;
+
+    @Value("${app.latency.cloudwatch-enabled:true}")
+    private boolean cloudWatchEnabled;
+
+    @Value("${app.latency.max-event-types:100}")
+    private int maxEventTypes;
+
+    public LatencyRecorder(MeterRegistry meterRegistry, CloudWatchClient cloudWatchClient) {
+        this.meterRegistry = meterRegistry;
+        this.cloudWatchClient = cloudWatchClient;
+        for (LatencyStage stage : LatencyStage.values()) {
+            series.put(stage, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Record the latency between two epoch-millisecond stage timestamps
+     */
+    public void recordMillis(LatencyStage stage, Event event, long startMillis, long endMillis) {
+        seriesFor(stage, event.getEventTypeId(), event.getEventType()).histogram
+                .record(TimeUnit.MILLISECONDS.toMicros(endMillis - startMillis));
+    }
+
+    public void recordMillis(LatencyStage stage, String eventType, long startMillis, long endMillis) {
+        seriesFor(stage, EventTypeRegistry.idOf(eventType), eventType).histogram
+                .record(TimeUnit.MILLISECONDS.toMicros(endMillis - startMillis));
+    }
+
+    /**
+     * Record the latency between two System.nanoTime() readings
+     */
+    public void recordNanos(LatencyStage stage, Event event, long startNanos, long endNanos) {
+        seriesFor(stage, event.getEventTypeId(), event.getEventType()).histogram
+                .record(TimeUnit.NANOSECONDS.toMicros(endNanos - startNanos));
+    }
+
+    /**
+     * Roll every series over to a new interval and publish its percentiles
+     */
+    @Scheduled(fixedDelayString = "${app.latency.publish-interval:60000}")
+    public void publish() {
+        Instant now = Instant.now();
+        List<MetricDatum> data = new ArrayList<>();
+        series.forEach((stage, byType) -> byType.forEach((eventType, s) -> {
+            if (s.rollOver() && cloudWatchEnabled) {
+                data.addAll(s.toMetricData(stage, eventType, now));
+            }
+        }));
+
+        for (int i = 0; i < data.size(); i += CLOUDWATCH_BATCH_SIZE) {
+            try {
+                cloudWatchClient.putMetricData(PutMetricDataRequest.builder()
+                        .namespace(namespace)
+                        .metricData(data.subList(i, Math.min(i + CLOUDWATCH_BATCH_SIZE, data.size())))
+                        .build());
+            } catch (Exception e) {
+                log.error("Error publishing latency metrics to CloudWatch", e);
+                return;
+            }
+        }
+    }
+
+    private Series seriesFor(LatencyStage stage, int eventTypeId, String eventType) {
+        if (EventTypeRegistry.isRegistered(eventTypeId)) {
+            Series s = registered[stage.ordinal()][eventTypeId];
+            return s != null ? s : registeredSeries(stage, eventTypeId);
+        }
+        Map<String, Series> byType = series.get(stage);
+        String type = eventType != null ? eventType : OTHER_TYPE;
+        Series s = byType.get(type);
+        if (s == null) {
+            // Cap the number of tagged series; unseen types beyond it share one
+            if (byType.size() >= maxEventTypes) {
+                type = OTHER_TYPE;
+            }
+            s = byType.computeIfAbsent(type, t -> new Series(stage, t));
+        }
+        return s;
+    }
+
+    /**
+     * Created once per stage and type; the map entry is what publish() walks
+     */
+    private synchronized Series registeredSeries(LatencyStage stage, int eventTypeId) {
+        Series s = registered[stage.ordinal()][eventTypeId];
+        if (s == null) {
+            s = series.get(stage).computeIfAbsent(EventTypeRegistry.get(eventTypeId).name(), t -> new Series(stage, t));
+            registered[stage.ordinal()][eventTypeId] = s;
+        }
+        return s;
+    }
+
+    /**
+     * One histogram plus the percentiles of its last completed interval
+     */
+    private final class Series {
+
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private volatile double[] intervalPercentilesMs = new double[PERCENTILES.length];
+        private volatile double sloAttainment = 1.0;
+        private long[] previous;
+
+        Series(LatencyStage stage, String eventType) {
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                int index = i;
+                Gauge.builder("pipeline.latency", this, s -> s.intervalPercentilesMs[index])
+                        .tag("stage", stage.getTag())
+                        .tag("eventType", eventType)
+                        .tag("quantile", String.valueOf(PERCENTILES[i] / 100))
+                        .baseUnit("milliseconds")
+                        .register(meterRegistry);
+            }
+            Gauge.builder("pipeline.latency.slo.attainment", this, s -> s.sloAttainment)
+                    .tag("stage", stage.getTag())
+                    .tag("eventType", eventType)
+                    .description("Share of samples within " + AppConstants.TARGET_LATENCY_MS + " ms")
+                    .register(meterRegistry);
+        }
+
+        /**
+         * @return whether anything was recorded during the interval
+         */
+        boolean rollOver() {
+            long[] current = histogram.snapshot();
+            long[] interval = LatencyHistogram.delta(current, previous);
+            previous = current;
+
+            long intervalCount = LatencyHistogram.totalCount(interval);
+            if (intervalCount == 0) {
+                return false;
+            }
+            double[] percentilesMs = new double[PERCENTILES.length];
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                percentilesMs[i] = LatencyHistogram.valueAtPercentile(interval, PERCENTILES[i]) / 1000.0;
+            }
+            intervalPercentilesMs = percentilesMs;
+            long withinTarget = LatencyHistogram.countAtOrBelow(interval,
+                    TimeUnit.MILLISECONDS.toMicros(AppConstants.TARGET_LATENCY_MS));
+            sloAttainment = (double) withinTarget / intervalCount;
+            return true;
+        }
+
+        List<MetricDatum> toMetricData(LatencyStage stage, String eventType, Instant timestamp) {
+            List<Dimension> dimensions = List.of(
+                    Dimension.builder().name("Service").value(serviceName).build(),
+                    Dimension.builder().name("Stage").value(stage.getTag()).build(),
+                    Dimension.builder().name("EventType").value(eventType).build());
+
+            List<MetricDatum> data = new ArrayList<>(PERCENTILES.length + 1);
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                data.add(MetricDatum.builder()
+                        .metricName("Latency" + PERCENTILE_NAMES[i])
+                        .dimensions(dimensions)
+                        .value(intervalPercentilesMs[i])
+                        .unit(StandardUnit.MILLISECONDS)
+                        .timestamp(timestamp)
+                        .build());
+            }
+            data.add(MetricDatum.builder()
+                    .metricName("LatencySloAttainment")
+                    .dimensions(dimensions)
+                    .value(sloAttainment * 100)
+                    .unit(StandardUnit.PERCENT)
+                    .timestamp(timestamp)
+                    .build());
+            return data;
+        }
+    }
+}
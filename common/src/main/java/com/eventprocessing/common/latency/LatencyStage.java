@@ -0,0 +1,35 @@
+package com.eventprocessing.common.latency;
+
+/**
+ * Pipeline segments whose latency is tracked, each measured between two stage timestamps
+ */
+public enum LatencyStage {
+
+    /** Event.timestamp to the Kafka append */
+    PUBLISH("publish"),
+
+    /** Kafka append to receipt by a consumer */
+    QUEUE("queue"),
+
+    /** Consumer receipt to markAsProcessing */
+    DISPATCH("dispatch"),
+
+    /** markAsProcessing to markAsCompleted */
+    PROCESS("process"),
+
+    /** Event.timestamp to markAsCompleted */
+    END_TO_END("end_to_end"),
+
+    /** Event.timestamp to the acknowledged MongoDB write */
+    STORED("stored");
+
+    private final String tag;
+
+    LatencyStage(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+}
@@ -0,0 +1,42 @@
+package com.eventprocessing.common.latency;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Stage timestamps carried in Kafka record headers as 8-byte epoch millis
+ */
+public final class StageHeaders {
+
+    public static final String PUBLISHED_AT = "stage-published-at";
+
+    private StageHeaders() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static void stamp(Headers headers, String name, long epochMillis) {
+        headers.remove(name);
+        headers.add(name, ByteBuffer.allocate(Long.BYTES).putLong(epochMillis).array());
+    }
+
+    /**
+     * Stage timestamp from a header, or fallback when absent or malformed
+     */
+    public static long read(Headers headers, String name, long fallback) {
+        Header header = headers.lastHeader(name);
+        if (header == null || header.value() == null || header.value().length != Long.BYTES) {
+            return fallback;
+        }
+        return ByteBuffer.wrap(header.value()).getLong();
+    }
+
+    /**
+     * When the record was published: the producer's header, else the record timestamp
+     */
+    public static long publishedAt(ConsumerRecord<?, ?> record) {
+        return read(record.headers(), PUBLISHED_AT, record.timestamp());
+    }
+}
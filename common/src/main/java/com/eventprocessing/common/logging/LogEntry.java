@@ -0,0 +1,34 @@
+package com.eventprocessing.common.logging;
+
+/**
+ * One pre-allocated slot of the ring buffer. Producers fill the fields after
+ * claiming the slot and publish it by writing its sequence; the writer thread
+ * reads it only once published and clears it before the slot can be reclaimed.
+ */
+final class LogEntry {
+
+    volatile long published = -1;
+
+    long timestampMillis;
+    PipelineLog.Level level;
+    String reason;
+    String stage;
+    String eventType;
+    String eventId;
+    String destination;
+    int partition;
+    long durationNanos;
+    String message;
+    Throwable error;
+
+    void clear() {
+        level = null;
+        reason = null;
+        stage = null;
+        eventType = null;
+        eventId = null;
+        destination = null;
+        message = null;
+        error = null;
+    }
+}
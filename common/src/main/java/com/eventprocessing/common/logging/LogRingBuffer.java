@@ -0,0 +1,90 @@
+package com.eventprocessing.common.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded multi-producer, single-consumer ring of reusable log entries. Producers
+ * claim a sequence with a CAS and never wait: when the writer has fallen a full
+ * ring behind, claim() fails and the line is dropped. Slots are allocated once,
+ * so a kept line costs no allocation either.
+ */
+final class LogRingBuffer {
+
+    private final LogEntry[] slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private volatile long tail;
+
+    LogRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new LogEntry[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            slots[i] = new LogEntry();
+        }
+    }
+
+    /**
+     * @return the claimed sequence, or -1 when the ring is full
+     */
+    long claim() {
+        long sequence;
+        do {
+            sequence = head.get();
+            if (sequence - tail >= slots.length) {
+                return -1;
+            }
+        } while (!head.compareAndSet(sequence, sequence + 1));
+        return sequence;
+    }
+
+    LogEntry slot(long sequence) {
+        return slots[(int) (sequence & mask)];
+    }
+
+    void publish(long sequence) {
+        slot(sequence).published = sequence;
+    }
+
+    /**
+     * Hand up to max published entries, in sequence order, to the handler and free
+     * their slots. Stops at the first claimed but not yet published slot.
+     *
+     * @return number of entries handled
+     */
+    int drain(EntryHandler handler, int max) throws Exception {
+        long next = tail;
+        int handled = 0;
+        try {
+            while (handled < max) {
+                LogEntry entry = slot(next);
+                if (entry.published != next) {
+                    break;
+                }
+                try {
+                    handler.handle(entry);
+                } finally {
+                    entry.clear();
+                    next++;
+                    handled++;
+                }
+            }
+        } finally {
+            tail = next;
+        }
+        return handled;
+    }
+
+    int size() {
+        return (int) Math.max(0, head.get() - tail);
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    @FunctionalInterface
+    interface EntryHandler {
+        void handle(LogEntry entry) throws Exception;
+    }
+}
@@ -0,0 +1,337 @@
+package com.eventprocessing.common.logging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Structured per-event log for the pipeline hot paths. Successful events are
+ * sampled per event type; errors and events slower than the slow threshold are
+ * always kept. Kept lines are copied into a pre-allocated lock-free ring and
+ * written as JSON lines by a single background thread in batches, so callers
+ * never block on log I/O. A line that is sampled out costs a map lookup and a
+ * random draw and allocates nothing; callers pass fixed arguments, no varargs.
+ *
+ * Lines are dropped, and counted in pipeline.log{result=dropped}, when the writer
+ * falls a full ring behind.
+ */
+@Slf4j
+@Component
+public class PipelineLog {
+
+    public enum Level {
+        INFO, WARN, ERROR
+    }
+
+    /**
+     * Why a line was kept
+     */
+    private static final String SAMPLED = "sampled";
+    private static final String SLOW = "slow";
+    private static final String FAILED = "error";
+
+    private static final Logger PIPELINE_LOGGER = LoggerFactory.getLogger("pipeline");
+
+    private final PipelineLogProperties properties;
+    private final String serviceName;
+    private final Map<String, Double> sampleRates;
+    private final long slowThresholdNanos;
+    private final LogRingBuffer ring;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private final StringBuilder line = new StringBuilder(512);
+    private final StringBuilder batch = new StringBuilder(64 * 1024);
+    private volatile boolean running = true;
+    private volatile Thread writerThread;
+    private Writer file;
+    private long fileBytes;
+
+    public PipelineLog(PipelineLogProperties properties,
+                       @Value("${spring.application.name:unknown}") String serviceName,
+                       MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.serviceName = serviceName;
+        this.sampleRates = new HashMap<>(properties.getSampleRates());
+        this.slowThresholdNanos = properties.getSlowThreshold().toNanos();
+        this.ring = new LogRingBuffer(properties.getBufferSize());
+
+        FunctionCounter.builder("pipeline.log", written, LongAdder::sum).tag("result", "written").register(meterRegistry);
+        FunctionCounter.builder("pipeline.log", sampledOut, LongAdder::sum).tag("result", "sampled-out").register(meterRegistry);
+        FunctionCounter.builder("pipeline.log", dropped, LongAdder::sum).tag("result", "dropped").register(meterRegistry);
+        Gauge.builder("pipeline.log.buffered", ring, LogRingBuffer::size).register(meterRegistry);
+    }
+
+    /**
+     * A successfully handled event; kept when sampled or slow
+     *
+     * @param durationNanos time the stage took, 0 when not timed
+     */
+    public void info(String stage, String eventType, String eventId, String destination, int partition,
+                     long durationNanos, String message) {
+        String reason = keep(eventType, durationNanos);
+        if (reason != null) {
+            append(Level.INFO, reason, stage, eventType, eventId, destination, partition, durationNanos, message, null);
+        }
+    }
+
+    /**
+     * A recoverable problem with an event, e.g. a retry; always kept
+     */
+    public void warn(String stage, String eventType, String eventId, String message) {
+        if (properties.isEnabled()) {
+            append(Level.WARN, FAILED, stage, eventType, eventId, null, -1, 0, message, null);
+        }
+    }
+
+    /**
+     * A failed event; always kept, with the error and its top stack frames
+     */
+    public void error(String stage, String eventType, String eventId, String destination, int partition,
+                      String message, Throwable error) {
+        if (properties.isEnabled()) {
+            append(Level.ERROR, FAILED, stage, eventType, eventId, destination, partition, 0, message, error);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        Thread writer = writerThread;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            writer.join(5000);
+        }
+    }
+
+    private String keep(String eventType, long durationNanos) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        if (durationNanos >= slowThresholdNanos) {
+            return SLOW;
+        }
+        Double rate = eventType != null ? sampleRates.get(eventType) : null;
+        double sampleRate = rate != null ? rate : properties.getDefaultSampleRate();
+        if (sampleRate > 0 && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+            return SAMPLED;
+        }
+        sampledOut.increment();
+        return null;
+    }
+
+    private void append(Level level, String reason, String stage, String eventType, String eventId, String destination,
+                        int partition, long durationNanos, String message, Throwable error) {
+        if (writerThread == null) {
+            startWriter();
+        }
+        long sequence = ring.claim();
+        if (sequence < 0) {
+            dropped.increment();
+            return;
+        }
+        LogEntry entry = ring.slot(sequence);
+        entry.timestampMillis = System.currentTimeMillis();
+        entry.level = level;
+        entry.reason = reason;
+        entry.stage = stage;
+        entry.eventType = eventType;
+        entry.eventId = eventId;
+        entry.destination = destination;
+        entry.partition = partition;
+        entry.durationNanos = durationNanos;
+        entry.message = message;
+        entry.error = error;
+        ring.publish(sequence);
+    }
+
+    /**
+     * Started by the first kept line, so services that never log through here run no thread
+     */
+    private synchronized void startWriter() {
+        if (writerThread == null && running) {
+            Thread writer = new Thread(this::runWriter, "pipeline-log-writer");
+            writer.setDaemon(true);
+            writer.start();
+            writerThread = writer;
+        }
+    }
+
+    private void runWriter() {
+        int idleSpins = 0;
+        while (running || ring.size() > 0) {
+            try {
+                int drained = ring.drain(this::format, properties.getBatchSize());
+                if (drained > 0) {
+                    flushBatch(drained);
+                    idleSpins = 0;
+                } else {
+                    // Back off from spinning to 1 ms parks while idle
+                    LockSupport.parkNanos(++idleSpins < 100 ? 10_000 : 1_000_000);
+                }
+            } catch (Exception e) {
+                log.warn("Pipeline log writer failed; the current batch is lost", e);
+                batch.setLength(0);
+                closeFile();
+            }
+        }
+        closeFile();
+    }
+
+    /**
+     * Render one entry as a JSON line into the batch, or straight to SLF4J
+     */
+    private void format(LogEntry entry) {
+        line.setLength(0);
+        line.append("{\"ts\":\"").append(Instant.ofEpochMilli(entry.timestampMillis)).append('"');
+        field("level", entry.level.name());
+        field("service", serviceName);
+        field("reason", entry.reason);
+        field("stage", entry.stage);
+        field("eventType", entry.eventType);
+        field("eventId", entry.eventId);
+        field("destination", entry.destination);
+        if (entry.partition >= 0) {
+            line.append(",\"partition\":").append(entry.partition);
+        }
+        if (entry.durationNanos > 0) {
+            line.append(",\"durationMs\":").append(entry.durationNanos / 1_000_000.0);
+        }
+        field("message", entry.message);
+        if (entry.error != null) {
+            field("error", entry.error.toString());
+            StackTraceElement[] frames = entry.error.getStackTrace();
+            int count = Math.min(frames.length, properties.getMaxStackFrames());
+            if (count > 0) {
+                line.append(",\"stack\":[");
+                for (int i = 0; i < count; i++) {
+                    if (i > 0) {
+                        line.append(',');
+                    }
+                    quote(frames[i].toString());
+                }
+                line.append(']');
+            }
+        }
+        line.append('}');
+
+        if (properties.getOutput() == PipelineLogProperties.Output.SLF4J) {
+            String json = line.toString();
+            switch (entry.level) {
+                case ERROR -> PIPELINE_LOGGER.error(json);
+                case WARN -> PIPELINE_LOGGER.warn(json);
+                default -> PIPELINE_LOGGER.info(json);
+            }
+        } else {
+            batch.append(line).append('\n');
+        }
+    }
+
+    private void flushBatch(int lines) throws IOException {
+        if (batch.length() > 0) {
+            Writer writer = file();
+            writer.append(batch);
+            writer.flush();
+            fileBytes += batch.length();
+            batch.setLength(0);
+        }
+        written.add(lines);
+    }
+
+    private Writer file() throws IOException {
+        Path active = properties.getDirectory().resolve(serviceName + "-pipeline.jsonl");
+        if (file != null && fileBytes >= properties.getMaxFileSize().toBytes()) {
+            closeFile();
+            roll(active);
+        }
+        if (file == null) {
+            Files.createDirectories(properties.getDirectory());
+            file = Files.newBufferedWriter(active, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            fileBytes = Files.size(active);
+        }
+        return file;
+    }
+
+    /**
+     * name.jsonl becomes name.1.jsonl, shifting older files up and deleting the oldest
+     */
+    private void roll(Path active) throws IOException {
+        String base = serviceName + "-pipeline";
+        Path directory = properties.getDirectory();
+        Files.deleteIfExists(directory.resolve(base + "." + properties.getMaxFiles() + ".jsonl"));
+        for (int i = properties.getMaxFiles() - 1; i >= 1; i--) {
+            Path older = directory.resolve(base + "." + i + ".jsonl");
+            if (Files.exists(older)) {
+                Files.move(older, directory.resolve(base + "." + (i + 1) + ".jsonl"), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (properties.getMaxFiles() > 0) {
+            Files.move(active, directory.resolve(base + ".1.jsonl"), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(active);
+        }
+    }
+
+    private void closeFile() {
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                log.debug("Could not close pipeline log", e);
+            }
+            file = null;
+        }
+    }
+
+    private void field(String name, String value) {
+        if (value != null) {
+            line.append(",\"").append(name).append("\":");
+            quote(value);
+        }
+    }
+
+    private void quote(String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        line.append('"');
+    }
+}
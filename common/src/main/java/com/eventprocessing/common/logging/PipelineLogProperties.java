@@ -0,0 +1,74 @@
+package com.eventprocessing.common.logging;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-event pipeline log settings (app.logging.pipeline.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.logging.pipeline")
+public class PipelineLogProperties {
+
+    public enum Output {
+        /**
+         * JSON lines appended to a size-rolled file
+         */
+        FILE,
+        /**
+         * Each JSON line handed to the "pipeline" SLF4J logger from the writer thread
+         */
+        SLF4J
+    }
+
+    private boolean enabled = true;
+
+    /**
+     * Fraction of successful per-event lines kept for event types without their own rate
+     */
+    private double defaultSampleRate = 0.001;
+
+    /**
+     * Sample rate per event type
+     */
+    private Map<String, Double> sampleRates = new HashMap<>();
+
+    /**
+     * Events at least this slow are always kept, as are errors
+     */
+    private Duration slowThreshold = Duration.ofMillis(500);
+
+    /**
+     * Ring buffer slots, rounded up to a power of two; lines are dropped when it is full
+     */
+    private int bufferSize = 8192;
+
+    /**
+     * Most lines the writer formats into one append
+     */
+    private int batchSize = 256;
+
+    private Output output = Output.FILE;
+
+    private Path directory = Path.of("./logs");
+
+    private DataSize maxFileSize = DataSize.ofMegabytes(100);
+
+    /**
+     * Rolled files kept besides the active one
+     */
+    private int maxFiles = 5;
+
+    /**
+     * Stack frames written with an error
+     */
+    private int maxStackFrames = 10;
+}
@@ -1,10 +1,13 @@
 package com.eventprocessing.common.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import jakarta.validation.constraints.NotNull;
 import java.time.Instant;
@@ -20,6 +23,8 @@ import java.util.UUID;
 @AllArgsConstructor
 public class Event {
 
+    private static final int UNRESOLVED_TYPE_ID = -1;
+
     @NotNull
     @Builder.Default
     private String eventId = UUID.randomUUID().toString();
@@ -52,6 +57,32 @@ public class Event {
 
     private String errorMessage;
 
+    /**
+     * Interned id of eventType, resolved on first use unless a Kafka header supplied it
+     */
+    @JsonIgnore
+    @Builder.Default
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private int eventTypeId = UNRESOLVED_TYPE_ID;
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+        this.eventTypeId = UNRESOLVED_TYPE_ID;
+    }
+
+    /**
+     * Id of eventType in EventTypeRegistry, EventTypeRegistry.UNREGISTERED for unknown types
+     */
+    public int getEventTypeId() {
+        int id = eventTypeId;
+        if (id == UNRESOLVED_TYPE_ID) {
+            id = EventTypeRegistry.idOf(eventType);
+            eventTypeId = id;
+        }
+        return id;
+    }
+
     /**
      * Increment retry count
      */
@@ -0,0 +1,17 @@
+package com.eventprocessing.common.model;
+
+/**
+ * A registered event type: its stable id and what the pipeline knows about it
+ *
+ * @param id       index into per-type arrays, 0 for unregistered types
+ * @param name     the eventType string, "other" for unregistered types
+ * @param domain   the part of the name before the first dot
+ * @param priority default priority of events of this type
+ */
+public record EventTypeInfo(int id, String name, String domain, Priority priority) {
+
+    public enum Priority {
+        NORMAL,
+        HIGH
+    }
+}
@@ -0,0 +1,132 @@
+package com.eventprocessing.common.model;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interns the known event types as small integer ids. The id is resolved from the
+ * string once, where an event enters a service, and is carried in the event-type-id
+ * Kafka header so consumers need not resolve it again. Per-type state is then kept in
+ * arrays indexed by id instead of maps keyed by the string.
+ *
+ * Ids are shared by every service and must stay stable across releases: append new
+ * types to the end of the table, never reorder or reuse an id. Types missing from the
+ * table all map to UNREGISTERED (0) and keep working by their string.
+ */
+public final class EventTypeRegistry {
+
+    public static final int UNREGISTERED = 0;
+
+    public static final String HEADER = "event-type-id";
+
+    private static final EventTypeInfo OTHER = new EventTypeInfo(UNREGISTERED, "other", "other",
+            EventTypeInfo.Priority.NORMAL);
+
+    private static final EventTypeInfo[] TYPES;
+    private static final Map<String, EventTypeInfo> BY_NAME = new HashMap<>();
+
+    static {
+        List<String> names = List.of(
+                EventType.USER_CREATED,         // 1
+                EventType.USER_UPDATED,         // 2
+                EventType.USER_DELETED,         // 3
+                EventType.ORDER_PLACED,         // 4
+                EventType.ORDER_CONFIRMED,      // 5
+                EventType.ORDER_SHIPPED,        // 6
+                EventType.ORDER_DELIVERED,      // 7
+                EventType.ORDER_CANCELLED,      // 8
+                EventType.PAYMENT_INITIATED,    // 9
+                EventType.PAYMENT_COMPLETED,    // 10
+                EventType.PAYMENT_FAILED,       // 11
+                EventType.PAYMENT_REFUNDED,     // 12
+                EventType.SYSTEM_HEALTH_CHECK,  // 13
+                EventType.SYSTEM_ALERT,         // 14
+                EventType.SYSTEM_METRIC,        // 15
+                EventType.GENERIC_EVENT);       // 16
+        List<String> highPriority = List.of(EventType.PAYMENT_FAILED, EventType.SYSTEM_ALERT);
+
+        TYPES = new EventTypeInfo[names.size() + 1];
+        TYPES[UNREGISTERED] = OTHER;
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i);
+            EventTypeInfo info = new EventTypeInfo(i + 1, name, name.substring(0, name.indexOf('.')),
+                    highPriority.contains(name) ? EventTypeInfo.Priority.HIGH : EventTypeInfo.Priority.NORMAL);
+            TYPES[info.id()] = info;
+            BY_NAME.put(name, info);
+        }
+    }
+
+    private EventTypeRegistry() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Length of an array with one slot per id, UNREGISTERED included
+     */
+    public static int size() {
+        return TYPES.length;
+    }
+
+    public static int idOf(String eventType) {
+        EventTypeInfo info = eventType != null ? BY_NAME.get(eventType) : null;
+        return info != null ? info.id() : UNREGISTERED;
+    }
+
+    /**
+     * The type with this id; the UNREGISTERED entry for ids outside the table
+     */
+    public static EventTypeInfo get(int id) {
+        return id > UNREGISTERED && id < TYPES.length ? TYPES[id] : OTHER;
+    }
+
+    public static boolean isRegistered(int id) {
+        return id > UNREGISTERED && id < TYPES.length;
+    }
+
+    public static List<EventTypeInfo> registered() {
+        return List.of(TYPES).subList(1, TYPES.length);
+    }
+
+    /**
+     * Carry the id of a registered type in a 2-byte header; unregistered types get none
+     */
+    public static void stamp(Headers headers, int id) {
+        headers.remove(HEADER);
+        if (isRegistered(id)) {
+            headers.add(HEADER, ByteBuffer.allocate(Short.BYTES).putShort((short) id).array());
+        }
+    }
+
+    /**
+     * The id from the header, UNREGISTERED when absent, malformed or unknown to this release
+     */
+    public static int read(Headers headers) {
+        Header header = headers.lastHeader(HEADER);
+        if (header == null || header.value() == null || header.value().length != Short.BYTES) {
+            return UNREGISTERED;
+        }
+        int id = ByteBuffer.wrap(header.value()).getShort();
+        return isRegistered(id) ? id : UNREGISTERED;
+    }
+
+    /**
+     * Id of eventType, taken from the header when it names the same type and looked up
+     * by name otherwise, so a stale or wrong header never relabels a record
+     */
+    public static int resolve(Headers headers, String eventType) {
+        int id = read(headers);
+        return id != UNREGISTERED && TYPES[id].name().equals(eventType) ? id : idOf(eventType);
+    }
+
+    /**
+     * Give a deserialized event the id its producer already resolved, sparing the lookup by name
+     */
+    public static void resolveFrom(Headers headers, Event event) {
+        event.setEventTypeId(resolve(headers, event.getEventType()));
+    }
+}
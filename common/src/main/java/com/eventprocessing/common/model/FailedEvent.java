@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.time.Instant;
 
 /**
@@ -37,4 +39,27 @@ public class FailedEvent {
     private Event originalEvent;
 
     private String serviceName;
+
+    /**
+     * Dead letter record of an event that exhausted its retries, with the full stack trace
+     */
+    public static FailedEvent from(Event event, Throwable exception, String serviceName) {
+        return FailedEvent.builder()
+                .eventId(event.getEventId())
+                .eventType(event.getEventType())
+                .originalTimestamp(event.getTimestamp())
+                .failureReason(exception.getMessage())
+                .stackTrace(stackTraceOf(exception))
+                .totalRetries(event.getRetryCount())
+                .originalEvent(event)
+                .serviceName(serviceName)
+                .build();
+    }
+
+    private static String stackTraceOf(Throwable exception) {
+        StringWriter sw = new StringWriter();
+        PrintWriter pw = new PrintWriter(sw);
+        exception.printStackTrace(pw);
+        return sw.toString();
+    }
 }
@@ -0,0 +1,14 @@
+package com.eventprocessing.common.profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Kafka offset acknowledgment or SQS message deletion
+ */
+@Name("com.eventprocessing.Ack")
+@Label("Ack")
+@Description("Kafka offset acknowledgment or SQS message deletion")
+public class AckEvent extends HotPathEvent {
+}
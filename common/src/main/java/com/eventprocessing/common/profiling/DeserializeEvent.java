@@ -0,0 +1,14 @@
+package com.eventprocessing.common.profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JSON payload parsed into an Event
+ */
+@Name("com.eventprocessing.Deserialize")
+@Label("Deserialize")
+@Description("JSON payload parsed into an Event")
+public class DeserializeEvent extends HotPathEvent {
+}
@@ -0,0 +1,14 @@
+package com.eventprocessing.common.profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Hand-off of a received event to processing, including retries and the circuit breaker
+ */
+@Name("com.eventprocessing.Dispatch")
+@Label("Dispatch")
+@Description("Hand-off of a received event to processing, including retries and the circuit breaker")
+public class DispatchEvent extends HotPathEvent {
+}
@@ -0,0 +1,14 @@
+package com.eventprocessing.common.profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Failed event sent to a dead letter queue
+ */
+@Name("com.eventprocessing.DlqSend")
+@Label("DLQ Send")
+@Description("Failed event sent to a dead letter queue")
+public class DlqSendEvent extends HotPathEvent {
+}
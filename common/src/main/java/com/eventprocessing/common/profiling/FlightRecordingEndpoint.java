@@ -0,0 +1,182 @@
+package com.eventprocessing.common.profiling;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint (/actuator/flightrecording) that runs one bounded Java Flight
+ * Recorder recording at a time:
+ * <ul>
+ *   <li>GET: state of the current or last recording</li>
+ *   <li>POST {"duration": "PT2M", "settings": "hot-path"}: start; stops by itself after
+ *       the duration, capped at app.profiling.jfr.max-duration</li>
+ *   <li>DELETE: stop early and write the file</li>
+ * </ul>
+ * Settings "hot-path" records only the hot path events, sampled execution at a low
+ * rate, GC pauses and contended locks; "default" and "profile" are the JDK's own
+ * configurations. Every recording is capped at max-size and written to
+ * app.profiling.jfr.directory. The endpoint only exists with app.profiling.jfr.enabled,
+ * since it lets any caller with actuator access write recordings to disk.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.profiling.jfr", name = "enabled", havingValue = "true")
+@Endpoint(id = "flightrecording")
+public class FlightRecordingEndpoint {
+
+    public static final String HOT_PATH = "hot-path";
+
+    private static final List<Class<? extends HotPathEvent>> HOT_PATH_EVENTS = List.of(
+            DeserializeEvent.class, DispatchEvent.class, HandlerEvent.class,
+            AckEvent.class, DlqSendEvent.class, PublishEvent.class);
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final String serviceName;
+    private final FlightRecordingProperties properties;
+
+    private Recording recording;
+    private Path destination;
+
+    public FlightRecordingEndpoint(@Value("${spring.application.name:unknown}") String serviceName,
+                                   FlightRecordingProperties properties) {
+        this.serviceName = serviceName;
+        this.properties = properties;
+    }
+
+    /**
+     * With app.profiling.jfr.continuous the hot-path recording runs from startup as a
+     * ring buffer bounded by max-duration (as age) and max-size; stopping it writes
+     * the most recent window
+     */
+    @PostConstruct
+    public void startContinuous() {
+        if (properties.isContinuous()) {
+            try {
+                start(null, HOT_PATH, true);
+            } catch (Exception e) {
+                log.warn("Could not start continuous flight recording", e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        return describe();
+    }
+
+    @WriteOperation
+    public Map<String, Object> start(@Nullable Duration duration, @Nullable String settings) {
+        try {
+            return start(duration, settings != null ? settings : HOT_PATH, false);
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new LinkedHashMap<>();
+            errorResponse.put("status", "FAILED");
+            errorResponse.put("error", e.getMessage());
+            return errorResponse;
+        }
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("Flight recording written to {}", destination);
+        }
+        return describe();
+    }
+
+    private synchronized Map<String, Object> start(Duration duration, String settings, boolean ring) throws Exception {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("A recording is already running: " + recording.getName());
+        }
+        if (recording != null) {
+            recording.close();
+        }
+
+        Recording next = create(settings);
+        Instant now = Instant.now();
+        next.setName(serviceName + "-" + FILE_TIME.format(now));
+        next.setToDisk(true);
+        next.setMaxSize(properties.getMaxSize().toBytes());
+        Duration maxDuration = properties.getMaxDuration();
+        if (ring) {
+            next.setMaxAge(maxDuration);
+        } else {
+            Duration requested = duration != null ? duration : properties.getDefaultDuration();
+            next.setDuration(requested.compareTo(maxDuration) > 0 ? maxDuration : requested);
+        }
+
+        Files.createDirectories(properties.getDirectory());
+        destination = properties.getDirectory().resolve(next.getName() + ".jfr").toAbsolutePath();
+        next.setDestination(destination);
+        next.start();
+        recording = next;
+        log.info("Started flight recording {} ({} settings)", next.getName(), settings);
+        return describe();
+    }
+
+    private Recording create(String settings) throws IOException, ParseException {
+        if (!HOT_PATH.equals(settings)) {
+            // JDK configurations enable every event type without a setting, ours included
+            return new Recording(Configuration.getConfiguration(settings));
+        }
+        Recording hotPath = new Recording();
+        HOT_PATH_EVENTS.forEach(hotPath::enable);
+        hotPath.enable("jdk.ExecutionSample").withPeriod(properties.getSamplingPeriod());
+        hotPath.enable("jdk.GarbageCollection");
+        hotPath.enable("jdk.GCPhasePause");
+        hotPath.enable("jdk.JavaMonitorEnter").withThreshold(Duration.ofMillis(20)).withStackTrace();
+        hotPath.enable("jdk.ThreadPark").withThreshold(Duration.ofMillis(20)).withStackTrace();
+        return hotPath;
+    }
+
+    private Map<String, Object> describe() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        if (recording == null) {
+            response.put("state", "NONE");
+            return response;
+        }
+        response.put("name", recording.getName());
+        response.put("state", recording.getState());
+        response.put("startTime", recording.getStartTime());
+        response.put("stopTime", recording.getStopTime());
+        response.put("duration", recording.getDuration());
+        response.put("maxAge", recording.getMaxAge());
+        response.put("maxSize", recording.getMaxSize());
+        response.put("size", recording.getSize());
+        response.put("destination", destination.toString());
+        return response;
+    }
+}
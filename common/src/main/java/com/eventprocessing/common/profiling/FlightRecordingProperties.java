@@ -0,0 +1,50 @@
+package com.eventprocessing.common.profiling;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Flight recording settings (app.profiling.jfr.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.profiling.jfr")
+public class FlightRecordingProperties {
+
+    /**
+     * Register the /actuator/flightrecording endpoint
+     */
+    private boolean enabled = false;
+
+    /**
+     * Where finished recordings are written
+     */
+    private Path directory = Path.of("./data/jfr");
+
+    /**
+     * Length of a recording started without a duration
+     */
+    private Duration defaultDuration = Duration.ofMinutes(2);
+
+    /**
+     * Upper bound of any requested duration, and the window kept by the continuous recording
+     */
+    private Duration maxDuration = Duration.ofMinutes(10);
+
+    private DataSize maxSize = DataSize.ofMegabytes(100);
+
+    /**
+     * Execution sampling period of the hot-path settings; 20 ms keeps overhead well below 1%
+     */
+    private Duration samplingPeriod = Duration.ofMillis(20);
+
+    /**
+     * Run the hot-path recording from startup as a ring buffer
+     */
+    private boolean continuous = false;
+}
@@ -0,0 +1,14 @@
+package com.eventprocessing.common.profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One attempt of the event type's business logic
+ */
+@Name("com.eventprocessing.Handler")
+@Label("Handler")
+@Description("One attempt of the event type's business logic")
+public class HandlerEvent extends HotPathEvent {
+}
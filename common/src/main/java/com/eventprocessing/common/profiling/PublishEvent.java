@@ -0,0 +1,14 @@
+package com.eventprocessing.common.profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Event published to Kafka (until the broker acknowledged) or sent to SQS
+ */
+@Name("com.eventprocessing.Publish")
+@Label("Publish")
+@Description("Event published to Kafka (until the broker acknowledged) or sent to SQS")
+public class PublishEvent extends HotPathEvent {
+}
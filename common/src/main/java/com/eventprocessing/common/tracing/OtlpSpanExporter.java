@@ -0,0 +1,180 @@
+package com.eventprocessing.common.tracing;
+
+import com.eventprocessing.common.util.JsonUtil;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Ships finished spans to an OTLP/HTTP collector as JSON (POST /v1/traces). Spans
+ * queue without blocking and a single daemon thread sends them in batches; when
+ * the queue is full or the collector is unreachable spans are dropped and counted
+ * (tracing.spans{result}), never retried at the cost of the pipeline.
+ */
+@Slf4j
+@Component
+public class OtlpSpanExporter {
+
+    private static final String SCOPE = "com.eventprocessing.tracing";
+
+    private final URI endpoint;
+    private final String serviceName;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final BlockingQueue<Span> queue;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final Counter exported;
+    private final Counter dropped;
+    private final Counter failed;
+    private volatile boolean running = true;
+    private Thread worker;
+
+    public OtlpSpanExporter(@Value("${app.tracing.exporter.endpoint:http://localhost:8084/v1/traces}") String endpoint,
+                            @Value("${spring.application.name:unknown}") String serviceName,
+                            @Value("${app.tracing.exporter.queue-capacity:10000}") int queueCapacity,
+                            @Value("${app.tracing.exporter.batch-size:512}") int batchSize,
+                            @Value("${app.tracing.exporter.flush-interval:2000}") long flushIntervalMillis,
+                            MeterRegistry meterRegistry) {
+        this.endpoint = URI.create(endpoint);
+        this.serviceName = serviceName;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.exported = Counter.builder("tracing.spans").tag("result", "exported").register(meterRegistry);
+        this.dropped = Counter.builder("tracing.spans").tag("result", "dropped").register(meterRegistry);
+        this.failed = Counter.builder("tracing.spans").tag("result", "failed").register(meterRegistry);
+    }
+
+    void export(List<Span> spans, boolean tailSampled) {
+        if (started.compareAndSet(false, true)) {
+            worker = new Thread(this::run, "otlp-exporter");
+            worker.setDaemon(true);
+            worker.start();
+        }
+        for (Span span : spans) {
+            if (tailSampled) {
+                span.setAttribute("sampling.tail", true);
+            }
+            if (!queue.offer(span)) {
+                dropped.increment();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private void run() {
+        List<Span> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Span first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                send(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void send(List<Span> batch) throws InterruptedException {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(endpoint)
+                    .timeout(Duration.ofSeconds(5))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(JsonUtil.getObjectMapper().writeValueAsString(toOtlp(batch))))
+                    .build();
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 == 2) {
+                exported.increment(batch.size());
+            } else {
+                failed.increment(batch.size());
+                log.debug("Trace collector at {} answered {}", endpoint, response.statusCode());
+            }
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            failed.increment(batch.size());
+            log.debug("Could not export {} spans to {}: {}", batch.size(), endpoint, e.getMessage());
+        }
+    }
+
+    /**
+     * OTLP JSON encoding: hex ids, 64-bit integers as strings
+     */
+    private ObjectNode toOtlp(List<Span> batch) {
+        ObjectNode root = JsonUtil.getObjectMapper().createObjectNode();
+        ObjectNode resourceSpans = root.putArray("resourceSpans").addObject();
+        addAttribute(resourceSpans.putObject("resource").putArray("attributes"), "service.name", serviceName);
+        ObjectNode scopeSpans = resourceSpans.putArray("scopeSpans").addObject();
+        scopeSpans.putObject("scope").put("name", SCOPE);
+        ArrayNode spans = scopeSpans.putArray("spans");
+
+        for (Span span : batch) {
+            ObjectNode node = spans.addObject();
+            node.put("traceId", span.context().getTraceId());
+            node.put("spanId", span.context().getSpanId());
+            if (span.parent() != null) {
+                node.put("parentSpanId", span.parent().getSpanId());
+            }
+            node.put("name", span.name());
+            node.put("kind", span.kind().getOtlpValue());
+            node.put("startTimeUnixNano", Long.toString(span.startEpochNanos()));
+            node.put("endTimeUnixNano", Long.toString(span.endEpochNanos()));
+            ArrayNode attributes = node.putArray("attributes");
+            for (Map.Entry<String, Object> attribute : span.attributes().entrySet()) {
+                addAttribute(attributes, attribute.getKey(), attribute.getValue());
+            }
+            if (span.isError()) {
+                node.putObject("status").put("code", 2).put("message", span.errorMessage());
+            }
+        }
+        return root;
+    }
+
+    private static void addAttribute(ArrayNode attributes, String key, Object value) {
+        ObjectNode attribute = attributes.addObject();
+        attribute.put("key", key);
+        ObjectNode anyValue = attribute.putObject("value");
+        if (value instanceof Boolean bool) {
+            anyValue.put("boolValue", bool);
+        } else if (value instanceof Long || value instanceof Integer) {
+            anyValue.put("intValue", value.toString());
+        } else if (value instanceof Number number) {
+            anyValue.put("doubleValue", number.doubleValue());
+        } else {
+            anyValue.put("stringValue", String.valueOf(value));
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.eventprocessing.common.tracing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One timed operation of a trace. A span is recording only when its trace was head
+ * sampled or tail sampling is on; otherwise it merely carries the context to pass
+ * downstream, and when tracing is disabled every span is NOOP. All mutators are
+ * cheap no-ops on non-recording spans.
+ */
+public final class Span {
+
+    public static final Span NOOP = new Span(null, null, null, null, 0, null);
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+    private static final long EPOCH_NANOS_OFFSET = System.currentTimeMillis() * 1_000_000L - System.nanoTime();
+
+    private final TraceContext context;
+    private final TraceContext parent;
+    private final String name;
+    private final SpanKind kind;
+    private final long startEpochNanos;
+    private final TraceFragment fragment;
+
+    private Map<String, Object> attributes;
+    private boolean error;
+    private String errorMessage;
+    private long endEpochNanos;
+
+    Span(TraceContext context, TraceContext parent, String name, SpanKind kind, long startEpochNanos, TraceFragment fragment) {
+        this.context = context;
+        this.parent = parent;
+        this.name = name;
+        this.kind = kind;
+        this.startEpochNanos = startEpochNanos;
+        this.fragment = fragment;
+    }
+
+    /**
+     * Wall-clock time in epoch nanoseconds with monotonic resolution
+     */
+    public static long epochNanos() {
+        return EPOCH_NANOS_OFFSET + System.nanoTime();
+    }
+
+    static Span current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Context to propagate, null for NOOP
+     */
+    public TraceContext context() {
+        return context;
+    }
+
+    public boolean isRecording() {
+        return fragment != null;
+    }
+
+    public Span setAttribute(String key, Object value) {
+        if (fragment != null && value != null) {
+            synchronized (this) {
+                if (attributes == null) {
+                    attributes = new LinkedHashMap<>();
+                }
+                attributes.put(key, value);
+            }
+        }
+        return this;
+    }
+
+    public Span recordError(Throwable throwable) {
+        if (fragment != null) {
+            synchronized (this) {
+                error = true;
+                errorMessage = throwable.getClass().getSimpleName() + ": " + throwable.getMessage();
+            }
+        }
+        return this;
+    }
+
+    public void end() {
+        if (fragment != null) {
+            end(epochNanos());
+        }
+    }
+
+    public void end(long epochNanos) {
+        if (fragment == null) {
+            return;
+        }
+        synchronized (this) {
+            if (endEpochNanos != 0) {
+                return;
+            }
+            endEpochNanos = Math.max(epochNanos, startEpochNanos);
+        }
+        fragment.ended(this);
+    }
+
+    /**
+     * Make this the span new spans on this thread are children of, until the scope closes
+     */
+    public Scope makeCurrent() {
+        if (context == null) {
+            return Scope.NOOP;
+        }
+        Span previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    TraceFragment fragment() {
+        return fragment;
+    }
+
+    TraceContext parent() {
+        return parent;
+    }
+
+    String name() {
+        return name;
+    }
+
+    SpanKind kind() {
+        return kind;
+    }
+
+    long startEpochNanos() {
+        return startEpochNanos;
+    }
+
+    synchronized long endEpochNanos() {
+        return endEpochNanos;
+    }
+
+    synchronized Map<String, Object> attributes() {
+        return attributes != null ? Map.copyOf(attributes) : Collections.emptyMap();
+    }
+
+    synchronized boolean isError() {
+        return error;
+    }
+
+    synchronized String errorMessage() {
+        return errorMessage;
+    }
+
+    /**
+     * Restores the previous current span; closing never throws
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        Scope NOOP = () -> {
+        };
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,67 @@
+package com.eventprocessing.common.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The spans of one trace recorded in this process from one entry point. The
+ * sampling decision is taken once its last open span ends, when the whole local
+ * fragment, its duration and any error are known.
+ */
+final class TraceFragment {
+
+    private final Tracer tracer;
+    private final boolean sampled;
+    private final List<Span> spans = new ArrayList<>(8);
+    private int open;
+    private boolean complete;
+    private boolean error;
+    private long start = Long.MAX_VALUE;
+    private long end;
+
+    TraceFragment(Tracer tracer, boolean sampled) {
+        this.tracer = tracer;
+        this.sampled = sampled;
+    }
+
+    /**
+     * @return false once the fragment was handed off; later spans are not recorded
+     */
+    synchronized boolean started() {
+        if (complete) {
+            return false;
+        }
+        open++;
+        return true;
+    }
+
+    void ended(Span span) {
+        synchronized (this) {
+            spans.add(span);
+            error |= span.isError();
+            start = Math.min(start, span.startEpochNanos());
+            end = Math.max(end, span.endEpochNanos());
+            if (--open > 0) {
+                return;
+            }
+            complete = true;
+        }
+        tracer.complete(this);
+    }
+
+    boolean isSampled() {
+        return sampled;
+    }
+
+    synchronized boolean hasError() {
+        return error;
+    }
+
+    synchronized long durationNanos() {
+        return end - start;
+    }
+
+    synchronized List<Span> spans() {
+        return spans;
+    }
+}
@@ -0,0 +1,174 @@
+package com.eventprocessing.common.tracing;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Starts spans and carries trace context through Kafka headers and SQS message
+ * attributes as W3C traceparent.
+ *
+ * Sampling is decided at the root (head, by app.tracing.head-sample-ratio) and
+ * inherited downstream through the sampled flag. With tail sampling on, spans of
+ * unsampled traces are recorded too, and each local fragment is kept only if it
+ * was slower than the tail threshold or failed; such fragments are exported with
+ * sampling.tail=true. With tracing disabled every span is Span.NOOP and nothing is
+ * read, allocated or propagated.
+ */
+@Component
+public class Tracer {
+
+    public static final String TRACEPARENT = "traceparent";
+
+    private final boolean enabled;
+    private final double headSampleRatio;
+    private final boolean tailEnabled;
+    private final long tailLatencyNanos;
+    private final OtlpSpanExporter exporter;
+
+    public Tracer(@Value("${app.tracing.enabled:false}") boolean enabled,
+                  @Value("${app.tracing.head-sample-ratio:0.01}") double headSampleRatio,
+                  @Value("${app.tracing.tail.enabled:false}") boolean tailEnabled,
+                  @Value("${app.tracing.tail.latency-threshold-ms:500}") long tailLatencyMillis,
+                  OtlpSpanExporter exporter) {
+        this.enabled = enabled;
+        this.headSampleRatio = headSampleRatio;
+        this.tailEnabled = tailEnabled;
+        this.tailLatencyNanos = tailLatencyMillis * 1_000_000L;
+        this.exporter = exporter;
+    }
+
+    /**
+     * Start a span as child of the current span, or a new root without one
+     */
+    public Span startSpan(String name, SpanKind kind) {
+        if (!enabled) {
+            return Span.NOOP;
+        }
+        Span current = Span.current();
+        return current != null
+                ? startChild(current, name, kind, Span.epochNanos())
+                : startSpan(name, kind, null, Span.epochNanos());
+    }
+
+    /**
+     * Start the local entry span of a message; a child of the remote parent when it
+     * carried context, otherwise a new root
+     */
+    public Span startSpan(String name, SpanKind kind, TraceContext remoteParent, long startEpochNanos) {
+        if (!enabled) {
+            return Span.NOOP;
+        }
+        boolean sampled = remoteParent != null
+                ? remoteParent.isSampled()
+                : headSampleRatio > 0 && ThreadLocalRandom.current().nextDouble() < headSampleRatio;
+        TraceContext context = remoteParent != null ? remoteParent.newChild() : TraceContext.newRoot(sampled);
+
+        TraceFragment fragment = sampled || tailEnabled ? new TraceFragment(this, sampled) : null;
+        if (fragment != null) {
+            fragment.started();
+        }
+        return new Span(context, remoteParent, name, kind, startEpochNanos, fragment);
+    }
+
+    /**
+     * Start the entry span of a consumed message backdated to its publish time, with a
+     * "queue wait" child covering publish to receive. Clock skew between hosts is
+     * clamped so the wait is never negative.
+     *
+     * @param publishedAtMillis when the message was published, or 0 when unknown
+     */
+    public Span startConsumerSpan(String name, TraceContext remoteParent, long publishedAtMillis) {
+        if (!enabled) {
+            return Span.NOOP;
+        }
+        long receivedAt = Span.epochNanos();
+        long publishedAt = publishedAtMillis > 0 ? Math.min(publishedAtMillis * 1_000_000L, receivedAt) : receivedAt;
+        Span span = startSpan(name, SpanKind.CONSUMER, remoteParent, publishedAt);
+        if (publishedAt < receivedAt) {
+            startChild(span, "queue wait", SpanKind.INTERNAL, publishedAt).end(receivedAt);
+        }
+        return span;
+    }
+
+    /**
+     * Start a span under a local parent, possibly backdated to when the operation began
+     */
+    public Span startChild(Span parent, String name, SpanKind kind, long startEpochNanos) {
+        if (!enabled || parent.context() == null) {
+            return Span.NOOP;
+        }
+        TraceFragment fragment = parent.fragment();
+        if (fragment != null && !fragment.started()) {
+            fragment = null;
+        }
+        return new Span(parent.context().newChild(), parent.context(), name, kind, startEpochNanos, fragment);
+    }
+
+    /**
+     * The current span of this thread, NOOP without one
+     */
+    public Span currentSpan() {
+        Span current = enabled ? Span.current() : null;
+        return current != null ? current : Span.NOOP;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void inject(Span span, Headers headers) {
+        if (span.context() != null) {
+            headers.remove(TRACEPARENT);
+            headers.add(TRACEPARENT, span.context().toTraceparent().getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    public TraceContext extract(Headers headers) {
+        if (!enabled) {
+            return null;
+        }
+        Header header = headers.lastHeader(TRACEPARENT);
+        return header != null && header.value() != null
+                ? TraceContext.parse(new String(header.value(), StandardCharsets.US_ASCII))
+                : null;
+    }
+
+    /**
+     * SQS message attributes carrying the span's context; empty for NOOP
+     */
+    public Map<String, MessageAttributeValue> toMessageAttributes(Span span) {
+        if (span.context() == null) {
+            return Map.of();
+        }
+        return Map.of(TRACEPARENT, MessageAttributeValue.builder()
+                .dataType("String")
+                .stringValue(span.context().toTraceparent())
+                .build());
+    }
+
+    public TraceContext extractFromMessageAttributes(Map<String, MessageAttributeValue> attributes) {
+        if (!enabled || attributes == null) {
+            return null;
+        }
+        MessageAttributeValue value = attributes.get(TRACEPARENT);
+        return value != null ? TraceContext.parse(value.stringValue()) : null;
+    }
+
+    /**
+     * Decide on a finished local fragment
+     */
+    void complete(TraceFragment fragment) {
+        if (fragment.isSampled()) {
+            exporter.export(fragment.spans(), false);
+        } else if (fragment.hasError() || fragment.durationNanos() >= tailLatencyNanos) {
+            exporter.export(fragment.spans(), true);
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package com.eventprocessing.common.transport;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One topic as a persistent append-only log of memory-mapped segment files, shared
+ * by every process on the host that opens the same directory. Appends and reads go
+ * straight to the page cache: no broker, no socket and no system call per record.
+ *
+ * Segment n holds positions [n * segmentSize, (n + 1) * segmentSize) in n.seg, and
+ * the tail file holds the next free position. Writers, in any process, claim a
+ * record with a compare-and-set on its state word and then move the tail past it, so
+ * appends are lock-free and every record behind the tail already carries its length.
+ * Each record starts on an 8-byte boundary with a state word:
+ *
+ *   0      nothing written yet
+ *   -1     padding; the rest of the segment is unused
+ *   < -1   claimed, body being written; minus the record length
+ *   > 0    complete; the record length
+ *
+ * followed by the publish time, key, headers and value. The state word is published
+ * with release semantics after the body, so a reader that sees a length sees the
+ * whole record.
+ */
+@Slf4j
+public class MappedQueue {
+
+    static final int UNWRITTEN = 0;
+    static final int PADDING = -1;
+
+    private static final int PUBLISHED_AT_OFFSET = 8;
+    private static final int BODY_OFFSET = 16;
+    private static final int ALIGNMENT = 8;
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final String topic;
+    private final Path directory;
+    private final long segmentSize;
+    private final int retainSegments;
+    private final MappedByteBuffer tail;
+    private final ConcurrentHashMap<Long, MappedByteBuffer> segments = new ConcurrentHashMap<>();
+
+    public MappedQueue(Path root, String topic, long segmentSize, int retainSegments) throws IOException {
+        if (segmentSize % ALIGNMENT != 0 || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segment size must be a multiple of 8 below 2 GB: " + segmentSize);
+        }
+        this.topic = topic;
+        this.directory = root.resolve(topic);
+        this.segmentSize = segmentSize;
+        this.retainSegments = Math.max(2, retainSegments);
+        Files.createDirectories(directory);
+        this.tail = map(directory.resolve("tail"), ALIGNMENT, true);
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    /**
+     * Next free position; everything below it is claimed
+     */
+    public long tail() {
+        return (long) LONG.getVolatile(tail, 0);
+    }
+
+    /**
+     * Append a record and return its position
+     */
+    public long append(String key, Headers headers, byte[] value, long publishedAtMillis) {
+        byte[] keyBytes = key != null ? key.getBytes(StandardCharsets.UTF_8) : null;
+        int length = BODY_OFFSET + 2 + lengthOf(keyBytes) + 2 + 4 + lengthOf(value);
+        Header[] headerArray = headers.toArray();
+        byte[][] headerNames = new byte[headerArray.length][];
+        for (int i = 0; i < headerArray.length; i++) {
+            headerNames[i] = headerArray[i].key().getBytes(StandardCharsets.UTF_8);
+            length += 2 + headerNames[i].length + 4 + lengthOf(headerArray[i].value());
+        }
+        if (align(length) > segmentSize) {
+            throw new IllegalArgumentException("Record of " + length + " bytes exceeds the segment size of " + segmentSize);
+        }
+
+        long position = claim(length);
+        MappedByteBuffer segment = segment(position / segmentSize, true);
+        int offset = (int) (position % segmentSize);
+
+        LONG.set(segment, offset + PUBLISHED_AT_OFFSET, publishedAtMillis);
+        int at = putShortBytes(segment, offset + BODY_OFFSET, keyBytes);
+        segment.putShort(at, (short) headerArray.length);
+        at += 2;
+        for (int i = 0; i < headerArray.length; i++) {
+            at = putShortBytes(segment, at, headerNames[i]);
+            at = putIntBytes(segment, at, headerArray[i].value());
+        }
+        putIntBytes(segment, at, value);
+
+        INT.setRelease(segment, offset, length);
+        return position;
+    }
+
+    /**
+     * Lock-free claim of a record of {@code length} bytes at the tail. The state word
+     * at the tail goes from 0 to minus the length before the tail moves, so a writer
+     * that dies in between leaves a record readers can skip by its length; any writer
+     * finding the slot already claimed moves the tail past it on the owner's behalf.
+     * A record never spans segments: one that does not fit claims the rest of the
+     * current segment as padding and tries again in the next.
+     */
+    private long claim(int length) {
+        int size = align(length);
+        while (true) {
+            long position = tail();
+            long segmentEnd = (position / segmentSize + 1) * segmentSize;
+            MappedByteBuffer segment = segment(position / segmentSize, true);
+            int offset = (int) (position % segmentSize);
+            boolean fits = position + size <= segmentEnd;
+
+            // A slot behind the tail is always claimed already, so a stale tail fails the state CAS
+            if (tail() == position && INT.compareAndSet(segment, offset, UNWRITTEN, fits ? -length : PADDING)) {
+                LONG.compareAndSet(tail, 0, position, fits ? position + size : segmentEnd);
+                if (fits) {
+                    if (position % segmentSize == 0 && position > 0) {
+                        rolled(position / segmentSize);
+                    }
+                    return position;
+                }
+            } else {
+                int state = state(segment, offset);
+                if (state != UNWRITTEN) {
+                    long next = state == PADDING ? segmentEnd : position + align(Math.abs(state));
+                    LONG.compareAndSet(tail, 0, position, next);
+                }
+            }
+        }
+    }
+
+    /**
+     * Delete segments that fell out of retention; run by the writer whose claim starts a new segment
+     */
+    private void rolled(long newIndex) {
+        long oldestKept = newIndex - retainSegments + 1;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                long index = indexOf(file);
+                if (index >= 0 && index < oldestKept) {
+                    segments.remove(index);
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not apply retention to queue {}", topic, e);
+        }
+    }
+
+    /**
+     * Index of the oldest segment on disk, or -1 when there is none
+     */
+    long oldestSegment() {
+        long oldest = -1;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                long index = indexOf(file);
+                if (index >= 0 && (oldest < 0 || index < oldest)) {
+                    oldest = index;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return oldest;
+    }
+
+    /**
+     * Number of records in [from, to), counting no further than {@code limit}. Claimed
+     * records count too; segments retention already deleted are skipped, and the count
+     * stops early at a record whose claim is not visible yet.
+     */
+    long countRecords(long from, long to, long limit) {
+        long count = 0;
+        long position = from;
+        long mappedIndex = -1;
+        MappedByteBuffer segment = null;
+        while (position < to && count < limit) {
+            long index = position / segmentSize;
+            if (index != mappedIndex) {
+                segment = peek(index);
+                mappedIndex = index;
+            }
+            if (segment == null) {
+                long oldest = oldestSegment();
+                if (oldest <= index) {
+                    break;
+                }
+                position = oldest * segmentSize;
+                continue;
+            }
+            int state = state(segment, (int) (position % segmentSize));
+            if (state == UNWRITTEN) {
+                break;
+            }
+            if (state == PADDING) {
+                position = (index + 1) * segmentSize;
+            } else {
+                count++;
+                position += align(Math.abs(state));
+            }
+        }
+        return count;
+    }
+
+    long segmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * The mapped segment, or null when it does not exist and {@code create} is false
+     */
+    MappedByteBuffer segment(long index, boolean create) {
+        MappedByteBuffer segment = segments.get(index);
+        if (segment != null) {
+            return segment;
+        }
+        Path file = segmentFile(index);
+        try {
+            segment = map(file, segmentSize, create);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map " + file, e);
+        }
+        MappedByteBuffer existing = segments.putIfAbsent(index, segment);
+        return existing != null ? existing : segment;
+    }
+
+    /**
+     * The segment's mapping in this process, else a transient one that is not cached, so
+     * counting never pins segments a process does not read; null when it does not exist
+     */
+    private MappedByteBuffer peek(long index) {
+        MappedByteBuffer segment = segments.get(index);
+        if (segment != null) {
+            return segment;
+        }
+        try {
+            return map(segmentFile(index), segmentSize, false);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Drop this process's mapping of a segment no reader here needs any more
+     */
+    void release(long index) {
+        segments.remove(index);
+    }
+
+    static int state(MappedByteBuffer segment, int offset) {
+        return (int) INT.getAcquire(segment, offset);
+    }
+
+    /**
+     * Decode the complete record at {@code offset}. The value is a read-only view of
+     * the mapping, not a copy.
+     */
+    MappedRecord read(MappedByteBuffer segment, int offset, long position, int length, MappedQueueCursor cursor) {
+        long publishedAt = (long) LONG.get(segment, offset + PUBLISHED_AT_OFFSET);
+        int at = offset + BODY_OFFSET;
+
+        int keyLength = segment.getShort(at);
+        at += 2;
+        String key = keyLength < 0 ? null : new String(bytes(segment, at, keyLength), StandardCharsets.UTF_8);
+        at += Math.max(0, keyLength);
+
+        int headerCount = segment.getShort(at);
+        at += 2;
+        RecordHeaders headers = new RecordHeaders();
+        for (int i = 0; i < headerCount; i++) {
+            int nameLength = segment.getShort(at);
+            at += 2;
+            String name = new String(bytes(segment, at, nameLength), StandardCharsets.UTF_8);
+            at += nameLength;
+            int valueLength = segment.getInt(at);
+            at += 4;
+            headers.add(name, valueLength < 0 ? null : bytes(segment, at, valueLength));
+            at += Math.max(0, valueLength);
+        }
+
+        int valueLength = segment.getInt(at);
+        at += 4;
+        ByteBuffer value = valueLength < 0 ? null : segment.slice(at, valueLength).asReadOnlyBuffer();
+        return new MappedRecord(topic, position, position + align(length), publishedAt, key, headers, value, cursor);
+    }
+
+    MappedQueueCursor cursor(String group) throws IOException {
+        Path cursors = directory.resolve("cursors");
+        Files.createDirectories(cursors);
+        return new MappedQueueCursor(group, map(cursors.resolve(group), ALIGNMENT, true));
+    }
+
+    static int align(int length) {
+        return (length + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    static long getLong(MappedByteBuffer buffer, int offset) {
+        return (long) LONG.getVolatile(buffer, offset);
+    }
+
+    static boolean compareAndSetLong(MappedByteBuffer buffer, int offset, long expected, long value) {
+        return LONG.compareAndSet(buffer, offset, expected, value);
+    }
+
+    private static MappedByteBuffer map(Path file, long size, boolean create) throws IOException {
+        try (FileChannel channel = create
+                ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE)
+                : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Stays valid after the channel is closed, and after the file is deleted
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private Path segmentFile(long index) {
+        return directory.resolve(String.format("%020d%s", index, SEGMENT_SUFFIX));
+    }
+
+    private static long indexOf(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int lengthOf(byte[] bytes) {
+        return bytes != null ? bytes.length : 0;
+    }
+
+    private static byte[] bytes(ByteBuffer buffer, int at, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(at, bytes);
+        return bytes;
+    }
+
+    private static int putShortBytes(ByteBuffer buffer, int at, byte[] bytes) {
+        if (bytes != null && bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Key or header name longer than " + Short.MAX_VALUE + " bytes");
+        }
+        buffer.putShort(at, (short) (bytes != null ? bytes.length : -1));
+        if (bytes != null) {
+            buffer.put(at + 2, bytes);
+        }
+        return at + 2 + lengthOf(bytes);
+    }
+
+    private static int putIntBytes(ByteBuffer buffer, int at, byte[] bytes) {
+        buffer.putInt(at, bytes != null ? bytes.length : -1);
+        if (bytes != null) {
+            buffer.put(at + 4, bytes);
+        }
+        return at + 4 + lengthOf(bytes);
+    }
+}
@@ -0,0 +1,43 @@
+package com.eventprocessing.common.transport;
+
+import java.nio.MappedByteBuffer;
+
+/**
+ * A subscriber group's committed read position in one queue, kept in its own mapped
+ * file so it survives restarts. Commits only ever move it forward, so acknowledgments
+ * arriving out of order from other threads cannot rewind it.
+ */
+public class MappedQueueCursor {
+
+    private final String group;
+    private final MappedByteBuffer position;
+
+    MappedQueueCursor(String group, MappedByteBuffer position) {
+        this.group = group;
+        this.position = position;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    /**
+     * Position of the first record not yet acknowledged
+     */
+    public long position() {
+        return MappedQueue.getLong(position, 0);
+    }
+
+    /**
+     * Everything before {@code next} has been handled
+     */
+    public void commit(long next) {
+        long current;
+        do {
+            current = position();
+            if (current >= next) {
+                return;
+            }
+        } while (!MappedQueue.compareAndSetLong(position, 0, current, next));
+    }
+}
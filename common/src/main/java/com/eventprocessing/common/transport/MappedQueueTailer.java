@@ -0,0 +1,148 @@
+package com.eventprocessing.common.transport;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.MappedByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads one queue for one subscriber group, from the group's cursor onwards. The read
+ * position runs ahead of the cursor; records handed out but never acknowledged are
+ * read again after a restart, as uncommitted Kafka offsets are.
+ */
+@Slf4j
+class MappedQueueTailer {
+
+    private final MappedQueue queue;
+    private final MappedQueueCursor cursor;
+    private final long segmentSize;
+    private final long stuckTimeoutNanos;
+
+    private long position;
+    private long segmentIndex = -1;
+    private MappedByteBuffer segment;
+
+    private long stalledAt = -1;
+    private long stalledSinceNanos;
+    private volatile long skippedRecords;
+    private volatile long skippedSegments;
+
+    MappedQueueTailer(MappedQueue queue, MappedQueueCursor cursor, long stuckTimeoutNanos) {
+        this.queue = queue;
+        this.cursor = cursor;
+        this.segmentSize = queue.segmentSize();
+        this.stuckTimeoutNanos = stuckTimeoutNanos;
+        this.position = cursor.position();
+    }
+
+    /**
+     * The complete records from the read position on, up to {@code max}; empty when
+     * the next record is not written yet
+     */
+    List<MappedRecord> poll(int max) {
+        List<MappedRecord> records = null;
+        while (records == null || records.size() < max) {
+            if (!moveToSegment()) {
+                break;
+            }
+            int offset = (int) (position - segmentIndex * segmentSize);
+            int state = MappedQueue.state(segment, offset);
+            if (state > 0) {
+                if (records == null) {
+                    records = new ArrayList<>(Math.min(max, 64));
+                }
+                records.add(queue.read(segment, offset, position, state, cursor));
+                position += MappedQueue.align(state);
+                stalledAt = -1;
+            } else if (state == MappedQueue.PADDING) {
+                position = (segmentIndex + 1) * segmentSize;
+            } else if (!skipIfStuck(state)) {
+                break;
+            }
+        }
+        return records != null ? records : List.of();
+    }
+
+    /**
+     * Read again from {@code from}, e.g. a batch whose handler failed
+     */
+    void rewind(long from) {
+        position = from;
+        stalledAt = -1;
+    }
+
+    long lag() {
+        return Math.max(0, queue.tail() - cursor.position());
+    }
+
+    long skippedRecords() {
+        return skippedRecords;
+    }
+
+    long skippedSegments() {
+        return skippedSegments;
+    }
+
+    /**
+     * Map the segment holding the read position; false when it does not exist yet
+     */
+    private boolean moveToSegment() {
+        long index = position / segmentSize;
+        if (segment != null && index == segmentIndex) {
+            return true;
+        }
+        MappedByteBuffer next = queue.segment(index, false);
+        if (next == null) {
+            // Missing behind the tail means retention deleted it while this group lagged
+            if (queue.tail() < (index + 1) * segmentSize) {
+                return false;
+            }
+            long oldest = queue.oldestSegment();
+            if (oldest <= index) {
+                return false;
+            }
+            log.warn("Subscriber {} on {} fell behind retention; skipping from position {} to segment {}",
+                    cursor.getGroup(), queue.getTopic(), position, oldest);
+            skippedSegments += oldest - index;
+            position = oldest * segmentSize;
+            return moveToSegment();
+        }
+        if (segmentIndex >= 0) {
+            queue.release(segmentIndex);
+        }
+        segment = next;
+        segmentIndex = index;
+        return true;
+    }
+
+    /**
+     * A record left claimed (negative state) for longer than the timeout belongs to a
+     * writer that died mid-append and is skipped by its length. A zero state behind the
+     * tail is normally the claim not yet visible to this thread; one that stays zero can
+     * only follow a host crash that lost the page of the state word but kept the tail,
+     * and having no length, the rest of its segment goes with it.
+     */
+    private boolean skipIfStuck(int state) {
+        if (state == MappedQueue.UNWRITTEN && queue.tail() <= position) {
+            return false;
+        }
+        long now = System.nanoTime();
+        if (stalledAt != position) {
+            stalledAt = position;
+            stalledSinceNanos = now;
+            return false;
+        }
+        if (now - stalledSinceNanos < stuckTimeoutNanos) {
+            return false;
+        }
+        log.error("Record at position {} of {} was never completed by its writer; skipping {}",
+                position, queue.getTopic(), state == MappedQueue.UNWRITTEN ? "the rest of the segment" : "it");
+        skippedRecords++;
+        position = state == MappedQueue.UNWRITTEN
+                ? (segmentIndex + 1) * segmentSize
+                : position + MappedQueue.align(-state);
+        stalledAt = -1;
+        return true;
+    }
+}
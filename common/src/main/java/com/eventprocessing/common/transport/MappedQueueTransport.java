@@ -0,0 +1,209 @@
+package com.eventprocessing.common.transport;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import static com.eventprocessing.common.constants.AppConstants.KAFKA_TOPIC_HIGH_PRIORITY;
+
+/**
+ * Same-host alternative to Kafka between the pipeline services, on when
+ * app.transport.type is MAPPED. Topics become {@link MappedQueue}s under a shared
+ * directory: the producer appends to them and each subscriber group tails them on
+ * its own thread from its own cursor, so a hop costs a memory write and a read of
+ * the same page rather than a broker round trip.
+ *
+ * Delivery mirrors the Kafka listeners: at least once, in order per topic, one
+ * subscriber per group. A handler that throws gets the same batch again after a
+ * short backoff; acknowledged records are not redelivered after a restart.
+ */
+@Slf4j
+@Component
+public class MappedQueueTransport {
+
+    private static final String HIGH_PRIORITY_GROUP_SUFFIX = "-high-priority";
+    private static final long REDELIVERY_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final TransportProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, MappedQueue> queues = new ConcurrentHashMap<>();
+    private final Map<String, MappedQueueCursor> cursors = new ConcurrentHashMap<>();
+    private final List<Thread> subscribers = new CopyOnWriteArrayList<>();
+    private volatile boolean running = true;
+
+    public MappedQueueTransport(TransportProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean isEnabled() {
+        return properties.isMapped();
+    }
+
+    /**
+     * Append the record to its topic's queue and return its position. The record
+     * timestamp, when set, is kept as the publish time.
+     */
+    public long publish(ProducerRecord<String, String> record) {
+        long publishedAt = record.timestamp() != null ? record.timestamp() : System.currentTimeMillis();
+        byte[] value = record.value() != null ? record.value().getBytes(StandardCharsets.UTF_8) : null;
+        return queue(record.topic()).append(record.key(), record.headers(), value, publishedAt);
+    }
+
+    /**
+     * Tail a topic as {@code group}, handing over up to the configured batch size of records at a time
+     */
+    public void subscribe(String topic, String group, Consumer<List<MappedRecord>> handler) {
+        subscribe(topic, group, properties.getMapped().getMaxBatch(), handler);
+    }
+
+    public void subscribe(String topic, String group, int maxBatch, Consumer<List<MappedRecord>> handler) {
+        MappedQueueTailer tailer;
+        try {
+            MappedQueue queue = queue(topic);
+            tailer = new MappedQueueTailer(queue, queue.cursor(group),
+                    properties.getMapped().getStuckWriteTimeout().toNanos());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open cursor " + group + " on " + topic, e);
+        }
+
+        Gauge.builder("transport.mapped.lag", tailer, MappedQueueTailer::lag)
+                .description("Bytes published but not yet acknowledged by the group")
+                .tag("topic", topic).tag("group", group)
+                .register(meterRegistry);
+        FunctionCounter.builder("transport.mapped.skipped", tailer, MappedQueueTailer::skippedRecords)
+                .tag("topic", topic).tag("group", group).tag("reason", "incomplete-write")
+                .register(meterRegistry);
+        FunctionCounter.builder("transport.mapped.skipped", tailer, MappedQueueTailer::skippedSegments)
+                .tag("topic", topic).tag("group", group).tag("reason", "retention")
+                .register(meterRegistry);
+
+        Thread thread = new Thread(() -> tail(tailer, Math.max(1, maxBatch), handler), "mapped-" + topic + "-" + group);
+        thread.setDaemon(true);
+        subscribers.add(thread);
+        thread.start();
+        log.info("Subscribed {} to mapped queue {} in {}", group, topic, properties.getMapped().getDirectory());
+    }
+
+    /**
+     * Subscriber group of {@code group} on a topic. The high-priority queue is tailed by
+     * the -high-priority sibling group, as the Kafka listener of that topic is.
+     */
+    public static String groupFor(String topic, String group) {
+        return KAFKA_TOPIC_HIGH_PRIORITY.equals(topic) ? group + HIGH_PRIORITY_GROUP_SUFFIX : group;
+    }
+
+    /**
+     * Next free position of a topic's queue
+     */
+    public long tail(String topic) {
+        return queue(topic).tail();
+    }
+
+    /**
+     * Position up to which {@code group} has acknowledged a topic, the subscription's
+     * group name as given by {@link #groupFor}
+     */
+    public long committed(String topic, String group) {
+        return cursors.computeIfAbsent(topic + "/" + group, key -> {
+            try {
+                return queue(topic).cursor(group);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open cursor " + group + " on " + topic, e);
+            }
+        }).position();
+    }
+
+    /**
+     * Records between two positions of a topic's queue, counted up to {@code limit}
+     */
+    public long records(String topic, long from, long to, long limit) {
+        return queue(topic).countRecords(from, to, limit);
+    }
+
+    /**
+     * Records published to a topic but not yet acknowledged by {@code group}, counted up
+     * to {@code limit}. Unlike the transport.mapped.lag gauge, which is in bytes, this
+     * compares with Kafka lag; it walks the pending records, hence the limit.
+     */
+    public long lag(String topic, String group, long limit) {
+        return records(topic, committed(topic, group), tail(topic), limit);
+    }
+
+    /**
+     * Move {@code group}'s cursor to the current tail, so its next subscription starts
+     * with the next record published instead of the retained history
+     */
+    public void seekToEnd(String topic, String group) {
+        MappedQueue queue = queue(topic);
+        try {
+            queue.cursor(group).commit(queue.tail());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open cursor " + group + " on " + topic, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        for (Thread subscriber : subscribers) {
+            LockSupport.unpark(subscriber);
+            subscriber.join(5000);
+        }
+    }
+
+    private void tail(MappedQueueTailer tailer, int maxBatch, Consumer<List<MappedRecord>> handler) {
+        TransportProperties.Mapped mapped = properties.getMapped();
+        boolean busySpin = mapped.getIdle() == TransportProperties.Idle.BUSY_SPIN;
+        long parkNanos = mapped.getParkTime().toNanos();
+        int idlePolls = 0;
+
+        while (running) {
+            List<MappedRecord> records = tailer.poll(maxBatch);
+            if (records.isEmpty()) {
+                if (busySpin || ++idlePolls < mapped.getSpinTries()) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(parkNanos);
+                }
+                continue;
+            }
+            idlePolls = 0;
+            try {
+                handler.accept(records);
+            } catch (Exception e) {
+                log.warn("Handler failed on {} records from {}; redelivering", records.size(),
+                        records.get(0).getTopic(), e);
+                tailer.rewind(records.get(0).getPosition());
+                LockSupport.parkNanos(REDELIVERY_BACKOFF_NANOS);
+            }
+        }
+    }
+
+    private MappedQueue queue(String topic) {
+        return queues.computeIfAbsent(topic, name -> {
+            TransportProperties.Mapped mapped = properties.getMapped();
+            try {
+                return new MappedQueue(mapped.getDirectory(), name, mapped.getSegmentSize().toBytes(),
+                        mapped.getRetainSegments());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open mapped queue " + name, e);
+            }
+        });
+    }
+}
@@ -0,0 +1,88 @@
+package com.eventprocessing.common.transport;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.record.TimestampType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * A record read from a {@link MappedQueue}. The value is a read-only view of the
+ * mapped segment, so handlers that can decode from a buffer never copy it.
+ */
+public class MappedRecord {
+
+    private final String topic;
+    private final long position;
+    private final long nextPosition;
+    private final long publishedAtMillis;
+    private final String key;
+    private final Headers headers;
+    private final ByteBuffer value;
+    private final MappedQueueCursor cursor;
+
+    MappedRecord(String topic, long position, long nextPosition, long publishedAtMillis, String key, Headers headers,
+                 ByteBuffer value, MappedQueueCursor cursor) {
+        this.topic = topic;
+        this.position = position;
+        this.nextPosition = nextPosition;
+        this.publishedAtMillis = publishedAtMillis;
+        this.key = key;
+        this.headers = headers;
+        this.value = value;
+        this.cursor = cursor;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public long getPublishedAtMillis() {
+        return publishedAtMillis;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Headers getHeaders() {
+        return headers;
+    }
+
+    /**
+     * The value in place; a fresh view each call, so reading it moves no shared state
+     */
+    public ByteBuffer getValue() {
+        return value != null ? value.duplicate() : null;
+    }
+
+    /**
+     * Commit the subscriber's cursor past this record, and every record before it
+     */
+    public void acknowledge() {
+        cursor.commit(nextPosition);
+    }
+
+    /**
+     * The record in the shape the Kafka listeners take: partition 0, the position as
+     * the offset and the publish time as the timestamp. Decodes the value into a
+     * String, the one copy the Kafka path makes too.
+     */
+    public ConsumerRecord<String, String> toConsumerRecord() {
+        String decoded = null;
+        if (value != null) {
+            byte[] bytes = new byte[value.remaining()];
+            value.get(value.position(), bytes);
+            decoded = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new ConsumerRecord<>(topic, 0, position, publishedAtMillis, TimestampType.CREATE_TIME,
+                key != null ? key.length() : -1, value != null ? value.remaining() : -1, key, decoded, headers,
+                Optional.empty());
+    }
+}
@@ -0,0 +1,86 @@
+package com.eventprocessing.common.transport;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Transport between the pipeline services (app.transport.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.transport")
+public class TransportProperties {
+
+    public enum Type {
+        /**
+         * The Kafka topics; services may run anywhere
+         */
+        KAFKA,
+        /**
+         * Memory-mapped queues in a directory shared by services on the same host
+         */
+        MAPPED
+    }
+
+    public enum Idle {
+        /**
+         * Spin on the tail while idle: lowest hop latency, one core per subscription
+         */
+        BUSY_SPIN,
+        /**
+         * Spin briefly, then park between checks
+         */
+        PARK
+    }
+
+    private Type type = Type.KAFKA;
+
+    private Mapped mapped = new Mapped();
+
+    public boolean isMapped() {
+        return type == Type.MAPPED;
+    }
+
+    @Data
+    public static class Mapped {
+
+        /**
+         * Queue files; every co-located service must point at the same directory
+         */
+        private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "event-processing-queues");
+
+        /**
+         * Size of each mapped segment file, and so the largest record
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        /**
+         * Segments kept per topic; a subscriber further behind skips to the oldest one left
+         */
+        private int retainSegments = 16;
+
+        private Idle idle = Idle.PARK;
+
+        /**
+         * Empty polls spun before parking
+         */
+        private int spinTries = 10_000;
+
+        private Duration parkTime = Duration.ofNanos(50_000);
+
+        /**
+         * Records handed to a subscriber at once
+         */
+        private int maxBatch = 500;
+
+        /**
+         * A record claimed but not completed within this long is skipped; its writer died mid-append
+         */
+        private Duration stuckWriteTimeout = Duration.ofSeconds(5);
+    }
+}
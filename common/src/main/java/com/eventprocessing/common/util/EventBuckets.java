@@ -0,0 +1,90 @@
+package com.eventprocessing.common.util;
+
+import com.eventprocessing.common.constants.AppConstants;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Naming scheme for the daily event collections (events_yyyyMMdd, UTC days).
+ * Shared so every service resolves the same bucket for a timestamp.
+ */
+public class EventBuckets {
+
+    public static final String PREFIX = AppConstants.COLLECTION_EVENTS + "_";
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private EventBuckets() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Collection holding events with the given timestamp
+     */
+    public static String collectionFor(Instant timestamp) {
+        return collectionFor(LocalDate.ofInstant(timestamp, ZoneOffset.UTC));
+    }
+
+    /**
+     * Collection holding events of the given UTC day
+     */
+    public static String collectionFor(LocalDate day) {
+        return PREFIX + DAY_FORMAT.format(day);
+    }
+
+    /**
+     * Check whether a collection name is an event bucket
+     */
+    public static boolean isBucket(String collectionName) {
+        return dayOf(collectionName) != null;
+    }
+
+    /**
+     * UTC day covered by a bucket, or null if the name is not a bucket
+     */
+    public static LocalDate dayOf(String collectionName) {
+        if (collectionName == null || !collectionName.startsWith(PREFIX)
+                || collectionName.length() != PREFIX.length() + 8) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(collectionName.substring(PREFIX.length()), DAY_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * First instant covered by a bucket
+     */
+    public static Instant startOf(String collectionName) {
+        return dayOf(collectionName).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    /**
+     * First instant after a bucket
+     */
+    public static Instant endOf(String collectionName) {
+        return dayOf(collectionName).plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    /**
+     * Bucket names overlapping [from, to), newest first
+     */
+    public static List<String> collectionsBetween(Instant from, Instant to) {
+        List<String> names = new ArrayList<>();
+        LocalDate first = LocalDate.ofInstant(from, ZoneOffset.UTC);
+        LocalDate day = LocalDate.ofInstant(to.minusNanos(1), ZoneOffset.UTC);
+        while (!day.isBefore(first)) {
+            names.add(collectionFor(day));
+            day = day.minusDays(1);
+        }
+        return names;
+    }
+}
@@ -0,0 +1,94 @@
+package com.eventprocessing.common.latency;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyHistogramTest {
+
+    private static final long MAX_VALUE = (1L << 36) - 1;
+
+    @Test
+    void valuesBelowTheFirstBucketAreExact() {
+        for (long value = 0; value < 128; value++) {
+            assertThat(LatencyHistogram.indexOf(value)).isEqualTo((int) value);
+            assertThat(LatencyHistogram.highestEquivalentValue((int) value)).isEqualTo(value);
+        }
+    }
+
+    @Test
+    void indexesAreContiguousAcrossBucketBoundaries() {
+        assertThat(LatencyHistogram.indexOf(128)).isEqualTo(128);
+        int previous = 128;
+        for (int shift = 8; shift < 36; shift++) {
+            long boundary = 1L << shift;
+            assertThat(LatencyHistogram.indexOf(boundary - 1)).isEqualTo(previous + 63);
+            assertThat(LatencyHistogram.indexOf(boundary)).isEqualTo(previous + 64);
+            assertThat(LatencyHistogram.highestEquivalentValue(LatencyHistogram.indexOf(boundary - 1))).isEqualTo(boundary - 1);
+            previous = LatencyHistogram.indexOf(boundary);
+        }
+        assertThat(LatencyHistogram.indexOf(MAX_VALUE)).isEqualTo(previous + 63);
+        assertThat(LatencyHistogram.indexOf(MAX_VALUE)).isLessThan(new LatencyHistogram().snapshot().length);
+    }
+
+    @Test
+    void everyValueMapsToAnEquivalentRangeWithinOnePointSixPercent() {
+        int previous = -1;
+        for (long value = 0; value <= MAX_VALUE; value = value < 4096 ? value + 1 : value + value / 1000 + 1) {
+            int index = LatencyHistogram.indexOf(value);
+            long highest = LatencyHistogram.highestEquivalentValue(index);
+
+            assertThat(index).isGreaterThanOrEqualTo(previous);
+            assertThat(highest).isGreaterThanOrEqualTo(value);
+            assertThat(LatencyHistogram.indexOf(highest)).isEqualTo(index);
+            assertThat(highest - value).isLessThanOrEqualTo(value / 64);
+            previous = index;
+        }
+    }
+
+    @Test
+    void recordClampsNegativeAndOversizedValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        long[] counts = histogram.snapshot();
+
+        assertThat(counts[0]).isEqualTo(1);
+        assertThat(counts[LatencyHistogram.indexOf(MAX_VALUE)]).isEqualTo(1);
+        assertThat(LatencyHistogram.totalCount(counts)).isEqualTo(2);
+    }
+
+    @Test
+    void percentilesAndCountsReadTheRecordedDistribution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros);
+        }
+        long[] counts = histogram.snapshot();
+
+        assertThat(LatencyHistogram.valueAtPercentile(counts, 0)).isEqualTo(1);
+        assertThat(LatencyHistogram.valueAtPercentile(counts, 50)).isBetween(5_000L, 5_000L + 5_000 / 64);
+        assertThat(LatencyHistogram.valueAtPercentile(counts, 99)).isBetween(9_900L, 9_900L + 9_900 / 64);
+        assertThat(LatencyHistogram.valueAtPercentile(counts, 100)).isBetween(10_000L, 10_000L + 10_000 / 64);
+        assertThat(LatencyHistogram.countAtOrBelow(counts, 100)).isEqualTo(100);
+        assertThat(LatencyHistogram.countAtOrBelow(counts, MAX_VALUE + 1)).isEqualTo(10_000);
+        assertThat(LatencyHistogram.valueAtPercentile(new long[counts.length], 99)).isZero();
+    }
+
+    @Test
+    void deltaSubtractsThePreviousSnapshot() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(10);
+        long[] before = histogram.snapshot();
+        histogram.record(10);
+        histogram.record(1_000);
+
+        long[] delta = LatencyHistogram.delta(histogram.snapshot(), before);
+
+        assertThat(LatencyHistogram.totalCount(delta)).isEqualTo(2);
+        assertThat(delta[LatencyHistogram.indexOf(10)]).isEqualTo(1);
+        assertThat(delta[LatencyHistogram.indexOf(1_000)]).isEqualTo(1);
+        assertThat(LatencyHistogram.delta(before, null)).isEqualTo(before);
+    }
+}
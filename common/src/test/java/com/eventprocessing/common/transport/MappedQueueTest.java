@@ -0,0 +1,201 @@
+package com.eventprocessing.common.transport;
+
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedQueueTest {
+
+    private static final String TOPIC = "events";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendsAreReadBackInOrderWithKeysAndHeaders() throws IOException {
+        MappedQueue queue = new MappedQueue(directory, TOPIC, 4096, 4);
+        RecordHeaders headers = new RecordHeaders();
+        headers.add("event-type-id", new byte[]{0, 4});
+        long first = queue.append("key-1", headers, bytes("first"), 1_000);
+        long second = queue.append(null, new RecordHeaders(), null, 2_000);
+
+        List<MappedRecord> records = tailer(queue, "group").poll(10);
+
+        assertThat(first).isZero();
+        assertThat(second % 8).isZero();
+        assertThat(records).extracting(MappedRecord::getPosition).containsExactly(first, second);
+        assertThat(records.get(0).getKey()).isEqualTo("key-1");
+        assertThat(records.get(0).getHeaders().lastHeader("event-type-id").value()).containsExactly(0, 4);
+        assertThat(text(records.get(0))).isEqualTo("first");
+        assertThat(records.get(0).getPublishedAtMillis()).isEqualTo(1_000);
+        assertThat(records.get(1).getKey()).isNull();
+        assertThat(records.get(1).getValue()).isNull();
+    }
+
+    @Test
+    void concurrentWritersClaimDisjointRecords() throws Exception {
+        MappedQueue queue = new MappedQueue(directory, TOPIC, 64 * 1024, 64);
+        int writers = 4;
+        int perWriter = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perWriter; i++) {
+                    queue.append("w" + writer, new RecordHeaders(), bytes(writer + "-" + i), i);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        MappedQueueTailer tailer = tailer(queue, "group");
+        Set<String> values = new HashSet<>();
+        List<MappedRecord> batch;
+        while (!(batch = tailer.poll(500)).isEmpty()) {
+            batch.forEach(record -> values.add(text(record)));
+        }
+
+        assertThat(values).hasSize(writers * perWriter);
+        assertThat(tailer.skippedRecords()).isZero();
+    }
+
+    @Test
+    void recordThatDoesNotFitPadsTheSegment() throws IOException {
+        MappedQueue queue = new MappedQueue(directory, TOPIC, 256, 4);
+        byte[] value = new byte[80];
+
+        long first = queue.append("a", new RecordHeaders(), value, 0);
+        long second = queue.append("b", new RecordHeaders(), value, 0);
+        long third = queue.append("c", new RecordHeaders(), value, 0);
+
+        assertThat(first).isZero();
+        assertThat(second).isLessThan(256);
+        assertThat(third).isEqualTo(256);
+        assertThat(tailer(queue, "group").poll(10)).extracting(MappedRecord::getKey).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    void retentionDeletesOldSegmentsAndLaggingReadersSkipAhead() throws IOException {
+        MappedQueue queue = new MappedQueue(directory, TOPIC, 256, 2);
+        MappedQueueTailer tailer = tailer(queue, "group");
+        for (int i = 0; i < 8; i++) {
+            queue.append("k" + i, new RecordHeaders(), new byte[80], 0);
+        }
+
+        assertThat(queue.tail() / 256).isEqualTo(3);
+        assertThat(queue.oldestSegment()).isEqualTo(2);
+        assertThat(tailer.poll(10)).extracting(MappedRecord::getKey).containsExactly("k4", "k5", "k6", "k7");
+        assertThat(tailer.skippedSegments()).isEqualTo(2);
+    }
+
+    @Test
+    void cursorResumesAfterTheLastAcknowledgedRecordAndNeverMovesBack() throws IOException {
+        MappedQueue queue = new MappedQueue(directory, TOPIC, 4096, 4);
+        for (int i = 0; i < 4; i++) {
+            queue.append("k" + i, new RecordHeaders(), bytes("v" + i), 0);
+        }
+        List<MappedRecord> records = tailer(queue, "group").poll(10);
+        records.get(1).acknowledge();
+        records.get(0).acknowledge();
+
+        MappedQueueCursor cursor = queue.cursor("group");
+        assertThat(cursor.position()).isEqualTo(records.get(2).getPosition());
+        assertThat(tailer(queue, "group").poll(10)).extracting(MappedRecord::getKey).containsExactly("k2", "k3");
+        assertThat(tailer(queue, "other").poll(10)).hasSize(4);
+    }
+
+    @Test
+    void countsRecordsAcrossPaddingAndDeletedSegments() throws IOException {
+        MappedQueue queue = new MappedQueue(directory, TOPIC, 256, 2);
+        long first = queue.append("k0", new RecordHeaders(), new byte[80], 0);
+        long second = queue.append("k1", new RecordHeaders(), new byte[80], 0);
+        long third = queue.append("k2", new RecordHeaders(), new byte[80], 0);
+
+        assertThat(queue.countRecords(first, queue.tail(), Long.MAX_VALUE)).isEqualTo(3);
+        assertThat(queue.countRecords(second, third, Long.MAX_VALUE)).isEqualTo(1);
+        assertThat(queue.countRecords(first, queue.tail(), 2)).isEqualTo(2);
+
+        for (int i = 3; i < 8; i++) {
+            queue.append("k" + i, new RecordHeaders(), new byte[80], 0);
+        }
+        assertThat(queue.countRecords(first, queue.tail(), Long.MAX_VALUE)).isEqualTo(4);
+    }
+
+    @Test
+    void writerThatDiedAfterClaimingIsSkippedByItsLength() throws IOException {
+        MappedQueue queue = new MappedQueue(directory, TOPIC, 4096, 4);
+        queue.append("before", new RecordHeaders(), bytes("x"), 0);
+        long claimed = queue.tail();
+        // Claimed and died before moving the tail: the next writer moves it on its behalf
+        queue.segment(0, false).duplicate().order(ByteOrder.nativeOrder()).putInt((int) claimed, -40);
+        queue.append("after", new RecordHeaders(), bytes("y"), 0);
+
+        MappedQueueTailer tailer = tailer(queue, "group");
+        assertThat(tailer.poll(10)).extracting(MappedRecord::getKey).containsExactly("before");
+        assertThat(tailer.poll(10)).extracting(MappedRecord::getKey).containsExactly("after");
+        assertThat(tailer.skippedRecords()).isEqualTo(1);
+    }
+
+    @Test
+    void writerThatDiedAfterMovingTheTailIsSkippedByItsLength() throws IOException {
+        MappedQueue queue = new MappedQueue(directory, TOPIC, 4096, 4);
+        queue.append("before", new RecordHeaders(), bytes("x"), 0);
+        long claimed = queue.tail();
+        queue.segment(0, false).duplicate().order(ByteOrder.nativeOrder()).putInt((int) claimed, -40);
+        setTail(claimed + 40);
+        queue.append("after", new RecordHeaders(), bytes("y"), 0);
+
+        MappedQueueTailer tailer = tailer(queue, "group");
+        assertThat(tailer.poll(10)).extracting(MappedRecord::getKey).containsExactly("before");
+        assertThat(tailer.poll(10)).extracting(MappedRecord::getKey).containsExactly("after");
+        assertThat(tailer.skippedRecords()).isEqualTo(1);
+    }
+
+    private MappedQueueTailer tailer(MappedQueue queue, String group) throws IOException {
+        return new MappedQueueTailer(queue, queue.cursor(group), 0);
+    }
+
+    /**
+     * Write the tail file as another process would
+     */
+    private void setTail(long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory.resolve(TOPIC).resolve("tail"),
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer tail = channel.map(FileChannel.MapMode.READ_WRITE, 0, 8);
+            tail.order(ByteOrder.nativeOrder()).putLong(0, position);
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(MappedRecord record) {
+        ByteBuffer value = record.getValue();
+        byte[] bytes = new byte[value.remaining()];
+        value.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
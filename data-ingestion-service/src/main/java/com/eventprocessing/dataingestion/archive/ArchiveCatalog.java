@@ -0,0 +1,201 @@
+package com.eventprocessing.dataingestion.archive;
+
+import com.eventprocessing.common.util.EventBuckets;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * On-disk layout of the cold archive: one directory per exported daily bucket holding
+ * its segment files and a MANIFEST that marks the export as complete. The MANIFEST
+ * lists the committed segments, so new segments are written beside the old ones and
+ * replace or extend them only when the MANIFEST is atomically rewritten. Opened
+ * segments are kept mapped so repeated scans only pay for column decoding.
+ */
+@Slf4j
+@Component
+public class ArchiveCatalog {
+
+    static final String MANIFEST = "MANIFEST";
+
+    private static final String ROWS = "rows=";
+    private static final String SEGMENTS = "segments=";
+    private static final String SEGMENT = "segment=";
+    private static final String DROPPED = "dropped=";
+
+    private final Path directory;
+    private final Map<String, List<ArchiveSegment>> openBuckets = new ConcurrentHashMap<>();
+
+    public ArchiveCatalog(@Value("${app.archive.directory:./data/archive}") String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    /**
+     * Buckets with a completed export, oldest first
+     */
+    public List<String> archivedBuckets() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> children = Files.list(directory)) {
+            return children
+                    .filter(child -> EventBuckets.isBucket(child.getFileName().toString()))
+                    .filter(child -> Files.exists(child.resolve(MANIFEST)))
+                    .map(child -> child.getFileName().toString())
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public boolean isArchived(String bucket) {
+        return Files.exists(directory.resolve(bucket).resolve(MANIFEST));
+    }
+
+    /**
+     * Archived buckets overlapping [from, to), oldest first
+     */
+    List<String> bucketsBetween(Instant from, Instant to) {
+        return archivedBuckets().stream()
+                .filter(bucket -> from == null || EventBuckets.endOf(bucket).isAfter(from))
+                .filter(bucket -> to == null || EventBuckets.startOf(bucket).isBefore(to))
+                .toList();
+    }
+
+    /**
+     * Mapped segments of an archived bucket in timestamp order
+     */
+    List<ArchiveSegment> segments(String bucket) {
+        return openBuckets.computeIfAbsent(bucket, this::openSegments);
+    }
+
+    /**
+     * The committed export of a bucket, or null when it has none
+     */
+    Manifest manifest(String bucket) {
+        Path file = directory.resolve(bucket).resolve(MANIFEST);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            long rows = 0;
+            int segmentCount = 0;
+            boolean dropped = false;
+            List<String> segments = new ArrayList<>();
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.startsWith(ROWS)) {
+                    rows = Long.parseLong(line.substring(ROWS.length()));
+                } else if (line.startsWith(SEGMENTS)) {
+                    segmentCount = Integer.parseInt(line.substring(SEGMENTS.length()));
+                } else if (line.startsWith(SEGMENT)) {
+                    segments.add(line.substring(SEGMENT.length()));
+                } else if (line.startsWith(DROPPED)) {
+                    dropped = Boolean.parseBoolean(line.substring(DROPPED.length()));
+                }
+            }
+            if (segments.isEmpty()) {
+                // Written before the MANIFEST listed its segments: seg-00000 onwards
+                for (int i = 0; i < segmentCount; i++) {
+                    segments.add(segmentFileName(i));
+                }
+            }
+            return new Manifest(rows, List.copyOf(segments), dropped);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Path for a new segment of the bucket, after every segment file already there,
+     * committed or not, so a write never replaces a committed segment
+     */
+    Path newSegmentPath(String bucket) throws IOException {
+        Path bucketDirectory = Files.createDirectories(directory.resolve(bucket));
+        int next = 0;
+        try (Stream<Path> files = Files.list(bucketDirectory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.startsWith("seg-") && name.endsWith(SegmentFormat.FILE_SUFFIX)) {
+                    next = Math.max(next, Integer.parseInt(name.substring(4, name.length() - SegmentFormat.FILE_SUFFIX.length())) + 1);
+                }
+            }
+        }
+        return bucketDirectory.resolve(segmentFileName(next));
+    }
+
+    /**
+     * Atomically make manifest the bucket's committed export, then delete segment files it
+     * no longer lists; until the first commit scans ignore the bucket
+     */
+    void commit(String bucket, Manifest manifest) throws IOException {
+        Path bucketDirectory = Files.createDirectories(directory.resolve(bucket));
+        StringBuilder content = new StringBuilder()
+                .append(ROWS).append(manifest.rows()).append('\n')
+                .append(SEGMENTS).append(manifest.segments().size()).append('\n')
+                .append(DROPPED).append(manifest.dropped()).append('\n');
+        for (String segment : manifest.segments()) {
+            content.append(SEGMENT).append(segment).append('\n');
+        }
+
+        Path temp = bucketDirectory.resolve(MANIFEST + ".tmp");
+        Files.writeString(temp, content, StandardCharsets.UTF_8);
+        Files.move(temp, bucketDirectory.resolve(MANIFEST), StandardCopyOption.ATOMIC_MOVE);
+        openBuckets.remove(bucket);
+
+        try (Stream<Path> files = Files.list(bucketDirectory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(SegmentFormat.FILE_SUFFIX) && !manifest.segments().contains(name)) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private List<ArchiveSegment> openSegments(String bucket) {
+        Manifest manifest = manifest(bucket);
+        if (manifest == null) {
+            return List.of();
+        }
+        try {
+            List<ArchiveSegment> segments = new ArrayList<>();
+            for (String file : manifest.segments()) {
+                segments.add(ArchiveSegment.open(directory.resolve(bucket).resolve(file)));
+            }
+            log.debug("Mapped {} archive segments for bucket {}", segments.size(), bucket);
+            return List.copyOf(segments);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String segmentFileName(int index) {
+        return String.format("seg-%05d%s", index, SegmentFormat.FILE_SUFFIX);
+    }
+
+    /**
+     * Committed export of one bucket: its row count, segment files in timestamp order
+     * within each export, and whether the MongoDB bucket was dropped afterwards
+     */
+    record Manifest(long rows, List<String> segments, boolean dropped) {
+
+        Manifest withDropped() {
+            return new Manifest(rows, segments, true);
+        }
+    }
+}
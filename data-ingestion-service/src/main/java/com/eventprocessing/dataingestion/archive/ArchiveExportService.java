@@ -0,0 +1,226 @@
+package com.eventprocessing.dataingestion.archive;
+
+import com.eventprocessing.common.util.EventBuckets;
+import com.eventprocessing.dataingestion.entity.EventEntity;
+import com.eventprocessing.dataingestion.payload.PayloadCodec;
+import com.eventprocessing.dataingestion.repository.EventBucketRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Moves closed daily buckets out of MongoDB into the columnar archive so MongoDB only
+ * holds the hot window. A bucket is dropped only after its export has been re-read
+ * and its row count still matches the collection. Late events that recreate a dropped
+ * bucket are appended to its archive as extra segments on the next run.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArchiveExportService {
+
+    private static final Sort OLDEST_FIRST = Sort.by(Sort.Direction.ASC, "timestamp", "eventId");
+
+    private final MongoTemplate mongoTemplate;
+    private final EventBucketRouter bucketRouter;
+    private final ArchiveCatalog catalog;
+    private final PayloadCodec payloadCodec;
+
+    @Value("${app.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.archive.hot-days:7}")
+    private int hotDays;
+
+    @Value("${app.archive.rows-per-segment:100000}")
+    private int rowsPerSegment;
+
+    @Value("${app.archive.drop-after-export:true}")
+    private boolean dropAfterExport;
+
+    @Value("${app.archive.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Export every bucket whose whole day lies outside the hot window
+     */
+    @Scheduled(cron = "${app.archive.cron:0 45 0 * * *}", zone = "UTC")
+    public void exportClosedBuckets() {
+        if (!enabled) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(Duration.ofDays(hotDays));
+
+        // allBuckets() is newest first; archive oldest first so a failure leaves the gap at the cold end
+        List<String> closed = new ArrayList<>(bucketRouter.allBuckets().stream()
+                .filter(collection -> !EventBuckets.endOf(collection).isAfter(cutoff))
+                .toList());
+        Collections.reverse(closed);
+
+        for (String collection : closed) {
+            try {
+                exportBucket(collection);
+            } catch (Exception e) {
+                log.error("Error archiving event bucket {}", collection, e);
+            }
+        }
+    }
+
+    /**
+     * Export one bucket, then drop it from MongoDB if configured to
+     *
+     * @return number of archived events
+     */
+    public long exportBucket(String collection) throws IOException {
+        if (!EventBuckets.isBucket(collection)) {
+            throw new IllegalArgumentException("Not an event bucket: " + collection);
+        }
+
+        ArchiveCatalog.Manifest manifest = catalog.manifest(collection);
+        if (manifest == null) {
+            manifest = exportWithRetry(collection, null);
+        } else if (manifest.dropped()) {
+            // Late events recreated the bucket after it was dropped; only they are left in MongoDB
+            manifest = exportWithRetry(collection, manifest);
+        } else if (mongoTemplate.count(new Query(), collection) != manifest.rows()) {
+            // Late writes landed after the export; the bucket still holds every event, so export it again
+            log.warn("Event bucket {} changed after it was archived, re-exporting", collection);
+            manifest = exportWithRetry(collection, null);
+        }
+
+        if (dropAfterExport) {
+            // Recorded before the drop, so a bucket recreated later is appended to rather than re-exported
+            if (!manifest.dropped()) {
+                manifest = manifest.withDropped();
+                catalog.commit(collection, manifest);
+            }
+            bucketRouter.drop(collection);
+            log.info("Archived and dropped event bucket {} ({} events)", collection, manifest.rows());
+        }
+        return manifest.rows();
+    }
+
+    /**
+     * Export the bucket, or append it to {@code appendTo}, once more if the collection
+     * changed while it was read
+     */
+    private ArchiveCatalog.Manifest exportWithRetry(String collection, ArchiveCatalog.Manifest appendTo) throws IOException {
+        ArchiveCatalog.Manifest manifest = export(collection, appendTo);
+        if (manifest == null) {
+            log.warn("Event bucket {} changed during export, exporting again", collection);
+            manifest = export(collection, appendTo);
+            if (manifest == null) {
+                throw new IllegalStateException("Event bucket " + collection + " kept changing during export");
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * Write the bucket's documents to new segments and commit them, replacing the current
+     * export or, when {@code appendTo} is given, extending it with the documents it does not
+     * hold yet. Returns null without committing when the collection changed meanwhile.
+     */
+    private ArchiveCatalog.Manifest export(String collection, ArchiveCatalog.Manifest appendTo) throws IOException {
+        Set<String> archived = appendTo != null ? archivedEventIds(collection) : Set.of();
+        ArchiveSegmentWriter writer = new ArchiveSegmentWriter();
+        List<Path> written = new ArrayList<>();
+        long read = 0;
+        long rows = 0;
+
+        Query query = new Query().with(OLDEST_FIRST).cursorBatchSize(fetchSize);
+        try (Stream<EventEntity> stream = mongoTemplate.stream(query, EventEntity.class, collection)) {
+            Iterator<EventEntity> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                EventEntity entity = iterator.next();
+                read++;
+                if (archived.contains(entity.getEventId())) {
+                    continue;
+                }
+                writer.add(payloadCodec.inflate(entity));
+                rows++;
+                if (writer.size() >= rowsPerSegment) {
+                    written.add(writeSegment(collection, writer));
+                }
+            }
+        }
+        if (writer.size() > 0) {
+            written.add(writeSegment(collection, writer));
+        }
+
+        // Re-read the headers before the export counts as complete
+        long verified = 0;
+        for (Path segment : written) {
+            verified += ArchiveSegment.open(segment).getRowCount();
+        }
+        if (verified != rows) {
+            throw new IllegalStateException("Archive of " + collection + " holds " + verified + " rows, expected " + rows);
+        }
+        if (mongoTemplate.count(new Query(), collection) != read) {
+            return null;
+        }
+
+        List<String> segments = new ArrayList<>(appendTo != null ? appendTo.segments() : List.of());
+        written.forEach(segment -> segments.add(segment.getFileName().toString()));
+        ArchiveCatalog.Manifest manifest = new ArchiveCatalog.Manifest(
+                (appendTo != null ? appendTo.rows() : 0) + rows, List.copyOf(segments), appendTo != null && appendTo.dropped());
+        catalog.commit(collection, manifest);
+
+        if (appendTo != null) {
+            log.info("Appended {} late events of bucket {} to {} archive segments ({} already archived)",
+                    rows, collection, written.size(), read - rows);
+        } else {
+            log.info("Exported event bucket {} to {} archive segments ({} events)", collection, written.size(), rows);
+        }
+        return manifest;
+    }
+
+    /**
+     * Ids of the archived events that are also in the collection again, e.g. redelivered
+     * after the drop or left by a drop that did not complete
+     */
+    private Set<String> archivedEventIds(String collection) {
+        Set<String> present = new HashSet<>();
+        Query query = new Query().cursorBatchSize(fetchSize);
+        query.fields().include("eventId");
+        try (Stream<EventEntity> stream = mongoTemplate.stream(query, EventEntity.class, collection)) {
+            stream.forEach(entity -> present.add(entity.getEventId()));
+        }
+
+        Set<String> archived = new HashSet<>();
+        for (ArchiveSegment segment : catalog.segments(collection)) {
+            boolean[] all = new boolean[segment.getRowCount()];
+            Arrays.fill(all, true);
+            for (String eventId : segment.strings(SegmentFormat.COLUMN_EVENT_ID, all)) {
+                if (present.contains(eventId)) {
+                    archived.add(eventId);
+                }
+            }
+        }
+        return archived;
+    }
+
+    private Path writeSegment(String collection, ArchiveSegmentWriter writer) throws IOException {
+        Path segment = catalog.newSegmentPath(collection);
+        writer.writeTo(segment);
+        return segment;
+    }
+}
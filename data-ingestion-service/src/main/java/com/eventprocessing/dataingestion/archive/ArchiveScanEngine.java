@@ -0,0 +1,427 @@
+package com.eventprocessing.dataingestion.archive;
+
+import com.eventprocessing.dataingestion.model.ArchiveQuery;
+import com.eventprocessing.dataingestion.model.ArchiveScanResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Scans archived segments with predicate pushdown. Buckets and segments whose
+ * min/max timestamps miss the range, or whose dictionaries lack a filtered value,
+ * are skipped without decoding; filters are evaluated on dictionary codes and only
+ * the columns a query needs are inflated. Replays read one bucket's rows in
+ * (timestamp, eventId) order, decoding each segment only once the merge reaches it.
+ */
+@Component
+@RequiredArgsConstructor
+public class ArchiveScanEngine {
+
+    private static final Set<String> GROUP_BY_DIMENSIONS = Set.of("eventType", "source", "status", "hour", "day");
+    private static final int ANY = Integer.MIN_VALUE;
+    private static final Comparator<ArchiveScanResult.Row> ROW_ORDER = Comparator
+            .comparing(ArchiveScanResult.Row::getTimestamp)
+            .thenComparing(ArchiveScanResult.Row::getEventId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final ArchiveCatalog catalog;
+
+    /**
+     * Count matching events, grouped when the query has a groupBy
+     */
+    public ArchiveScanResult count(ArchiveQuery query) {
+        validate(query);
+        long from = query.getFrom() != null ? query.getFrom().toEpochMilli() : Long.MIN_VALUE;
+        long to = query.getTo() != null ? query.getTo().toEpochMilli() : Long.MAX_VALUE;
+
+        List<SegmentScan> scans = segmentsFor(query).parallelStream()
+                .map(segment -> countSegment(segment, query, from, to))
+                .toList();
+
+        ArchiveScanResult result = summarise(scans);
+        if (query.getGroupBy() != null) {
+            Map<String, Long> groups = new TreeMap<>();
+            scans.forEach(scan -> scan.groups.forEach((key, value) -> groups.merge(key, value, Long::sum)));
+            result.setGroups(groups);
+        }
+        return result;
+    }
+
+    /**
+     * Matching rows in timestamp order, stopping once limit rows are found
+     */
+    public ArchiveScanResult find(ArchiveQuery query, int limit) {
+        validate(query);
+        long from = query.getFrom() != null ? query.getFrom().toEpochMilli() : Long.MIN_VALUE;
+        long to = query.getTo() != null ? query.getTo().toEpochMilli() : Long.MAX_VALUE;
+
+        List<SegmentScan> scans = new ArrayList<>();
+        List<ArchiveScanResult.Row> rows = new ArrayList<>();
+        for (ArchiveSegment segment : segmentsFor(query)) {
+            if (rows.size() >= limit) {
+                break;
+            }
+            scans.add(findInSegment(segment, query, from, to, limit - rows.size(), rows));
+        }
+
+        ArchiveScanResult result = summarise(scans);
+        result.setMatched(rows.size());
+        result.setRows(rows);
+        return result;
+    }
+
+    /**
+     * Archived buckets overlapping [from, to) whose MongoDB copy was dropped, oldest first
+     */
+    public List<String> droppedBucketsBetween(Instant from, Instant to) {
+        return catalog.bucketsBetween(from, to).stream()
+                .filter(bucket -> catalog.manifest(bucket).dropped())
+                .toList();
+    }
+
+    /**
+     * Count the matching events of one archived bucket
+     */
+    public long count(String bucket, ArchiveQuery query) {
+        validate(query);
+        long from = query.getFrom() != null ? query.getFrom().toEpochMilli() : Long.MIN_VALUE;
+        long to = query.getTo() != null ? query.getTo().toEpochMilli() : Long.MAX_VALUE;
+        return catalog.segments(bucket).stream()
+                .mapToLong(segment -> countSegment(segment, query, from, to).matched)
+                .sum();
+    }
+
+    /**
+     * Rows of one archived bucket in [from, to) and of the given types (all when empty),
+     * strictly after (afterTimestamp, afterEventId) when given, in (timestamp, eventId) order
+     */
+    public Iterator<ArchiveScanResult.Row> rowsAfter(String bucket, Instant from, Instant to, Collection<String> eventTypes,
+                                                     Instant afterTimestamp, String afterEventId) {
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        long afterMillis = afterTimestamp != null ? afterTimestamp.toEpochMilli() : Long.MIN_VALUE;
+        List<ArchiveSegment> segments = catalog.segments(bucket).stream()
+                .filter(segment -> segment.getMaxTimestamp() >= Math.max(fromMillis, afterMillis) && segment.getMinTimestamp() < toMillis)
+                .sorted(Comparator.comparingLong(ArchiveSegment::getMinTimestamp))
+                .toList();
+        return new MergingIterator(segments, segment -> rowsAfter(segment, fromMillis, toMillis, eventTypes, afterMillis, afterEventId));
+    }
+
+    private List<ArchiveSegment> segmentsFor(ArchiveQuery query) {
+        List<ArchiveSegment> segments = new ArrayList<>();
+        for (String bucket : catalog.bucketsBetween(query.getFrom(), query.getTo())) {
+            segments.addAll(catalog.segments(bucket));
+        }
+        return segments;
+    }
+
+    private SegmentScan countSegment(ArchiveSegment segment, ArchiveQuery query, long from, long to) {
+        Predicate predicate = Predicate.of(segment, query, from, to);
+        if (predicate == null) {
+            return SegmentScan.SKIPPED;
+        }
+
+        String groupBy = query.getGroupBy();
+        boolean timeCovered = segment.getMinTimestamp() >= from && segment.getMaxTimestamp() < to;
+
+        // The min/max index alone answers ungrouped counts that only filter on time
+        if (groupBy == null && timeCovered && !predicate.filtersOnCodes()) {
+            return new SegmentScan(segment.getRowCount(), Map.of(), false);
+        }
+
+        boolean timeGrouping = "hour".equals(groupBy) || "day".equals(groupBy);
+        long[] timestamps = timeCovered && !timeGrouping ? null : segment.timestamps();
+        int[] eventTypes = predicate.eventType != ANY || "eventType".equals(groupBy) ? segment.codes(SegmentFormat.COLUMN_EVENT_TYPE) : null;
+        int[] sources = predicate.source != ANY || "source".equals(groupBy) ? segment.codes(SegmentFormat.COLUMN_SOURCE) : null;
+        int[] statuses = predicate.status != ANY || "status".equals(groupBy) ? segment.codes(SegmentFormat.COLUMN_STATUS) : null;
+
+        long matched = 0;
+        long[] codeCounts = null;
+        Map<Long, Long> timeCounts = null;
+        if (groupBy != null && !timeGrouping) {
+            codeCounts = new long[dictionarySize(segment, groupBy) + 1];
+        } else if (timeGrouping) {
+            timeCounts = new HashMap<>();
+        }
+        long unit = "day".equals(groupBy) ? ChronoUnit.DAYS.getDuration().toMillis() : ChronoUnit.HOURS.getDuration().toMillis();
+
+        for (int i = 0; i < segment.getRowCount(); i++) {
+            if (!predicate.matches(i, timestamps, eventTypes, sources, statuses)) {
+                continue;
+            }
+            matched++;
+            if (codeCounts != null) {
+                int[] groupCodes = switch (groupBy) {
+                    case "eventType" -> eventTypes;
+                    case "source" -> sources;
+                    default -> statuses;
+                };
+                codeCounts[groupCodes[i]]++;
+            } else if (timeCounts != null) {
+                timeCounts.merge(Math.floorDiv(timestamps[i], unit) * unit, 1L, Long::sum);
+            }
+        }
+
+        Map<String, Long> groups = new HashMap<>();
+        if (codeCounts != null) {
+            byte column = dictionaryColumn(groupBy);
+            for (int code = 0; code < codeCounts.length; code++) {
+                if (codeCounts[code] > 0) {
+                    String value = segment.valueOf(column, code);
+                    groups.merge(value != null ? value : "unknown", codeCounts[code], Long::sum);
+                }
+            }
+        } else if (timeCounts != null) {
+            timeCounts.forEach((start, count) -> groups.put(Instant.ofEpochMilli(start).toString(), count));
+        }
+        return new SegmentScan(matched, groups, false);
+    }
+
+    private SegmentScan findInSegment(ArchiveSegment segment, ArchiveQuery query, long from, long to,
+                                      int remaining, List<ArchiveScanResult.Row> rows) {
+        Predicate predicate = Predicate.of(segment, query, from, to);
+        if (predicate == null) {
+            return SegmentScan.SKIPPED;
+        }
+
+        long[] timestamps = segment.timestamps();
+        int[] eventTypes = segment.codes(SegmentFormat.COLUMN_EVENT_TYPE);
+        int[] sources = segment.codes(SegmentFormat.COLUMN_SOURCE);
+        int[] statuses = segment.codes(SegmentFormat.COLUMN_STATUS);
+
+        boolean[] selected = new boolean[segment.getRowCount()];
+        int matched = 0;
+        for (int i = 0; i < selected.length && matched < remaining; i++) {
+            if (predicate.matches(i, timestamps, eventTypes, sources, statuses)) {
+                selected[i] = true;
+                matched++;
+            }
+        }
+        if (matched == 0) {
+            return new SegmentScan(0, Map.of(), false);
+        }
+
+        rows.addAll(decode(segment, selected, timestamps, eventTypes, sources, statuses));
+        return new SegmentScan(matched, Map.of(), false);
+    }
+
+    /**
+     * Selected rows of one segment after the checkpoint, sorted by (timestamp, eventId)
+     */
+    private static List<ArchiveScanResult.Row> rowsAfter(ArchiveSegment segment, long from, long to, Collection<String> eventTypes,
+                                                         long afterMillis, String afterEventId) {
+        long[] timestamps = segment.timestamps();
+        int[] eventTypeCodes = segment.codes(SegmentFormat.COLUMN_EVENT_TYPE);
+        boolean[] wantedTypes = new boolean[segment.getEventTypes().size() + 1];
+        wantedTypes[0] = eventTypes.isEmpty();
+        for (int code = 1; code < wantedTypes.length; code++) {
+            wantedTypes[code] = eventTypes.isEmpty() || eventTypes.contains(segment.valueOf(SegmentFormat.COLUMN_EVENT_TYPE, code));
+        }
+
+        boolean[] selected = new boolean[segment.getRowCount()];
+        boolean any = false;
+        for (int i = 0; i < selected.length; i++) {
+            selected[i] = timestamps[i] >= from && timestamps[i] < to && timestamps[i] >= afterMillis
+                    && wantedTypes[eventTypeCodes[i]];
+            any |= selected[i];
+        }
+        if (!any) {
+            return List.of();
+        }
+
+        List<ArchiveScanResult.Row> rows = new ArrayList<>(decode(segment, selected, timestamps, eventTypeCodes,
+                segment.codes(SegmentFormat.COLUMN_SOURCE), segment.codes(SegmentFormat.COLUMN_STATUS)));
+        if (afterEventId != null) {
+            // Timestamps are archived in millis, so ties at the checkpoint are broken by eventId
+            rows.removeIf(row -> row.getTimestamp().toEpochMilli() == afterMillis && row.getEventId().compareTo(afterEventId) <= 0);
+        }
+        rows.sort(ROW_ORDER);
+        return rows;
+    }
+
+    /**
+     * Materialise the selected rows; wide string columns are only decoded for them
+     */
+    private static List<ArchiveScanResult.Row> decode(ArchiveSegment segment, boolean[] selected, long[] timestamps,
+                                                      int[] eventTypes, int[] sources, int[] statuses) {
+        String[] eventIds = segment.strings(SegmentFormat.COLUMN_EVENT_ID, selected);
+        String[] correlationIds = segment.strings(SegmentFormat.COLUMN_CORRELATION_ID, selected);
+        String[] payloads = segment.strings(SegmentFormat.COLUMN_PAYLOAD, selected);
+        String[] attributes = segment.strings(SegmentFormat.COLUMN_ATTRIBUTES, selected);
+        String[] metadata = segment.strings(SegmentFormat.COLUMN_METADATA, selected);
+        String[] errorMessages = segment.strings(SegmentFormat.COLUMN_ERROR_MESSAGE, selected);
+        Long[] retryCounts = segment.optionalLongs(SegmentFormat.COLUMN_RETRY_COUNT, selected);
+        Long[] processedAts = segment.optionalLongs(SegmentFormat.COLUMN_PROCESSED_AT, selected);
+        Long[] createdAts = segment.optionalLongs(SegmentFormat.COLUMN_CREATED_AT, selected);
+
+        List<ArchiveScanResult.Row> rows = new ArrayList<>();
+        for (int i = 0; i < selected.length; i++) {
+            if (selected[i]) {
+                rows.add(ArchiveScanResult.Row.builder()
+                        .eventId(eventIds[i])
+                        .eventType(segment.valueOf(SegmentFormat.COLUMN_EVENT_TYPE, eventTypes[i]))
+                        .source(segment.valueOf(SegmentFormat.COLUMN_SOURCE, sources[i]))
+                        .status(segment.valueOf(SegmentFormat.COLUMN_STATUS, statuses[i]))
+                        .correlationId(correlationIds[i])
+                        .timestamp(Instant.ofEpochMilli(timestamps[i]))
+                        .payload(payloads[i])
+                        .attributes(attributes[i])
+                        .metadata(metadata[i])
+                        .errorMessage(errorMessages[i])
+                        .retryCount(retryCounts[i] != null ? retryCounts[i].intValue() : null)
+                        .processedAt(processedAts[i] != null ? Instant.ofEpochMilli(processedAts[i]) : null)
+                        .createdAt(createdAts[i] != null ? Instant.ofEpochMilli(createdAts[i]) : null)
+                        .build());
+            }
+        }
+        return rows;
+    }
+
+    private static ArchiveScanResult summarise(List<SegmentScan> scans) {
+        long matched = 0;
+        int scanned = 0;
+        int skipped = 0;
+        for (SegmentScan scan : scans) {
+            matched += scan.matched;
+            if (scan.skipped) {
+                skipped++;
+            } else {
+                scanned++;
+            }
+        }
+        return ArchiveScanResult.builder()
+                .matched(matched)
+                .segmentsScanned(scanned)
+                .segmentsSkipped(skipped)
+                .build();
+    }
+
+    private static void validate(ArchiveQuery query) {
+        if (query.getGroupBy() != null && !GROUP_BY_DIMENSIONS.contains(query.getGroupBy())) {
+            throw new IllegalArgumentException("groupBy must be one of " + GROUP_BY_DIMENSIONS);
+        }
+        if (query.getFrom() != null && query.getTo() != null && !query.getFrom().isBefore(query.getTo())) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+    }
+
+    private static byte dictionaryColumn(String dimension) {
+        return switch (dimension) {
+            case "eventType" -> SegmentFormat.COLUMN_EVENT_TYPE;
+            case "source" -> SegmentFormat.COLUMN_SOURCE;
+            default -> SegmentFormat.COLUMN_STATUS;
+        };
+    }
+
+    private static int dictionarySize(ArchiveSegment segment, String dimension) {
+        return switch (dimension) {
+            case "eventType" -> segment.getEventTypes().size();
+            case "source" -> segment.getSources().size();
+            default -> segment.getStatuses().size();
+        };
+    }
+
+    /**
+     * K-way merge of sorted per-segment rows. Segments are sorted by min timestamp and
+     * only decoded once no open segment has an earlier row, so segments that do not
+     * overlap are held in memory one at a time.
+     */
+    private static final class MergingIterator implements Iterator<ArchiveScanResult.Row> {
+
+        private final List<ArchiveSegment> pending;
+        private final Function<ArchiveSegment, List<ArchiveScanResult.Row>> decoder;
+        private final PriorityQueue<Iterator<ArchiveScanResult.Row>> open;
+        private final Map<Iterator<ArchiveScanResult.Row>, ArchiveScanResult.Row> heads = new IdentityHashMap<>();
+        private int next;
+
+        MergingIterator(List<ArchiveSegment> pending, Function<ArchiveSegment, List<ArchiveScanResult.Row>> decoder) {
+            this.pending = pending;
+            this.decoder = decoder;
+            this.open = new PriorityQueue<>((a, b) -> ROW_ORDER.compare(heads.get(a), heads.get(b)));
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next < pending.size()
+                    && (open.isEmpty() || pending.get(next).getMinTimestamp() <= heads.get(open.peek()).getTimestamp().toEpochMilli())) {
+                Iterator<ArchiveScanResult.Row> rows = decoder.apply(pending.get(next++)).iterator();
+                if (rows.hasNext()) {
+                    heads.put(rows, rows.next());
+                    open.add(rows);
+                }
+            }
+            return !open.isEmpty();
+        }
+
+        @Override
+        public ArchiveScanResult.Row next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Iterator<ArchiveScanResult.Row> rows = open.poll();
+            ArchiveScanResult.Row row = heads.remove(rows);
+            if (rows.hasNext()) {
+                heads.put(rows, rows.next());
+                open.add(rows);
+            }
+            return row;
+        }
+    }
+
+    private record SegmentScan(long matched, Map<String, Long> groups, boolean skipped) {
+        static final SegmentScan SKIPPED = new SegmentScan(0, Map.of(), true);
+    }
+
+    /**
+     * Query filters translated into one segment's dictionary codes
+     */
+    private record Predicate(long from, long to, int eventType, int source, int status) {
+
+        /**
+         * Predicate for the segment, or null when the segment cannot contain a match
+         */
+        static Predicate of(ArchiveSegment segment, ArchiveQuery query, long from, long to) {
+            if (segment.getMaxTimestamp() < from || segment.getMinTimestamp() >= to) {
+                return null;
+            }
+            int eventType = code(segment, SegmentFormat.COLUMN_EVENT_TYPE, query.getEventType());
+            int source = code(segment, SegmentFormat.COLUMN_SOURCE, query.getSource());
+            int status = code(segment, SegmentFormat.COLUMN_STATUS, query.getStatus());
+            if (eventType == -1 || source == -1 || status == -1) {
+                return null;
+            }
+            return new Predicate(from, to, eventType, source, status);
+        }
+
+        boolean filtersOnCodes() {
+            return eventType != ANY || source != ANY || status != ANY;
+        }
+
+        boolean matches(int row, long[] timestamps, int[] eventTypes, int[] sources, int[] statuses) {
+            if (timestamps != null && (timestamps[row] < from || timestamps[row] >= to)) {
+                return false;
+            }
+            return (eventType == ANY || eventTypes[row] == eventType)
+                    && (source == ANY || sources[row] == source)
+                    && (status == ANY || statuses[row] == status);
+        }
+
+        private static int code(ArchiveSegment segment, byte column, String value) {
+            return value == null ? ANY : segment.codeOf(column, value);
+        }
+    }
+}
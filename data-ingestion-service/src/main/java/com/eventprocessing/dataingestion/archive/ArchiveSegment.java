@@ -0,0 +1,220 @@
+package com.eventprocessing.dataingestion.archive;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Read-only, memory-mapped view of one archive segment. Only the header is parsed
+ * up front; columns are inflated on demand so a scan touches just what it needs.
+ */
+class ArchiveSegment {
+
+    private final Path path;
+    private final MappedByteBuffer mapped;
+    private final int rowCount;
+    private final long minTimestamp;
+    private final long maxTimestamp;
+    private final List<String> eventTypes;
+    private final List<String> sources;
+    private final List<String> statuses;
+    private final Map<Byte, long[]> columns = new HashMap<>();
+
+    private ArchiveSegment(Path path, MappedByteBuffer mapped) {
+        this.path = path;
+        this.mapped = mapped;
+
+        ByteBuffer header = mapped.duplicate();
+        byte[] magic = new byte[SegmentFormat.MAGIC.length];
+        header.get(magic);
+        if (!Arrays.equals(magic, SegmentFormat.MAGIC)) {
+            throw new IllegalStateException("Not an archive segment: " + path);
+        }
+        this.rowCount = header.getInt();
+        this.minTimestamp = header.getLong();
+        this.maxTimestamp = header.getLong();
+        this.eventTypes = readDictionary(header);
+        this.sources = readDictionary(header);
+        this.statuses = readDictionary(header);
+
+        int columnCount = header.getInt();
+        for (int i = 0; i < columnCount; i++) {
+            byte id = header.get();
+            long offset = header.getLong();
+            int compressedLength = header.getInt();
+            int rawLength = header.getInt();
+            columns.put(id, new long[]{offset, compressedLength, rawLength});
+        }
+    }
+
+    static ArchiveSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new ArchiveSegment(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    long getMinTimestamp() {
+        return minTimestamp;
+    }
+
+    long getMaxTimestamp() {
+        return maxTimestamp;
+    }
+
+    List<String> getEventTypes() {
+        return eventTypes;
+    }
+
+    List<String> getSources() {
+        return sources;
+    }
+
+    List<String> getStatuses() {
+        return statuses;
+    }
+
+    /**
+     * Dictionary code of value in the given column, 0 for null and -1 when absent
+     */
+    int codeOf(byte column, String value) {
+        if (value == null) {
+            return 0;
+        }
+        int index = dictionary(column).indexOf(value);
+        return index < 0 ? -1 : index + 1;
+    }
+
+    /**
+     * Decoded value for a dictionary code
+     */
+    String valueOf(byte column, int code) {
+        return code == 0 ? null : dictionary(column).get(code - 1);
+    }
+
+    /**
+     * Absolute epoch millis of every row
+     */
+    long[] timestamps() {
+        ByteBuffer in = column(SegmentFormat.COLUMN_TIMESTAMP);
+        long[] values = new long[rowCount];
+        long previous = minTimestamp;
+        for (int i = 0; i < rowCount; i++) {
+            previous += SegmentFormat.unZigZag(SegmentFormat.readVarLong(in));
+            values[i] = previous;
+        }
+        return values;
+    }
+
+    /**
+     * Dictionary codes of every row for eventType, source or status
+     */
+    int[] codes(byte column) {
+        ByteBuffer in = column(column);
+        int[] values = new int[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            values[i] = (int) SegmentFormat.readVarLong(in);
+        }
+        return values;
+    }
+
+    /**
+     * Values of a string column for the selected rows only (null entries elsewhere)
+     */
+    String[] strings(byte column, boolean[] selected) {
+        String[] values = new String[rowCount];
+        if (!columns.containsKey(column)) {
+            // Written before the column existed
+            return values;
+        }
+        ByteBuffer in = column(column);
+        for (int i = 0; i < rowCount; i++) {
+            if (selected[i]) {
+                values[i] = SegmentFormat.readString(in);
+            } else {
+                SegmentFormat.skipString(in);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Values of an optional number column for the selected rows only (null entries elsewhere)
+     */
+    Long[] optionalLongs(byte column, boolean[] selected) {
+        Long[] values = new Long[rowCount];
+        if (!columns.containsKey(column)) {
+            return values;
+        }
+        ByteBuffer in = column(column);
+        for (int i = 0; i < rowCount; i++) {
+            Long value = SegmentFormat.readOptionalLong(in);
+            if (selected[i]) {
+                values[i] = value;
+            }
+        }
+        return values;
+    }
+
+    private List<String> dictionary(byte column) {
+        return switch (column) {
+            case SegmentFormat.COLUMN_EVENT_TYPE -> eventTypes;
+            case SegmentFormat.COLUMN_SOURCE -> sources;
+            case SegmentFormat.COLUMN_STATUS -> statuses;
+            default -> throw new IllegalArgumentException("Not a dictionary column: " + column);
+        };
+    }
+
+    private ByteBuffer column(byte id) {
+        long[] entry = columns.get(id);
+        if (entry == null) {
+            throw new IllegalStateException("Segment " + path + " has no column " + id);
+        }
+        ByteBuffer compressed = mapped.slice((int) entry[0], (int) entry[1]);
+        byte[] raw = new byte[(int) entry[2]];
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            int read = 0;
+            while (read < raw.length && !inflater.finished()) {
+                read += inflater.inflate(raw, read, raw.length - read);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt column " + id + " in segment " + path, e);
+        } finally {
+            inflater.end();
+        }
+        return ByteBuffer.wrap(raw);
+    }
+
+    private static List<String> readDictionary(ByteBuffer in) {
+        int size = in.getInt();
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            byte[] bytes = new byte[in.getShort() & 0xFFFF];
+            in.get(bytes);
+            values.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return List.copyOf(values);
+    }
+}
@@ -0,0 +1,164 @@
+package com.eventprocessing.dataingestion.archive;
+
+import com.eventprocessing.common.util.JsonUtil;
+import com.eventprocessing.dataingestion.entity.EventEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Buffers rows (in timestamp order) and writes them as one columnar segment file
+ */
+class ArchiveSegmentWriter {
+
+    private final List<EventEntity> rows = new ArrayList<>();
+
+    void add(EventEntity entity) {
+        rows.add(entity);
+    }
+
+    int size() {
+        return rows.size();
+    }
+
+    /**
+     * Encode the buffered rows and atomically write them to target
+     */
+    void writeTo(Path target) throws IOException {
+        long minTimestamp = rows.get(0).getTimestamp().toEpochMilli();
+        long maxTimestamp = rows.get(rows.size() - 1).getTimestamp().toEpochMilli();
+
+        Map<String, Integer> eventTypes = new LinkedHashMap<>();
+        Map<String, Integer> sources = new LinkedHashMap<>();
+        Map<String, Integer> statuses = new LinkedHashMap<>();
+
+        ByteArrayOutputStream timestamps = new ByteArrayOutputStream(rows.size() * 2);
+        ByteArrayOutputStream eventTypeCodes = new ByteArrayOutputStream(rows.size());
+        ByteArrayOutputStream sourceCodes = new ByteArrayOutputStream(rows.size());
+        ByteArrayOutputStream statusCodes = new ByteArrayOutputStream(rows.size());
+        ByteArrayOutputStream eventIds = new ByteArrayOutputStream(rows.size() * 37);
+        ByteArrayOutputStream correlationIds = new ByteArrayOutputStream(rows.size() * 8);
+        ByteArrayOutputStream payloads = new ByteArrayOutputStream(rows.size() * 64);
+        ByteArrayOutputStream attributes = new ByteArrayOutputStream(rows.size() * 16);
+        ByteArrayOutputStream metadata = new ByteArrayOutputStream(rows.size() * 16);
+        ByteArrayOutputStream errorMessages = new ByteArrayOutputStream(rows.size());
+        ByteArrayOutputStream retryCounts = new ByteArrayOutputStream(rows.size());
+        ByteArrayOutputStream processedAts = new ByteArrayOutputStream(rows.size() * 6);
+        ByteArrayOutputStream createdAts = new ByteArrayOutputStream(rows.size() * 6);
+
+        long previous = minTimestamp;
+        for (EventEntity row : rows) {
+            long timestamp = row.getTimestamp().toEpochMilli();
+            SegmentFormat.writeVarLong(timestamps, SegmentFormat.zigZag(timestamp - previous));
+            previous = timestamp;
+
+            SegmentFormat.writeVarLong(eventTypeCodes, code(eventTypes, row.getEventType()));
+            SegmentFormat.writeVarLong(sourceCodes, code(sources, row.getSource()));
+            SegmentFormat.writeVarLong(statusCodes, code(statuses, row.getStatus() != null ? row.getStatus().name() : null));
+
+            SegmentFormat.writeString(eventIds, row.getEventId());
+            SegmentFormat.writeString(correlationIds, row.getCorrelationId());
+            SegmentFormat.writeString(payloads, row.getPayload() != null ? JsonUtil.toJson(row.getPayload()) : null);
+            SegmentFormat.writeString(attributes, row.getAttributes() != null ? JsonUtil.toJson(row.getAttributes()) : null);
+            SegmentFormat.writeString(metadata, row.getMetadata() != null ? JsonUtil.toJson(row.getMetadata()) : null);
+            SegmentFormat.writeString(errorMessages, row.getErrorMessage());
+            SegmentFormat.writeOptionalLong(retryCounts, row.getRetryCount() != null ? row.getRetryCount().longValue() : null);
+            SegmentFormat.writeOptionalLong(processedAts, row.getProcessedAt() != null ? row.getProcessedAt().toEpochMilli() : null);
+            SegmentFormat.writeOptionalLong(createdAts, row.getCreatedAt() != null ? row.getCreatedAt().toEpochMilli() : null);
+        }
+
+        Map<Byte, byte[]> rawColumns = new LinkedHashMap<>();
+        rawColumns.put(SegmentFormat.COLUMN_TIMESTAMP, timestamps.toByteArray());
+        rawColumns.put(SegmentFormat.COLUMN_EVENT_TYPE, eventTypeCodes.toByteArray());
+        rawColumns.put(SegmentFormat.COLUMN_SOURCE, sourceCodes.toByteArray());
+        rawColumns.put(SegmentFormat.COLUMN_STATUS, statusCodes.toByteArray());
+        rawColumns.put(SegmentFormat.COLUMN_EVENT_ID, eventIds.toByteArray());
+        rawColumns.put(SegmentFormat.COLUMN_CORRELATION_ID, correlationIds.toByteArray());
+        rawColumns.put(SegmentFormat.COLUMN_PAYLOAD, payloads.toByteArray());
+        rawColumns.put(SegmentFormat.COLUMN_ATTRIBUTES, attributes.toByteArray());
+        rawColumns.put(SegmentFormat.COLUMN_METADATA, metadata.toByteArray());
+        rawColumns.put(SegmentFormat.COLUMN_ERROR_MESSAGE, errorMessages.toByteArray());
+        rawColumns.put(SegmentFormat.COLUMN_RETRY_COUNT, retryCounts.toByteArray());
+        rawColumns.put(SegmentFormat.COLUMN_PROCESSED_AT, processedAts.toByteArray());
+        rawColumns.put(SegmentFormat.COLUMN_CREATED_AT, createdAts.toByteArray());
+
+        Map<Byte, byte[]> compressedColumns = new LinkedHashMap<>();
+        rawColumns.forEach((id, raw) -> compressedColumns.put(id, deflate(raw)));
+
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream headerOut = new DataOutputStream(header);
+        headerOut.write(SegmentFormat.MAGIC);
+        headerOut.writeInt(rows.size());
+        headerOut.writeLong(minTimestamp);
+        headerOut.writeLong(maxTimestamp);
+        writeDictionary(headerOut, eventTypes);
+        writeDictionary(headerOut, sources);
+        writeDictionary(headerOut, statuses);
+        headerOut.writeInt(compressedColumns.size());
+
+        // Column directory entries are fixed size, so offsets are known before writing them
+        int directorySize = compressedColumns.size() * (1 + 8 + 4 + 4);
+        long offset = header.size() + directorySize;
+        for (Map.Entry<Byte, byte[]> column : compressedColumns.entrySet()) {
+            headerOut.writeByte(column.getKey());
+            headerOut.writeLong(offset);
+            headerOut.writeInt(column.getValue().length);
+            headerOut.writeInt(rawColumns.get(column.getKey()).length);
+            offset += column.getValue().length;
+        }
+        headerOut.flush();
+
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            header.writeTo(out);
+            for (byte[] column : compressedColumns.values()) {
+                out.write(column);
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        rows.clear();
+    }
+
+    private static int code(Map<String, Integer> dictionary, String value) {
+        if (value == null) {
+            return 0;
+        }
+        return dictionary.computeIfAbsent(value, key -> dictionary.size() + 1);
+    }
+
+    private static void writeDictionary(DataOutputStream out, Map<String, Integer> dictionary) throws IOException {
+        out.writeInt(dictionary.size());
+        for (String value : dictionary.keySet()) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeShort(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+}
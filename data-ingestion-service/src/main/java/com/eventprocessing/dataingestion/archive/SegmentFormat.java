@@ -0,0 +1,113 @@
+package com.eventprocessing.dataingestion.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Layout of an archive segment file (big-endian):
+ *
+ * <pre>
+ * magic "EVSEG001"
+ * int  rowCount
+ * long minTimestamp, maxTimestamp          (epoch millis, the segment's min/max index)
+ * dictionary eventType, source, status     (int size, then size x [short length, UTF-8])
+ * int  columnCount
+ * columnCount x [byte id, long offset, int compressedLength, int rawLength]
+ * column blocks, each deflated
+ * </pre>
+ *
+ * Rows are sorted by timestamp. The timestamp column holds zig-zag varint deltas
+ * from minTimestamp; dictionary columns hold varint codes (0 = null, n = entry n-1);
+ * string columns hold a varint length (0 = null) followed by UTF-8 bytes; optional
+ * number columns hold a zig-zag varint plus one (0 = null). Map columns are JSON
+ * strings. Segments written before the attributes-to-createdAt columns existed lack
+ * them, and readers treat their values as null.
+ */
+final class SegmentFormat {
+
+    static final byte[] MAGIC = "EVSEG001".getBytes(StandardCharsets.US_ASCII);
+    static final String FILE_SUFFIX = ".evseg";
+
+    static final byte COLUMN_TIMESTAMP = 1;
+    static final byte COLUMN_EVENT_TYPE = 2;
+    static final byte COLUMN_SOURCE = 3;
+    static final byte COLUMN_STATUS = 4;
+    static final byte COLUMN_EVENT_ID = 5;
+    static final byte COLUMN_CORRELATION_ID = 6;
+    static final byte COLUMN_PAYLOAD = 7;
+    static final byte COLUMN_ATTRIBUTES = 8;
+    static final byte COLUMN_METADATA = 9;
+    static final byte COLUMN_ERROR_MESSAGE = 10;
+    static final byte COLUMN_RETRY_COUNT = 11;
+    static final byte COLUMN_PROCESSED_AT = 12;
+    static final byte COLUMN_CREATED_AT = 13;
+
+    private SegmentFormat() {
+        // Private constructor to prevent instantiation
+    }
+
+    static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void writeOptionalLong(ByteArrayOutputStream out, Long value) {
+        writeVarLong(out, value == null ? 0 : zigZag(value) + 1);
+    }
+
+    static Long readOptionalLong(ByteBuffer in) {
+        long value = readVarLong(in);
+        return value == 0 ? null : unZigZag(value - 1);
+    }
+
+    static void writeString(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.writeBytes(bytes);
+    }
+
+    static String readString(ByteBuffer in) {
+        int length = (int) readVarLong(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void skipString(ByteBuffer in) {
+        int length = (int) readVarLong(in);
+        if (length > 0) {
+            in.position(in.position() + length - 1);
+        }
+    }
+}
@@ -0,0 +1,466 @@
+package com.eventprocessing.dataingestion.backfill;
+
+import com.eventprocessing.common.model.Event;
+import com.eventprocessing.common.model.EventStatus;
+import com.eventprocessing.common.model.EventTypeRegistry;
+import com.eventprocessing.common.util.EventBuckets;
+import com.eventprocessing.common.util.JsonUtil;
+import com.eventprocessing.dataingestion.archive.ArchiveScanEngine;
+import com.eventprocessing.dataingestion.entity.BackfillJob;
+import com.eventprocessing.dataingestion.entity.EventEntity;
+import com.eventprocessing.dataingestion.model.ArchiveQuery;
+import com.eventprocessing.dataingestion.model.ArchiveScanResult;
+import com.eventprocessing.dataingestion.model.BackfillRequest;
+import com.eventprocessing.dataingestion.payload.PayloadCodec;
+import com.eventprocessing.dataingestion.repository.EventBucketRouter;
+import com.fasterxml.jackson.core.type.TypeReference;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static com.eventprocessing.common.constants.AppConstants.HEADER_REPLAY_JOB;
+import static com.eventprocessing.common.constants.AppConstants.KAFKA_TOPIC_REPLAY;
+
+/**
+ * Replays stored events into the processing pipeline through the replay topic.
+ * Each bucket in the job's range is read oldest first through a MongoDB cursor in
+ * (timestamp, eventId) order, merged with the bucket's archived rows when the bucket
+ * was dropped from MongoDB after export; publishing is paced by {@link LiveLagThrottle} and the
+ * position is checkpointed once every in-flight send has been acknowledged. Jobs
+ * run one at a time and delivery is at-least-once from the last checkpoint.
+ */
+@Slf4j
+@Service
+public class BackfillService {
+
+    private static final Sort OLDEST_FIRST = Sort.by(Sort.Direction.ASC, "timestamp", "eventId");
+    private static final Comparator<EventEntity> REPLAY_ORDER = Comparator
+            .comparing(EventEntity::getTimestamp)
+            .thenComparing(EventEntity::getEventId);
+    private static final TypeReference<LinkedHashMap<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {
+    };
+    private static final TypeReference<LinkedHashMap<String, String>> METADATA_TYPE = new TypeReference<>() {
+    };
+
+    private final MongoTemplate mongoTemplate;
+    private final EventBucketRouter bucketRouter;
+    private final PayloadCodec payloadCodec;
+    private final ArchiveScanEngine archive;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final LiveLagThrottle throttle;
+    private final ExecutorService executor;
+    private final Map<String, BackfillJob.Status> stopRequests = new ConcurrentHashMap<>();
+
+    @Value("${app.backfill.checkpoint-interval:5000}")
+    private int checkpointInterval;
+
+    @Value("${app.backfill.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${app.backfill.send-timeout-ms:60000}")
+    private long sendTimeoutMs;
+
+    public BackfillService(MongoTemplate mongoTemplate, EventBucketRouter bucketRouter, PayloadCodec payloadCodec,
+                           ArchiveScanEngine archive, KafkaTemplate<String, String> kafkaTemplate, LiveLagThrottle throttle) {
+        this.mongoTemplate = mongoTemplate;
+        this.bucketRouter = bucketRouter;
+        this.payloadCodec = payloadCodec;
+        this.archive = archive;
+        this.kafkaTemplate = kafkaTemplate;
+        this.throttle = throttle;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "backfill");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queue a new backfill job
+     */
+    public BackfillJob start(BackfillRequest request) {
+        if (request.getFrom() == null || request.getTo() == null || !request.getFrom().isBefore(request.getTo())) {
+            throw new IllegalArgumentException("from and to are required and from must be before to");
+        }
+
+        Instant now = Instant.now();
+        BackfillJob job = BackfillJob.builder()
+                .id(UUID.randomUUID().toString())
+                .from(request.getFrom())
+                .to(request.getTo())
+                .eventTypes(request.getEventTypes() != null ? request.getEventTypes() : List.of())
+                .status(BackfillJob.Status.PENDING)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        mongoTemplate.insert(job);
+
+        submit(job.getId());
+        log.info("Queued backfill job {} for {} to {} (types: {})",
+                job.getId(), job.getFrom(), job.getTo(), job.getEventTypes());
+        return job;
+    }
+
+    public Optional<BackfillJob> getJob(String jobId) {
+        return Optional.ofNullable(mongoTemplate.findById(jobId, BackfillJob.class));
+    }
+
+    public List<BackfillJob> getJobs() {
+        return mongoTemplate.find(new Query().with(Sort.by(Sort.Direction.DESC, "createdAt")), BackfillJob.class);
+    }
+
+    /**
+     * Pause a job at its next checkpoint
+     */
+    public Optional<BackfillJob> pause(String jobId) {
+        return requestStop(jobId, BackfillJob.Status.PAUSED);
+    }
+
+    /**
+     * Cancel a job at its next checkpoint
+     */
+    public Optional<BackfillJob> cancel(String jobId) {
+        return requestStop(jobId, BackfillJob.Status.CANCELLED);
+    }
+
+    /**
+     * Continue a paused or failed job from its checkpoint
+     */
+    public Optional<BackfillJob> resume(String jobId) {
+        return getJob(jobId).map(job -> {
+            if (job.getStatus() == BackfillJob.Status.PAUSED || job.getStatus() == BackfillJob.Status.FAILED) {
+                job.setStatus(BackfillJob.Status.PENDING);
+                job.setErrorMessage(null);
+                job.setUpdatedAt(Instant.now());
+                mongoTemplate.save(job);
+                submit(jobId);
+            }
+            return job;
+        });
+    }
+
+    /**
+     * Pick up jobs that were queued or running when the service last stopped
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        Query query = Query.query(Criteria.where("status").in(BackfillJob.Status.PENDING, BackfillJob.Status.RUNNING))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"));
+        for (BackfillJob job : mongoTemplate.find(query, BackfillJob.class)) {
+            log.info("Resuming backfill job {} from checkpoint {}", job.getId(), job.getCheckpointTimestamp());
+            submit(job.getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Leave running jobs resumable: they checkpoint and go back to PENDING
+        getJobs().stream()
+                .filter(job -> job.getStatus() == BackfillJob.Status.RUNNING)
+                .forEach(job -> stopRequests.put(job.getId(), BackfillJob.Status.PENDING));
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private Optional<BackfillJob> requestStop(String jobId, BackfillJob.Status target) {
+        return getJob(jobId).map(job -> {
+            switch (job.getStatus()) {
+                case RUNNING -> stopRequests.put(jobId, target);
+                case PENDING, PAUSED -> {
+                    job.setStatus(target);
+                    job.setUpdatedAt(Instant.now());
+                    mongoTemplate.save(job);
+                }
+                default -> {
+                    // Finished jobs cannot be stopped
+                }
+            }
+            return job;
+        });
+    }
+
+    private void submit(String jobId) {
+        executor.submit(() -> run(jobId));
+    }
+
+    private void run(String jobId) {
+        BackfillJob job = mongoTemplate.findById(jobId, BackfillJob.class);
+        if (job == null || (job.getStatus() != BackfillJob.Status.PENDING && job.getStatus() != BackfillJob.Status.RUNNING)) {
+            return;
+        }
+
+        job.setStatus(BackfillJob.Status.RUNNING);
+        if (job.getStartedAt() == null) {
+            job.setStartedAt(Instant.now());
+        }
+        if (job.getEstimatedTotal() == 0) {
+            job.setEstimatedTotal(estimateTotal(job));
+        }
+        job.setUpdatedAt(Instant.now());
+        mongoTemplate.save(job);
+        throttle.reset();
+
+        try {
+            BackfillJob.Status stoppedAs = replay(job);
+            job.setStatus(stoppedAs != null ? stoppedAs : BackfillJob.Status.COMPLETED);
+            if (stoppedAs == null) {
+                job.setCompletedAt(Instant.now());
+                log.info("Backfill job {} completed: {} events replayed", jobId, job.getPublished());
+            } else {
+                log.info("Backfill job {} stopped as {} after {} events", jobId, stoppedAs, job.getPublished());
+            }
+        } catch (Exception e) {
+            if (stopRequests.get(jobId) == BackfillJob.Status.PENDING) {
+                // Interrupted by shutdown; the next start resumes from the last checkpoint
+                log.info("Backfill job {} interrupted at checkpoint {}", jobId, job.getCheckpointTimestamp());
+                job.setStatus(BackfillJob.Status.PENDING);
+            } else {
+                log.error("Backfill job {} failed at checkpoint {}", jobId, job.getCheckpointTimestamp(), e);
+                job.setStatus(BackfillJob.Status.FAILED);
+                job.setErrorMessage(e.getMessage());
+            }
+        } finally {
+            stopRequests.remove(jobId);
+        }
+        job.setUpdatedAt(Instant.now());
+        mongoTemplate.save(job);
+    }
+
+    /**
+     * Publish everything after the checkpoint
+     *
+     * @return the status the job was stopped as, or null once the range is exhausted
+     */
+    private BackfillJob.Status replay(BackfillJob job) throws Exception {
+        List<CompletableFuture<SendResult<String, String>>> inFlight = new ArrayList<>(checkpointInterval);
+        Instant startedAt = Instant.now();
+        long publishedAtStart = job.getPublished();
+
+        List<String> dropped = archive.droppedBucketsBetween(job.getFrom(), job.getTo());
+        for (String collection : bucketsOldestFirst(job, dropped)) {
+            Query query = Query.query(criteria(job)).with(OLDEST_FIRST).cursorBatchSize(fetchSize);
+            try (Stream<EventEntity> stream = mongoTemplate.stream(query, EventEntity.class, collection)) {
+                Iterator<EventEntity> iterator = dropped.contains(collection)
+                        ? merge(archived(job, collection), stream.iterator())
+                        : stream.iterator();
+                EventEntity last = null;
+                while (iterator.hasNext()) {
+                    EventEntity entity = iterator.next();
+                    // Stop only at a checkpoint with events left, so a finished range always completes
+                    BackfillJob.Status stop = inFlight.isEmpty() ? stopRequests.get(job.getId()) : null;
+                    if (stop != null) {
+                        return stop;
+                    }
+                    throttle.acquire();
+                    inFlight.add(kafkaTemplate.send(toRecord(job, payloadCodec.inflate(entity))));
+                    last = entity;
+
+                    if (inFlight.size() >= checkpointInterval) {
+                        checkpoint(job, inFlight, last, startedAt, publishedAtStart);
+                    }
+                }
+                if (!inFlight.isEmpty()) {
+                    checkpoint(job, inFlight, last, startedAt, publishedAtStart);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Wait for every in-flight send, then persist the position of the last one
+     */
+    private void checkpoint(BackfillJob job, List<CompletableFuture<SendResult<String, String>>> inFlight,
+                            EventEntity last, Instant startedAt, long publishedAtStart) throws Exception {
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+
+        job.setPublished(job.getPublished() + inFlight.size());
+        job.setCheckpointTimestamp(last.getTimestamp());
+        job.setCheckpointEventId(last.getEventId());
+        job.setCurrentRate(throttle.getRate());
+        job.setLiveLag(throttle.getLiveLag());
+        job.setUpdatedAt(Instant.now());
+        mongoTemplate.save(job);
+        inFlight.clear();
+
+        long elapsedMs = Math.max(1, Duration.between(startedAt, job.getUpdatedAt()).toMillis());
+        log.debug("Backfill job {}: {}/{} events, {}/s (allowed {}/s, live lag {})",
+                job.getId(), job.getPublished(), job.getEstimatedTotal(),
+                (job.getPublished() - publishedAtStart) * 1000 / elapsedMs, (long) job.getCurrentRate(), job.getLiveLag());
+    }
+
+    private List<String> bucketsOldestFirst(BackfillJob job, List<String> dropped) {
+        TreeSet<String> sorted = new TreeSet<>(bucketRouter.bucketsBetween(job.getFrom(), job.getTo()));
+        sorted.addAll(dropped);
+        List<String> buckets = new ArrayList<>(sorted);
+        if (job.getCheckpointTimestamp() != null) {
+            // Buckets that ended before the checkpoint were fully replayed already
+            buckets.removeIf(bucket -> !EventBuckets.endOf(bucket).isAfter(job.getCheckpointTimestamp()));
+        }
+        return buckets;
+    }
+
+    private long estimateTotal(BackfillJob job) {
+        Query query = Query.query(rangeCriteria(job));
+        long total = bucketRouter.bucketsBetween(job.getFrom(), job.getTo()).stream()
+                .mapToLong(collection -> mongoTemplate.count(query, collection))
+                .sum();
+
+        List<String> types = job.getEventTypes() == null || job.getEventTypes().isEmpty()
+                ? Collections.singletonList(null)
+                : job.getEventTypes();
+        for (String bucket : archive.droppedBucketsBetween(job.getFrom(), job.getTo())) {
+            for (String type : types) {
+                total += archive.count(bucket, ArchiveQuery.builder().eventType(type).from(job.getFrom()).to(job.getTo()).build());
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Archived events of a dropped bucket after the checkpoint, as entities
+     */
+    private Iterator<EventEntity> archived(BackfillJob job, String bucket) {
+        Iterator<ArchiveScanResult.Row> rows = archive.rowsAfter(bucket, job.getFrom(), job.getTo(),
+                job.getEventTypes() != null ? job.getEventTypes() : List.of(),
+                job.getCheckpointTimestamp(), job.getCheckpointEventId());
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public EventEntity next() {
+                return toEntity(rows.next());
+            }
+        };
+    }
+
+    /**
+     * Merge two iterators sorted in replay order; an event in both is replayed once, from MongoDB
+     */
+    private static Iterator<EventEntity> merge(Iterator<EventEntity> archived, Iterator<EventEntity> stored) {
+        return new Iterator<>() {
+            private EventEntity nextArchived = archived.hasNext() ? archived.next() : null;
+            private EventEntity nextStored = stored.hasNext() ? stored.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextArchived != null || nextStored != null;
+            }
+
+            @Override
+            public EventEntity next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int order = nextArchived == null ? 1 : nextStored == null ? -1 : REPLAY_ORDER.compare(nextArchived, nextStored);
+                EventEntity entity;
+                if (order < 0) {
+                    entity = nextArchived;
+                    nextArchived = archived.hasNext() ? archived.next() : null;
+                } else {
+                    entity = nextStored;
+                    if (order == 0) {
+                        nextArchived = archived.hasNext() ? archived.next() : null;
+                    }
+                    nextStored = stored.hasNext() ? stored.next() : null;
+                }
+                return entity;
+            }
+        };
+    }
+
+    private static EventEntity toEntity(ArchiveScanResult.Row row) {
+        try {
+            return EventEntity.builder()
+                    .eventId(row.getEventId())
+                    .eventType(row.getEventType())
+                    .timestamp(row.getTimestamp())
+                    .payload(row.getPayload() != null ? JsonUtil.getObjectMapper().readValue(row.getPayload(), PAYLOAD_TYPE) : null)
+                    .correlationId(row.getCorrelationId())
+                    .source(row.getSource())
+                    .metadata(row.getMetadata() != null ? JsonUtil.getObjectMapper().readValue(row.getMetadata(), METADATA_TYPE) : null)
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt archived event " + row.getEventId(), e);
+        }
+    }
+
+    private static Criteria criteria(BackfillJob job) {
+        if (job.getCheckpointTimestamp() == null) {
+            return rangeCriteria(job);
+        }
+        Criteria afterCheckpoint = new Criteria().orOperator(
+                Criteria.where("timestamp").gt(job.getCheckpointTimestamp()),
+                Criteria.where("timestamp").is(job.getCheckpointTimestamp()).and("eventId").gt(job.getCheckpointEventId()));
+        return new Criteria().andOperator(rangeCriteria(job), afterCheckpoint);
+    }
+
+    private static Criteria rangeCriteria(BackfillJob job) {
+        Criteria criteria = Criteria.where("timestamp").gte(job.getFrom()).lt(job.getTo());
+        if (job.getEventTypes() != null && !job.getEventTypes().isEmpty()) {
+            criteria = criteria.and("eventType").in(job.getEventTypes());
+        }
+        return criteria;
+    }
+
+    /**
+     * Republish the stored event as a fresh, unprocessed event tagged with the job id
+     */
+    private static ProducerRecord<String, String> toRecord(BackfillJob job, EventEntity entity) {
+        Event event = Event.builder()
+                .eventId(entity.getEventId())
+                .eventType(entity.getEventType())
+                .timestamp(entity.getTimestamp())
+                .payload(entity.getPayload())
+                .status(EventStatus.PENDING)
+                .retryCount(0)
+                .correlationId(entity.getCorrelationId())
+                .source(entity.getSource())
+                .metadata(entity.getMetadata())
+                .build();
+
+        ProducerRecord<String, String> record = new ProducerRecord<>(KAFKA_TOPIC_REPLAY, event.getEventId(), JsonUtil.toJson(event));
+        record.headers().add(HEADER_REPLAY_JOB, job.getId().getBytes(StandardCharsets.UTF_8));
+        EventTypeRegistry.stamp(record.headers(), event.getEventTypeId());
+        return record;
+    }
+}
@@ -0,0 +1,163 @@
+package com.eventprocessing.dataingestion.backfill;
+
+import com.eventprocessing.common.transport.MappedQueueTransport;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.eventprocessing.common.constants.AppConstants.KAFKA_TOPIC_EVENTS;
+import static com.eventprocessing.common.constants.AppConstants.KAFKA_TOPIC_HIGH_PRIORITY;
+
+/**
+ * Paces backfill publishing and adapts the rate to the lag of the live consumer group:
+ * the rate halves while live lag is above the high watermark and recovers additively
+ * once it drops below the low watermark, so replay only uses spare pipeline capacity.
+ * With the mapped transport the live group's lag is counted on the same-host queues,
+ * since its Kafka offsets on the live topics no longer move.
+ * Used by the single backfill thread; not thread-safe.
+ */
+@Slf4j
+@Component
+public class LiveLagThrottle {
+
+    private static final List<String> LIVE_TOPICS = List.of(KAFKA_TOPIC_EVENTS, KAFKA_TOPIC_HIGH_PRIORITY);
+
+    private final AdminClient adminClient;
+    private final MappedQueueTransport transport;
+    private final String liveGroupId;
+    private final double maxRate;
+    private final double minRate;
+    private final long lagHigh;
+    private final long lagLow;
+    private final long lagCheckIntervalNanos;
+
+    private double rate;
+    private long liveLag;
+    private long nextPermitAt;
+    private long nextLagCheckAt;
+
+    public LiveLagThrottle(AdminClient adminClient, MappedQueueTransport transport,
+                           @Value("${app.backfill.live-group-id:event-consumer-group}") String liveGroupId,
+                           @Value("${app.backfill.max-rate:20000}") double maxRate,
+                           @Value("${app.backfill.min-rate:100}") double minRate,
+                           @Value("${app.backfill.lag-high:5000}") long lagHigh,
+                           @Value("${app.backfill.lag-low:1000}") long lagLow,
+                           @Value("${app.backfill.lag-check-interval-ms:1000}") long lagCheckIntervalMs) {
+        this.adminClient = adminClient;
+        this.transport = transport;
+        this.liveGroupId = liveGroupId;
+        this.maxRate = maxRate;
+        this.minRate = minRate;
+        this.lagHigh = lagHigh;
+        this.lagLow = lagLow;
+        this.lagCheckIntervalNanos = TimeUnit.MILLISECONDS.toNanos(lagCheckIntervalMs);
+        this.rate = maxRate;
+    }
+
+    /**
+     * Start a job at the full rate
+     */
+    public void reset() {
+        rate = maxRate;
+        nextPermitAt = System.nanoTime();
+        nextLagCheckAt = nextPermitAt;
+    }
+
+    /**
+     * Block until one more event may be published
+     */
+    public void acquire() {
+        long now = System.nanoTime();
+        if (now >= nextLagCheckAt) {
+            adjustRate();
+            nextLagCheckAt = now + lagCheckIntervalNanos;
+        }
+
+        // Permits accumulate no further than "now", so an idle period does not turn into a burst
+        long start = Math.max(nextPermitAt, now);
+        nextPermitAt = start + (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        if (start > now) {
+            LockSupport.parkNanos(start - now);
+        }
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public long getLiveLag() {
+        return liveLag;
+    }
+
+    private void adjustRate() {
+        try {
+            liveLag = measureLiveLag();
+        } catch (Exception e) {
+            log.warn("Could not measure lag of consumer group {}, keeping backfill rate at {}/s", liveGroupId, rate, e);
+            return;
+        }
+
+        double previous = rate;
+        if (liveLag > lagHigh) {
+            rate = Math.max(minRate, rate / 2);
+        } else if (liveLag < lagLow) {
+            rate = Math.min(maxRate, rate + maxRate / 10);
+        }
+        if (rate != previous) {
+            log.debug("Live lag {} moved backfill rate from {}/s to {}/s", liveLag, previous, rate);
+        }
+    }
+
+    private long measureLiveLag() throws Exception {
+        if (transport.isEnabled()) {
+            return measureMappedLag();
+        }
+        Map<TopicPartition, OffsetAndMetadata> committed = adminClient.listConsumerGroupOffsets(liveGroupId)
+                .partitionsToOffsetAndMetadata()
+                .get(5, TimeUnit.SECONDS);
+
+        Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+        committed.keySet().stream()
+                .filter(partition -> LIVE_TOPICS.contains(partition.topic()))
+                .forEach(partition -> latest.put(partition, OffsetSpec.latest()));
+        if (latest.isEmpty()) {
+            return 0;
+        }
+
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> endOffsets = adminClient.listOffsets(latest)
+                .all()
+                .get(5, TimeUnit.SECONDS);
+
+        long lag = 0;
+        for (Map.Entry<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> entry : endOffsets.entrySet()) {
+            OffsetAndMetadata offset = committed.get(entry.getKey());
+            if (offset != null) {
+                lag += Math.max(0, entry.getValue().offset() - offset.offset());
+            }
+        }
+        return lag;
+    }
+
+    /**
+     * Pending records of the live group on the mapped queues; counting stops past the
+     * high watermark, all the rate decision needs
+     */
+    private long measureMappedLag() {
+        long lag = 0;
+        for (String topic : LIVE_TOPICS) {
+            lag += transport.lag(topic, MappedQueueTransport.groupFor(topic, liveGroupId), lagHigh + 1);
+        }
+        return lag;
+    }
+}
@@ -0,0 +1,196 @@
+package com.eventprocessing.dataingestion.buffer;
+
+import com.eventprocessing.common.model.Event;
+import com.eventprocessing.common.util.JsonUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only segmented files holding events that could not be buffered in memory.
+ * Each record is a 4-byte length followed by the event JSON. Only the newest segment
+ * is writable; older segments are sealed and drained oldest-first.
+ */
+@Slf4j
+public class SpillSegmentStore {
+
+    private static final String SEGMENT_PREFIX = "spill-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final Deque<Path> sealedSegments = new ArrayDeque<>();
+
+    private FileChannel activeChannel;
+    private Path activeSegment;
+    private long nextSequence;
+
+    public SpillSegmentStore(Path directory, long maxSegmentBytes) {
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+        recover();
+    }
+
+    /**
+     * Append events to the active segment and force them to disk
+     */
+    public synchronized void append(List<Event> events) {
+        try {
+            if (activeChannel == null || activeChannel.size() >= maxSegmentBytes) {
+                roll();
+            }
+
+            for (Event event : events) {
+                byte[] bytes = JsonUtil.getObjectMapper().writeValueAsBytes(event);
+                ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + bytes.length);
+                buffer.putInt(bytes.length).put(bytes).flip();
+                while (buffer.hasRemaining()) {
+                    activeChannel.write(buffer);
+                }
+            }
+            activeChannel.force(false);
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to spill " + events.size() + " events", e);
+        }
+    }
+
+    /**
+     * Seal the active segment so it becomes eligible for draining
+     */
+    public synchronized void sealActive() {
+        if (activeChannel == null) {
+            return;
+        }
+        try {
+            activeChannel.close();
+        } catch (IOException e) {
+            log.warn("Error closing spill segment {}", activeSegment, e);
+        }
+        sealedSegments.addLast(activeSegment);
+        activeChannel = null;
+        activeSegment = null;
+    }
+
+    /**
+     * Oldest sealed segment, or null if none is waiting
+     */
+    public synchronized Path oldestSealed() {
+        return sealedSegments.peekFirst();
+    }
+
+    /**
+     * Read a sealed segment in chunks of at most chunkSize events. A truncated
+     * trailing record (crash during append) ends the segment.
+     */
+    public void read(Path segment, int chunkSize, Consumer<List<Event>> chunkConsumer) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment)))) {
+            List<Event> chunk = new ArrayList<>(chunkSize);
+            while (true) {
+                byte[] bytes;
+                try {
+                    bytes = new byte[in.readInt()];
+                    in.readFully(bytes);
+                } catch (EOFException e) {
+                    break;
+                }
+                chunk.add(JsonUtil.getObjectMapper().readValue(bytes, Event.class));
+                if (chunk.size() >= chunkSize) {
+                    chunkConsumer.accept(chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                chunkConsumer.accept(chunk);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read spill segment " + segment, e);
+        }
+    }
+
+    /**
+     * Delete a fully drained segment
+     */
+    public synchronized void delete(Path segment) {
+        try {
+            Files.deleteIfExists(segment);
+        } catch (IOException e) {
+            log.warn("Could not delete drained spill segment {}", segment, e);
+        }
+        sealedSegments.remove(segment);
+    }
+
+    public synchronized boolean isEmpty() {
+        return sealedSegments.isEmpty() && activeChannel == null;
+    }
+
+    public synchronized boolean hasActiveSegment() {
+        return activeChannel != null;
+    }
+
+    /**
+     * Total bytes currently held on disk
+     */
+    public synchronized long sizeOnDisk() {
+        long total = 0;
+        for (Path segment : sealedSegments) {
+            total += segment.toFile().length();
+        }
+        if (activeSegment != null) {
+            total += activeSegment.toFile().length();
+        }
+        return total;
+    }
+
+    public synchronized void close() {
+        sealActive();
+    }
+
+    private void roll() throws IOException {
+        sealActive();
+        activeSegment = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSequence++, SEGMENT_SUFFIX));
+        activeChannel = FileChannel.open(activeSegment,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Pick up segments left behind by a previous run; all of them are treated as sealed
+     */
+    private void recover() {
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(path -> {
+                            String name = path.getFileName().toString();
+                            return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                        })
+                        .sorted()
+                        .forEach(sealedSegments::addLast);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot initialise spill directory " + directory, e);
+        }
+
+        if (!sealedSegments.isEmpty()) {
+            String newest = sealedSegments.peekLast().getFileName().toString();
+            nextSequence = Long.parseLong(newest.substring(SEGMENT_PREFIX.length(),
+                    newest.length() - SEGMENT_SUFFIX.length())) + 1;
+            log.info("Recovered {} spill segments from {}", sealedSegments.size(), directory);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.eventprocessing.dataingestion.buffer;
+
+import com.eventprocessing.common.constants.AppConstants;
+import com.eventprocessing.common.model.Event;
+import com.eventprocessing.dataingestion.service.EventIngestionService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded write-behind buffer between the batch accumulator and MongoDB.
+ *
+ * Batches are queued in memory and written by a dedicated writer thread; their
+ * offsets are acknowledged once MongoDB accepts them. When the memory budget is
+ * exhausted the buffer switches to spill mode: batches are appended to local
+ * segment files, forced to disk and acknowledged straight away, so the Kafka
+ * consumers keep polling while MongoDB is slow. Spill mode stays on until every
+ * segment has been drained back into MongoDB, which keeps writes in arrival order.
+ *
+ * Kafka commits are cumulative per partition, so batches are acknowledged strictly
+ * in submission order: entering spill mode first moves the batch being written and
+ * every queued batch to disk and acknowledges them, oldest first, before the batch
+ * that tipped the budget.
+ */
+@Slf4j
+@Component
+public class WriteBehindBuffer {
+
+    private final EventIngestionService eventIngestionService;
+    private final SpillSegmentStore spillStore;
+    private final MeterRegistry meterRegistry;
+    private final int memoryBudgetEvents;
+    private final int drainChunkSize;
+    private final long retryBackoffMs;
+
+    private final Object submitLock = new Object();
+    // Guarded by submitLock, as are every acknowledgment and inFlight
+    private final Deque<PendingBatch> queue = new ArrayDeque<>();
+    private PendingBatch inFlight;
+    private volatile int bufferedEvents;
+    private volatile boolean spilling;
+    private volatile boolean running = true;
+    private Thread writerThread;
+
+    public WriteBehindBuffer(
+            EventIngestionService eventIngestionService,
+            MeterRegistry meterRegistry,
+            @Value("${app.spill.directory:./data/spill}") String spillDirectory,
+            @Value("${app.spill.segment-bytes:67108864}") long segmentBytes,
+            @Value("${app.spill.memory-budget-events:10000}") int memoryBudgetEvents,
+            @Value("${app.batch.size:" + AppConstants.BATCH_SIZE + "}") int drainChunkSize,
+            @Value("${app.spill.retry-backoff-ms:" + AppConstants.INITIAL_RETRY_DELAY_MS + "}") long retryBackoffMs) {
+        this.eventIngestionService = eventIngestionService;
+        this.meterRegistry = meterRegistry;
+        this.spillStore = new SpillSegmentStore(Paths.get(spillDirectory), segmentBytes);
+        this.memoryBudgetEvents = memoryBudgetEvents;
+        this.drainChunkSize = drainChunkSize;
+        this.retryBackoffMs = retryBackoffMs;
+        // Segments recovered from a previous run must drain before new writes go straight to MongoDB
+        this.spilling = !spillStore.isEmpty();
+    }
+
+    @PostConstruct
+    public void start() {
+        Gauge.builder("ingestion.buffer.memory.events", () -> bufferedEvents)
+                .description("Events buffered in memory awaiting a MongoDB write")
+                .register(meterRegistry);
+        Gauge.builder("ingestion.buffer.spill.bytes", spillStore, SpillSegmentStore::sizeOnDisk)
+                .description("Bytes of spilled events awaiting drain")
+                .register(meterRegistry);
+        Gauge.builder("ingestion.buffer.spilling", () -> spilling ? 1 : 0)
+                .register(meterRegistry);
+
+        writerThread = new Thread(this::writeLoop, "ingestion-write-behind");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Accept a flushed batch. Never blocks on MongoDB; throws only if the batch can
+     * neither be buffered nor spilled, in which case nothing is acknowledged.
+     */
+    public void submit(List<Event> events, List<Acknowledgment> acknowledgments) {
+        synchronized (submitLock) {
+            if (!spilling && bufferedEvents + events.size() <= memoryBudgetEvents) {
+                bufferedEvents += events.size();
+                queue.addLast(new PendingBatch(events, acknowledgments));
+                submitLock.notifyAll();
+                return;
+            }
+
+            if (!spilling) {
+                log.warn("Write-behind memory budget of {} events exhausted; spilling to disk", memoryBudgetEvents);
+                spillInMemoryBatches();
+                spilling = true;
+            }
+            spillStore.append(events);
+
+            // Durable on local disk, and everything submitted earlier is acknowledged already
+            acknowledgments.forEach(Acknowledgment::acknowledge);
+        }
+    }
+
+    /**
+     * Move the batch being written and the queued batches to disk, oldest first, and
+     * acknowledge them in that order. A batch the writer is still retrying is left to
+     * it, marked spilled so it gives up; MongoDB gets it again from the spill drain.
+     */
+    private void spillInMemoryBatches() {
+        if (inFlight != null && !inFlight.acknowledged) {
+            spillStore.append(inFlight.events);
+            inFlight.spilled = true;
+            inFlight.acknowledge();
+        }
+        PendingBatch batch;
+        while ((batch = queue.pollFirst()) != null) {
+            spillStore.append(batch.events);
+            batch.acknowledge();
+            bufferedEvents -= batch.events.size();
+        }
+    }
+
+    public boolean isSpilling() {
+        return spilling;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (writerThread != null) {
+            writerThread.interrupt();
+            try {
+                writerThread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // Whatever is still in memory goes to disk and is drained on the next start. It is
+        // not acknowledged: the consumers are stopping, so Kafka redelivers it as well and
+        // the second copy is an idempotent upsert.
+        synchronized (submitLock) {
+            PendingBatch batch;
+            while ((batch = queue.pollFirst()) != null) {
+                spillStore.append(batch.events);
+            }
+            bufferedEvents = 0;
+            spillStore.close();
+        }
+    }
+
+    private void writeLoop() {
+        while (running) {
+            try {
+                PendingBatch batch;
+                synchronized (submitLock) {
+                    batch = queue.pollFirst();
+                    if (batch == null && !spilling) {
+                        submitLock.wait(retryBackoffMs);
+                        batch = queue.pollFirst();
+                    }
+                    inFlight = batch;
+                }
+                if (batch != null) {
+                    writeInMemoryBatch(batch);
+                } else if (spilling) {
+                    drainSpilled();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Unexpected error in write-behind loop", e);
+            }
+        }
+    }
+
+    /**
+     * Write one in-memory batch, retrying until MongoDB accepts it. The batch keeps
+     * its share of the memory budget meanwhile, which is what triggers spilling.
+     */
+    private void writeInMemoryBatch(PendingBatch batch) throws InterruptedException {
+        while (running && !batch.spilled) {
+            try {
+                eventIngestionService.bulkUpsertEvents(batch.events);
+                finished(batch);
+                return;
+            } catch (Exception e) {
+                log.warn("Write-behind flush of {} events failed; retrying in {} ms",
+                        batch.events.size(), retryBackoffMs, e);
+                try {
+                    Thread.sleep(retryBackoffMs);
+                } catch (InterruptedException interrupted) {
+                    requeue(batch);
+                    throw interrupted;
+                }
+            }
+        }
+        if (batch.spilled) {
+            finished(batch);
+        } else {
+            requeue(batch);
+        }
+    }
+
+    private void finished(PendingBatch batch) {
+        synchronized (submitLock) {
+            batch.acknowledge();
+            bufferedEvents -= batch.events.size();
+            inFlight = null;
+        }
+    }
+
+    /**
+     * Back to the head of the queue for shutdown to spill
+     */
+    private void requeue(PendingBatch batch) {
+        synchronized (submitLock) {
+            if (!batch.spilled) {
+                queue.addFirst(batch);
+            } else {
+                bufferedEvents -= batch.events.size();
+            }
+            inFlight = null;
+        }
+    }
+
+    /**
+     * Drain sealed segments oldest-first once the in-memory queue is empty
+     */
+    private void drainSpilled() throws InterruptedException {
+        synchronized (submitLock) {
+            if (spillStore.oldestSealed() == null && spillStore.hasActiveSegment()) {
+                spillStore.sealActive();
+            }
+        }
+
+        Path segment;
+        while (running && isQueueEmpty() && (segment = spillStore.oldestSealed()) != null) {
+            try {
+                spillStore.read(segment, drainChunkSize, eventIngestionService::bulkUpsertEvents);
+                spillStore.delete(segment);
+                log.info("Drained spill segment {}", segment.getFileName());
+            } catch (Exception e) {
+                // Upserts are idempotent, so a partially drained segment is simply replayed
+                log.warn("Draining spill segment {} failed; retrying in {} ms", segment.getFileName(), retryBackoffMs, e);
+                Thread.sleep(retryBackoffMs);
+                return;
+            }
+        }
+
+        synchronized (submitLock) {
+            if (spillStore.isEmpty()) {
+                spilling = false;
+                log.info("Spill buffer drained; resuming in-memory write-behind");
+            }
+        }
+    }
+
+    private boolean isQueueEmpty() {
+        synchronized (submitLock) {
+            return queue.isEmpty();
+        }
+    }
+
+    /**
+     * A batch and its offsets; fields other than the lists are guarded by submitLock,
+     * except spilled, which the writer also polls between retries
+     */
+    private static final class PendingBatch {
+
+        final List<Event> events;
+        final List<Acknowledgment> acknowledgments;
+        boolean acknowledged;
+        volatile boolean spilled;
+
+        PendingBatch(List<Event> events, List<Acknowledgment> acknowledgments) {
+            this.events = events;
+            this.acknowledgments = acknowledgments;
+        }
+
+        void acknowledge() {
+            if (!acknowledged) {
+                acknowledged = true;
+                acknowledgments.forEach(Acknowledgment::acknowledge);
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.eventprocessing.dataingestion.cache;
+
+import com.eventprocessing.dataingestion.entity.EventEntity;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Compact in-memory index of recent correlation chains, maintained by the ingestion pipeline.
+ *
+ * A chain is only answered from memory when it is known to be complete: either it was
+ * seeded from MongoDB, or all of its events are newer than this instance's start (plus a
+ * grace period for consumer lag), so none can have been ingested before the index existed.
+ * Assumes one ingestion instance sees every event of a correlation, so it is off by
+ * default; set app.correlation.enabled=true only when a single instance ingests everything.
+ */
+@Component
+public class CorrelationIndex {
+
+    private final Cache<String, Chain> chains;
+    private final boolean enabled;
+    private final int maxSteps;
+    private final long completeAfterMillis;
+
+    public CorrelationIndex(
+            @Value("${app.correlation.enabled:false}") boolean enabled,
+            @Value("${app.correlation.max-chains:100000}") long maxChains,
+            @Value("${app.correlation.max-steps:256}") int maxSteps,
+            @Value("${app.correlation.expire-after-access:PT1H}") Duration expireAfterAccess,
+            @Value("${app.correlation.startup-grace:PT5M}") Duration startupGrace) {
+        this.enabled = enabled;
+        this.maxSteps = maxSteps;
+        this.completeAfterMillis = System.currentTimeMillis() + startupGrace.toMillis();
+        this.chains = Caffeine.newBuilder()
+                .maximumSize(maxChains)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+    }
+
+    /**
+     * Add written events to their chains
+     */
+    public void onWritten(List<EventEntity> written) {
+        if (!enabled) {
+            return;
+        }
+        for (EventEntity entity : written) {
+            if (entity.getCorrelationId() == null || entity.getTimestamp() == null) {
+                continue;
+            }
+            Entry entry = Entry.of(entity);
+            chains.asMap().compute(entity.getCorrelationId(), (id, chain) -> {
+                Chain target = chain != null ? chain : new Chain(false);
+                target.add(entry, maxSteps);
+                return target;
+            });
+        }
+    }
+
+    /**
+     * Complete chain ordered by timestamp, or empty if MongoDB must be consulted
+     */
+    public Optional<List<Entry>> lookup(String correlationId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Chain chain = chains.getIfPresent(correlationId);
+        if (chain == null) {
+            return Optional.empty();
+        }
+        synchronized (chain) {
+            if (!chain.seeded && chain.oldestMillis() <= completeAfterMillis) {
+                return Optional.empty();
+            }
+            return Optional.of(List.copyOf(chain.entries));
+        }
+    }
+
+    /**
+     * Replace a chain with the authoritative copy loaded from MongoDB
+     */
+    public void seed(String correlationId, List<EventEntity> loaded) {
+        if (!enabled || loaded.isEmpty()) {
+            return;
+        }
+        chains.asMap().compute(correlationId, (id, chain) -> {
+            Chain target = chain != null ? chain : new Chain(true);
+            synchronized (target) {
+                target.seeded = true;
+            }
+            loaded.stream()
+                    .filter(entity -> entity.getTimestamp() != null)
+                    .forEach(entity -> target.add(Entry.of(entity), maxSteps));
+            return target;
+        });
+    }
+
+    /**
+     * One step of a chain; kept small so many chains fit in memory
+     */
+    public record Entry(String eventId, String eventType, long timestampMillis, String status) {
+
+        static Entry of(EventEntity entity) {
+            return new Entry(entity.getEventId(), entity.getEventType(), entity.getTimestamp().toEpochMilli(),
+                    entity.getStatus() != null ? entity.getStatus().name() : null);
+        }
+    }
+
+    private static class Chain {
+
+        private final List<Entry> entries = new ArrayList<>(4);
+        private boolean seeded;
+
+        Chain(boolean seeded) {
+            this.seeded = seeded;
+        }
+
+        synchronized void add(Entry entry, int maxSteps) {
+            entries.removeIf(existing -> existing.eventId().equals(entry.eventId()));
+            int index = entries.size();
+            while (index > 0 && entries.get(index - 1).timestampMillis() > entry.timestampMillis()) {
+                index--;
+            }
+            entries.add(index, entry);
+            if (entries.size() > maxSteps) {
+                entries.remove(entries.size() - 1);
+            }
+        }
+
+        long oldestMillis() {
+            return entries.isEmpty() ? Long.MIN_VALUE : entries.get(0).timestampMillis();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.eventprocessing.dataingestion.cache;
+
+import com.eventprocessing.common.model.EventTypeRegistry;
+import com.eventprocessing.dataingestion.entity.EventEntity;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * In-memory tier in front of MongoDB for event lookups.
+ *
+ * Lookups by eventId go through a Caffeine cache, whose W-TinyLFU policy keeps
+ * frequently requested ids resident. Recent events are held in a fixed-size ring
+ * per registered event type that the ingestion pipeline keeps current as it writes;
+ * types missing from {@link EventTypeRegistry} are always read from MongoDB, so
+ * arbitrary request parameters cannot grow the cache. Writes
+ * invalidate the id cache, so reads never see a stale copy of an updated event.
+ */
+@Component
+public class EventCache {
+
+    private final Cache<String, EventEntity> byId;
+    private final AtomicReferenceArray<RecentEventsRing> recentByType = new AtomicReferenceArray<>(EventTypeRegistry.size());
+    private final int recentCapacity;
+    private final long recentRefreshMs;
+    private final Counter recentHits;
+    private final Counter recentMisses;
+
+    public EventCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.max-entries:10000}") long maxEntries,
+            @Value("${app.cache.expire-after-write:PT10M}") Duration expireAfterWrite,
+            @Value("${app.cache.recent-per-type:100}") int recentCapacity,
+            @Value("${app.cache.recent-refresh-ms:10000}") long recentRefreshMs) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.recentCapacity = recentCapacity;
+        this.recentRefreshMs = recentRefreshMs;
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "events.byId");
+        this.recentHits = Counter.builder("events.recent.requests").tag("result", "hit").register(meterRegistry);
+        this.recentMisses = Counter.builder("events.recent.requests").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * Cached event by id, loading it on a miss. Absent events are not cached.
+     */
+    public Optional<EventEntity> getById(String eventId, Function<String, Optional<EventEntity>> loader) {
+        return Optional.ofNullable(byId.get(eventId, id -> loader.apply(id).orElse(null)));
+    }
+
+    /**
+     * Newest events of a type. Served from the ring while it is fresh and large enough;
+     * otherwise the ring is reseeded from the loader, which must return newest first.
+     */
+    public List<EventEntity> getRecentByType(String eventType, int limit, Supplier<List<EventEntity>> loader) {
+        int typeId = EventTypeRegistry.idOf(eventType);
+        if (limit > recentCapacity || !EventTypeRegistry.isRegistered(typeId)) {
+            recentMisses.increment();
+            return loader.get();
+        }
+
+        RecentEventsRing ring = recentByType.get(typeId);
+        if (ring == null) {
+            recentByType.compareAndSet(typeId, null, new RecentEventsRing(recentCapacity));
+            ring = recentByType.get(typeId);
+        }
+        if (ring.isFresh(recentRefreshMs)) {
+            recentHits.increment();
+            return ring.snapshot(limit);
+        }
+
+        recentMisses.increment();
+        ring.seed(loader.get());
+        return ring.snapshot(limit);
+    }
+
+    public int getRecentCapacity() {
+        return recentCapacity;
+    }
+
+    /**
+     * Called by the ingestion pipeline after a bulk write
+     */
+    public void onWritten(List<EventEntity> written) {
+        for (EventEntity entity : written) {
+            byId.invalidate(entity.getEventId());
+
+            int typeId = EventTypeRegistry.idOf(entity.getEventType());
+            RecentEventsRing ring = EventTypeRegistry.isRegistered(typeId) ? recentByType.get(typeId) : null;
+            if (ring != null) {
+                ring.offer(entity);
+            }
+        }
+    }
+}
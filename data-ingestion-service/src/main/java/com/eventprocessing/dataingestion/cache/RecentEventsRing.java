@@ -0,0 +1,69 @@
+package com.eventprocessing.dataingestion.cache;
+
+import com.eventprocessing.dataingestion.entity.EventEntity;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Fixed-capacity set of the newest events of one type, ordered by timestamp.
+ * Writers push entities as they are ingested; readers take a newest-first snapshot.
+ */
+class RecentEventsRing {
+
+    private static final Comparator<EventEntity> NEWEST_FIRST = Comparator
+            .comparing(EventEntity::getTimestamp, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(EventEntity::getEventId, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final int capacity;
+    private final List<EventEntity> entries;
+    private volatile long seededAt;
+
+    RecentEventsRing(int capacity) {
+        this.capacity = capacity;
+        this.entries = new ArrayList<>(capacity + 1);
+    }
+
+    /**
+     * Insert or replace an event; the oldest entry falls off when over capacity
+     */
+    synchronized void offer(EventEntity entity) {
+        entries.removeIf(existing -> existing.getEventId().equals(entity.getEventId()));
+        if (entries.size() >= capacity && NEWEST_FIRST.compare(entity, entries.get(entries.size() - 1)) > 0) {
+            return;
+        }
+
+        int index = 0;
+        while (index < entries.size() && NEWEST_FIRST.compare(entries.get(index), entity) < 0) {
+            index++;
+        }
+        entries.add(index, entity);
+        if (entries.size() > capacity) {
+            entries.remove(entries.size() - 1);
+        }
+    }
+
+    /**
+     * Replace the contents with events loaded from MongoDB, keeping newer pushed entries
+     */
+    synchronized void seed(List<EventEntity> loaded) {
+        loaded.forEach(this::offer);
+        seededAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Newest-first copy of up to limit entries
+     */
+    synchronized List<EventEntity> snapshot(int limit) {
+        return new ArrayList<>(entries.subList(0, Math.min(limit, entries.size())));
+    }
+
+    boolean isFresh(long maxAgeMs) {
+        return seededAt != 0 && System.currentTimeMillis() - seededAt < maxAgeMs;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,116 @@
+package com.eventprocessing.dataingestion.controller;
+
+import com.eventprocessing.dataingestion.archive.ArchiveCatalog;
+import com.eventprocessing.dataingestion.archive.ArchiveExportService;
+import com.eventprocessing.dataingestion.archive.ArchiveScanEngine;
+import com.eventprocessing.dataingestion.model.ArchiveQuery;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller for historical events held in the cold archive
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/archive")
+@RequiredArgsConstructor
+public class ArchiveController {
+
+    private final ArchiveScanEngine scanEngine;
+    private final ArchiveExportService exportService;
+    private final ArchiveCatalog catalog;
+
+    @Value("${app.query.max-page-size:1000}")
+    private int maxRows;
+
+    /**
+     * Archived daily buckets, oldest first
+     */
+    @GetMapping("/buckets")
+    public ResponseEntity<List<String>> getBuckets() {
+        return ResponseEntity.ok(catalog.archivedBuckets());
+    }
+
+    /**
+     * Count archived events, optionally grouped by eventType, source, status, hour or day
+     */
+    @GetMapping("/count")
+    public ResponseEntity<Object> count(
+            @RequestParam(required = false) String eventType,
+            @RequestParam(required = false) String source,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String groupBy) {
+
+        try {
+            ArchiveQuery query = new ArchiveQuery(eventType, source, status, from, to, groupBy);
+            return ResponseEntity.ok(scanEngine.count(query));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    /**
+     * Archived events matching the filters, oldest first
+     */
+    @GetMapping("/events")
+    public ResponseEntity<Object> findEvents(
+            @RequestParam(required = false) String eventType,
+            @RequestParam(required = false) String source,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "100") int limit) {
+
+        try {
+            ArchiveQuery query = new ArchiveQuery(eventType, source, status, from, to, null);
+            return ResponseEntity.ok(scanEngine.find(query, Math.max(1, Math.min(limit, maxRows))));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    /**
+     * Export one bucket now instead of waiting for the schedule
+     */
+    @PostMapping("/export/{bucket}")
+    public ResponseEntity<Object> exportBucket(@PathVariable String bucket) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("bucket", bucket);
+        try {
+            response.put("events", exportService.exportBucket(bucket));
+            response.put("status", "ARCHIVED");
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        } catch (Exception e) {
+            log.error("Error archiving event bucket {}", bucket, e);
+            response.put("status", "FAILED");
+            response.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    private static ResponseEntity<Object> badRequest(IllegalArgumentException e) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("status", "FAILED");
+        errorResponse.put("error", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+}
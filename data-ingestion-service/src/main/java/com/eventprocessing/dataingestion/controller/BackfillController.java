@@ -0,0 +1,83 @@
+package com.eventprocessing.dataingestion.controller;
+
+import com.eventprocessing.dataingestion.backfill.BackfillService;
+import com.eventprocessing.dataingestion.entity.BackfillJob;
+import com.eventprocessing.dataingestion.model.BackfillRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * REST controller for replaying stored events into the processing pipeline
+ */
+@RestController
+@RequestMapping("/api/backfill")
+@RequiredArgsConstructor
+public class BackfillController {
+
+    private final BackfillService backfillService;
+
+    /**
+     * Queue a replay of the given time range and event types
+     */
+    @PostMapping
+    public ResponseEntity<Object> startBackfill(@RequestBody BackfillRequest request) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(backfillService.start(request));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("status", "FAILED");
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<BackfillJob>> getJobs() {
+        return ResponseEntity.ok(backfillService.getJobs());
+    }
+
+    /**
+     * Job progress: published vs. estimated total, checkpoint, allowed rate and live lag
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<Object> getJob(@PathVariable String jobId) {
+        return respond(jobId, backfillService.getJob(jobId));
+    }
+
+    @PostMapping("/{jobId}/pause")
+    public ResponseEntity<Object> pause(@PathVariable String jobId) {
+        return respond(jobId, backfillService.pause(jobId));
+    }
+
+    @PostMapping("/{jobId}/resume")
+    public ResponseEntity<Object> resume(@PathVariable String jobId) {
+        return respond(jobId, backfillService.resume(jobId));
+    }
+
+    @PostMapping("/{jobId}/cancel")
+    public ResponseEntity<Object> cancel(@PathVariable String jobId) {
+        return respond(jobId, backfillService.cancel(jobId));
+    }
+
+    private static ResponseEntity<Object> respond(String jobId, Optional<BackfillJob> job) {
+        return job.<ResponseEntity<Object>>map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    Map<String, Object> errorResponse = new HashMap<>();
+                    errorResponse.put("jobId", jobId);
+                    errorResponse.put("status", "NOT_FOUND");
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+                });
+    }
+}
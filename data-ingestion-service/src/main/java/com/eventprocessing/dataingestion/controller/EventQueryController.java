@@ -0,0 +1,162 @@
+package com.eventprocessing.dataingestion.controller;
+
+import com.eventprocessing.common.model.EventStatus;
+import com.eventprocessing.dataingestion.model.EventPage;
+import com.eventprocessing.dataingestion.model.EventQuery;
+import com.eventprocessing.dataingestion.entity.EventEntity;
+import com.eventprocessing.dataingestion.service.EventIngestionService;
+import com.eventprocessing.dataingestion.service.EventNotFoundException;
+import com.eventprocessing.dataingestion.service.EventQueryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller for querying stored events
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+public class EventQueryController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final EventQueryService eventQueryService;
+    private final EventIngestionService eventIngestionService;
+
+    /**
+     * Keyset-paginated events, newest first. Pass the returned nextCursor to get the following page.
+     */
+    @GetMapping
+    public ResponseEntity<Object> getEvents(
+            @RequestParam(required = false) String eventType,
+            @RequestParam(required = false) EventStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) List<String> attribute,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+
+        try {
+            EventPage page = eventQueryService.getPage(toQuery(eventType, status, from, to, attribute), cursor, limit);
+            return ResponseEntity.ok(page);
+
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("status", "FAILED");
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+    }
+
+    /**
+     * Stream all matching events as newline-delimited JSON, optionally projected to the given fields
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamEvents(
+            @RequestParam(required = false) String eventType,
+            @RequestParam(required = false) EventStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) List<String> attribute,
+            @RequestParam(required = false) List<String> fields) {
+
+        EventQuery query = toQuery(eventType, status, from, to, attribute);
+        List<String> projection = fields != null ? fields : List.of();
+
+        StreamingResponseBody body = out -> {
+            long count = eventQueryService.streamEvents(query, projection, out);
+            log.debug("Finished streaming {} events", count);
+        };
+
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    /**
+     * Newest events of one type
+     */
+    @GetMapping("/recent")
+    public ResponseEntity<List<EventEntity>> getRecentEvents(
+            @RequestParam String eventType,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        return ResponseEntity.ok(eventIngestionService.getRecentEventsByType(eventType, Math.max(1, limit)));
+    }
+
+    /**
+     * Single event by id
+     */
+    @GetMapping("/{eventId}")
+    public ResponseEntity<Object> getEvent(@PathVariable String eventId) {
+        try {
+            return ResponseEntity.ok(eventIngestionService.getEventById(eventId));
+
+        } catch (EventNotFoundException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("eventId", eventId);
+            errorResponse.put("status", "NOT_FOUND");
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        }
+    }
+
+    private EventQuery toQuery(String eventType, EventStatus status, Instant from, Instant to, List<String> attributeFilters) {
+        return EventQuery.builder()
+                .eventType(eventType)
+                .status(status)
+                .from(from)
+                .to(to)
+                .attributes(parseAttributes(attributeFilters))
+                .build();
+    }
+
+    /**
+     * Parse name:value attribute filters; values keep the type they were stored with
+     */
+    private Map<String, Object> parseAttributes(List<String> attributeFilters) {
+        if (attributeFilters == null || attributeFilters.isEmpty()) {
+            return null;
+        }
+
+        Map<String, Object> attributes = new HashMap<>();
+        for (String filter : attributeFilters) {
+            int separator = filter.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Attribute filter must be name:value: " + filter);
+            }
+            attributes.put(filter.substring(0, separator), parseValue(filter.substring(separator + 1)));
+        }
+        return attributes;
+    }
+
+    private Object parseValue(String value) {
+        if ("true".equals(value) || "false".equals(value)) {
+            return Boolean.valueOf(value);
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            // not an integer
+        }
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            return value;
+        }
+    }
+}
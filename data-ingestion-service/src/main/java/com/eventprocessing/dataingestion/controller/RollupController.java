@@ -0,0 +1,67 @@
+package com.eventprocessing.dataingestion.controller;
+
+import com.eventprocessing.dataingestion.entity.RollupEntity;
+import com.eventprocessing.dataingestion.model.RollupGranularity;
+import com.eventprocessing.dataingestion.service.RollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller for pre-aggregated event counts
+ */
+@RestController
+@RequestMapping("/api/rollups")
+@RequiredArgsConstructor
+public class RollupController {
+
+    private final RollupService rollupService;
+
+    /**
+     * Rollup documents, optionally restricted to one granularity
+     */
+    @GetMapping
+    public ResponseEntity<List<RollupEntity>> getRollups(
+            @RequestParam(required = false) RollupGranularity granularity,
+            @RequestParam(required = false) String eventType,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String source,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+
+        return ResponseEntity.ok(rollupService.findRollups(granularity, eventType, status, source, from, to));
+    }
+
+    /**
+     * Event counts grouped by eventType, status, source or granularity
+     */
+    @GetMapping("/totals")
+    public ResponseEntity<Object> getTotals(
+            @RequestParam(defaultValue = "eventType") String groupBy,
+            @RequestParam(required = false) String eventType,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String source,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+
+        try {
+            return ResponseEntity.ok(rollupService.totals(groupBy, eventType, status, source, from, to));
+
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("status", "FAILED");
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+    }
+}
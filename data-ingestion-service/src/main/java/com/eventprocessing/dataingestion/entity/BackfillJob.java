@@ -0,0 +1,76 @@
+package com.eventprocessing.dataingestion.entity;
+
+import com.eventprocessing.common.constants.AppConstants;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A replay of stored events into the processing pipeline. The checkpoint is the
+ * (timestamp, eventId) of the last event acknowledged by Kafka, so a restarted job
+ * continues right after it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = AppConstants.COLLECTION_BACKFILL_JOBS)
+public class BackfillJob {
+
+    @Id
+    private String id;
+
+    private Instant from;
+
+    private Instant to;
+
+    /**
+     * Event types to replay; empty replays every type
+     */
+    private List<String> eventTypes;
+
+    private Status status;
+
+    private Instant checkpointTimestamp;
+
+    private String checkpointEventId;
+
+    private long published;
+
+    private long estimatedTotal;
+
+    /**
+     * Publish rate currently allowed by the live-lag throttle (events/second)
+     */
+    private double currentRate;
+
+    /**
+     * Last observed lag of the live consumer group
+     */
+    private long liveLag;
+
+    private Instant createdAt;
+
+    private Instant startedAt;
+
+    private Instant updatedAt;
+
+    private Instant completedAt;
+
+    private String errorMessage;
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        PAUSED,
+        COMPLETED,
+        CANCELLED,
+        FAILED
+    }
+}
@@ -1,6 +1,7 @@
 package com.eventprocessing.dataingestion.entity;
 
 import com.eventprocessing.common.model.EventStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,22 +10,29 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.WildcardIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
 import java.util.Map;
 
 /**
- * MongoDB entity for storing events
+ * MongoDB entity for storing events. Documents live in daily bucket collections
+ * (events_yyyyMMdd); the index annotations below are applied to every bucket.
+ * The compound indexes end in (timestamp, eventId) so keyset pagination is an index walk;
+ * eventType and status lookups are served by their prefixes.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "events")
 @CompoundIndexes({
-        @CompoundIndex(name = "eventType_timestamp_idx", def = "{'eventType': 1, 'timestamp': -1}"),
-        @CompoundIndex(name = "status_timestamp_idx", def = "{'status': 1, 'timestamp': -1}")
+        @CompoundIndex(name = "timestamp_eventId_idx", def = "{'timestamp': -1, 'eventId': -1}"),
+        @CompoundIndex(name = "eventType_timestamp_eventId_idx", def = "{'eventType': 1, 'timestamp': -1, 'eventId': -1}"),
+        @CompoundIndex(name = "status_timestamp_eventId_idx", def = "{'status': 1, 'timestamp': -1, 'eventId': -1}"),
+        @CompoundIndex(name = "correlationId_timestamp_idx", def = "{'correlationId': 1, 'timestamp': 1}",
+                partialFilter = "{'correlationId': {$exists: true}}")
 })
 public class EventEntity {
 
@@ -34,15 +42,34 @@ public class EventEntity {
     @Indexed(unique = true)
     private String eventId;
 
-    @Indexed
     private String eventType;
 
-    @Indexed
     private Instant timestamp;
 
+    /**
+     * Raw payload; null when the payload is stored compressed in payloadBlob.
+     * Read paths restore it with PayloadCodec.inflate before handing entities out.
+     */
     private Map<String, Object> payload;
 
-    @Indexed
+    /**
+     * Hot payload fields extracted per event type so they can be indexed and filtered on
+     */
+    @WildcardIndexed
+    private Map<String, Object> attributes;
+
+    /**
+     * Remaining payload fields as deflated JSON
+     */
+    @JsonIgnore
+    private byte[] payloadBlob;
+
+    /**
+     * Version of the event type's trained dictionary used for payloadBlob (0 = none)
+     */
+    @JsonIgnore
+    private Integer payloadDictionaryVersion;
+
     private EventStatus status;
 
     private Integer retryCount;
@@ -57,6 +84,5 @@ public class EventEntity {
 
     private String errorMessage;
 
-    @Indexed
     private Instant createdAt;
 }
@@ -0,0 +1,54 @@
+package com.eventprocessing.dataingestion.entity;
+
+import com.eventprocessing.common.constants.AppConstants;
+import com.eventprocessing.dataingestion.model.RollupGranularity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Pre-aggregated event count for one (eventType, status, source) over one time bucket.
+ * The id is derived from those keys, so increments upsert the document directly.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = AppConstants.COLLECTION_ROLLUPS)
+@CompoundIndexes({
+        @CompoundIndex(name = "granularity_bucketStart_idx", def = "{'granularity': 1, 'bucketStart': 1}"),
+        @CompoundIndex(name = "eventType_granularity_bucketStart_idx", def = "{'eventType': 1, 'granularity': 1, 'bucketStart': 1}")
+})
+public class RollupEntity {
+
+    @Id
+    private String id;
+
+    private RollupGranularity granularity;
+
+    private Instant bucketStart;
+
+    private String eventType;
+
+    private String status;
+
+    private String source;
+
+    private long count;
+
+    /**
+     * Deterministic document id for a rollup key
+     */
+    public static String idFor(RollupGranularity granularity, Instant bucketStart,
+                               String eventType, String status, String source) {
+        return granularity.name().charAt(0) + "|" + bucketStart.toEpochMilli() + "|"
+                + eventType + "|" + status + "|" + (source != null ? source : "");
+    }
+}
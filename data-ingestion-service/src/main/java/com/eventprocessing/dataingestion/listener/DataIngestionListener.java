@@ -1,8 +1,17 @@
 package com.eventprocessing.dataingestion.listener;
 
+import com.eventprocessing.common.latency.LatencyRecorder;
+import com.eventprocessing.common.latency.LatencyStage;
+import com.eventprocessing.common.latency.StageHeaders;
 import com.eventprocessing.common.model.Event;
+import com.eventprocessing.common.model.EventTypeRegistry;
+import com.eventprocessing.common.profiling.DeserializeEvent;
+import com.eventprocessing.common.profiling.HotPathEvent;
+import com.eventprocessing.common.tracing.Span;
+import com.eventprocessing.common.tracing.SpanKind;
+import com.eventprocessing.common.tracing.Tracer;
 import com.eventprocessing.common.util.JsonUtil;
-import com.eventprocessing.dataingestion.service.EventIngestionService;
+import com.eventprocessing.dataingestion.service.IngestionBatchAccumulator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
@@ -10,30 +19,73 @@ import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static com.eventprocessing.common.constants.AppConstants.KAFKA_TOPIC_EVENTS;
 
 /**
- * Kafka listener for ingesting events to MongoDB
+ * Kafka batch listener for ingesting events to MongoDB
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class DataIngestionListener {
 
-    private final EventIngestionService eventIngestionService;
+    private final IngestionBatchAccumulator batchAccumulator;
+    private final LatencyRecorder latencyRecorder;
+    private final Tracer tracer;
 
-    @KafkaListener(topics = KAFKA_TOPIC_EVENTS, groupId = "${spring.kafka.consumer.group-id}")
-    public void consumeEvent(ConsumerRecord<String, String> record, Acknowledgment acknowledgment) {
-        try {
-            Event event = JsonUtil.fromJson(record.value(), Event.class);
-            log.debug("Ingesting event: {}", event.getEventId());
+    @KafkaListener(topics = KAFKA_TOPIC_EVENTS, groupId = "${spring.kafka.consumer.group-id}", containerFactory = "kafkaListenerContainerFactory")
+    public void consumeEvents(List<ConsumerRecord<String, String>> records, Acknowledgment acknowledgment) {
+        log.debug("Ingesting batch of {} records", records.size());
+
+        long receivedAt = System.currentTimeMillis();
+        List<Event> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, String> record : records) {
+            // The record's trace ends at hand-off; the bulk write is traced per batch
+            Span span = startSpan(record);
+            try (Span.Scope ignored = span.makeCurrent()) {
+                Event event = deserialize(record);
+                latencyRecorder.recordMillis(LatencyStage.QUEUE, event, StageHeaders.publishedAt(record), receivedAt);
+                events.add(event);
+            } catch (Exception e) {
+                // Poison records are skipped so they cannot block the partition
+                log.error("Skipping malformed event at partition={}, offset={}",
+                        record.partition(), record.offset(), e);
+                span.recordError(e);
+            } finally {
+                span.end();
+            }
+        }
 
-            eventIngestionService.ingestEvent(event);
+        // Acknowledgment is deferred until the accumulator has written the batch
+        batchAccumulator.append(events, acknowledgment);
+    }
 
-            acknowledgment.acknowledge();
+    private Span startSpan(ConsumerRecord<String, String> record) {
+        if (!tracer.isEnabled()) {
+            return Span.NOOP;
+        }
+        return tracer.startConsumerSpan("kafka consume " + record.topic(), tracer.extract(record.headers()),
+                        StageHeaders.publishedAt(record))
+                .setAttribute("messaging.kafka.partition", record.partition())
+                .setAttribute("messaging.kafka.offset", record.offset());
+    }
 
-        } catch (Exception e) {
-            log.error("Error ingesting event from Kafka", e);
+    private Event deserialize(ConsumerRecord<String, String> record) {
+        Span span = tracer.startSpan("deserialize", SpanKind.INTERNAL);
+        HotPathEvent jfr = new DeserializeEvent().at(HotPathEvent.KAFKA, record.topic(), record.partition());
+        jfr.begin();
+        String eventType = null;
+        try {
+            Event event = JsonUtil.fromJson(record.value(), Event.class);
+            EventTypeRegistry.resolveFrom(record.headers(), event);
+            eventType = event.getEventType();
+            return event;
+        } finally {
+            jfr.finish(eventType);
+            span.end();
         }
     }
 }
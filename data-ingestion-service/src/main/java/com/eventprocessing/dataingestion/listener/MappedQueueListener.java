@@ -0,0 +1,53 @@
+package com.eventprocessing.dataingestion.listener;
+
+import com.eventprocessing.common.constants.AppConstants;
+import com.eventprocessing.common.transport.MappedQueueTransport;
+import com.eventprocessing.common.transport.MappedRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.eventprocessing.common.constants.AppConstants.KAFKA_TOPIC_EVENTS;
+
+/**
+ * Feeds the same-host events queue into {@link DataIngestionListener} in batches of
+ * app.batch.size when app.transport.type is MAPPED. A batch is acknowledged through
+ * its last record once the accumulator has made it durable; a full accumulator throws
+ * and the transport redelivers the batch.
+ */
+@Component
+public class MappedQueueListener {
+
+    private final MappedQueueTransport transport;
+    private final DataIngestionListener dataIngestionListener;
+    private final String groupId;
+    private final int batchSize;
+
+    public MappedQueueListener(MappedQueueTransport transport, DataIngestionListener dataIngestionListener,
+                               @Value("${spring.kafka.consumer.group-id}") String groupId,
+                               @Value("${app.batch.size:" + AppConstants.BATCH_SIZE + "}") int batchSize) {
+        this.transport = transport;
+        this.dataIngestionListener = dataIngestionListener;
+        this.groupId = groupId;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        if (!transport.isEnabled()) {
+            return;
+        }
+        transport.subscribe(KAFKA_TOPIC_EVENTS, groupId, batchSize, records -> {
+            List<ConsumerRecord<String, String>> batch = new ArrayList<>(records.size());
+            for (MappedRecord record : records) {
+                batch.add(record.toConsumerRecord());
+            }
+            dataIngestionListener.consumeEvents(batch, records.get(records.size() - 1)::acknowledge);
+        });
+    }
+}
@@ -0,0 +1,39 @@
+package com.eventprocessing.dataingestion.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Filter for scans over archived events; every field is optional
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveQuery {
+
+    private String eventType;
+
+    private String source;
+
+    private String status;
+
+    /**
+     * Inclusive lower bound on the event timestamp
+     */
+    private Instant from;
+
+    /**
+     * Exclusive upper bound on the event timestamp
+     */
+    private Instant to;
+
+    /**
+     * Dimension to group counts by: eventType, source, status, hour or day
+     */
+    private String groupBy;
+}
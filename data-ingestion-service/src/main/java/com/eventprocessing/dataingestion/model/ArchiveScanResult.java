@@ -0,0 +1,81 @@
+package com.eventprocessing.dataingestion.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of an archive scan
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveScanResult {
+
+    private long matched;
+
+    /**
+     * Counts per group value, present when the query had a groupBy
+     */
+    private Map<String, Long> groups;
+
+    /**
+     * Matching rows in timestamp order, present for row queries
+     */
+    private List<Row> rows;
+
+    private int segmentsScanned;
+
+    /**
+     * Segments ruled out by their min/max timestamps or dictionaries without being decoded
+     */
+    private int segmentsSkipped;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Row {
+
+        private String eventId;
+
+        private String eventType;
+
+        private String source;
+
+        private String status;
+
+        private String correlationId;
+
+        private Instant timestamp;
+
+        /**
+         * Payload as the JSON it was archived with
+         */
+        private String payload;
+
+        /**
+         * Hot payload fields as JSON
+         */
+        private String attributes;
+
+        /**
+         * Metadata as JSON
+         */
+        private String metadata;
+
+        private String errorMessage;
+
+        private Integer retryCount;
+
+        private Instant processedAt;
+
+        private Instant createdAt;
+    }
+}
@@ -0,0 +1,34 @@
+package com.eventprocessing.dataingestion.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Range of stored events to replay into the processing pipeline
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackfillRequest {
+
+    /**
+     * Inclusive lower bound on the event timestamp
+     */
+    private Instant from;
+
+    /**
+     * Exclusive upper bound on the event timestamp
+     */
+    private Instant to;
+
+    /**
+     * Event types to replay; empty or missing replays every type
+     */
+    private List<String> eventTypes;
+}
@@ -0,0 +1,53 @@
+package com.eventprocessing.dataingestion.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Ordered chain of events sharing one correlationId
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CorrelationTimeline {
+
+    private String correlationId;
+
+    /**
+     * Where the chain was read from: MEMORY or MONGODB
+     */
+    private String source;
+
+    private List<Step> steps;
+
+    /**
+     * Time between the first and the last step
+     */
+    private long totalDurationMs;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Step {
+
+        private String eventId;
+
+        private String eventType;
+
+        private String status;
+
+        private Instant timestamp;
+
+        /**
+         * Time since the previous step; 0 for the first step
+         */
+        private long gapFromPreviousMs;
+    }
+}
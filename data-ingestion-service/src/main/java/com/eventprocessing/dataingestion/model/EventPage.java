@@ -0,0 +1,26 @@
+package com.eventprocessing.dataingestion.model;
+
+import com.eventprocessing.dataingestion.entity.EventEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page of events, newest first
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventPage {
+
+    private List<EventEntity> events;
+
+    /**
+     * Opaque cursor for the next page, or null when this is the last page
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,39 @@
+package com.eventprocessing.dataingestion.model;
+
+import com.eventprocessing.common.model.EventStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Filter for stored event queries; every field is optional
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventQuery {
+
+    private String eventType;
+
+    private EventStatus status;
+
+    /**
+     * Inclusive lower bound on the event timestamp
+     */
+    private Instant from;
+
+    /**
+     * Exclusive upper bound on the event timestamp
+     */
+    private Instant to;
+
+    /**
+     * Equality filters on extracted payload attributes
+     */
+    private Map<String, Object> attributes;
+}
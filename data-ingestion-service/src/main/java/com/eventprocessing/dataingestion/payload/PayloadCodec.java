@@ -0,0 +1,316 @@
+package com.eventprocessing.dataingestion.payload;
+
+import com.eventprocessing.common.model.EventTypeRegistry;
+import com.eventprocessing.common.util.JsonUtil;
+import com.eventprocessing.dataingestion.entity.EventEntity;
+import com.fasterxml.jackson.core.type.TypeReference;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Converts event payloads between their Map form and the compact stored form.
+ *
+ * Configured hot fields are lifted into the entity's attributes. When compression
+ * is enabled the remaining fields are stored as deflated JSON, using a preset
+ * dictionary trained from the first payloads seen for each registered event type.
+ * Until a type has a dictionary its payloads are deflated without one (version 0),
+ * and unregistered types never get one, so sampling memory is bounded by the registry.
+ */
+@Slf4j
+@Component
+public class PayloadCodec {
+
+    private static final TypeReference<LinkedHashMap<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {
+    };
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    private final MongoTemplate mongoTemplate;
+    private final PayloadProperties properties;
+    private final Map<String, PayloadDictionary> activeDictionaries = new ConcurrentHashMap<>();
+    private final Map<String, byte[]> dictionariesById = new ConcurrentHashMap<>();
+    private final Map<String, TrainingSet> trainingSets = new ConcurrentHashMap<>();
+
+    public PayloadCodec(MongoTemplate mongoTemplate, PayloadProperties properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void init() {
+        for (PayloadDictionary dictionary : mongoTemplate.findAll(PayloadDictionary.class)) {
+            activate(dictionary);
+        }
+        log.info("Loaded {} payload dictionaries", dictionariesById.size());
+    }
+
+    /**
+     * The stored entity with its full payload, for handing out of the service. A compressed
+     * entity is copied rather than changed, so cached entities stay in their stored form.
+     */
+    public EventEntity inflate(EventEntity entity) {
+        if (entity.getPayload() != null || entity.getPayloadBlob() == null) {
+            return entity;
+        }
+        return entity.toBuilder()
+                .payload(decode(entity))
+                .payloadBlob(null)
+                .payloadDictionaryVersion(null)
+                .build();
+    }
+
+    /**
+     * Move hot fields into attributes and, if enabled, replace the payload with a compressed blob
+     */
+    public void encode(EventEntity entity) {
+        Map<String, Object> payload = entity.getPayload();
+        if (payload == null) {
+            return;
+        }
+
+        Map<String, Object> remaining = new LinkedHashMap<>(payload);
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        for (String field : properties.getHotFields().getOrDefault(entity.getEventType(), List.of())) {
+            if (remaining.containsKey(field)) {
+                attributes.put(field, properties.isCompressionEnabled() ? remaining.remove(field) : remaining.get(field));
+            }
+        }
+        if (!attributes.isEmpty()) {
+            entity.setAttributes(attributes);
+        }
+
+        if (!properties.isCompressionEnabled()) {
+            return;
+        }
+
+        PayloadDictionary dictionary = entity.getEventType() != null ? activeDictionaries.get(entity.getEventType()) : null;
+        if (dictionary == null && EventTypeRegistry.idOf(entity.getEventType()) != EventTypeRegistry.UNREGISTERED) {
+            sample(entity.getEventType(), remaining);
+        }
+
+        try {
+            byte[] json = JsonUtil.getObjectMapper().writeValueAsBytes(remaining);
+            entity.setPayloadBlob(deflate(json, dictionary != null ? dictionary.getDictionary() : null));
+            entity.setPayloadDictionaryVersion(dictionary != null ? dictionary.getVersion() : 0);
+            entity.setPayload(null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress payload of event " + entity.getEventId(), e);
+        }
+    }
+
+    /**
+     * Decompress the blob and merge the attributes back in
+     */
+    public Map<String, Object> decode(EventEntity entity) {
+        int version = entity.getPayloadDictionaryVersion() != null ? entity.getPayloadDictionaryVersion() : 0;
+        byte[] dictionary = version == 0 ? null : dictionaryFor(entity.getEventType(), version);
+
+        try {
+            Map<String, Object> payload = JsonUtil.getObjectMapper()
+                    .readValue(inflate(entity.getPayloadBlob(), dictionary), PAYLOAD_TYPE);
+            if (entity.getAttributes() != null) {
+                payload.putAll(entity.getAttributes());
+            }
+            return payload;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decompress payload of event " + entity.getEventId(), e);
+        }
+    }
+
+    private byte[] dictionaryFor(String eventType, int version) {
+        String id = PayloadDictionary.idFor(eventType, version);
+        byte[] dictionary = dictionariesById.get(id);
+        if (dictionary == null) {
+            // Trained by another instance since startup
+            PayloadDictionary stored = mongoTemplate.findById(id, PayloadDictionary.class);
+            if (stored == null) {
+                throw new IllegalStateException("Missing payload dictionary " + id);
+            }
+            activate(stored);
+            dictionary = stored.getDictionary();
+        }
+        return dictionary;
+    }
+
+    private void activate(PayloadDictionary dictionary) {
+        dictionariesById.put(dictionary.getId(), dictionary.getDictionary());
+        activeDictionaries.merge(dictionary.getEventType(), dictionary,
+                (current, candidate) -> candidate.getVersion() > current.getVersion() ? candidate : current);
+    }
+
+    private void sample(String eventType, Map<String, Object> payload) {
+        TrainingSet set = trainingSets.computeIfAbsent(eventType, key -> new TrainingSet(System.nanoTime()));
+        List<Map<String, Object>> ready = null;
+        synchronized (set) {
+            if (set.samples().size() < properties.getTrainingSamples()) {
+                set.samples().add(payload);
+                if (set.samples().size() == properties.getTrainingSamples()) {
+                    ready = new ArrayList<>(set.samples());
+                }
+            }
+        }
+
+        if (ready != null) {
+            try {
+                train(eventType, ready);
+            } catch (Exception e) {
+                log.error("Error training payload dictionary for {}", eventType, e);
+            }
+            trainingSets.remove(eventType, set);
+        }
+    }
+
+    /**
+     * Drop the samples of types too rare to reach trainingSamples within the age limit;
+     * sampling starts over with their next payload
+     */
+    @Scheduled(fixedDelayString = "${app.payload.training-sweep-interval:60000}")
+    public void evictStaleSamples() {
+        long oldest = System.nanoTime() - properties.getTrainingSampleMaxAge().toNanos();
+        trainingSets.values().removeIf(set -> set.startedAt() - oldest < 0);
+    }
+
+    /**
+     * Build a dictionary from the JSON keys and short string values that save the most
+     * bytes across the samples. The most valuable tokens go last, closest to the data.
+     */
+    private void train(String eventType, List<Map<String, Object>> samples) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (Map<String, Object> sample : samples) {
+            collectTokens(sample, frequencies);
+        }
+
+        List<String> selected = new ArrayList<>();
+        int size = 0;
+        List<Map.Entry<String, Integer>> ranked = frequencies.entrySet().stream()
+                .filter(entry -> entry.getValue() > 1)
+                .sorted(Comparator.comparingLong((Map.Entry<String, Integer> entry) ->
+                        (long) entry.getValue() * entry.getKey().length()).reversed())
+                .toList();
+        for (Map.Entry<String, Integer> entry : ranked) {
+            int tokenBytes = entry.getKey().getBytes(StandardCharsets.UTF_8).length;
+            if (size + tokenBytes > properties.getMaxDictionaryBytes()) {
+                break;
+            }
+            selected.add(entry.getKey());
+            size += tokenBytes;
+        }
+
+        ByteArrayOutputStream dictionary = new ByteArrayOutputStream(size);
+        for (int i = selected.size() - 1; i >= 0; i--) {
+            dictionary.writeBytes(selected.get(i).getBytes(StandardCharsets.UTF_8));
+        }
+
+        PayloadDictionary current = activeDictionaries.get(eventType);
+        int version = current != null ? current.getVersion() + 1 : 1;
+        PayloadDictionary trained = PayloadDictionary.builder()
+                .id(PayloadDictionary.idFor(eventType, version))
+                .eventType(eventType)
+                .version(version)
+                .dictionary(dictionary.toByteArray())
+                .sampleCount(samples.size())
+                .createdAt(Instant.now())
+                .build();
+
+        try {
+            mongoTemplate.insert(trained);
+        } catch (DuplicateKeyException e) {
+            // Another instance trained this version first; use theirs
+            trained = mongoTemplate.findById(trained.getId(), PayloadDictionary.class);
+        }
+
+        activate(trained);
+        log.info("Trained payload dictionary v{} for {} ({} bytes from {} samples)",
+                trained.getVersion(), eventType, trained.getDictionary().length, samples.size());
+    }
+
+    private void collectTokens(Object value, Map<String, Integer> frequencies) {
+        if (value instanceof Map<?, ?> map) {
+            map.forEach((key, nested) -> {
+                frequencies.merge("\"" + key + "\":", 1, Integer::sum);
+                collectTokens(nested, frequencies);
+            });
+        } else if (value instanceof List<?> list) {
+            list.forEach(nested -> collectTokens(nested, frequencies));
+        } else if (value instanceof String text && text.length() >= 2 && text.length() <= MAX_TOKEN_LENGTH) {
+            frequencies.merge("\"" + text + "\"", 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Payloads sampled for one type since {@code startedAt} (System.nanoTime)
+     */
+    private record TrainingSet(long startedAt, List<Map<String, Object>> samples) {
+
+        TrainingSet(long startedAt) {
+            this(startedAt, new ArrayList<>());
+        }
+    }
+
+    private static byte[] deflate(byte[] input, byte[] dictionary) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(input);
+            deflater.finish();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, input.length / 2));
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input, byte[] dictionary) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0) {
+                    if (inflater.needsDictionary()) {
+                        if (dictionary == null) {
+                            throw new IOException("Payload requires a dictionary");
+                        }
+                        inflater.setDictionary(dictionary);
+                    } else if (inflater.needsInput()) {
+                        throw new IOException("Truncated payload");
+                    }
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt payload", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.eventprocessing.dataingestion.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Trained compression dictionary for one event type. Dictionaries are immutable;
+ * retraining creates a new version so older blobs stay readable.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "payload_dictionaries")
+public class PayloadDictionary {
+
+    @Id
+    private String id;
+
+    private String eventType;
+
+    private int version;
+
+    private byte[] dictionary;
+
+    private int sampleCount;
+
+    private Instant createdAt;
+
+    public static String idFor(String eventType, int version) {
+        return eventType + "|" + version;
+    }
+}
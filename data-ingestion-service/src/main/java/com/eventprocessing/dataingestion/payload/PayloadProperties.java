@@ -0,0 +1,44 @@
+package com.eventprocessing.dataingestion.payload;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Payload storage settings (app.payload.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.payload")
+public class PayloadProperties {
+
+    /**
+     * Store payloads as compressed blobs instead of nested documents
+     */
+    private boolean compressionEnabled = false;
+
+    /**
+     * Payload fields promoted to indexed attributes, per event type
+     */
+    private Map<String, List<String>> hotFields = new HashMap<>();
+
+    /**
+     * Payloads sampled per event type before a dictionary is trained
+     */
+    private int trainingSamples = 1000;
+
+    /**
+     * Samples of a type that has not reached trainingSamples within this long are dropped
+     */
+    private Duration trainingSampleMaxAge = Duration.ofHours(1);
+
+    /**
+     * Upper bound on a trained dictionary; deflate only looks back 32 KB
+     */
+    private int maxDictionaryBytes = 16 * 1024;
+}
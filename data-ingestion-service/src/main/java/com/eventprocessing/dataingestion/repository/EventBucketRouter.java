@@ -0,0 +1,111 @@
+package com.eventprocessing.dataingestion.repository;
+
+import com.eventprocessing.common.util.EventBuckets;
+import com.eventprocessing.dataingestion.entity.EventEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Routes events to their daily bucket collection and resolves the buckets a query
+ * has to fan out to. Bucket indexes are derived from the EventEntity annotations
+ * and created the first time a bucket is written.
+ *
+ * An event is written to the bucket of its timestamp, where the unique eventId index
+ * dedupes it. Redeliveries carry the producer's timestamp and so land in the same
+ * bucket; nothing is stored outside the buckets, so dropping one leaves no residue.
+ */
+@Slf4j
+@Component
+public class EventBucketRouter {
+
+    private final MongoTemplate mongoTemplate;
+    private final List<IndexDefinition> indexDefinitions;
+    private final Set<String> initialisedBuckets = ConcurrentHashMap.newKeySet();
+
+    public EventBucketRouter(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        IndexResolver indexResolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        this.indexDefinitions = new ArrayList<>();
+        indexResolver.resolveIndexFor(EventEntity.class).forEach(indexDefinitions::add);
+    }
+
+    /**
+     * Bucket collection for writing an event with the given timestamp
+     */
+    public String collectionForWrite(Instant timestamp) {
+        String collection = EventBuckets.collectionFor(timestamp != null ? timestamp : Instant.now());
+        if (initialisedBuckets.add(collection)) {
+            ensureIndexes(collection);
+        }
+        return collection;
+    }
+
+    /**
+     * Bring the indexes of buckets created by earlier versions in line with EventEntity
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexesOnExistingBuckets() {
+        for (String collection : allBuckets()) {
+            if (initialisedBuckets.add(collection)) {
+                try {
+                    ensureIndexes(collection);
+                } catch (Exception e) {
+                    log.error("Error ensuring indexes on event bucket {}", collection, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * All existing buckets, newest first
+     */
+    public List<String> allBuckets() {
+        return mongoTemplate.getCollectionNames().stream()
+                .filter(EventBuckets::isBucket)
+                .sorted(Comparator.reverseOrder())
+                .toList();
+    }
+
+    /**
+     * Existing buckets overlapping [from, to), newest first
+     */
+    public List<String> bucketsBetween(Instant from, Instant to) {
+        Set<String> existing = Set.copyOf(allBuckets());
+        return EventBuckets.collectionsBetween(from, to).stream()
+                .filter(existing::contains)
+                .toList();
+    }
+
+    /**
+     * Drop a whole bucket; retention never deletes single documents
+     */
+    public void drop(String collection) {
+        mongoTemplate.dropCollection(collection);
+        initialisedBuckets.remove(collection);
+    }
+
+    private void ensureIndexes(String collection) {
+        try {
+            IndexOperations indexOps = mongoTemplate.indexOps(collection);
+            indexDefinitions.forEach(indexOps::ensureIndex);
+            log.info("Initialised event bucket {}", collection);
+        } catch (Exception e) {
+            initialisedBuckets.remove(collection);
+            throw e;
+        }
+    }
+}
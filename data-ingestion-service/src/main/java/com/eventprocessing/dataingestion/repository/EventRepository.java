@@ -1,44 +1,49 @@
 package com.eventprocessing.dataingestion.repository;
 
-import com.eventprocessing.common.model.EventStatus;
 import com.eventprocessing.dataingestion.entity.EventEntity;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.mongodb.repository.MongoRepository;
-import org.springframework.data.mongodb.repository.Query;
-import org.springframework.stereotype.Repository;
+import com.eventprocessing.dataingestion.model.EventQuery;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
- * MongoDB repository for events
+ * Bucket-aware event storage. Events live in daily collections, so range reads
+ * fan out over the buckets that can hold matching documents; every read is bounded
+ * by a limit or streamed.
  */
-@Repository
-public interface EventRepository extends MongoRepository<EventEntity, String> {
+public interface EventRepository {
 
-    Optional<EventEntity> findByEventId(String eventId);
-
-    List<EventEntity> findByEventType(String eventType);
-
-    List<EventEntity> findByStatus(EventStatus status);
-
-    Page<EventEntity> findByEventTypeAndTimestampBetween(
-            String eventType,
-            Instant startTime,
-            Instant endTime,
-            Pageable pageable);
+    /**
+     * Upsert entities keyed by eventId, one unordered bulk write per bucket.
+     * Returns the entities that were inserted rather than updated.
+     */
+    List<EventEntity> upsertAll(List<EventEntity> entities);
 
-    List<EventEntity> findByStatusAndTimestampBefore(EventStatus status, Instant timestamp);
-
-    @Query("{ 'timestamp': { $gte: ?0, $lt: ?1 } }")
-    List<EventEntity> findEventsInTimeRange(Instant startTime, Instant endTime);
-
-    @Query("{ 'eventType': ?0, 'status': ?1 }")
-    List<EventEntity> findByEventTypeAndStatus(String eventType, EventStatus status);
-
-    long countByStatus(EventStatus status);
+    /**
+     * Point lookup by eventId, probing the buckets newest first
+     */
+    Optional<EventEntity> findByEventId(String eventId);
 
-    long countByEventTypeAndTimestampBetween(String eventType, Instant startTime, Instant endTime);
+    /**
+     * Keyset page ordered by (timestamp, eventId) descending. Returns at most limit
+     * events strictly after the given position; a null position starts at the newest.
+     */
+    List<EventEntity> findPageAfter(EventQuery query, Instant afterTimestamp, String afterEventId, int limit);
+
+    /**
+     * Stream matching events newest first through server-side cursors. Only the given
+     * fields are fetched when fields is not empty.
+     */
+    void streamEvents(EventQuery query, Collection<String> fields, int fetchSize, Consumer<EventEntity> consumer);
+
+    /**
+     * Events sharing a correlationId at or after from and before to (unbounded when null),
+     * oldest first, with only the timeline fields loaded. Buckets are probed newest first and
+     * stop once they are older than maxSpan before the newest event found.
+     */
+    List<EventEntity> findTimeline(String correlationId, Instant from, Instant to, Duration maxSpan);
 }
@@ -0,0 +1,225 @@
+package com.eventprocessing.dataingestion.repository;
+
+import com.eventprocessing.common.util.EventBuckets;
+import com.eventprocessing.dataingestion.entity.EventEntity;
+import com.eventprocessing.dataingestion.model.EventQuery;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Fan-out implementation of {@link EventRepository} over the daily buckets.
+ * Buckets are visited newest first, so concatenated results are ordered by
+ * timestamp descending whenever each bucket is sorted that way.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class EventRepositoryImpl implements EventRepository {
+
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+    private static final Sort KEYSET_ORDER = Sort.by(Sort.Direction.DESC, "timestamp", "eventId");
+
+    private final MongoTemplate mongoTemplate;
+    private final EventBucketRouter bucketRouter;
+
+    @Override
+    public List<EventEntity> upsertAll(List<EventEntity> entities) {
+        if (entities.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, List<EventEntity>> byBucket = new LinkedHashMap<>();
+        for (EventEntity entity : entities) {
+            byBucket.computeIfAbsent(bucketRouter.collectionForWrite(entity.getTimestamp()), k -> new ArrayList<>())
+                    .add(entity);
+        }
+
+        Instant now = Instant.now();
+        List<EventEntity> inserted = new ArrayList<>();
+        byBucket.forEach((collection, bucketEntities) -> {
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, EventEntity.class, collection);
+            for (EventEntity entity : bucketEntities) {
+                bulkOps.upsert(Query.query(Criteria.where("eventId").is(entity.getEventId())), toUpsert(entity, now));
+            }
+            for (BulkWriteUpsert upsert : execute(bulkOps, collection, bucketEntities.size()).getUpserts()) {
+                inserted.add(bucketEntities.get(upsert.getIndex()));
+            }
+        });
+
+        return inserted;
+    }
+
+    @Override
+    public Optional<EventEntity> findByEventId(String eventId) {
+        Query query = Query.query(Criteria.where("eventId").is(eventId));
+        for (String collection : bucketRouter.allBuckets()) {
+            EventEntity entity = mongoTemplate.findOne(query, EventEntity.class, collection);
+            if (entity != null) {
+                return Optional.of(entity);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public List<EventEntity> findPageAfter(EventQuery query, Instant afterTimestamp, String afterEventId, int limit) {
+        List<EventEntity> page = new ArrayList<>(limit);
+        Criteria criteria = keysetCriteria(query, afterTimestamp, afterEventId);
+
+        for (String collection : bucketsFor(query, afterTimestamp)) {
+            Query bucketQuery = Query.query(criteria).with(KEYSET_ORDER).limit(limit - page.size());
+            page.addAll(mongoTemplate.find(bucketQuery, EventEntity.class, collection));
+            if (page.size() >= limit) {
+                break;
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public void streamEvents(EventQuery query, Collection<String> fields, int fetchSize, Consumer<EventEntity> consumer) {
+        Criteria criteria = keysetCriteria(query, null, null);
+
+        for (String collection : bucketsFor(query, null)) {
+            Query bucketQuery = Query.query(criteria).with(KEYSET_ORDER).cursorBatchSize(fetchSize);
+            if (!fields.isEmpty()) {
+                bucketQuery.fields().include(fields.toArray(String[]::new)).include("eventId", "timestamp");
+                if (fields.contains("payload")) {
+                    // A compressed payload is rebuilt from these on read
+                    bucketQuery.fields().include("eventType", "attributes", "payloadBlob", "payloadDictionaryVersion");
+                }
+            }
+            try (Stream<EventEntity> stream = mongoTemplate.stream(bucketQuery, EventEntity.class, collection)) {
+                stream.forEach(consumer);
+            }
+        }
+    }
+
+    @Override
+    public List<EventEntity> findTimeline(String correlationId, Instant from, Instant to, Duration maxSpan) {
+        List<EventEntity> timeline = new ArrayList<>();
+        Instant lower = from;
+
+        for (String collection : bucketsFor(EventQuery.builder().from(from).to(to).build(), null)) {
+            if (!EventBuckets.endOf(collection).isAfter(lower)) {
+                break;
+            }
+            Criteria timestamp = Criteria.where("timestamp").gte(lower);
+            if (to != null) {
+                timestamp = timestamp.lt(to);
+            }
+            Query query = Query.query(Criteria.where("correlationId").is(correlationId).andOperator(timestamp))
+                    .with(Sort.by(Sort.Direction.ASC, "timestamp"));
+            query.fields().include("eventId", "eventType", "timestamp", "status", "correlationId", "source");
+
+            List<EventEntity> found = mongoTemplate.find(query, EventEntity.class, collection);
+            if (!found.isEmpty()) {
+                if (timeline.isEmpty()) {
+                    Instant spanStart = found.get(found.size() - 1).getTimestamp().minus(maxSpan);
+                    if (spanStart.isAfter(lower)) {
+                        lower = spanStart;
+                    }
+                }
+                timeline.addAll(0, found);
+            }
+        }
+        return timeline;
+    }
+
+    /**
+     * Buckets to visit for a keyset query, newest first, skipping buckets newer than the cursor
+     */
+    private List<String> bucketsFor(EventQuery query, Instant afterTimestamp) {
+        Instant upper = query.getTo();
+        if (afterTimestamp != null && (upper == null || afterTimestamp.isBefore(upper))) {
+            upper = afterTimestamp.plusNanos(1);
+        }
+
+        List<String> buckets = bucketRouter.allBuckets();
+        Instant lower = query.getFrom();
+        Instant upperBound = upper;
+        return buckets.stream()
+                .filter(collection -> upperBound == null || EventBuckets.startOf(collection).isBefore(upperBound))
+                .filter(collection -> lower == null || EventBuckets.endOf(collection).isAfter(lower))
+                .toList();
+    }
+
+    private Criteria keysetCriteria(EventQuery query, Instant afterTimestamp, String afterEventId) {
+        List<Criteria> clauses = new ArrayList<>();
+        if (query.getEventType() != null) {
+            clauses.add(Criteria.where("eventType").is(query.getEventType()));
+        }
+        if (query.getStatus() != null) {
+            clauses.add(Criteria.where("status").is(query.getStatus()));
+        }
+        if (query.getFrom() != null) {
+            clauses.add(Criteria.where("timestamp").gte(query.getFrom()));
+        }
+        if (query.getTo() != null) {
+            clauses.add(Criteria.where("timestamp").lt(query.getTo()));
+        }
+        if (query.getAttributes() != null) {
+            query.getAttributes().forEach((name, value) -> clauses.add(Criteria.where("attributes." + name).is(value)));
+        }
+        if (afterTimestamp != null) {
+            clauses.add(new Criteria().orOperator(
+                    Criteria.where("timestamp").lt(afterTimestamp),
+                    Criteria.where("timestamp").is(afterTimestamp).and("eventId").lt(afterEventId)));
+        }
+        return clauses.isEmpty() ? new Criteria() : new Criteria().andOperator(clauses);
+    }
+
+    /**
+     * Build the upsert for an entity; createdAt is only set when the document is inserted
+     */
+    private Update toUpsert(EventEntity entity, Instant now) {
+        Document document = new Document();
+        mongoTemplate.getConverter().write(entity, document);
+        document.remove("_id");
+        document.remove("createdAt");
+
+        Update update = new Update();
+        document.forEach(update::set);
+        update.setOnInsert("createdAt", now);
+        return update;
+    }
+
+    private BulkWriteResult execute(BulkOperations bulkOps, String collection, int size) {
+        try {
+            BulkWriteResult result = bulkOps.execute();
+            log.debug("Bulk upserted {} events into {} (inserted={}, modified={})",
+                    size, collection, result.getUpserts().size(), result.getModifiedCount());
+            return result;
+        } catch (BulkOperationException e) {
+            // Concurrent upserts of the same eventId race on the unique index; the winner holds the data
+            boolean onlyDuplicates = e.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY_ERROR);
+            if (!onlyDuplicates) {
+                throw e;
+            }
+            log.debug("Ignored {} duplicate-key races in bulk upsert into {}", e.getErrors().size(), collection);
+            return e.getResult();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.eventprocessing.dataingestion.service;
+
+import com.eventprocessing.common.util.EventBuckets;
+import com.eventprocessing.dataingestion.repository.EventBucketRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Enforces event retention by dropping whole daily buckets instead of deleting documents
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BucketRetentionService {
+
+    private final EventBucketRouter bucketRouter;
+
+    @Value("${app.retention.days}")
+    private int retentionDays;
+
+    /**
+     * Drop every bucket whose whole day lies outside the retention window
+     */
+    @Scheduled(cron = "${app.retention.cron}", zone = "UTC")
+    public void dropExpiredBuckets() {
+        Instant cutoff = Instant.now().minus(Duration.ofDays(retentionDays));
+
+        List<String> expired = bucketRouter.allBuckets().stream()
+                .filter(collection -> !EventBuckets.endOf(collection).isAfter(cutoff))
+                .toList();
+
+        for (String collection : expired) {
+            try {
+                bucketRouter.drop(collection);
+                log.info("Dropped expired event bucket {}", collection);
+            } catch (Exception e) {
+                log.error("Error dropping event bucket {}", collection, e);
+            }
+        }
+    }
+}
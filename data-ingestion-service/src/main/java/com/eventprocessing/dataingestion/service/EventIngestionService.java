@@ -1,13 +1,19 @@
 package com.eventprocessing.dataingestion.service;
 
+import com.eventprocessing.common.latency.LatencyRecorder;
+import com.eventprocessing.common.latency.LatencyStage;
 import com.eventprocessing.common.model.Event;
-import com.eventprocessing.common.model.EventStatus;
+import com.eventprocessing.common.tracing.Span;
+import com.eventprocessing.common.tracing.SpanKind;
+import com.eventprocessing.common.tracing.Tracer;
+import com.eventprocessing.dataingestion.cache.CorrelationIndex;
+import com.eventprocessing.dataingestion.cache.EventCache;
 import com.eventprocessing.dataingestion.entity.EventEntity;
+import com.eventprocessing.dataingestion.model.EventQuery;
+import com.eventprocessing.dataingestion.payload.PayloadCodec;
 import com.eventprocessing.dataingestion.repository.EventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
@@ -25,6 +31,12 @@ import java.util.concurrent.CompletableFuture;
 public class EventIngestionService {
 
     private final EventRepository eventRepository;
+    private final RollupService rollupService;
+    private final PayloadCodec payloadCodec;
+    private final EventCache eventCache;
+    private final CorrelationIndex correlationIndex;
+    private final LatencyRecorder latencyRecorder;
+    private final Tracer tracer;
 
     /**
      * Ingest a single event
@@ -34,10 +46,10 @@ public class EventIngestionService {
         log.debug("Ingesting event: {}", event.getEventId());
 
         EventEntity entity = convertToEntity(event);
-        EventEntity saved = eventRepository.save(entity);
+        write(List.of(entity));
 
         log.info("Successfully ingested event: {}", event.getEventId());
-        return CompletableFuture.completedFuture(saved);
+        return CompletableFuture.completedFuture(entity);
     }
 
     /**
@@ -51,56 +63,88 @@ public class EventIngestionService {
                 .map(this::convertToEntity)
                 .toList();
 
-        List<EventEntity> saved = eventRepository.saveAll(entities);
+        write(entities);
 
         log.info("Successfully batch ingested {} events", events.size());
-        return CompletableFuture.completedFuture(saved);
+        return CompletableFuture.completedFuture(entities);
     }
 
     /**
-     * Get event by ID
+     * Upsert events keyed by eventId into their daily buckets.
+     * Redelivered events overwrite their previous copy, so replays are idempotent.
      */
-    public EventEntity getEventById(String eventId) {
-        return eventRepository.findByEventId(eventId)
-                .orElseThrow(() -> new RuntimeException("Event not found: " + eventId));
+    public int bulkUpsertEvents(List<Event> events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<EventEntity> entities = new ArrayList<>(events.size());
+        for (Event event : events) {
+            entities.add(convertToEntity(event));
+        }
+        write(entities);
+        return entities.size();
     }
 
     /**
-     * Get events by type
-     */
-    public List<EventEntity> getEventsByType(String eventType) {
-        return eventRepository.findByEventType(eventType);
-    }
-
-    /**
-     * Get events in time range
+     * Get event by ID
      */
-    public List<EventEntity> getEventsInTimeRange(Instant startTime, Instant endTime) {
-        return eventRepository.findEventsInTimeRange(startTime, endTime);
+    public EventEntity getEventById(String eventId) {
+        return eventCache.getById(eventId, eventRepository::findByEventId)
+                .map(payloadCodec::inflate)
+                .orElseThrow(() -> new EventNotFoundException(eventId));
     }
 
     /**
-     * Get events by status
+     * Get the newest events of a type, served from the per-type recent ring when possible
      */
-    public List<EventEntity> getEventsByStatus(EventStatus status) {
-        return eventRepository.findByStatus(status);
+    public List<EventEntity> getRecentEventsByType(String eventType, int limit) {
+        EventQuery query = EventQuery.builder().eventType(eventType).build();
+        int loadSize = Math.max(limit, eventCache.getRecentCapacity());
+        return eventCache.getRecentByType(eventType, limit,
+                        () -> eventRepository.findPageAfter(query, null, null, loadSize))
+                .stream()
+                .map(payloadCodec::inflate)
+                .toList();
     }
 
     /**
-     * Get event count by status
+     * Upsert entities, invalidate cached copies and count the newly inserted ones into the rollups
      */
-    public long getEventCountByStatus(EventStatus status) {
-        return eventRepository.countByStatus(status);
+    private void write(List<EventEntity> entities) {
+        List<EventEntity> inserted;
+        Span span = tracer.startSpan("mongo upsert", SpanKind.CLIENT)
+                .setAttribute("db.batch-size", entities.size());
+        try {
+            inserted = eventRepository.upsertAll(entities);
+            span.setAttribute("db.inserted", inserted.size());
+        } catch (RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+        long storedAt = System.currentTimeMillis();
+        for (EventEntity entity : inserted) {
+            if (entity.getTimestamp() != null) {
+                latencyRecorder.recordMillis(LatencyStage.STORED, entity.getEventType(), entity.getTimestamp().toEpochMilli(), storedAt);
+            }
+        }
+        eventCache.onWritten(entities);
+        correlationIndex.onWritten(entities);
+        rollupService.recordInserted(inserted);
     }
 
     /**
-     * Convert Event to EventEntity
+     * Convert Event to EventEntity. Events without a timestamp take the ingest time, the
+     * same instant their bucket is picked by, so every stored event has a keyset position.
      */
-    private EventEntity convertToEntity(Event event) {
-        return EventEntity.builder()
+    public EventEntity convertToEntity(Event event) {
+        Instant now = Instant.now();
+        EventEntity entity = EventEntity.builder()
                 .eventId(event.getEventId())
                 .eventType(event.getEventType())
-                .timestamp(event.getTimestamp())
+                .timestamp(event.getTimestamp() != null ? event.getTimestamp() : now)
                 .payload(event.getPayload())
                 .status(event.getStatus())
                 .retryCount(event.getRetryCount())
@@ -109,7 +153,9 @@ public class EventIngestionService {
                 .metadata(event.getMetadata())
                 .processedAt(event.getProcessedAt())
                 .errorMessage(event.getErrorMessage())
-                .createdAt(Instant.now())
+                .createdAt(now)
                 .build();
+        payloadCodec.encode(entity);
+        return entity;
     }
 }
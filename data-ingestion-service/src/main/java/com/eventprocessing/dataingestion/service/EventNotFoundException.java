@@ -0,0 +1,11 @@
+package com.eventprocessing.dataingestion.service;
+
+/**
+ * No stored event has the requested eventId
+ */
+public class EventNotFoundException extends RuntimeException {
+
+    public EventNotFoundException(String eventId) {
+        super("Event not found: " + eventId);
+    }
+}
@@ -0,0 +1,125 @@
+package com.eventprocessing.dataingestion.service;
+
+import com.eventprocessing.common.util.JsonUtil;
+import com.eventprocessing.dataingestion.entity.EventEntity;
+import com.eventprocessing.dataingestion.model.EventPage;
+import com.eventprocessing.dataingestion.model.EventQuery;
+import com.eventprocessing.dataingestion.payload.PayloadCodec;
+import com.eventprocessing.dataingestion.repository.EventRepository;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Bounded-memory queries over stored events: keyset pages with opaque cursors,
+ * and NDJSON streaming through MongoDB cursors
+ */
+@Slf4j
+@Service
+public class EventQueryService {
+
+    private static final char CURSOR_SEPARATOR = '\n';
+
+    private final EventRepository eventRepository;
+    private final PayloadCodec payloadCodec;
+    private final int maxPageSize;
+    private final int streamFetchSize;
+    private final ObjectWriter lineWriter;
+
+    public EventQueryService(
+            EventRepository eventRepository,
+            PayloadCodec payloadCodec,
+            @Value("${app.query.max-page-size:1000}") int maxPageSize,
+            @Value("${app.query.stream-fetch-size:500}") int streamFetchSize) {
+        this.eventRepository = eventRepository;
+        this.payloadCodec = payloadCodec;
+        this.maxPageSize = maxPageSize;
+        this.streamFetchSize = streamFetchSize;
+        this.lineWriter = JsonUtil.getObjectMapper().copy()
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Fetch one page after the position encoded in cursor (null for the first page)
+     */
+    public EventPage getPage(EventQuery query, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+
+        Instant afterTimestamp = null;
+        String afterEventId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String decoded = decodeCursor(cursor);
+            int separator = decoded.indexOf(CURSOR_SEPARATOR);
+            afterTimestamp = Instant.parse(decoded.substring(0, separator));
+            afterEventId = decoded.substring(separator + 1);
+        }
+
+        List<EventEntity> events = eventRepository.findPageAfter(query, afterTimestamp, afterEventId, pageSize)
+                .stream()
+                .map(payloadCodec::inflate)
+                .toList();
+
+        String nextCursor = null;
+        if (events.size() == pageSize) {
+            EventEntity last = events.get(events.size() - 1);
+            nextCursor = encodeCursor(last.getTimestamp(), last.getEventId());
+        }
+
+        return EventPage.builder()
+                .events(events)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Write every matching event to out as newline-delimited JSON
+     */
+    public long streamEvents(EventQuery query, Collection<String> fields, OutputStream out) {
+        long[] written = {0};
+        eventRepository.streamEvents(query, fields, streamFetchSize, entity -> {
+            try {
+                lineWriter.writeValue(out, payloadCodec.inflate(entity));
+                out.write('\n');
+                written[0]++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.debug("Streamed {} events", written[0]);
+        return written[0];
+    }
+
+    private String encodeCursor(Instant timestamp, String eventId) {
+        String raw = timestamp.toString() + CURSOR_SEPARATOR + eventId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(CURSOR_SEPARATOR);
+            if (separator <= 0 || separator == decoded.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Instant.parse(decoded.substring(0, separator));
+            return decoded;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
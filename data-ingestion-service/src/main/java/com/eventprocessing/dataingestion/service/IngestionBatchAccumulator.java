@@ -0,0 +1,139 @@
+package com.eventprocessing.dataingestion.service;
+
+import com.eventprocessing.common.constants.AppConstants;
+import com.eventprocessing.common.model.Event;
+import com.eventprocessing.dataingestion.buffer.WriteBehindBuffer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Accumulates consumed events and flushes them in bulk when either the batch size
+ * or the linger time is reached. Flushed batches are handed to the write-behind
+ * buffer, which acknowledges their offsets once they are durable in MongoDB or
+ * on the local spill files.
+ */
+@Slf4j
+@Component
+public class IngestionBatchAccumulator {
+
+    private final WriteBehindBuffer writeBehindBuffer;
+    private final int batchSize;
+    private final long lingerMs;
+    private final int maxPendingEvents;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private List<Event> pendingEvents = new ArrayList<>();
+    private List<Acknowledgment> pendingAcks = new ArrayList<>();
+    private long firstPendingAt;
+
+    public IngestionBatchAccumulator(
+            WriteBehindBuffer writeBehindBuffer,
+            @Value("${app.batch.size:" + AppConstants.BATCH_SIZE + "}") int batchSize,
+            @Value("${app.batch.timeout:" + AppConstants.BATCH_TIMEOUT_MS + "}") long lingerMs,
+            @Value("${app.batch.max-pending-batches:10}") int maxPendingBatches) {
+        this.writeBehindBuffer = writeBehindBuffer;
+        this.batchSize = batchSize;
+        this.lingerMs = lingerMs;
+        this.maxPendingEvents = batchSize * maxPendingBatches;
+    }
+
+    /**
+     * Add the events of one polled Kafka batch. Throws when the pending buffer is
+     * full so the container redelivers the batch instead of committing past it.
+     */
+    public void append(List<Event> events, Acknowledgment acknowledgment) {
+        lock.lock();
+        try {
+            if (pendingEvents.size() >= maxPendingEvents) {
+                flushLocked();
+                if (pendingEvents.size() >= maxPendingEvents) {
+                    throw new IllegalStateException(
+                            "Ingestion buffer full (" + pendingEvents.size() + " events pending)");
+                }
+            }
+
+            if (pendingEvents.isEmpty()) {
+                firstPendingAt = System.currentTimeMillis();
+            }
+            pendingEvents.addAll(events);
+            pendingAcks.add(acknowledgment);
+
+            if (pendingEvents.size() >= batchSize) {
+                flushLocked();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flush batches that have lingered longer than the configured timeout
+     */
+    @Scheduled(fixedDelayString = "${app.batch.linger-check-interval:100}")
+    public void flushIfLingerExpired() {
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            if (!pendingEvents.isEmpty() && System.currentTimeMillis() - firstPendingAt >= lingerMs) {
+                flushLocked();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of events waiting for the next flush
+     */
+    public int getPendingCount() {
+        lock.lock();
+        try {
+            return pendingEvents.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lock.lock();
+        try {
+            if (!pendingEvents.isEmpty()) {
+                log.info("Flushing {} pending events before shutdown", pendingEvents.size());
+                flushLocked();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hand all pending events to the write-behind buffer. If it cannot take them
+     * the events stay pending and are retried on the next flush; nothing is acknowledged.
+     */
+    private void flushLocked() {
+        if (pendingEvents.isEmpty()) {
+            return;
+        }
+
+        try {
+            writeBehindBuffer.submit(pendingEvents, pendingAcks);
+        } catch (Exception e) {
+            log.error("Could not buffer {} events; will retry", pendingEvents.size(), e);
+            firstPendingAt = System.currentTimeMillis();
+            return;
+        }
+
+        pendingEvents = new ArrayList<>();
+        pendingAcks = new ArrayList<>();
+    }
+}
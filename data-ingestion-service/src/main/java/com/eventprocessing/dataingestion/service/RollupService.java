@@ -0,0 +1,241 @@
+package com.eventprocessing.dataingestion.service;
+
+import com.eventprocessing.dataingestion.entity.EventEntity;
+import com.eventprocessing.dataingestion.entity.RollupEntity;
+import com.eventprocessing.dataingestion.model.RollupGranularity;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Maintains pre-aggregated event counts per (eventType, status, source) and time bucket.
+ *
+ * Ingestion increments minute rollups for newly inserted events only, so redelivered
+ * events are not counted twice. A scheduled compaction folds minute rollups into hourly
+ * ones and hourly rollups into daily ones once they age out of their retention window.
+ */
+@Slf4j
+@Service
+public class RollupService {
+
+    private static final Set<String> GROUP_BY_FIELDS = Set.of("eventType", "status", "source", "granularity");
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration minuteRetention;
+    private final Duration hourRetention;
+
+    public RollupService(
+            MongoTemplate mongoTemplate,
+            @Value("${app.rollup.minute-retention:PT2H}") Duration minuteRetention,
+            @Value("${app.rollup.hour-retention:P7D}") Duration hourRetention) {
+        this.mongoTemplate = mongoTemplate;
+        this.minuteRetention = minuteRetention;
+        this.hourRetention = hourRetention;
+    }
+
+    @PostConstruct
+    public void ensureIndexes() {
+        IndexOperations indexOps = mongoTemplate.indexOps(RollupEntity.class);
+        new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(RollupEntity.class)
+                .forEach(indexOps::ensureIndex);
+    }
+
+    /**
+     * Add newly inserted events to their minute rollups with one $inc upsert per key
+     */
+    public void recordInserted(List<EventEntity> inserted) {
+        if (inserted.isEmpty()) {
+            return;
+        }
+
+        Map<String, RollupEntity> increments = new LinkedHashMap<>();
+        for (EventEntity event : inserted) {
+            Instant timestamp = event.getTimestamp() != null ? event.getTimestamp() : event.getCreatedAt();
+            Instant bucketStart = RollupGranularity.MINUTE.truncate(timestamp != null ? timestamp : Instant.now());
+            String status = event.getStatus() != null ? event.getStatus().name() : null;
+            String id = RollupEntity.idFor(RollupGranularity.MINUTE, bucketStart, event.getEventType(), status, event.getSource());
+
+            RollupEntity increment = increments.computeIfAbsent(id, key -> RollupEntity.builder()
+                    .id(key)
+                    .granularity(RollupGranularity.MINUTE)
+                    .bucketStart(bucketStart)
+                    .eventType(event.getEventType())
+                    .status(status)
+                    .source(event.getSource())
+                    .build());
+            increment.setCount(increment.getCount() + 1);
+        }
+
+        try {
+            applyIncrements(increments.values());
+        } catch (Exception e) {
+            // The events themselves are stored; a lost increment must not fail ingestion
+            log.error("Error updating rollups for {} events", inserted.size(), e);
+        }
+    }
+
+    /**
+     * Fold aged minute rollups into hours and aged hourly rollups into days
+     */
+    @Scheduled(cron = "${app.rollup.compaction-cron:0 */5 * * * *}")
+    public void compact() {
+        Instant now = Instant.now();
+        try {
+            compact(RollupGranularity.MINUTE, RollupGranularity.HOUR, now.minus(minuteRetention));
+            compact(RollupGranularity.HOUR, RollupGranularity.DAY, now.minus(hourRetention));
+        } catch (Exception e) {
+            log.error("Error compacting rollups", e);
+        }
+    }
+
+    /**
+     * Rollup documents matching the filter, ordered by bucket start
+     */
+    public List<RollupEntity> findRollups(RollupGranularity granularity, String eventType, String status,
+                                          String source, Instant from, Instant to) {
+        Query query = Query.query(filter(granularity, eventType, status, source, from, to))
+                .with(Sort.by(Sort.Direction.ASC, "bucketStart"));
+        return mongoTemplate.find(query, RollupEntity.class);
+    }
+
+    /**
+     * Event counts over all granularities grouped by one rollup dimension
+     */
+    public Map<String, Long> totals(String groupBy, String eventType, String status,
+                                    String source, Instant from, Instant to) {
+        if (!GROUP_BY_FIELDS.contains(groupBy)) {
+            throw new IllegalArgumentException("Unsupported groupBy: " + groupBy);
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(filter(null, eventType, status, source, from, to)),
+                Aggregation.group(groupBy).sum("count").as("count"));
+
+        Map<String, Long> totals = new HashMap<>();
+        mongoTemplate.aggregate(aggregation, RollupEntity.class, Document.class).forEach(document -> {
+            Object key = document.get("_id");
+            totals.put(key != null ? key.toString() : "unknown", ((Number) document.get("count")).longValue());
+        });
+        return totals;
+    }
+
+    private void compact(RollupGranularity source, RollupGranularity target, Instant olderThan) {
+        // Only whole target buckets are compacted, so a target bucket never mixes sources
+        Instant cutoff = target.truncate(olderThan);
+        Query query = Query.query(Criteria.where("granularity").is(source).and("bucketStart").lt(cutoff));
+
+        Map<String, RollupEntity> increments = new LinkedHashMap<>();
+        Map<String, Long> compacted = new LinkedHashMap<>();
+        try (Stream<RollupEntity> rollups = mongoTemplate.stream(query, RollupEntity.class)) {
+            rollups.forEach(rollup -> {
+                Instant bucketStart = target.truncate(rollup.getBucketStart());
+                String id = RollupEntity.idFor(target, bucketStart, rollup.getEventType(), rollup.getStatus(), rollup.getSource());
+                RollupEntity increment = increments.computeIfAbsent(id, key -> RollupEntity.builder()
+                        .id(key)
+                        .granularity(target)
+                        .bucketStart(bucketStart)
+                        .eventType(rollup.getEventType())
+                        .status(rollup.getStatus())
+                        .source(rollup.getSource())
+                        .build());
+                increment.setCount(increment.getCount() + rollup.getCount());
+                compacted.put(rollup.getId(), rollup.getCount());
+            });
+        }
+
+        if (compacted.isEmpty()) {
+            return;
+        }
+
+        // Increment first, then subtract: a crash in between can only over-count, never lose events.
+        // Late events may $inc a source rollup after it was read, so only the counts that were read
+        // are subtracted and only rollups left at zero are deleted; the rest wait for the next run.
+        applyIncrements(increments.values());
+        subtractCompacted(compacted);
+        List<String> compactedIds = new ArrayList<>(compacted.keySet());
+        for (int i = 0; i < compactedIds.size(); i += DELETE_CHUNK_SIZE) {
+            List<String> chunk = compactedIds.subList(i, Math.min(i + DELETE_CHUNK_SIZE, compactedIds.size()));
+            mongoTemplate.remove(Query.query(Criteria.where("_id").in(chunk).and("count").is(0L)), RollupEntity.class);
+        }
+
+        log.info("Compacted {} {} rollups into {} {} rollups",
+                compacted.size(), source, increments.size(), target);
+    }
+
+    private void applyIncrements(Iterable<RollupEntity> increments) {
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RollupEntity.class);
+        int operations = 0;
+        for (RollupEntity increment : increments) {
+            Update update = new Update()
+                    .inc("count", increment.getCount())
+                    .setOnInsert("granularity", increment.getGranularity())
+                    .setOnInsert("bucketStart", increment.getBucketStart())
+                    .setOnInsert("eventType", increment.getEventType())
+                    .setOnInsert("status", increment.getStatus())
+                    .setOnInsert("source", increment.getSource());
+            bulkOps.upsert(Query.query(Criteria.where("_id").is(increment.getId())), update);
+            operations++;
+        }
+        if (operations > 0) {
+            bulkOps.execute();
+        }
+    }
+
+    private void subtractCompacted(Map<String, Long> compacted) {
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RollupEntity.class);
+        compacted.forEach((id, count) ->
+                bulkOps.updateOne(Query.query(Criteria.where("_id").is(id)), new Update().inc("count", -count)));
+        bulkOps.execute();
+    }
+
+    private Criteria filter(RollupGranularity granularity, String eventType, String status,
+                            String source, Instant from, Instant to) {
+        Criteria criteria = new Criteria();
+        if (granularity != null) {
+            criteria.and("granularity").is(granularity);
+        }
+        if (eventType != null) {
+            criteria.and("eventType").is(eventType);
+        }
+        if (status != null) {
+            criteria.and("status").is(status);
+        }
+        if (source != null) {
+            criteria.and("source").is(source);
+        }
+        if (from != null || to != null) {
+            Criteria bucketStart = criteria.and("bucketStart");
+            if (from != null) {
+                bucketStart.gte(from);
+            }
+            if (to != null) {
+                bucketStart.lt(to);
+            }
+        }
+        return criteria;
+    }
+}
@@ -0,0 +1,100 @@
+package com.eventprocessing.dataingestion.service;
+
+import com.eventprocessing.dataingestion.cache.CorrelationIndex;
+import com.eventprocessing.dataingestion.entity.EventEntity;
+import com.eventprocessing.dataingestion.model.CorrelationTimeline;
+import com.eventprocessing.dataingestion.repository.EventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service for following a correlationId through the pipeline
+ */
+@Slf4j
+@Service
+public class TimelineService {
+
+    private final CorrelationIndex correlationIndex;
+    private final EventRepository eventRepository;
+    private final Duration lookback;
+    private final Duration maxSpan;
+
+    public TimelineService(
+            CorrelationIndex correlationIndex,
+            EventRepository eventRepository,
+            @Value("${app.correlation.timeline-lookback:P7D}") Duration lookback,
+            @Value("${app.correlation.max-span:PT24H}") Duration maxSpan) {
+        this.correlationIndex = correlationIndex;
+        this.eventRepository = eventRepository;
+        this.lookback = lookback;
+        this.maxSpan = maxSpan;
+    }
+
+    /**
+     * Ordered chain for a correlationId within [from, to), from memory when complete there,
+     * otherwise from MongoDB. A null from means the configured lookback, a null to means now
+     * and later.
+     */
+    public Optional<CorrelationTimeline> getTimeline(String correlationId, Instant from, Instant to) {
+        Instant lower = from != null ? from : Instant.now().minus(lookback);
+
+        Optional<List<CorrelationIndex.Entry>> cached = correlationIndex.lookup(correlationId);
+        if (cached.isPresent()) {
+            List<CorrelationIndex.Entry> entries = cached.get().stream()
+                    .filter(entry -> entry.timestampMillis() >= lower.toEpochMilli())
+                    .filter(entry -> to == null || entry.timestampMillis() < to.toEpochMilli())
+                    .toList();
+            return entries.isEmpty() ? Optional.empty() : Optional.of(build(correlationId, "MEMORY", entries));
+        }
+
+        List<EventEntity> loaded = eventRepository.findTimeline(correlationId, lower, to, maxSpan);
+        if (loaded.isEmpty()) {
+            return Optional.empty();
+        }
+        Instant spanStart = loaded.get(loaded.size() - 1).getTimestamp().minus(maxSpan);
+        if (from == null && to == null && !spanStart.isBefore(lower)) {
+            // Only a chain whose whole span fit in the window is complete enough to seed
+            correlationIndex.seed(correlationId, loaded);
+        }
+
+        List<CorrelationIndex.Entry> entries = loaded.stream()
+                .filter(entity -> entity.getTimestamp() != null)
+                .map(entity -> new CorrelationIndex.Entry(entity.getEventId(), entity.getEventType(),
+                        entity.getTimestamp().toEpochMilli(),
+                        entity.getStatus() != null ? entity.getStatus().name() : null))
+                .toList();
+        return Optional.of(build(correlationId, "MONGODB", entries));
+    }
+
+    private CorrelationTimeline build(String correlationId, String source, List<CorrelationIndex.Entry> entries) {
+        List<CorrelationTimeline.Step> steps = new ArrayList<>(entries.size());
+        long previous = entries.isEmpty() ? 0 : entries.get(0).timestampMillis();
+        for (CorrelationIndex.Entry entry : entries) {
+            steps.add(CorrelationTimeline.Step.builder()
+                    .eventId(entry.eventId())
+                    .eventType(entry.eventType())
+                    .status(entry.status())
+                    .timestamp(Instant.ofEpochMilli(entry.timestampMillis()))
+                    .gapFromPreviousMs(entry.timestampMillis() - previous)
+                    .build());
+            previous = entry.timestampMillis();
+        }
+
+        long total = entries.isEmpty() ? 0
+                : entries.get(entries.size() - 1).timestampMillis() - entries.get(0).timestampMillis();
+
+        return CorrelationTimeline.builder()
+                .correlationId(correlationId)
+                .source(source)
+                .steps(steps)
+                .totalDurationMs(total)
+                .build();
+    }
+}
@@ -0,0 +1,129 @@
+package com.eventprocessing.dataingestion.archive;
+
+import com.eventprocessing.common.model.EventStatus;
+import com.eventprocessing.dataingestion.entity.EventEntity;
+import com.eventprocessing.dataingestion.model.ArchiveQuery;
+import com.eventprocessing.dataingestion.model.ArchiveScanResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArchiveCatalogTest {
+
+    private static final String BUCKET = "events_20240301";
+    private static final Instant DAY = Instant.parse("2024-03-01T00:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void scansReturnEveryArchivedField() throws IOException {
+        ArchiveCatalog catalog = new ArchiveCatalog(directory.toString());
+        EventEntity event = EventEntity.builder()
+                .eventId("e1")
+                .eventType("order.placed")
+                .timestamp(DAY.plusSeconds(60))
+                .payload(Map.of("orderId", "o-1", "amount", 12))
+                .attributes(Map.of("orderId", "o-1"))
+                .status(EventStatus.FAILED)
+                .retryCount(3)
+                .correlationId("c1")
+                .source("checkout")
+                .metadata(Map.of("priority", "high"))
+                .processedAt(DAY.plusSeconds(61))
+                .errorMessage("timeout")
+                .createdAt(DAY.plusSeconds(62))
+                .build();
+        commit(catalog, List.of(write(catalog, event)), false);
+
+        ArchiveScanResult.Row row = new ArchiveScanEngine(catalog).find(new ArchiveQuery(), 10).getRows().get(0);
+
+        assertThat(row.getEventId()).isEqualTo("e1");
+        assertThat(row.getStatus()).isEqualTo("FAILED");
+        assertThat(row.getAttributes()).isEqualTo("{\"orderId\":\"o-1\"}");
+        assertThat(row.getMetadata()).isEqualTo("{\"priority\":\"high\"}");
+        assertThat(row.getErrorMessage()).isEqualTo("timeout");
+        assertThat(row.getRetryCount()).isEqualTo(3);
+        assertThat(row.getProcessedAt()).isEqualTo(DAY.plusSeconds(61));
+        assertThat(row.getCreatedAt()).isEqualTo(DAY.plusSeconds(62));
+    }
+
+    @Test
+    void appendedSegmentsKeepTheCommittedOnes() throws IOException {
+        ArchiveCatalog catalog = new ArchiveCatalog(directory.toString());
+        Path first = write(catalog, event("e1", 60), event("e2", 120));
+        ArchiveCatalog.Manifest manifest = commit(catalog, List.of(first), true);
+
+        // An uncommitted leftover from an interrupted export must not be reused or scanned
+        Path leftover = write(catalog, event("stale", 30));
+        Path late = write(catalog, event("e3", 90));
+        assertThat(late).isNotEqualTo(leftover);
+        List<String> segments = new ArrayList<>(manifest.segments());
+        segments.add(late.getFileName().toString());
+        catalog.commit(BUCKET, new ArchiveCatalog.Manifest(3, segments, true));
+
+        ArchiveCatalog.Manifest reloaded = new ArchiveCatalog(directory.toString()).manifest(BUCKET);
+        assertThat(reloaded.rows()).isEqualTo(3);
+        assertThat(reloaded.dropped()).isTrue();
+        assertThat(reloaded.segments()).containsExactly(first.getFileName().toString(), late.getFileName().toString());
+        assertThat(Files.exists(first)).isTrue();
+        assertThat(Files.exists(leftover)).isFalse();
+
+        ArchiveScanResult result = new ArchiveScanEngine(catalog).find(new ArchiveQuery(), 10);
+        assertThat(result.getRows()).extracting(ArchiveScanResult.Row::getEventId).containsExactly("e1", "e2", "e3");
+    }
+
+    @Test
+    void readsManifestsWithoutASegmentList() throws IOException {
+        ArchiveCatalog catalog = new ArchiveCatalog(directory.toString());
+        Path segment = write(catalog, event("e1", 60));
+        assertThat(segment.getFileName().toString()).isEqualTo("seg-00000" + SegmentFormat.FILE_SUFFIX);
+        Files.writeString(directory.resolve(BUCKET).resolve(ArchiveCatalog.MANIFEST), "rows=1\nsegments=1\n");
+
+        ArchiveCatalog.Manifest manifest = catalog.manifest(BUCKET);
+
+        assertThat(manifest.segments()).containsExactly(segment.getFileName().toString());
+        assertThat(manifest.dropped()).isFalse();
+        assertThat(new ArchiveScanEngine(catalog).count(new ArchiveQuery()).getMatched()).isEqualTo(1);
+    }
+
+    private static EventEntity event(String eventId, long secondOfDay) {
+        return EventEntity.builder()
+                .eventId(eventId)
+                .eventType("user.created")
+                .timestamp(DAY.plusSeconds(secondOfDay))
+                .status(EventStatus.COMPLETED)
+                .build();
+    }
+
+    private static Path write(ArchiveCatalog catalog, EventEntity... rows) throws IOException {
+        ArchiveSegmentWriter writer = new ArchiveSegmentWriter();
+        for (EventEntity row : rows) {
+            writer.add(row);
+        }
+        Path segment = catalog.newSegmentPath(BUCKET);
+        writer.writeTo(segment);
+        return segment;
+    }
+
+    private static ArchiveCatalog.Manifest commit(ArchiveCatalog catalog, List<Path> segments, boolean dropped) throws IOException {
+        long rows = 0;
+        List<String> names = new ArrayList<>();
+        for (Path segment : segments) {
+            rows += ArchiveSegment.open(segment).getRowCount();
+            names.add(segment.getFileName().toString());
+        }
+        ArchiveCatalog.Manifest manifest = new ArchiveCatalog.Manifest(rows, names, dropped);
+        catalog.commit(BUCKET, manifest);
+        return manifest;
+    }
+}
@@ -0,0 +1,77 @@
+package com.eventprocessing.dataingestion.archive;
+
+import com.eventprocessing.dataingestion.entity.EventEntity;
+import com.eventprocessing.dataingestion.model.ArchiveScanResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArchiveScanEngineTest {
+
+    private static final String BUCKET = "events_20240301";
+    private static final Instant DAY = Instant.parse("2024-03-01T00:00:00Z");
+    private static final Instant NEXT_DAY = DAY.plusSeconds(86_400);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rowsAfterMergesAppendedSegmentsInReplayOrder() throws IOException {
+        ArchiveScanEngine engine = engine(
+                List.of(event("a", 10, "user.created"), event("c", 30, "user.created"), event("e", 50, "user.created")),
+                List.of(event("b", 20, "user.created"), event("d", 40, "order.placed")));
+
+        assertThat(ids(engine.rowsAfter(BUCKET, DAY, NEXT_DAY, List.of(), null, null)))
+                .containsExactly("a", "b", "c", "d", "e");
+        assertThat(ids(engine.rowsAfter(BUCKET, DAY, NEXT_DAY, List.of("user.created"), null, null)))
+                .containsExactly("a", "b", "c", "e");
+    }
+
+    @Test
+    void rowsAfterResumesStrictlyAfterTheCheckpoint() throws IOException {
+        ArchiveScanEngine engine = engine(
+                List.of(event("a", 10, "user.created"), event("x", 20, "user.created")),
+                List.of(event("m", 20, "user.created"), event("z", 30, "user.created")));
+
+        assertThat(ids(engine.rowsAfter(BUCKET, DAY, NEXT_DAY, List.of(), DAY.plusSeconds(20), "m")))
+                .containsExactly("x", "z");
+        assertThat(ids(engine.rowsAfter(BUCKET, DAY, DAY.plusSeconds(30), List.of(), DAY.plusSeconds(10), "a")))
+                .containsExactly("m", "x");
+    }
+
+    private ArchiveScanEngine engine(List<EventEntity> exported, List<EventEntity> appended) throws IOException {
+        ArchiveCatalog catalog = new ArchiveCatalog(directory.toString());
+        List<String> segments = new ArrayList<>();
+        for (List<EventEntity> rows : List.of(exported, appended)) {
+            ArchiveSegmentWriter writer = new ArchiveSegmentWriter();
+            rows.forEach(writer::add);
+            Path segment = catalog.newSegmentPath(BUCKET);
+            writer.writeTo(segment);
+            segments.add(segment.getFileName().toString());
+        }
+        catalog.commit(BUCKET, new ArchiveCatalog.Manifest(exported.size() + appended.size(), segments, true));
+        return new ArchiveScanEngine(catalog);
+    }
+
+    private static EventEntity event(String eventId, long secondOfDay, String eventType) {
+        return EventEntity.builder()
+                .eventId(eventId)
+                .eventType(eventType)
+                .timestamp(DAY.plusSeconds(secondOfDay))
+                .build();
+    }
+
+    private static List<String> ids(Iterator<ArchiveScanResult.Row> rows) {
+        List<String> ids = new ArrayList<>();
+        rows.forEachRemaining(row -> ids.add(row.getEventId()));
+        return ids;
+    }
+}
@@ -0,0 +1,131 @@
+package com.eventprocessing.dataingestion.buffer;
+
+import com.eventprocessing.common.model.Event;
+import com.eventprocessing.dataingestion.service.EventIngestionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class WriteBehindBufferTest {
+
+    @TempDir
+    Path spillDirectory;
+
+    private final EventIngestionService ingestionService = mock(EventIngestionService.class);
+    private final List<String> acknowledged = Collections.synchronizedList(new ArrayList<>());
+    private WriteBehindBuffer buffer;
+
+    @AfterEach
+    void stop() {
+        if (buffer != null) {
+            buffer.shutdown();
+        }
+    }
+
+    @Test
+    void acknowledgesAfterMongoWrite() {
+        buffer = start(10);
+
+        buffer.submit(List.of(event("a")), List.of(ack("A")));
+
+        verify(ingestionService, timeout(2000)).bulkUpsertEvents(anyList());
+        awaitAcknowledged(1);
+        assertThat(acknowledged).containsExactly("A");
+        assertThat(buffer.isSpilling()).isFalse();
+    }
+
+    @Test
+    void spillingAcknowledgesOlderInMemoryBatchesFirst() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            throw new IllegalStateException("MongoDB down");
+        }).when(ingestionService).bulkUpsertEvents(anyList());
+        buffer = start(2);
+
+        buffer.submit(List.of(event("a")), List.of(ack("A")));
+        assertThat(writing.await(2, TimeUnit.SECONDS)).isTrue();
+        buffer.submit(List.of(event("b")), List.of(ack("B")));
+        assertThat(acknowledged).isEmpty();
+
+        // Over budget: the in-flight and queued batches reach disk and are acknowledged before this one
+        buffer.submit(List.of(event("c")), List.of(ack("C")));
+
+        assertThat(buffer.isSpilling()).isTrue();
+        assertThat(acknowledged).containsExactly("A", "B", "C");
+
+        buffer.shutdown();
+        buffer = null;
+        assertThat(spilledEventIds()).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    void shutdownSpillsQueuedBatchesWithoutAcknowledging() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            throw new IllegalStateException("MongoDB down");
+        }).when(ingestionService).bulkUpsertEvents(anyList());
+        buffer = start(10);
+
+        buffer.submit(List.of(event("a")), List.of(ack("A")));
+        assertThat(writing.await(2, TimeUnit.SECONDS)).isTrue();
+        buffer.submit(List.of(event("b")), List.of(ack("B")));
+
+        buffer.shutdown();
+        buffer = null;
+
+        assertThat(acknowledged).isEmpty();
+        assertThat(spilledEventIds()).containsExactly("a", "b");
+    }
+
+    private WriteBehindBuffer start(int memoryBudgetEvents) {
+        WriteBehindBuffer started = new WriteBehindBuffer(ingestionService, new SimpleMeterRegistry(),
+                spillDirectory.toString(), 1024 * 1024, memoryBudgetEvents, 100, 20);
+        started.start();
+        return started;
+    }
+
+    private List<String> spilledEventIds() {
+        SpillSegmentStore store = new SpillSegmentStore(spillDirectory, 1024 * 1024);
+        List<String> ids = new ArrayList<>();
+        Path segment;
+        while ((segment = store.oldestSealed()) != null) {
+            store.read(segment, 100, events -> events.forEach(event -> ids.add(event.getEventId())));
+            store.delete(segment);
+        }
+        store.close();
+        return ids;
+    }
+
+    private void awaitAcknowledged(int count) {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (acknowledged.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private Acknowledgment ack(String name) {
+        return () -> acknowledged.add(name);
+    }
+
+    private static Event event(String id) {
+        return Event.builder().eventId(id).eventType("user.created").source("test").build();
+    }
+}
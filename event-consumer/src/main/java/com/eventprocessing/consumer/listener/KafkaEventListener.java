@@ -1,6 +1,18 @@
 package com.eventprocessing.consumer.listener;
 
+import com.eventprocessing.common.latency.LatencyRecorder;
+import com.eventprocessing.common.latency.LatencyStage;
+import com.eventprocessing.common.latency.StageHeaders;
+import com.eventprocessing.common.logging.PipelineLog;
 import com.eventprocessing.common.model.Event;
+import com.eventprocessing.common.model.EventTypeRegistry;
+import com.eventprocessing.common.profiling.AckEvent;
+import com.eventprocessing.common.profiling.DeserializeEvent;
+import com.eventprocessing.common.profiling.DispatchEvent;
+import com.eventprocessing.common.profiling.HotPathEvent;
+import com.eventprocessing.common.tracing.Span;
+import com.eventprocessing.common.tracing.SpanKind;
+import com.eventprocessing.common.tracing.Tracer;
 import com.eventprocessing.common.util.JsonUtil;
 import com.eventprocessing.consumer.service.EventProcessingService;
 import lombok.RequiredArgsConstructor;
@@ -12,6 +24,7 @@ import org.springframework.stereotype.Component;
 
 import static com.eventprocessing.common.constants.AppConstants.KAFKA_TOPIC_EVENTS;
 import static com.eventprocessing.common.constants.AppConstants.KAFKA_TOPIC_HIGH_PRIORITY;
+import static com.eventprocessing.common.constants.AppConstants.KAFKA_TOPIC_REPLAY;
 
 /**
  * Kafka listener for consuming events
@@ -22,27 +35,33 @@ import static com.eventprocessing.common.constants.AppConstants.KAFKA_TOPIC_HIGH
 public class KafkaEventListener {
 
     private final EventProcessingService eventProcessingService;
+    private final LatencyRecorder latencyRecorder;
+    private final Tracer tracer;
+    private final PipelineLog pipelineLog;
 
     /**
      * Listen to standard events topic
      */
     @KafkaListener(topics = KAFKA_TOPIC_EVENTS, groupId = "${spring.kafka.consumer.group-id}", containerFactory = "kafkaListenerContainerFactory")
     public void consumeEvent(ConsumerRecord<String, String> record, Acknowledgment acknowledgment) {
-        log.debug("Consumed event from Kafka: key={}, partition={}, offset={}",
-                record.key(), record.partition(), record.offset());
-
-        try {
-            Event event = JsonUtil.fromJson(record.value(), Event.class);
-            eventProcessingService.processEvent(event);
+        long receivedAt = System.currentTimeMillis();
+        long arrivalNanos = System.nanoTime();
+        Span span = startSpan(record);
+        try (Span.Scope ignored = span.makeCurrent()) {
+            Event event = deserialize(record);
+            recordArrival(record, event, receivedAt);
+            dispatch(record, event, receivedAt);
 
             // Manually acknowledge after successful processing
-            acknowledgment.acknowledge();
-            log.debug("Acknowledged event: {}", event.getEventId());
+            acknowledge(record, event, acknowledgment, arrivalNanos);
 
         } catch (Exception e) {
-            log.error("Error consuming event from Kafka: {}", record.key(), e);
+            consumeFailed(record, e);
+            span.recordError(e);
             // Don't acknowledge - message will be redelivered
             // For production, consider implementing exponential backoff
+        } finally {
+            span.end();
         }
     }
 
@@ -51,18 +70,116 @@ public class KafkaEventListener {
      */
     @KafkaListener(topics = KAFKA_TOPIC_HIGH_PRIORITY, groupId = "${spring.kafka.consumer.group-id}-high-priority", containerFactory = "kafkaListenerContainerFactory")
     public void consumeHighPriorityEvent(ConsumerRecord<String, String> record, Acknowledgment acknowledgment) {
-        log.info("Consumed HIGH PRIORITY event from Kafka: key={}", record.key());
+        long receivedAt = System.currentTimeMillis();
+        long arrivalNanos = System.nanoTime();
+        Span span = startSpan(record);
+        try (Span.Scope ignored = span.makeCurrent()) {
+            Event event = deserialize(record);
+            recordArrival(record, event, receivedAt);
+            // Process high priority events immediately
+            dispatch(record, event, receivedAt);
+
+            acknowledge(record, event, acknowledgment, arrivalNanos);
+
+        } catch (Exception e) {
+            consumeFailed(record, e);
+            span.recordError(e);
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Listen to the replay topic fed by backfill jobs. A separate group with low
+     * concurrency keeps replayed history from competing with live events.
+     */
+    @KafkaListener(topics = KAFKA_TOPIC_REPLAY, groupId = "${spring.kafka.consumer.group-id}-replay",
+            containerFactory = "kafkaListenerContainerFactory", concurrency = "${app.replay.concurrency:1}")
+    public void consumeReplayEvent(ConsumerRecord<String, String> record, Acknowledgment acknowledgment) {
+        long arrivalNanos = System.nanoTime();
+        Span span = startSpan(record);
+        try (Span.Scope ignored = span.makeCurrent()) {
+            Event event = deserialize(record);
+            // Replayed history would swamp the live latency histograms
+            dispatch(record, event, EventProcessingService.UNTRACKED);
+
+            acknowledge(record, event, acknowledgment, arrivalNanos);
+
+        } catch (Exception e) {
+            consumeFailed(record, e);
+            span.recordError(e);
+        } finally {
+            span.end();
+        }
+    }
 
+    /**
+     * Continue the producer's trace; the span starts at publish so it includes the queue wait
+     */
+    private Span startSpan(ConsumerRecord<String, String> record) {
+        if (!tracer.isEnabled()) {
+            return Span.NOOP;
+        }
+        return tracer.startConsumerSpan("kafka consume " + record.topic(), tracer.extract(record.headers()),
+                        StageHeaders.publishedAt(record))
+                .setAttribute("messaging.kafka.partition", record.partition())
+                .setAttribute("messaging.kafka.offset", record.offset());
+    }
+
+    private Event deserialize(ConsumerRecord<String, String> record) {
+        Span span = tracer.startSpan("deserialize", SpanKind.INTERNAL);
+        HotPathEvent jfr = new DeserializeEvent().at(HotPathEvent.KAFKA, record.topic(), record.partition());
+        jfr.begin();
+        String eventType = null;
         try {
             Event event = JsonUtil.fromJson(record.value(), Event.class);
-            // Process high priority events immediately
-            eventProcessingService.processEvent(event);
+            EventTypeRegistry.resolveFrom(record.headers(), event);
+            eventType = event.getEventType();
+            return event;
+        } finally {
+            jfr.finish(eventType);
+            span.end();
+        }
+    }
 
-            acknowledgment.acknowledge();
-            log.info("Acknowledged high priority event: {}", event.getEventId());
+    private void dispatch(ConsumerRecord<String, String> record, Event event, long receivedAt) {
+        HotPathEvent jfr = new DispatchEvent().at(HotPathEvent.KAFKA, record.topic(), record.partition());
+        jfr.begin();
+        try {
+            eventProcessingService.processEvent(event, receivedAt);
+        } finally {
+            jfr.finish(event.getEventType());
+        }
+    }
 
-        } catch (Exception e) {
-            log.error("Error consuming high priority event from Kafka: {}", record.key(), e);
+    /**
+     * Acknowledge and log the consumed event, timed from its arrival in the listener
+     */
+    private void acknowledge(ConsumerRecord<String, String> record, Event event, Acknowledgment acknowledgment,
+                             long arrivalNanos) {
+        HotPathEvent jfr = new AckEvent().at(HotPathEvent.KAFKA, record.topic(), record.partition());
+        jfr.begin();
+        acknowledgment.acknowledge();
+        jfr.finish(event.getEventType());
+        pipelineLog.info("consume", event.getEventType(), event.getEventId(), record.topic(), record.partition(),
+                System.nanoTime() - arrivalNanos, null);
+    }
+
+    /**
+     * Not acknowledged, so the record is redelivered
+     */
+    private void consumeFailed(ConsumerRecord<String, String> record, Exception e) {
+        pipelineLog.error("consume", null, record.key(), record.topic(), record.partition(), "Not acknowledged", e);
+    }
+
+    /**
+     * Record the publish and queue stages from the event timestamp and the publish header
+     */
+    private void recordArrival(ConsumerRecord<String, String> record, Event event, long receivedAt) {
+        long publishedAt = StageHeaders.publishedAt(record);
+        if (event.getTimestamp() != null) {
+            latencyRecorder.recordMillis(LatencyStage.PUBLISH, event, event.getTimestamp().toEpochMilli(), publishedAt);
         }
+        latencyRecorder.recordMillis(LatencyStage.QUEUE, event, publishedAt, receivedAt);
     }
 }
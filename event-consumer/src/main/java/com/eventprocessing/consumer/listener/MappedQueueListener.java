@@ -0,0 +1,49 @@
+package com.eventprocessing.consumer.listener;
+
+import com.eventprocessing.common.transport.MappedQueueTransport;
+import com.eventprocessing.common.transport.MappedRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import static com.eventprocessing.common.constants.AppConstants.KAFKA_TOPIC_EVENTS;
+import static com.eventprocessing.common.constants.AppConstants.KAFKA_TOPIC_HIGH_PRIORITY;
+
+/**
+ * Feeds the same-host mapped queues into {@link KafkaEventListener} when
+ * app.transport.type is MAPPED, under the listener's consumer group names. Each
+ * record is acknowledged through its group's cursor. The replay topic stays on Kafka.
+ */
+@Component
+public class MappedQueueListener {
+
+    private final MappedQueueTransport transport;
+    private final KafkaEventListener kafkaEventListener;
+    private final String groupId;
+
+    public MappedQueueListener(MappedQueueTransport transport, KafkaEventListener kafkaEventListener,
+                               @Value("${spring.kafka.consumer.group-id}") String groupId) {
+        this.transport = transport;
+        this.kafkaEventListener = kafkaEventListener;
+        this.groupId = groupId;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        if (!transport.isEnabled()) {
+            return;
+        }
+        transport.subscribe(KAFKA_TOPIC_EVENTS, groupId, records -> {
+            for (MappedRecord record : records) {
+                kafkaEventListener.consumeEvent(record.toConsumerRecord(), record::acknowledge);
+            }
+        });
+        String highPriorityGroup = MappedQueueTransport.groupFor(KAFKA_TOPIC_HIGH_PRIORITY, groupId);
+        transport.subscribe(KAFKA_TOPIC_HIGH_PRIORITY, highPriorityGroup, records -> {
+            for (MappedRecord record : records) {
+                kafkaEventListener.consumeHighPriorityEvent(record.toConsumerRecord(), record::acknowledge);
+            }
+        });
+    }
+}
@@ -1,6 +1,14 @@
 package com.eventprocessing.consumer.listener;
 
+import com.eventprocessing.common.logging.PipelineLog;
 import com.eventprocessing.common.model.Event;
+import com.eventprocessing.common.profiling.AckEvent;
+import com.eventprocessing.common.profiling.DeserializeEvent;
+import com.eventprocessing.common.profiling.DispatchEvent;
+import com.eventprocessing.common.profiling.HotPathEvent;
+import com.eventprocessing.common.tracing.Span;
+import com.eventprocessing.common.tracing.SpanKind;
+import com.eventprocessing.common.tracing.Tracer;
 import com.eventprocessing.common.util.JsonUtil;
 import com.eventprocessing.consumer.service.EventProcessingService;
 import lombok.RequiredArgsConstructor;
@@ -23,6 +31,8 @@ public class SqsEventPoller {
 
     private final SqsClient sqsClient;
     private final EventProcessingService eventProcessingService;
+    private final Tracer tracer;
+    private final PipelineLog pipelineLog;
 
     @Value("${aws.sqs.queue-url}")
     private String queueUrl;
@@ -47,13 +57,15 @@ public class SqsEventPoller {
                     .maxNumberOfMessages(maxMessages)
                     .waitTimeSeconds(waitTimeSeconds)
                     .visibilityTimeout(visibilityTimeout)
+                    .messageAttributeNames(Tracer.TRACEPARENT)
+                    .attributeNamesWithStrings(MessageSystemAttributeName.SENT_TIMESTAMP.toString())
                     .build();
 
             ReceiveMessageResponse response = sqsClient.receiveMessage(receiveRequest);
             List<Message> messages = response.messages();
 
             if (!messages.isEmpty()) {
-                log.info("Received {} messages from SQS", messages.size());
+                log.debug("Received {} messages from SQS", messages.size());
 
                 for (Message message : messages) {
                     processMessage(message);
@@ -69,20 +81,63 @@ public class SqsEventPoller {
      * Process individual SQS message
      */
     private void processMessage(Message message) {
-        try {
-            Event event = JsonUtil.fromJson(message.body(), Event.class);
-            log.info("Processing SQS message: {}", event.getEventId());
+        long arrivalNanos = System.nanoTime();
+        Span span = startSpan(message);
+        try (Span.Scope ignored = span.makeCurrent()) {
+            Event event = deserialize(message);
 
             // Process the event
-            eventProcessingService.processEvent(event);
+            HotPathEvent dispatch = new DispatchEvent().at(HotPathEvent.SQS, queueUrl, -1);
+            dispatch.begin();
+            try {
+                eventProcessingService.processEvent(event, System.currentTimeMillis());
+            } finally {
+                dispatch.finish(event.getEventType());
+            }
 
             // Delete message from queue after successful processing
+            HotPathEvent ack = new AckEvent().at(HotPathEvent.SQS, queueUrl, -1);
+            ack.begin();
             deleteMessage(message.receiptHandle());
+            ack.finish(event.getEventType());
+            pipelineLog.info("consume", event.getEventType(), event.getEventId(), queueUrl, -1,
+                    System.nanoTime() - arrivalNanos, null);
 
         } catch (Exception e) {
-            log.error("Error processing SQS message: {}", message.messageId(), e);
+            pipelineLog.error("consume", null, message.messageId(), queueUrl, -1, "Not deleted", e);
+            span.recordError(e);
             // Message will become visible again after visibility timeout
             // Consider implementing exponential backoff for visibility timeout
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Continue the producer's trace; SentTimestamp gives the queue wait
+     */
+    private Span startSpan(Message message) {
+        if (!tracer.isEnabled()) {
+            return Span.NOOP;
+        }
+        String sentTimestamp = message.attributes().get(MessageSystemAttributeName.SENT_TIMESTAMP);
+        long sentAt = sentTimestamp != null ? Long.parseLong(sentTimestamp) : 0;
+        return tracer.startConsumerSpan("sqs receive", tracer.extractFromMessageAttributes(message.messageAttributes()), sentAt)
+                .setAttribute("messaging.message.id", message.messageId());
+    }
+
+    private Event deserialize(Message message) {
+        Span span = tracer.startSpan("deserialize", SpanKind.INTERNAL);
+        HotPathEvent jfr = new DeserializeEvent().at(HotPathEvent.SQS, queueUrl, -1);
+        jfr.begin();
+        String eventType = null;
+        try {
+            Event event = JsonUtil.fromJson(message.body(), Event.class);
+            eventType = event.getEventType();
+            return event;
+        } finally {
+            jfr.finish(eventType);
+            span.end();
         }
     }
 
@@ -97,7 +152,6 @@ public class SqsEventPoller {
                     .build();
 
             sqsClient.deleteMessage(deleteRequest);
-            log.debug("Deleted message from SQS queue");
 
         } catch (Exception e) {
             log.error("Error deleting message from SQS", e);
@@ -1,19 +1,24 @@
 package com.eventprocessing.consumer.service;
 
+import com.eventprocessing.common.logging.PipelineLog;
 import com.eventprocessing.common.model.Event;
+import com.eventprocessing.common.model.EventTypeRegistry;
 import com.eventprocessing.common.model.FailedEvent;
+import com.eventprocessing.common.profiling.DlqSendEvent;
+import com.eventprocessing.common.profiling.HotPathEvent;
+import com.eventprocessing.common.tracing.Span;
+import com.eventprocessing.common.tracing.SpanKind;
+import com.eventprocessing.common.tracing.Tracer;
 import com.eventprocessing.common.util.JsonUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
-
 import static com.eventprocessing.common.constants.AppConstants.KAFKA_TOPIC_DLQ;
 
 /**
@@ -26,6 +31,8 @@ public class DeadLetterQueueService {
 
     private final KafkaTemplate<String, String> kafkaTemplate;
     private final SqsClient sqsClient;
+    private final Tracer tracer;
+    private final PipelineLog pipelineLog;
 
     @Value("${aws.sqs.dlq-url}")
     private String dlqUrl;
@@ -37,18 +44,7 @@ public class DeadLetterQueueService {
      * Send failed event to dead letter queue
      */
     public void sendToDeadLetterQueue(Event event, Exception exception) {
-        log.error("Sending event {} to Dead Letter Queue", event.getEventId());
-
-        FailedEvent failedEvent = FailedEvent.builder()
-                .eventId(event.getEventId())
-                .eventType(event.getEventType())
-                .originalTimestamp(event.getTimestamp())
-                .failureReason(exception.getMessage())
-                .stackTrace(getStackTrace(exception))
-                .totalRetries(event.getRetryCount())
-                .originalEvent(event)
-                .serviceName(serviceName)
-                .build();
+        FailedEvent failedEvent = FailedEvent.from(event, exception, serviceName);
 
         // Send to Kafka DLQ topic
         sendToKafkaDlq(failedEvent);
@@ -61,12 +57,24 @@ public class DeadLetterQueueService {
      * Send to Kafka DLQ topic
      */
     private void sendToKafkaDlq(FailedEvent failedEvent) {
+        Span span = tracer.startSpan("dlq publish", SpanKind.PRODUCER)
+                .setAttribute("messaging.destination", KAFKA_TOPIC_DLQ);
+        HotPathEvent jfr = new DlqSendEvent().at(HotPathEvent.KAFKA, KAFKA_TOPIC_DLQ, -1);
+        jfr.begin();
         try {
             String failedEventJson = JsonUtil.toJson(failedEvent);
-            kafkaTemplate.send(KAFKA_TOPIC_DLQ, failedEvent.getEventId(), failedEventJson);
-            log.info("Sent failed event {} to Kafka DLQ", failedEvent.getEventId());
+            ProducerRecord<String, String> record = new ProducerRecord<>(KAFKA_TOPIC_DLQ, failedEvent.getEventId(), failedEventJson);
+            tracer.inject(span, record.headers());
+            EventTypeRegistry.stamp(record.headers(), EventTypeRegistry.idOf(failedEvent.getEventType()));
+            kafkaTemplate.send(record);
+            pipelineLog.warn("dlq", failedEvent.getEventType(), failedEvent.getEventId(), "Sent to Kafka DLQ");
         } catch (Exception e) {
-            log.error("Failed to send event {} to Kafka DLQ", failedEvent.getEventId(), e);
+            pipelineLog.error("dlq", failedEvent.getEventType(), failedEvent.getEventId(), KAFKA_TOPIC_DLQ, -1,
+                    "Kafka DLQ send failed", e);
+            span.recordError(e);
+        } finally {
+            jfr.finish(failedEvent.getEventType());
+            span.end();
         }
     }
 
@@ -74,6 +82,10 @@ public class DeadLetterQueueService {
      * Send to SQS DLQ
      */
     private void sendToSqsDlq(FailedEvent failedEvent) {
+        Span span = tracer.startSpan("dlq publish", SpanKind.PRODUCER)
+                .setAttribute("messaging.destination", dlqUrl);
+        HotPathEvent jfr = new DlqSendEvent().at(HotPathEvent.SQS, dlqUrl, -1);
+        jfr.begin();
         try {
             String failedEventJson = JsonUtil.toJson(failedEvent);
 
@@ -82,22 +94,18 @@ public class DeadLetterQueueService {
                     .messageBody(failedEventJson)
                     .messageGroupId(failedEvent.getEventType())
                     .messageDeduplicationId(failedEvent.getEventId() + "-" + System.currentTimeMillis())
+                    .messageAttributes(tracer.toMessageAttributes(span))
                     .build();
 
             sqsClient.sendMessage(request);
-            log.info("Sent failed event {} to SQS DLQ", failedEvent.getEventId());
+            pipelineLog.warn("dlq", failedEvent.getEventType(), failedEvent.getEventId(), "Sent to SQS DLQ");
         } catch (Exception e) {
-            log.error("Failed to send event {} to SQS DLQ", failedEvent.getEventId(), e);
+            pipelineLog.error("dlq", failedEvent.getEventType(), failedEvent.getEventId(), dlqUrl, -1,
+                    "SQS DLQ send failed", e);
+            span.recordError(e);
+        } finally {
+            jfr.finish(failedEvent.getEventType());
+            span.end();
         }
     }
-
-    /**
-     * Get stack trace as string
-     */
-    private String getStackTrace(Exception exception) {
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-        exception.printStackTrace(pw);
-        return sw.toString();
-    }
 }
@@ -1,15 +1,31 @@
 package com.eventprocessing.consumer.service;
 
 import com.eventprocessing.common.constants.AppConstants;
+import com.eventprocessing.common.latency.LatencyRecorder;
+import com.eventprocessing.common.latency.LatencyStage;
+import com.eventprocessing.common.logging.PipelineLog;
 import com.eventprocessing.common.model.Event;
 import com.eventprocessing.common.model.EventStatus;
+import com.eventprocessing.common.model.EventType;
+import com.eventprocessing.common.model.EventTypeRegistry;
+import com.eventprocessing.common.profiling.HandlerEvent;
+import com.eventprocessing.common.tracing.Span;
+import com.eventprocessing.common.tracing.SpanKind;
+import com.eventprocessing.common.tracing.Tracer;
 import com.eventprocessing.common.util.JsonUtil;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
 /**
  * Core service for processing events
  */
@@ -18,31 +34,69 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class EventProcessingService {
 
+    /**
+     * receivedAtMillis value for events kept out of the latency histograms
+     */
+    public static final long UNTRACKED = 0;
+
     private final DeadLetterQueueService dlqService;
+    private final LatencyRecorder latencyRecorder;
+    private final Tracer tracer;
+    private final PipelineLog pipelineLog;
+
+    /**
+     * The stand-in handlers sleep to mimic downstream calls; benchmarks turn this off
+     */
+    @Setter
+    @Value("${app.processing.simulate-delay:true}")
+    private boolean simulateDelay = true;
+
+    /**
+     * Handler and span name per EventTypeRegistry id; unregistered types share slot 0
+     */
+    private final List<Consumer<Event>> handlers = dispatchTable();
+    private final String[] spanNames = spanNames();
 
     /**
      * Process an event with circuit breaker and retry logic
+     *
+     * @param receivedAtMillis when the event was received, or UNTRACKED
      */
     @CircuitBreaker(name = "eventProcessing", fallbackMethod = "processFallback")
     @Retry(name = "eventProcessing")
-    public void processEvent(Event event) {
-        log.info("Processing event: {} of type: {}", event.getEventId(), event.getEventType());
-
-        try {
+    public void processEvent(Event event, long receivedAtMillis) {
+        // One span per attempt, so retries show up as siblings under the consume span
+        Span span = tracer.startSpan(spanName(event), SpanKind.INTERNAL)
+                .setAttribute("event.id", event.getEventId())
+                .setAttribute("event.retry-count", event.getRetryCount());
+        try (Span.Scope ignored = span.makeCurrent()) {
             // Mark as processing
             event.markAsProcessing();
+            long processingStartMillis = System.currentTimeMillis();
+            long processingStartNanos = System.nanoTime();
 
             // Simulate event processing logic
-            performBusinessLogic(event);
+            HandlerEvent jfr = new HandlerEvent();
+            jfr.begin();
+            try {
+                performBusinessLogic(event);
+            } finally {
+                jfr.finish(event.getEventType());
+            }
 
             // Mark as completed
             event.markAsCompleted();
-            log.info("Successfully processed event: {}", event.getEventId());
+            recordLatency(event, receivedAtMillis, processingStartMillis, processingStartNanos);
+            pipelineLog.info("process", event.getEventType(), event.getEventId(), null, -1,
+                    System.nanoTime() - processingStartNanos, null);
 
         } catch (Exception e) {
-            log.error("Error processing event: {}", event.getEventId(), e);
+            pipelineLog.error("process", event.getEventType(), event.getEventId(), null, -1, "Processing failed", e);
+            span.recordError(e);
             handleProcessingFailure(event, e);
             throw e; // Re-throw for retry mechanism
+        } finally {
+            span.end();
         }
     }
 
@@ -51,49 +105,73 @@ public class EventProcessingService {
      */
     private void performBusinessLogic(Event event) {
         // Simulate different processing based on event type
-        switch (event.getEventType()) {
-            case "user.created":
-                processUserCreated(event);
-                break;
-            case "order.placed":
-                processOrderPlaced(event);
-                break;
-            case "payment.completed":
-                processPaymentCompleted(event);
-                break;
-            default:
-                processGenericEvent(event);
+        handlers.get(event.getEventTypeId()).accept(event);
+    }
+
+    private List<Consumer<Event>> dispatchTable() {
+        Consumer<Event> generic = this::processGenericEvent;
+        List<Consumer<Event>> table = new ArrayList<>(Collections.nCopies(EventTypeRegistry.size(), generic));
+        table.set(EventTypeRegistry.idOf(EventType.USER_CREATED), this::processUserCreated);
+        table.set(EventTypeRegistry.idOf(EventType.ORDER_PLACED), this::processOrderPlaced);
+        table.set(EventTypeRegistry.idOf(EventType.PAYMENT_COMPLETED), this::processPaymentCompleted);
+        return List.copyOf(table);
+    }
+
+    private static String[] spanNames() {
+        String[] names = new String[EventTypeRegistry.size()];
+        for (int id = 0; id < names.length; id++) {
+            names[id] = "process " + EventTypeRegistry.get(id).name();
         }
+        return names;
+    }
+
+    private String spanName(Event event) {
+        int id = event.getEventTypeId();
+        return id != EventTypeRegistry.UNREGISTERED ? spanNames[id] : "process " + event.getEventType();
     }
 
     private void processUserCreated(Event event) {
-        log.info("Processing user created event: {}", event.getEventId());
         // Add user-specific processing logic here
         simulateProcessingDelay(50);
     }
 
     private void processOrderPlaced(Event event) {
-        log.info("Processing order placed event: {}", event.getEventId());
         // Add order-specific processing logic here
         simulateProcessingDelay(100);
     }
 
     private void processPaymentCompleted(Event event) {
-        log.info("Processing payment completed event: {}", event.getEventId());
         // Add payment-specific processing logic here
         simulateProcessingDelay(75);
     }
 
     private void processGenericEvent(Event event) {
-        log.info("Processing generic event: {}", event.getEventId());
         // Add generic processing logic here
         simulateProcessingDelay(30);
     }
 
+    /**
+     * Record the dispatch, process and end-to-end stages of a completed event
+     */
+    private void recordLatency(Event event, long receivedAtMillis, long processingStartMillis, long processingStartNanos) {
+        if (receivedAtMillis == UNTRACKED) {
+            return;
+        }
+        latencyRecorder.recordMillis(LatencyStage.DISPATCH, event, receivedAtMillis, processingStartMillis);
+        latencyRecorder.recordNanos(LatencyStage.PROCESS, event, processingStartNanos, System.nanoTime());
+        if (event.getTimestamp() != null) {
+            latencyRecorder.recordMillis(LatencyStage.END_TO_END, event,
+                    event.getTimestamp().toEpochMilli(), event.getProcessedAt().toEpochMilli());
+        }
+    }
+
     /**
      * Simulate processing delay
      */
     private void simulateProcessingDelay(long milliseconds) {
+        if (!simulateDelay) {
+            return;
+        }
         try {
             Thread.sleep(milliseconds);
         } catch (InterruptedException e) {
@@ -110,19 +188,20 @@ public class EventProcessingService {
 
         // If max retries exceeded, send to DLQ
         if (event.getRetryCount() >= AppConstants.MAX_RETRY_ATTEMPTS) {
-            log.error("Max retries exceeded for event: {}. Sending to DLQ", event.getEventId());
+            pipelineLog.warn("process", event.getEventType(), event.getEventId(), "Max retries exceeded; sending to DLQ");
             event.markAsFailed(e.getMessage());
             dlqService.sendToDeadLetterQueue(event, e);
         } else {
-            log.warn("Retry attempt {} for event: {}", event.getRetryCount(), event.getEventId());
+            pipelineLog.warn("process", event.getEventType(), event.getEventId(), "Retrying");
         }
     }
 
     /**
      * Fallback method when circuit breaker opens
      */
-    private void processFallback(Event event, Exception e) {
-        log.error("Circuit breaker opened. Sending event {} directly to DLQ", event.getEventId());
+    private void processFallback(Event event, long receivedAtMillis, Exception e) {
+        pipelineLog.error("process", event.getEventType(), event.getEventId(), null, -1,
+                "Circuit breaker open; sending directly to DLQ", e);
         event.markAsFailed("Circuit breaker open: " + e.getMessage());
         dlqService.sendToDeadLetterQueue(event, e);
     }
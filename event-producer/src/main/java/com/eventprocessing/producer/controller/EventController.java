@@ -1,6 +1,9 @@
 package com.eventprocessing.producer.controller;
 
 import com.eventprocessing.common.model.Event;
+import com.eventprocessing.common.tracing.Span;
+import com.eventprocessing.common.tracing.SpanKind;
+import com.eventprocessing.common.tracing.Tracer;
 import com.eventprocessing.producer.service.EventPublisherService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -24,6 +27,7 @@ import java.util.concurrent.CompletableFuture;
 public class EventController {
 
     private final EventPublisherService eventPublisherService;
+    private final Tracer tracer;
 
     @Value("${aws.sqs.queue-url}")
     private String sqsQueueUrl;
@@ -39,12 +43,15 @@ public class EventController {
      */
     @PostMapping
     public ResponseEntity<Map<String, Object>> submitEvent(@Valid @RequestBody Event event) {
-        log.info("Received event submission: {}", event.getEventId());
+        log.debug("Received event submission: {}", event.getEventId());
 
-        try {
+        Span span = tracer.startSpan("POST /api/events", SpanKind.SERVER)
+                .setAttribute("event.id", event.getEventId())
+                .setAttribute("event.type", event.getEventType());
+        try (Span.Scope ignored = span.makeCurrent()) {
             // Publish to Kafka (asynchronous)
             CompletableFuture<Void> kafkaFuture = eventPublisherService.publishToKafka(event)
-                    .thenAccept(result -> log.info("Event {} published to Kafka", event.getEventId()));
+                    .thenAccept(result -> log.debug("Event {} published to Kafka", event.getEventId()));
 
             // Send to SQS (synchronous for reliability)
             String queueUrl = isHighPriority(event) ? highPrioritySqsQueueUrl : sqsQueueUrl;
@@ -63,6 +70,7 @@ public class EventController {
 
         } catch (Exception e) {
             log.error("Error submitting event {}", event.getEventId(), e);
+            span.recordError(e);
 
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("eventId", event.getEventId());
@@ -70,6 +78,8 @@ public class EventController {
             errorResponse.put("error", e.getMessage());
 
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        } finally {
+            span.end();
         }
     }
 
@@ -1,10 +1,22 @@
 package com.eventprocessing.producer.service;
 
 import com.eventprocessing.common.constants.AppConstants;
+import com.eventprocessing.common.latency.StageHeaders;
+import com.eventprocessing.common.logging.PipelineLog;
 import com.eventprocessing.common.model.Event;
+import com.eventprocessing.common.model.EventTypeRegistry;
+import com.eventprocessing.common.profiling.HotPathEvent;
+import com.eventprocessing.common.profiling.PublishEvent;
+import com.eventprocessing.common.tracing.Span;
+import com.eventprocessing.common.tracing.SpanKind;
+import com.eventprocessing.common.tracing.Tracer;
+import com.eventprocessing.common.transport.MappedQueueTransport;
 import com.eventprocessing.common.util.JsonUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
@@ -26,49 +38,97 @@ public class EventPublisherService {
     private final KafkaTemplate<String, String> kafkaTemplate;
     private final SqsClient sqsClient;
     private final SnsClient snsClient;
+    private final Tracer tracer;
+    private final PipelineLog pipelineLog;
+    private final MappedQueueTransport mappedQueues;
 
     /**
-     * Publish event to Kafka
+     * Publish event to Kafka, or to the same-host mapped queue of the topic when
+     * app.transport.type is MAPPED
      */
     public CompletableFuture<SendResult<String, String>> publishToKafka(Event event) {
         String topic = determineKafkaTopic(event);
         String eventJson = JsonUtil.toJson(event);
 
-        log.info("Publishing event {} to Kafka topic: {}", event.getEventId(), topic);
+        ProducerRecord<String, String> record = new ProducerRecord<>(topic, event.getEventId(), eventJson);
+        StageHeaders.stamp(record.headers(), StageHeaders.PUBLISHED_AT, System.currentTimeMillis());
+        EventTypeRegistry.stamp(record.headers(), event.getEventTypeId());
 
-        return kafkaTemplate.send(topic, event.getEventId(), eventJson)
+        // Ends when the broker acknowledges, so the span covers batching and the round trip
+        String transport = mappedQueues.isEnabled() ? HotPathEvent.MAPPED : HotPathEvent.KAFKA;
+        Span span = tracer.startSpan(transport + " publish", SpanKind.PRODUCER)
+                .setAttribute("messaging.destination", topic);
+        tracer.inject(span, record.headers());
+        HotPathEvent jfr = new PublishEvent();
+        jfr.begin();
+        long startNanos = System.nanoTime();
+
+        return send(record)
                 .whenComplete((result, ex) -> {
                     if (ex != null) {
-                        log.error("Failed to publish event {} to Kafka", event.getEventId(), ex);
+                        span.recordError(ex);
+                        pipelineLog.error("publish", event.getEventType(), event.getEventId(), topic, -1,
+                                "Publish failed", ex);
                     } else {
-                        log.info("Successfully published event {} to Kafka partition {}",
-                                event.getEventId(),
-                                result.getRecordMetadata().partition());
+                        int partition = result.getRecordMetadata().partition();
+                        span.setAttribute("messaging.kafka.partition", partition);
+                        pipelineLog.info("publish", event.getEventType(), event.getEventId(), topic, partition,
+                                System.nanoTime() - startNanos, null);
                     }
+                    // Committed on the producer I/O thread once the broker answered, inline for a mapped queue
+                    jfr.at(transport, topic, ex == null ? result.getRecordMetadata().partition() : -1)
+                            .finish(event.getEventType());
+                    span.end();
                 });
     }
 
+    /**
+     * A mapped-queue append is complete when it returns, so its future is already done
+     */
+    private CompletableFuture<SendResult<String, String>> send(ProducerRecord<String, String> record) {
+        if (!mappedQueues.isEnabled()) {
+            return kafkaTemplate.send(record);
+        }
+        try {
+            long position = mappedQueues.publish(record);
+            RecordMetadata metadata = new RecordMetadata(new TopicPartition(record.topic(), 0), position, 0,
+                    System.currentTimeMillis(), -1, -1);
+            return CompletableFuture.completedFuture(new SendResult<>(record, metadata));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     /**
      * Send event to SQS
      */
     public void sendToSqs(Event event, String queueUrl) {
         String eventJson = JsonUtil.toJson(event);
 
-        log.info("Sending event {} to SQS queue: {}", event.getEventId(), queueUrl);
-
+        Span span = tracer.startSpan("sqs send", SpanKind.PRODUCER)
+                .setAttribute("messaging.destination", queueUrl);
+        HotPathEvent jfr = new PublishEvent().at(HotPathEvent.SQS, queueUrl, -1);
+        jfr.begin();
+        long startNanos = System.nanoTime();
         try {
             SendMessageRequest request = SendMessageRequest.builder()
                     .queueUrl(queueUrl)
                     .messageBody(eventJson)
                     .messageGroupId(event.getEventType()) // For FIFO queues
                     .messageDeduplicationId(event.getEventId())
+                    .messageAttributes(tracer.toMessageAttributes(span))
                     .build();
 
             sqsClient.sendMessage(request);
-            log.info("Successfully sent event {} to SQS", event.getEventId());
+            pipelineLog.info("publish", event.getEventType(), event.getEventId(), queueUrl, -1,
+                    System.nanoTime() - startNanos, null);
         } catch (Exception e) {
-            log.error("Failed to send event {} to SQS", event.getEventId(), e);
+            pipelineLog.error("publish", event.getEventType(), event.getEventId(), queueUrl, -1, "SQS send failed", e);
+            span.recordError(e);
             throw new RuntimeException("Failed to send event to SQS", e);
+        } finally {
+            jfr.finish(event.getEventType());
+            span.end();
         }
     }
 
@@ -78,8 +138,7 @@ public class EventPublisherService {
     public void publishToSns(Event event, String topicArn) {
         String eventJson = JsonUtil.toJson(event);
 
-        log.info("Publishing event {} to SNS topic: {}", event.getEventId(), topicArn);
-
+        long startNanos = System.nanoTime();
         try {
             PublishRequest request = PublishRequest.builder()
                     .topicArn(topicArn)
@@ -88,9 +147,10 @@ public class EventPublisherService {
                     .build();
 
             snsClient.publish(request);
-            log.info("Successfully published event {} to SNS", event.getEventId());
+            pipelineLog.info("notify", event.getEventType(), event.getEventId(), topicArn, -1,
+                    System.nanoTime() - startNanos, null);
         } catch (Exception e) {
-            log.error("Failed to publish event {} to SNS", event.getEventId(), e);
+            pipelineLog.error("notify", event.getEventType(), event.getEventId(), topicArn, -1, "SNS publish failed", e);
             throw new RuntimeException("Failed to publish event to SNS", e);
         }
     }
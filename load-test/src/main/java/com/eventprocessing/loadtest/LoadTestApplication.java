@@ -0,0 +1,16 @@
+package com.eventprocessing.loadtest;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Drives the pipeline at open-model arrival rates and reports throughput, corrected
+ * latency percentiles and where each service saturates
+ */
+@SpringBootApplication
+public class LoadTestApplication {
+
+    public static void main(String[] args) {
+        System.exit(SpringApplication.exit(SpringApplication.run(LoadTestApplication.class, args)));
+    }
+}
@@ -0,0 +1,218 @@
+package com.eventprocessing.loadtest;
+
+import com.eventprocessing.common.constants.AppConstants;
+import com.eventprocessing.loadtest.config.LoadTestProperties;
+import com.eventprocessing.loadtest.environment.TestEnvironment;
+import com.eventprocessing.loadtest.generator.EventFactory;
+import com.eventprocessing.loadtest.generator.EventSender;
+import com.eventprocessing.loadtest.generator.KafkaEventSender;
+import com.eventprocessing.loadtest.generator.OpenLoadGenerator;
+import com.eventprocessing.loadtest.generator.RestEventSender;
+import com.eventprocessing.loadtest.probe.GroupOffsets;
+import com.eventprocessing.loadtest.probe.PipelineProbe;
+import com.eventprocessing.loadtest.report.LoadTestReport;
+import com.eventprocessing.loadtest.report.ReportWriter;
+import com.eventprocessing.loadtest.report.SaturationPoint;
+import com.eventprocessing.loadtest.report.ServiceResult;
+import com.eventprocessing.loadtest.report.StageResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs the warmup, the fixed-rate stages and the saturation search, then writes the report
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoadTestRunner implements CommandLineRunner, ExitCodeGenerator {
+
+    private final LoadTestProperties properties;
+
+    private int exitCode;
+
+    @Override
+    public void run(String... args) throws Exception {
+        LoadTestReport report = LoadTestReport.builder()
+                .label(properties.getReport().getLabel())
+                .startedAt(Instant.now())
+                .target(properties.getTarget())
+                .mix(properties.getMix())
+                .targetThroughputPerSecond(AppConstants.TARGET_THROUGHPUT_PER_SECOND)
+                .targetLatencyMs(AppConstants.TARGET_LATENCY_MS)
+                .build();
+
+        try (TestEnvironment environment = new TestEnvironment(properties)) {
+            report.setEnvironment(environment.describe());
+            environment.start();
+
+            try (EventSender sender = createSender();
+                 PipelineProbe probe = new PipelineProbe(properties.getBootstrapServers(),
+                         properties.getProbe().getConsumerGroups())) {
+                OpenLoadGenerator generator = new OpenLoadGenerator(sender, new EventFactory(properties.getMix()),
+                        properties.getGeneratorThreads(), properties.getMaxOutstanding(), properties.getDrainTimeout());
+
+                LoadTestProperties.Stage warmup = properties.getWarmup();
+                if (warmup != null && warmup.getRate() > 0) {
+                    generator.run("warmup", warmup.getRate(), warmup.getDuration());
+                }
+
+                int n = 1;
+                for (LoadTestProperties.Stage stage : properties.getStages()) {
+                    report.getStages().add(runStage(generator, probe, "stage-" + n++, stage.getRate(), stage.getDuration()));
+                }
+
+                if (properties.getSaturation().isEnabled()) {
+                    searchSaturation(generator, probe, sender.name(), report);
+                }
+            }
+        }
+
+        report.setSustainedThroughput(report.getStages().stream()
+                .filter(this::passes)
+                .mapToDouble(StageResult::getAchievedRate)
+                .max()
+                .orElse(0));
+        report.setMeetsTargets(report.getStages().stream()
+                .anyMatch(stage -> stage.getOfferedRate() >= AppConstants.TARGET_THROUGHPUT_PER_SECOND && passes(stage)));
+        new ReportWriter(properties.getReport().getDirectory()).write(report);
+
+        log.info("Sustained {}/s, targets {}", Math.round(report.getSustainedThroughput()),
+                report.isMeetsTargets() ? "met" : "missed");
+        if (properties.isEnforceTargets() && !report.isMeetsTargets()) {
+            exitCode = 1;
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    private EventSender createSender() {
+        return properties.getTarget() == LoadTestProperties.Target.REST
+                ? new RestEventSender(properties.getProducerUrl())
+                : new KafkaEventSender(properties.getBootstrapServers());
+    }
+
+    /**
+     * A fixed-rate stage bracketed by offset snapshots of every probed service
+     */
+    private StageResult runStage(OpenLoadGenerator generator, PipelineProbe probe, String name, int rate,
+                                 Duration duration) throws InterruptedException {
+        Map<String, GroupOffsets> before = probe.snapshot();
+        StageResult result = generator.run(name, rate, duration);
+        Map<String, GroupOffsets> after = probe.snapshot();
+
+        for (Map.Entry<String, GroupOffsets> entry : after.entrySet()) {
+            GroupOffsets start = before.get(entry.getKey());
+            if (start == null) {
+                continue;
+            }
+            GroupOffsets end = entry.getValue();
+            double seconds = Math.max(1e-3, (end.takenAtNanos() - start.takenAtNanos()) / 1e9);
+            double produced = end.producedSince(start) / seconds;
+            double consumed = end.consumedSince(start) / seconds;
+            // Kept up: consumed nearly all of it, or was left with under a second of backlog
+            boolean keptUp = consumed >= produced * properties.getSaturation().getMinThroughputRatio()
+                    || end.lag() <= rate;
+            result.getServices().add(ServiceResult.builder()
+                    .service(entry.getKey())
+                    .producedRate(produced)
+                    .consumedRate(consumed)
+                    .lagAtStart(start.lag())
+                    .lagAtEnd(end.lag())
+                    .keptUp(keptUp)
+                    .build());
+        }
+        return result;
+    }
+
+    /**
+     * Raise the offered rate step by step. The sender saturates at the first step it
+     * cannot take on time; each consuming service at the first step it falls behind.
+     * The search ends when the sender saturates, since nothing downstream can then be
+     * offered more.
+     */
+    private void searchSaturation(OpenLoadGenerator generator, PipelineProbe probe, String senderName,
+                                  LoadTestReport report) throws InterruptedException {
+        LoadTestProperties.Saturation saturation = properties.getSaturation();
+        Map<String, SaturationPoint> points = new LinkedHashMap<>();
+        points.put(senderName, SaturationPoint.builder().service(senderName).build());
+        properties.getProbe().getConsumerGroups().keySet()
+                .forEach(service -> points.put(service, SaturationPoint.builder().service(service).build()));
+
+        Set<String> measured = new HashSet<>(List.of(senderName));
+        int rate = saturation.getStartRate();
+        int step = 1;
+        while (rate <= saturation.getMaxRate()) {
+            StageResult result = runStage(generator, probe, "step-" + step++, rate, saturation.getStepDuration());
+            report.getSaturationSteps().add(result);
+
+            update(points.get(senderName), rate, senderFailure(result));
+            for (ServiceResult service : result.getServices()) {
+                measured.add(service.getService());
+                update(points.get(service.getService()), rate, service.isKeptUp() ? null
+                        : String.format("consumed %.0f/s of %.0f/s, lag %d", service.getConsumedRate(),
+                        service.getProducedRate(), service.getLagAtEnd()));
+            }
+            if (points.get(senderName).isSaturated() || points.values().stream().allMatch(SaturationPoint::isSaturated)) {
+                break;
+            }
+            rate = (int) Math.ceil(rate * saturation.getStepFactor());
+        }
+
+        points.values().stream()
+                .filter(point -> !point.isSaturated() && point.getReason() == null)
+                .forEach(point -> point.setReason(!measured.contains(point.getService())
+                        ? "consumer group offsets unavailable"
+                        : points.get(senderName).isSaturated()
+                        ? "not reached; " + senderName + " saturated first"
+                        : "kept up through " + saturation.getMaxRate() + "/s"));
+        report.getSaturationPoints().addAll(points.values());
+    }
+
+    private static void update(SaturationPoint point, int rate, String failure) {
+        if (point == null || point.isSaturated()) {
+            return;
+        }
+        if (failure == null) {
+            point.setSustainedRate(rate);
+        } else {
+            point.setSaturated(true);
+            point.setFailedRate(rate);
+            point.setReason(failure);
+        }
+    }
+
+    /**
+     * Why the service taking the sends failed a stage, null when it kept up
+     */
+    private String senderFailure(StageResult stage) {
+        LoadTestProperties.Saturation saturation = properties.getSaturation();
+        if (stage.getAchievedRate() < stage.getOfferedRate() * saturation.getMinThroughputRatio()) {
+            return String.format("achieved %.0f/s of %d/s", stage.getAchievedRate(), stage.getOfferedRate());
+        }
+        if (stage.getCorrectedLatency().getP99Ms() > saturation.getLatencyLimit().toMillis()) {
+            return String.format("corrected p99 %.0f ms", stage.getCorrectedLatency().getP99Ms());
+        }
+        if (stage.errorRate() > saturation.getMaxErrorRate()) {
+            return String.format("error rate %.4f", stage.errorRate());
+        }
+        return null;
+    }
+
+    private boolean passes(StageResult stage) {
+        return senderFailure(stage) == null && stage.getServices().stream().allMatch(ServiceResult::isKeptUp);
+    }
+}
@@ -0,0 +1,229 @@
+package com.eventprocessing.loadtest.config;
+
+import com.eventprocessing.common.constants.AppConstants;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load test settings (loadtest.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "loadtest")
+public class LoadTestProperties {
+
+    public enum Target {
+        /**
+         * POST /api/events on event-producer, which publishes to Kafka, SQS and SNS
+         */
+        REST,
+        /**
+         * Straight onto the Kafka topics, bypassing event-producer
+         */
+        KAFKA
+    }
+
+    private Target target = Target.KAFKA;
+
+    /**
+     * Base URL of event-producer for the REST target; replaced when services are launched
+     */
+    private String producerUrl = "http://localhost:8081";
+
+    /**
+     * Kafka for the KAFKA target and the lag probe; replaced when containers are used
+     */
+    private String bootstrapServers = "localhost:29092";
+
+    /**
+     * Sends allowed in flight before the generator waits. Waiting delays later sends
+     * past their intended time, which the corrected latencies account for.
+     */
+    private int maxOutstanding = 20_000;
+
+    /**
+     * Generator threads; each owns an equal share of the rate on an offset schedule
+     */
+    private int generatorThreads = 2;
+
+    /**
+     * How long to wait for in-flight sends after a stage before counting them as timed out
+     */
+    private Duration drainTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Run at this rate first and discard the results, to get past JIT and connection setup
+     */
+    private Stage warmup = new Stage(1_000, Duration.ofSeconds(15));
+
+    /**
+     * Fixed-rate stages, run in order after the warmup
+     */
+    private List<Stage> stages = new ArrayList<>(List.of(
+            new Stage(AppConstants.TARGET_THROUGHPUT_PER_SECOND, Duration.ofSeconds(60))));
+
+    private Saturation saturation = new Saturation();
+
+    private Mix mix = new Mix();
+
+    private Probe probe = new Probe();
+
+    private Environment environment = new Environment();
+
+    private Report report = new Report();
+
+    /**
+     * Fail the run (exit code 1) when the sustained stages miss the throughput or latency target
+     */
+    private boolean enforceTargets = false;
+
+    @Data
+    public static class Stage {
+
+        /**
+         * Intended arrivals per second, independent of how fast responses come back
+         */
+        private int rate;
+
+        private Duration duration;
+
+        public Stage() {
+        }
+
+        public Stage(int rate, Duration duration) {
+            this.rate = rate;
+            this.duration = duration;
+        }
+    }
+
+    /**
+     * Stepped search for the rate at which each service stops keeping up
+     */
+    @Data
+    public static class Saturation {
+
+        private boolean enabled = true;
+
+        private int startRate = 2_000;
+
+        private int maxRate = 200_000;
+
+        /**
+         * Each step offers this multiple of the previous rate
+         */
+        private double stepFactor = 1.5;
+
+        private Duration stepDuration = Duration.ofSeconds(20);
+
+        /**
+         * A step passes when the achieved rate is at least this fraction of the offered rate
+         */
+        private double minThroughputRatio = 0.95;
+
+        /**
+         * Corrected p99 above this fails a step for the service taking the sends
+         */
+        private Duration latencyLimit = Duration.ofMillis(AppConstants.TARGET_LATENCY_MS);
+
+        private double maxErrorRate = 0.001;
+    }
+
+    /**
+     * What the generated traffic looks like
+     */
+    @Data
+    public static class Mix {
+
+        /**
+         * Relative weight per event type
+         */
+        private Map<String, Integer> eventTypes = new LinkedHashMap<>();
+
+        /**
+         * Relative weight per approximate serialized payload size in bytes
+         */
+        private Map<Integer, Integer> payloadSizes = new LinkedHashMap<>();
+
+        /**
+         * Fraction of events sent with metadata priority=high
+         */
+        private double highPriorityRatio = 0.05;
+
+        /**
+         * Distinct payloads generated per size up front; events reuse them at random
+         */
+        private int payloadPool = 256;
+
+        private String source = "load-test";
+    }
+
+    /**
+     * Consumer lag probe, per service under test
+     */
+    @Data
+    public static class Probe {
+
+        /**
+         * Consumer groups per service; a service keeps up while their combined
+         * consumption matches what was published
+         */
+        private Map<String, List<String>> consumerGroups = new LinkedHashMap<>();
+    }
+
+    /**
+     * Where Kafka, MongoDB, LocalStack and the services come from
+     */
+    @Data
+    public static class Environment {
+
+        /**
+         * Start Kafka, MongoDB and LocalStack in Testcontainers; otherwise use the
+         * endpoints above (e.g. the docker-compose stack)
+         */
+        private boolean containers = false;
+
+        private String kafkaImage = "confluentinc/cp-kafka:7.5.0";
+
+        private String mongoImage = "mongo:7.0";
+
+        private String localstackImage = "localstack/localstack:3.0";
+
+        /**
+         * Launch these services from their boot jars against the containers
+         */
+        private Map<String, Service> services = new LinkedHashMap<>();
+
+        private Duration startupTimeout = Duration.ofMinutes(2);
+    }
+
+    @Data
+    public static class Service {
+
+        private boolean launch = true;
+
+        private Path jar;
+
+        private int port;
+
+        private List<String> jvmArgs = new ArrayList<>();
+    }
+
+    @Data
+    public static class Report {
+
+        private Path directory = Path.of("build/reports/load-test");
+
+        /**
+         * Names the report files; the Gradle task passes the commit
+         */
+        private String label = "local";
+    }
+}
@@ -0,0 +1,194 @@
+package com.eventprocessing.loadtest.environment;
+
+import com.eventprocessing.common.constants.AppConstants;
+import com.eventprocessing.loadtest.config.LoadTestProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.containers.localstack.LocalStackContainer;
+import org.testcontainers.utility.DockerImageName;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.model.CreateTopicRequest;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.CreateQueueRequest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The system under test. With containers on, Kafka, MongoDB and LocalStack run in
+ * Testcontainers and get the queues and topics scripts/setup-localstack.sh would create;
+ * otherwise the configured endpoints are used as they are. Services with a jar are
+ * then started as separate JVMs pointed at those endpoints, so they are measured the
+ * way they are deployed rather than inside the load generator's JVM.
+ */
+@Slf4j
+public class TestEnvironment implements AutoCloseable {
+
+    private final LoadTestProperties properties;
+    private final List<AutoCloseable> started = new ArrayList<>();
+    private final List<Process> processes = new ArrayList<>();
+    private final Map<String, String> serviceOverrides = new LinkedHashMap<>();
+
+    public TestEnvironment(LoadTestProperties properties) {
+        this.properties = properties;
+    }
+
+    public String describe() {
+        return properties.getEnvironment().isContainers() ? "containers" : "external";
+    }
+
+    /**
+     * Start whatever is configured and point the load test at it
+     */
+    public void start() throws IOException, InterruptedException {
+        LoadTestProperties.Environment environment = properties.getEnvironment();
+        if (environment.isContainers()) {
+            startContainers(environment);
+        }
+        serviceOverrides.put("spring.kafka.bootstrap-servers", properties.getBootstrapServers());
+
+        for (Map.Entry<String, LoadTestProperties.Service> service : environment.getServices().entrySet()) {
+            if (service.getValue().isLaunch()) {
+                launch(service.getKey(), service.getValue());
+            }
+        }
+    }
+
+    private void startContainers(LoadTestProperties.Environment environment) {
+        KafkaContainer kafka = new KafkaContainer(DockerImageName.parse(environment.getKafkaImage())
+                .asCompatibleSubstituteFor("confluentinc/cp-kafka"));
+        MongoDBContainer mongo = new MongoDBContainer(DockerImageName.parse(environment.getMongoImage())
+                .asCompatibleSubstituteFor("mongo"));
+        LocalStackContainer localstack = new LocalStackContainer(DockerImageName.parse(environment.getLocalstackImage())
+                .asCompatibleSubstituteFor("localstack/localstack"))
+                .withServices(LocalStackContainer.Service.SQS, LocalStackContainer.Service.SNS,
+                        LocalStackContainer.Service.CLOUDWATCH);
+
+        log.info("Starting Kafka, MongoDB and LocalStack containers");
+        for (GenericContainer<?> container : List.<GenericContainer<?>>of(kafka, mongo, localstack)) {
+            container.start();
+            started.add(container);
+        }
+
+        properties.setBootstrapServers(kafka.getBootstrapServers());
+        serviceOverrides.put("spring.data.mongodb.uri", mongo.getReplicaSetUrl("event_processing"));
+        createAwsResources(localstack);
+    }
+
+    /**
+     * Queues and topics the services expect, with their URLs handed to the services
+     */
+    private void createAwsResources(LocalStackContainer localstack) {
+        String endpoint = localstack.getEndpoint().toString();
+        StaticCredentialsProvider credentials = StaticCredentialsProvider.create(
+                AwsBasicCredentials.create(localstack.getAccessKey(), localstack.getSecretKey()));
+        Region region = Region.of(localstack.getRegion());
+
+        try (SqsClient sqs = SqsClient.builder().endpointOverride(URI.create(endpoint)).region(region)
+                .credentialsProvider(credentials).build();
+             SnsClient sns = SnsClient.builder().endpointOverride(URI.create(endpoint)).region(region)
+                     .credentialsProvider(credentials).build()) {
+            serviceOverrides.put("aws.sqs.queue-url", createQueue(sqs, AppConstants.SQS_QUEUE_EVENTS));
+            serviceOverrides.put("aws.sqs.high-priority-queue-url", createQueue(sqs, AppConstants.SQS_QUEUE_HIGH_PRIORITY));
+            serviceOverrides.put("aws.sqs.dlq-url", createQueue(sqs, AppConstants.SQS_QUEUE_DLQ));
+            serviceOverrides.put("aws.sns.topic-arn", sns.createTopic(CreateTopicRequest.builder()
+                    .name(AppConstants.SNS_TOPIC_NOTIFICATIONS).build()).topicArn());
+            sns.createTopic(CreateTopicRequest.builder().name(AppConstants.SNS_TOPIC_ALERTS).build());
+        }
+        serviceOverrides.put("aws.endpoint", endpoint);
+        serviceOverrides.put("aws.region", localstack.getRegion());
+        serviceOverrides.put("aws.accessKey", localstack.getAccessKey());
+        serviceOverrides.put("aws.secretKey", localstack.getSecretKey());
+    }
+
+    private static String createQueue(SqsClient sqs, String name) {
+        return sqs.createQueue(CreateQueueRequest.builder().queueName(name).build()).queueUrl();
+    }
+
+    private void launch(String name, LoadTestProperties.Service service) throws IOException, InterruptedException {
+        if (service.getJar() == null || !Files.isRegularFile(service.getJar())) {
+            throw new IllegalStateException("No jar for " + name + " at " + service.getJar() + "; run ./gradlew bootJar first");
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(service.getJvmArgs());
+        command.add("-jar");
+        command.add(service.getJar().toString());
+        command.add("--server.port=" + service.getPort());
+        serviceOverrides.forEach((key, value) -> command.add("--" + key + "=" + value));
+
+        Path logFile = properties.getReport().getDirectory().resolve(name + ".log");
+        Files.createDirectories(logFile.getParent());
+        log.info("Starting {} on port {}, output in {}", name, service.getPort(), logFile);
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        processes.add(process);
+
+        awaitHealthy(name, process, "http://localhost:" + service.getPort() + "/actuator/health");
+        if ("event-producer".equals(name)) {
+            properties.setProducerUrl("http://localhost:" + service.getPort());
+        }
+    }
+
+    private void awaitHealthy(String name, Process process, String healthUrl) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(healthUrl)).timeout(Duration.ofSeconds(2)).GET().build();
+        long deadline = System.nanoTime() + properties.getEnvironment().getStartupTimeout().toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited with code " + process.exitValue() + " during startup");
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    log.info("{} is up", name);
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            TimeUnit.SECONDS.sleep(1);
+        }
+        throw new IllegalStateException(name + " not healthy within " + properties.getEnvironment().getStartupTimeout());
+    }
+
+    @Override
+    public void close() {
+        for (Process process : processes) {
+            process.destroy();
+            try {
+                if (!process.waitFor(15, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                process.destroyForcibly();
+            }
+        }
+        for (int i = started.size() - 1; i >= 0; i--) {
+            try {
+                started.get(i).close();
+            } catch (Exception e) {
+                log.warn("Could not stop {}", started.get(i), e);
+            }
+        }
+    }
+}
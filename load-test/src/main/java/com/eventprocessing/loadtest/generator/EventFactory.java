@@ -0,0 +1,115 @@
+package com.eventprocessing.loadtest.generator;
+
+import com.eventprocessing.common.model.Event;
+import com.eventprocessing.common.model.EventType;
+import com.eventprocessing.loadtest.config.LoadTestProperties;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Builds events to the configured mix of types, payload sizes and priorities.
+ * Payloads are generated once up front so the generator spends its time sending.
+ */
+public class EventFactory {
+
+    private static final Map<String, String> HIGH_PRIORITY = Map.of("priority", "high");
+
+    private final String[] types;
+    private final int[] typeWeights;
+    private final List<List<Map<String, Object>>> payloadsBySize = new ArrayList<>();
+    private final int[] sizeWeights;
+    private final double highPriorityRatio;
+    private final String source;
+
+    public EventFactory(LoadTestProperties.Mix mix) {
+        Map<String, Integer> eventTypes = mix.getEventTypes().isEmpty() ? defaultTypes() : mix.getEventTypes();
+        this.types = eventTypes.keySet().toArray(new String[0]);
+        this.typeWeights = cumulative(eventTypes.values());
+
+        Map<Integer, Integer> sizes = mix.getPayloadSizes().isEmpty() ? Map.of(512, 1) : mix.getPayloadSizes();
+        for (int size : sizes.keySet()) {
+            List<Map<String, Object>> pool = new ArrayList<>(mix.getPayloadPool());
+            for (int i = 0; i < mix.getPayloadPool(); i++) {
+                pool.add(payload(size));
+            }
+            payloadsBySize.add(pool);
+        }
+        this.sizeWeights = cumulative(sizes.values());
+        this.highPriorityRatio = mix.getHighPriorityRatio();
+        this.source = mix.getSource();
+    }
+
+    /**
+     * A new event stamped with its intended send time, so the pipeline's own
+     * end-to-end latency also counts the time a late send spent waiting
+     */
+    public Event next(long intendedEpochMillis) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Map<String, Object>> pool = payloadsBySize.get(pick(sizeWeights, random));
+        return Event.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType(types[pick(typeWeights, random)])
+                .timestamp(Instant.ofEpochMilli(intendedEpochMillis))
+                .payload(pool.get(random.nextInt(pool.size())))
+                .source(source)
+                .metadata(random.nextDouble() < highPriorityRatio ? HIGH_PRIORITY : null)
+                .build();
+    }
+
+    /**
+     * Roughly the requested number of JSON bytes across a handful of typed fields
+     */
+    private static Map<String, Object> payload(int bytes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("userId", "user-" + random.nextInt(1_000_000));
+        payload.put("amount", random.nextInt(100_000) / 100.0);
+        payload.put("currency", "USD");
+        payload.put("quantity", random.nextInt(1, 20));
+        int filler = Math.max(0, bytes - 96);
+        StringBuilder notes = new StringBuilder(filler);
+        for (int i = 0; i < filler; i++) {
+            notes.append((char) ('a' + random.nextInt(26)));
+        }
+        payload.put("notes", notes.toString());
+        return payload;
+    }
+
+    private static Map<String, Integer> defaultTypes() {
+        Map<String, Integer> types = new LinkedHashMap<>();
+        types.put(EventType.USER_CREATED, 2);
+        types.put(EventType.ORDER_PLACED, 4);
+        types.put(EventType.PAYMENT_COMPLETED, 3);
+        types.put(EventType.GENERIC_EVENT, 1);
+        return types;
+    }
+
+    private static int[] cumulative(Iterable<Integer> weights) {
+        List<Integer> sums = new ArrayList<>();
+        int total = 0;
+        for (int weight : weights) {
+            total += Math.max(0, weight);
+            sums.add(total);
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("At least one weight must be positive");
+        }
+        return sums.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int pick(int[] cumulative, ThreadLocalRandom random) {
+        int value = random.nextInt(cumulative[cumulative.length - 1]);
+        for (int i = 0; i < cumulative.length; i++) {
+            if (value < cumulative[i]) {
+                return i;
+            }
+        }
+        return cumulative.length - 1;
+    }
+}
@@ -0,0 +1,19 @@
+package com.eventprocessing.loadtest.generator;
+
+import com.eventprocessing.common.model.Event;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One way of putting an event into the pipeline. send must not wait for the
+ * outcome; the future completes when the event was accepted or failed.
+ */
+public interface EventSender extends AutoCloseable {
+
+    String name();
+
+    CompletableFuture<Void> send(Event event);
+
+    @Override
+    void close();
+}
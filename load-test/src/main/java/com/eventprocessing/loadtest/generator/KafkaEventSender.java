@@ -0,0 +1,73 @@
+package com.eventprocessing.loadtest.generator;
+
+import com.eventprocessing.common.constants.AppConstants;
+import com.eventprocessing.common.latency.StageHeaders;
+import com.eventprocessing.common.model.Event;
+import com.eventprocessing.common.model.EventTypeRegistry;
+import com.eventprocessing.common.util.JsonUtil;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Publishes the way EventPublisherService does, with the same topics, key and
+ * publish-time header, and the producer settings of event-producer
+ */
+public class KafkaEventSender implements EventSender {
+
+    private final KafkaProducer<String, String> producer;
+
+    public KafkaEventSender(String bootstrapServers) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, 10);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, 16384);
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "snappy");
+        config.put(ProducerConfig.CLIENT_ID_CONFIG, "load-test");
+        this.producer = new KafkaProducer<>(config);
+    }
+
+    @Override
+    public String name() {
+        return "kafka";
+    }
+
+    @Override
+    public CompletableFuture<Void> send(Event event) {
+        String topic = event.getMetadata() != null && "high".equalsIgnoreCase(event.getMetadata().get("priority"))
+                ? AppConstants.KAFKA_TOPIC_HIGH_PRIORITY
+                : AppConstants.KAFKA_TOPIC_EVENTS;
+        ProducerRecord<String, String> record = new ProducerRecord<>(topic, event.getEventId(), JsonUtil.toJson(event));
+        StageHeaders.stamp(record.headers(), StageHeaders.PUBLISHED_AT, System.currentTimeMillis());
+        EventTypeRegistry.stamp(record.headers(), event.getEventTypeId());
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
+            producer.send(record, (metadata, exception) -> {
+                if (exception != null) {
+                    future.completeExceptionally(exception);
+                } else {
+                    future.complete(null);
+                }
+            });
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    @Override
+    public void close() {
+        producer.close(Duration.ofSeconds(10));
+    }
+}
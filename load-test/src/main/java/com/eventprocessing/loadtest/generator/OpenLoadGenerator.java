@@ -0,0 +1,157 @@
+package com.eventprocessing.loadtest.generator;
+
+import com.eventprocessing.common.latency.LatencyHistogram;
+import com.eventprocessing.loadtest.report.LatencySummary;
+import com.eventprocessing.loadtest.report.StageResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: send i of a stage is due at start + i / rate whether or not earlier
+ * sends have completed. A generator that falls behind (sender blocking, the outstanding
+ * limit reached) sends late but never skips, and latency is measured from the intended
+ * time, so a stall is charged to every send it delayed rather than to the one that hit
+ * it. This is the coordinated-omission correction; the uncorrected latency from the
+ * actual send time is kept next to it for comparison.
+ */
+@Slf4j
+public class OpenLoadGenerator {
+
+    private final EventSender sender;
+    private final EventFactory eventFactory;
+    private final int threads;
+    private final int maxOutstanding;
+    private final Duration drainTimeout;
+
+    public OpenLoadGenerator(EventSender sender, EventFactory eventFactory, int threads, int maxOutstanding,
+                             Duration drainTimeout) {
+        this.sender = sender;
+        this.eventFactory = eventFactory;
+        this.threads = Math.max(1, threads);
+        this.maxOutstanding = maxOutstanding;
+        this.drainTimeout = drainTimeout;
+    }
+
+    public StageResult run(String name, int rate, Duration duration) throws InterruptedException {
+        Stage stage = new Stage(rate, duration.toNanos());
+        log.info("Stage {}: {} events/s for {}s to {}", name, rate, duration.toSeconds(), sender.name());
+
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            Thread worker = new Thread(() -> stage.generate(offset), "load-generator-" + t);
+            worker.setDaemon(true);
+            workers.add(worker);
+        }
+        workers.forEach(Thread::start);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // In-flight sends hold permits; all permits back means all sends finished
+        boolean drained = stage.outstanding.tryAcquire(maxOutstanding, drainTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        long timedOut = drained ? 0 : stage.sent.get() - stage.completed.get() - stage.errors.get();
+        if (drained) {
+            stage.outstanding.release(maxOutstanding);
+        } else {
+            log.warn("Stage {}: {} sends still in flight after {}s", name, timedOut, drainTimeout.toSeconds());
+        }
+
+        long endNanos = Math.max(stage.lastCompletionNanos.get(), stage.startNanos + stage.durationNanos);
+        double elapsedSeconds = (endNanos - stage.startNanos) / 1e9;
+        StageResult result = StageResult.builder()
+                .name(name)
+                .sender(sender.name())
+                .offeredRate(rate)
+                .durationSeconds(duration.toMillis() / 1000.0)
+                .sent(stage.sent.get())
+                .completed(stage.completed.get())
+                .errors(stage.errors.get())
+                .timedOut(timedOut)
+                .achievedRate(stage.completed.get() / elapsedSeconds)
+                .maxScheduleLagMs(stage.maxScheduleLagNanos.get() / 1e6)
+                .correctedLatency(LatencySummary.of(stage.corrected.snapshot()))
+                .uncorrectedLatency(LatencySummary.of(stage.uncorrected.snapshot()))
+                .build();
+        log.info("Stage {}: achieved {}/s, corrected p99 {} ms, uncorrected p99 {} ms, {} errors, {} timed out",
+                name, Math.round(result.getAchievedRate()), result.getCorrectedLatency().getP99Ms(),
+                result.getUncorrectedLatency().getP99Ms(), result.getErrors(), timedOut);
+        return result;
+    }
+
+    /**
+     * Shared state of one running stage
+     */
+    private class Stage {
+
+        final long intervalNanos;
+        final long durationNanos;
+        final long startNanos;
+        final long startEpochMillis;
+        final Semaphore outstanding = new Semaphore(maxOutstanding);
+        final LatencyHistogram corrected = new LatencyHistogram();
+        final LatencyHistogram uncorrected = new LatencyHistogram();
+        final AtomicLong sent = new AtomicLong();
+        final AtomicLong completed = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong lastCompletionNanos = new AtomicLong();
+        final AtomicLong maxScheduleLagNanos = new AtomicLong();
+
+        Stage(int rate, long durationNanos) {
+            this.intervalNanos = Math.max(1, 1_000_000_000L / Math.max(1, rate));
+            this.durationNanos = durationNanos;
+            // A short lead so every worker starts on schedule
+            this.startNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+            this.startEpochMillis = System.currentTimeMillis() + 50;
+        }
+
+        /**
+         * Worker t sends the events due at t, t + threads, t + 2 * threads, ...
+         */
+        void generate(int t) {
+            long stride = intervalNanos * threads;
+            long endNanos = startNanos + durationNanos;
+            long maxLag = 0;
+            for (long intended = startNanos + t * intervalNanos; intended < endNanos; intended += stride) {
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                outstanding.acquireUninterruptibly();
+
+                long sentAt = System.nanoTime();
+                maxLag = Math.max(maxLag, sentAt - intended);
+                long dueAt = intended;
+                sent.incrementAndGet();
+                try {
+                    sender.send(eventFactory.next(startEpochMillis + (intended - startNanos) / 1_000_000))
+                            .whenComplete((ignored, e) -> completed(dueAt, sentAt, e));
+                } catch (Exception e) {
+                    completed(dueAt, sentAt, e);
+                }
+            }
+            long lag = maxLag;
+            maxScheduleLagNanos.accumulateAndGet(lag, Math::max);
+        }
+
+        void completed(long intendedNanos, long sentNanos, Throwable error) {
+            long now = System.nanoTime();
+            if (error != null) {
+                errors.incrementAndGet();
+            } else {
+                corrected.record((now - intendedNanos) / 1000);
+                uncorrected.record((now - sentNanos) / 1000);
+                completed.incrementAndGet();
+            }
+            lastCompletionNanos.accumulateAndGet(now, Math::max);
+            outstanding.release();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.eventprocessing.loadtest.generator;
+
+import com.eventprocessing.common.model.Event;
+import com.eventprocessing.common.util.JsonUtil;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * POST /api/events on event-producer; a 202 counts as accepted
+ */
+public class RestEventSender implements EventSender {
+
+    private final URI uri;
+    private final ExecutorService executor;
+    private final HttpClient client;
+
+    public RestEventSender(String producerUrl) {
+        this.uri = URI.create(producerUrl + "/api/events");
+        this.executor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), r -> {
+            Thread thread = new Thread(r, "rest-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+    }
+
+    @Override
+    public String name() {
+        return "event-producer";
+    }
+
+    @Override
+    public CompletableFuture<Void> send(Event event) {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(JsonUtil.toJson(event)))
+                .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenAccept(response -> {
+                    if (response.statusCode() != 202) {
+                        throw new IllegalStateException("HTTP " + response.statusCode());
+                    }
+                });
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
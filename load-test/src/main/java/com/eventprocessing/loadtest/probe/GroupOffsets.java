@@ -0,0 +1,44 @@
+package com.eventprocessing.loadtest.probe;
+
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.Map;
+
+/**
+ * Committed and log-end offsets of one service's consumer groups at one instant
+ */
+public record GroupOffsets(long takenAtNanos, Map<TopicPartition, Long> committed, Map<TopicPartition, Long> logEnd) {
+
+    public long lag() {
+        long lag = 0;
+        for (Map.Entry<TopicPartition, Long> entry : committed.entrySet()) {
+            lag += Math.max(0, logEnd.getOrDefault(entry.getKey(), entry.getValue()) - entry.getValue());
+        }
+        return lag;
+    }
+
+    /**
+     * Records consumed since an earlier snapshot, over partitions present in both
+     */
+    public long consumedSince(GroupOffsets earlier) {
+        return sumSince(committed, earlier.committed);
+    }
+
+    /**
+     * Records appended since an earlier snapshot to the partitions this service consumes
+     */
+    public long producedSince(GroupOffsets earlier) {
+        return sumSince(logEnd, earlier.logEnd);
+    }
+
+    private static long sumSince(Map<TopicPartition, Long> current, Map<TopicPartition, Long> earlier) {
+        long total = 0;
+        for (Map.Entry<TopicPartition, Long> entry : current.entrySet()) {
+            Long before = earlier.get(entry.getKey());
+            if (before != null) {
+                total += Math.max(0, entry.getValue() - before);
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,89 @@
+package com.eventprocessing.loadtest.probe;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the committed offsets of each service's consumer groups next to the log-end
+ * offsets of the same partitions. Between two snapshots this gives how much a service
+ * consumed against how much was published to it, independent of how the traffic
+ * split across topics.
+ */
+@Slf4j
+public class PipelineProbe implements AutoCloseable {
+
+    private final AdminClient adminClient;
+    private final Map<String, List<String>> consumerGroups;
+
+    public PipelineProbe(String bootstrapServers, Map<String, List<String>> consumerGroups) {
+        // Nothing to probe, so no connection to hold open
+        this.adminClient = consumerGroups.isEmpty() ? null : AdminClient.create(Map.of(
+                AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                AdminClientConfig.CLIENT_ID_CONFIG, "load-test-probe"));
+        this.consumerGroups = consumerGroups;
+    }
+
+    public Map<String, GroupOffsets> snapshot() {
+        Map<String, GroupOffsets> snapshot = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> service : consumerGroups.entrySet()) {
+            try {
+                snapshot.put(service.getKey(), offsets(service.getValue()));
+            } catch (Exception e) {
+                log.warn("Could not read offsets of {} groups {}", service.getKey(), service.getValue(), e);
+            }
+        }
+        return snapshot;
+    }
+
+    private GroupOffsets offsets(List<String> groups) throws Exception {
+        long takenAt = System.nanoTime();
+        // Partitions are keyed per group so two groups on one topic count separately
+        Map<TopicPartition, Long> committed = new HashMap<>();
+        Map<TopicPartition, Long> logEnd = new HashMap<>();
+        for (int i = 0; i < groups.size(); i++) {
+            Map<TopicPartition, OffsetAndMetadata> groupOffsets = adminClient.listConsumerGroupOffsets(groups.get(i))
+                    .partitionsToOffsetAndMetadata()
+                    .get(10, TimeUnit.SECONDS);
+            if (groupOffsets.isEmpty()) {
+                continue;
+            }
+
+            Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+            groupOffsets.keySet().forEach(partition -> latest.put(partition, OffsetSpec.latest()));
+            Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> endOffsets = adminClient.listOffsets(latest)
+                    .all()
+                    .get(10, TimeUnit.SECONDS);
+
+            for (Map.Entry<TopicPartition, OffsetAndMetadata> entry : groupOffsets.entrySet()) {
+                if (entry.getValue() == null) {
+                    continue;
+                }
+                TopicPartition key = new TopicPartition(i + ":" + entry.getKey().topic(), entry.getKey().partition());
+                committed.put(key, entry.getValue().offset());
+                ListOffsetsResult.ListOffsetsResultInfo end = endOffsets.get(entry.getKey());
+                if (end != null) {
+                    logEnd.put(key, end.offset());
+                }
+            }
+        }
+        return new GroupOffsets(takenAt, committed, logEnd);
+    }
+
+    @Override
+    public void close() {
+        if (adminClient != null) {
+            adminClient.close();
+        }
+    }
+}
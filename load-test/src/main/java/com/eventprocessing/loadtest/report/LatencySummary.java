@@ -0,0 +1,39 @@
+package com.eventprocessing.loadtest.report;
+
+import com.eventprocessing.common.latency.LatencyHistogram;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Percentiles of one latency histogram in milliseconds
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LatencySummary {
+
+    private long count;
+    private double p50Ms;
+    private double p90Ms;
+    private double p99Ms;
+    private double p999Ms;
+    private double maxMs;
+
+    public static LatencySummary of(long[] counts) {
+        return LatencySummary.builder()
+                .count(LatencyHistogram.totalCount(counts))
+                .p50Ms(millis(counts, 50))
+                .p90Ms(millis(counts, 90))
+                .p99Ms(millis(counts, 99))
+                .p999Ms(millis(counts, 99.9))
+                .maxMs(millis(counts, 100))
+                .build();
+    }
+
+    private static double millis(long[] counts, double percentile) {
+        return LatencyHistogram.valueAtPercentile(counts, percentile) / 1000.0;
+    }
+}
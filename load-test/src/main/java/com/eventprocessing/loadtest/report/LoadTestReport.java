@@ -0,0 +1,55 @@
+package com.eventprocessing.loadtest.report;
+
+import com.eventprocessing.loadtest.config.LoadTestProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything one load test run measured, written as JSON and Markdown
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoadTestReport {
+
+    private String label;
+
+    private Instant startedAt;
+
+    private LoadTestProperties.Target target;
+
+    /**
+     * containers or external
+     */
+    private String environment;
+
+    private LoadTestProperties.Mix mix;
+
+    private int targetThroughputPerSecond;
+
+    private long targetLatencyMs;
+
+    @Builder.Default
+    private List<StageResult> stages = new ArrayList<>();
+
+    @Builder.Default
+    private List<StageResult> saturationSteps = new ArrayList<>();
+
+    @Builder.Default
+    private List<SaturationPoint> saturationPoints = new ArrayList<>();
+
+    /**
+     * Highest achieved rate of a fixed-rate stage that met the latency target and
+     * was kept up with by every probed service
+     */
+    private double sustainedThroughput;
+
+    private boolean meetsTargets;
+}
@@ -0,0 +1,99 @@
+package com.eventprocessing.loadtest.report;
+
+import com.eventprocessing.common.util.JsonUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes a run as <label>.json for tooling and <label>.md for release notes
+ */
+@Slf4j
+public class ReportWriter {
+
+    private final Path directory;
+
+    public ReportWriter(Path directory) {
+        this.directory = directory;
+    }
+
+    public void write(LoadTestReport report) throws IOException {
+        Files.createDirectories(directory);
+        Path json = directory.resolve(report.getLabel() + ".json");
+        Path markdown = directory.resolve(report.getLabel() + ".md");
+        Files.writeString(json, JsonUtil.getObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(report));
+        Files.writeString(markdown, toMarkdown(report));
+        log.info("Load test report written to {} and {}", json, markdown);
+    }
+
+    static String toMarkdown(LoadTestReport report) {
+        StringBuilder md = new StringBuilder();
+        md.append("# Load test ").append(report.getLabel()).append("\n\n");
+        md.append("- Started: ").append(report.getStartedAt()).append('\n');
+        md.append("- Target: ").append(report.getTarget()).append(", environment: ").append(report.getEnvironment()).append('\n');
+        md.append("- Mix: ").append(report.getMix().getEventTypes()).append(", payload bytes ")
+                .append(report.getMix().getPayloadSizes()).append(", high priority ")
+                .append(format(report.getMix().getHighPriorityRatio() * 100)).append("%\n");
+        md.append(String.format(Locale.ROOT, "- Sustained throughput: **%s events/s** (target %,d/s, p99 under %d ms)%n",
+                format(report.getSustainedThroughput()), report.getTargetThroughputPerSecond(), report.getTargetLatencyMs()));
+        md.append("- Verdict: **").append(report.isMeetsTargets() ? "meets targets" : "misses targets").append("**\n\n");
+
+        if (!report.getStages().isEmpty()) {
+            md.append("## Fixed-rate stages\n\n");
+            appendStages(md, report.getStages());
+        }
+        if (!report.getSaturationSteps().isEmpty()) {
+            md.append("## Saturation search\n\n");
+            appendStages(md, report.getSaturationSteps());
+
+            md.append("| Service | Saturated | Sustained rate | Failed at | Reason |\n");
+            md.append("|---|---|---:|---:|---|\n");
+            for (SaturationPoint point : report.getSaturationPoints()) {
+                md.append("| ").append(point.getService())
+                        .append(" | ").append(point.isSaturated() ? "yes" : "no")
+                        .append(" | ").append(point.getSustainedRate())
+                        .append(" | ").append(point.isSaturated() ? String.valueOf(point.getFailedRate()) : "-")
+                        .append(" | ").append(point.getReason() != null ? point.getReason() : "")
+                        .append(" |\n");
+            }
+            md.append('\n');
+        }
+        md.append("Corrected latencies are measured from each send's intended time in the open-model schedule; "
+                + "uncorrected ones from when it was actually sent.\n");
+        return md.toString();
+    }
+
+    private static void appendStages(StringBuilder md, List<StageResult> stages) {
+        md.append("| Stage | Offered/s | Achieved/s | Errors | p50 ms | p99 ms | p99.9 ms | max ms | p99 uncorrected ms | Generator lag ms | Consumers |\n");
+        md.append("|---|---:|---:|---:|---:|---:|---:|---:|---:|---:|---|\n");
+        for (StageResult stage : stages) {
+            md.append("| ").append(stage.getName())
+                    .append(" | ").append(stage.getOfferedRate())
+                    .append(" | ").append(format(stage.getAchievedRate()))
+                    .append(" | ").append(stage.getErrors() + stage.getTimedOut())
+                    .append(" | ").append(format(stage.getCorrectedLatency().getP50Ms()))
+                    .append(" | ").append(format(stage.getCorrectedLatency().getP99Ms()))
+                    .append(" | ").append(format(stage.getCorrectedLatency().getP999Ms()))
+                    .append(" | ").append(format(stage.getCorrectedLatency().getMaxMs()))
+                    .append(" | ").append(format(stage.getUncorrectedLatency().getP99Ms()))
+                    .append(" | ").append(format(stage.getMaxScheduleLagMs()))
+                    .append(" | ");
+            for (ServiceResult service : stage.getServices()) {
+                md.append(service.getService()).append(' ')
+                        .append(format(service.getConsumedRate())).append("/s")
+                        .append(service.isKeptUp() ? "" : " (lag " + service.getLagAtEnd() + ")")
+                        .append("; ");
+            }
+            md.append("|\n");
+        }
+        md.append('\n');
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, value >= 100 ? "%,.0f" : "%.1f", value);
+    }
+}
@@ -0,0 +1,35 @@
+package com.eventprocessing.loadtest.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Where one service stopped keeping up during the saturation search
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaturationPoint {
+
+    private String service;
+
+    /**
+     * False when the service kept up through the highest step
+     */
+    private boolean saturated;
+
+    /**
+     * Highest offered rate the service kept up with, 0 when it failed the first step
+     */
+    private int sustainedRate;
+
+    /**
+     * The first offered rate it failed, 0 when not saturated
+     */
+    private int failedRate;
+
+    private String reason;
+}
@@ -0,0 +1,34 @@
+package com.eventprocessing.loadtest.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How one consuming service kept up during a stage, from its consumer group offsets
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServiceResult {
+
+    private String service;
+
+    /**
+     * Records per second appended to the partitions the service consumes
+     */
+    private double producedRate;
+
+    /**
+     * Records per second the service committed
+     */
+    private double consumedRate;
+
+    private long lagAtStart;
+
+    private long lagAtEnd;
+
+    private boolean keptUp;
+}
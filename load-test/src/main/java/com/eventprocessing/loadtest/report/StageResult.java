@@ -0,0 +1,69 @@
+package com.eventprocessing.loadtest.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One fixed-rate stage: what was offered, what was accepted and how long it took
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StageResult {
+
+    private String name;
+
+    /**
+     * The service taking the sends: event-producer or kafka
+     */
+    private String sender;
+
+    private int offeredRate;
+
+    private double durationSeconds;
+
+    private long sent;
+
+    private long completed;
+
+    private long errors;
+
+    /**
+     * Still in flight when the drain timeout ran out
+     */
+    private long timedOut;
+
+    /**
+     * Completed sends per second from the stage start to the last completion
+     */
+    private double achievedRate;
+
+    /**
+     * Furthest the generator fell behind its schedule; large values mean the load
+     * generator itself, not the system under test, limited the offered rate
+     */
+    private double maxScheduleLagMs;
+
+    /**
+     * From each send's intended time, so stalls count against every send they delayed
+     */
+    private LatencySummary correctedLatency;
+
+    /**
+     * From each send's actual time; what a closed-loop client would have reported
+     */
+    private LatencySummary uncorrectedLatency;
+
+    @Builder.Default
+    private List<ServiceResult> services = new ArrayList<>();
+
+    public double errorRate() {
+        return sent == 0 ? 0 : (double) (errors + timedOut) / sent;
+    }
+}
@@ -0,0 +1,234 @@
+package com.eventprocessing.monitoring.alert;
+
+import com.eventprocessing.monitoring.anomaly.AnomalyDetector;
+import com.eventprocessing.monitoring.metrics.StreamingMetricsEngine;
+import com.eventprocessing.monitoring.model.Alert;
+import com.eventprocessing.monitoring.model.MetricsSnapshot;
+import com.eventprocessing.monitoring.service.AlertService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Evaluates the configured alert rules against the in-memory sliding windows.
+ *
+ * An instance goes PENDING when its rule is breached, FIRING once the breach has
+ * held for forDuration and RESOLVED once the value is back past the clear threshold.
+ * Only transitions (and optional reminders) produce notifications; a FIRING
+ * notification is suppressed within the rule's cooldown of the previous one.
+ * Notifications are collected per group and sent as one SNS message per group
+ * every groupWait, so SNS traffic stays flat however long an incident lasts.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AlertEngine {
+
+    private final StreamingMetricsEngine metricsEngine;
+    private final AnomalyDetector anomalyDetector;
+    private final AlertService alertService;
+    private final AlertProperties properties;
+
+    private final Map<String, Alert> alerts = new ConcurrentHashMap<>();
+    private final Map<String, List<String>> pendingNotifications = new LinkedHashMap<>();
+    private final Map<String, Instant> groupOpenedAt = new HashMap<>();
+
+    /**
+     * Current alert instances, firing first
+     */
+    public List<Alert> getAlerts() {
+        return alerts.values().stream()
+                .sorted(Comparator.comparing((Alert alert) -> alert.getState() != AlertState.FIRING)
+                        .thenComparing(Alert::getState)
+                        .thenComparing(Alert::getRule))
+                .toList();
+    }
+
+    public List<AlertRule> getRules() {
+        return properties.getRules();
+    }
+
+    @Scheduled(fixedDelayString = "${app.monitoring.alerts.evaluation-interval:10000}")
+    public synchronized void evaluate() {
+        Instant now = Instant.now();
+        // Rules sharing a window share one snapshot
+        Map<Duration, MetricsSnapshot> snapshots = new HashMap<>();
+        Set<String> evaluated = new HashSet<>();
+
+        for (AlertRule rule : properties.getRules()) {
+            if (rule.getMetric() == AlertMetric.ANOMALY_SCORE) {
+                anomalyDetector.getScores(false).forEach(score -> evaluated.add(evaluate(rule, score.getSeries(),
+                        score.getMagnitude(), score.getObservations(), now)));
+                continue;
+            }
+            MetricsSnapshot snapshot = snapshots.computeIfAbsent(rule.getWindow(), metricsEngine::snapshot);
+            if (rule.isPerEventType()) {
+                snapshot.getByType().forEach((eventType, type) -> evaluated.add(evaluate(rule, eventType,
+                        rule.getMetric().forType(snapshot, type), type.getReceived(), now)));
+            } else {
+                evaluated.add(evaluate(rule, null, rule.getMetric().overall(snapshot), snapshot.getReceived(), now));
+            }
+        }
+
+        // Instances whose event type or series has gone quiet, or whose rule was removed, count as cleared
+        for (Alert alert : List.copyOf(alerts.values())) {
+            if (!evaluated.contains(idOf(alert.getRule(), alert.getEventType()))) {
+                clear(alert, ruleNamed(alert.getRule()), now);
+            }
+        }
+
+        sendDueGroups(now);
+    }
+
+    /**
+     * Advance the state machine of one instance
+     *
+     * @return the instance id
+     */
+    private String evaluate(AlertRule rule, String eventType, double value, long samples, Instant now) {
+        String id = idOf(rule.getName(), eventType);
+        boolean evaluable = samples >= rule.getMinSamples();
+        boolean breached = evaluable && rule.isBreached(value);
+
+        Alert alert = alerts.get(id);
+        if (alert == null) {
+            if (!breached) {
+                return id;
+            }
+            alert = Alert.builder()
+                    .rule(rule.getName())
+                    .eventType(eventType)
+                    .severity(rule.getSeverity())
+                    .group(rule.getGroup())
+                    .threshold(rule.getThreshold())
+                    .state(AlertState.PENDING)
+                    .startsAt(now)
+                    .build();
+            alerts.put(id, alert);
+        }
+        alert.setValue(value);
+
+        switch (alert.getState()) {
+            case PENDING -> {
+                if (!breached) {
+                    alerts.remove(id);
+                } else if (!now.isBefore(alert.getStartsAt().plus(rule.getForDuration()))) {
+                    fire(alert, rule, now);
+                }
+            }
+            case FIRING -> {
+                if (!evaluable || rule.isCleared(value)) {
+                    clear(alert, rule, now);
+                } else if (alert.isFiringNotified() && !rule.getRepeatInterval().isZero()
+                        && !now.isBefore(alert.getLastNotifiedAt().plus(rule.getRepeatInterval()))) {
+                    notify(alert, "STILL FIRING", now);
+                }
+            }
+            case RESOLVED -> {
+                if (breached) {
+                    alert.setState(AlertState.PENDING);
+                    alert.setStartsAt(now);
+                    alert.setResolvedAt(null);
+                    if (rule.getForDuration().isZero()) {
+                        fire(alert, rule, now);
+                    }
+                } else if (alert.getLastNotifiedAt() == null
+                        || !now.isBefore(alert.getLastNotifiedAt().plus(rule.getCooldown()))) {
+                    // Kept only to enforce the cooldown against a quick re-fire
+                    alerts.remove(id);
+                }
+            }
+        }
+        return id;
+    }
+
+    private void fire(Alert alert, AlertRule rule, Instant now) {
+        alert.setState(AlertState.FIRING);
+        alert.setFiredAt(now);
+        boolean coolingDown = alert.getLastNotifiedAt() != null
+                && now.isBefore(alert.getLastNotifiedAt().plus(rule.getCooldown()));
+        alert.setFiringNotified(!coolingDown);
+        if (coolingDown) {
+            log.info("Alert {} firing again within its cooldown; notification suppressed", describe(alert));
+        } else {
+            notify(alert, "FIRING", now);
+        }
+    }
+
+    private void clear(Alert alert, AlertRule rule, Instant now) {
+        String id = idOf(alert.getRule(), alert.getEventType());
+        if (alert.getState() == AlertState.PENDING || rule == null) {
+            alerts.remove(id);
+            return;
+        }
+        if (alert.getState() == AlertState.FIRING) {
+            alert.setState(AlertState.RESOLVED);
+            alert.setResolvedAt(now);
+            if (alert.isFiringNotified()) {
+                notify(alert, "RESOLVED", now);
+                alert.setFiringNotified(false);
+            }
+        } else if (alert.getLastNotifiedAt() == null || !now.isBefore(alert.getLastNotifiedAt().plus(rule.getCooldown()))) {
+            alerts.remove(id);
+        }
+    }
+
+    private void notify(Alert alert, String kind, Instant now) {
+        alert.setLastNotifiedAt(now);
+        pendingNotifications.computeIfAbsent(alert.getGroup(), group -> new ArrayList<>())
+                .add(String.format("%s %s [%s] value=%.2f threshold=%.2f since=%s",
+                        kind, describe(alert), alert.getSeverity(), alert.getValue(), alert.getThreshold(), alert.getStartsAt()));
+        groupOpenedAt.putIfAbsent(alert.getGroup(), now);
+        log.info("Alert {} is {}", describe(alert), kind);
+    }
+
+    /**
+     * Send one message per group whose groupWait has elapsed since its first queued change
+     */
+    private void sendDueGroups(Instant now) {
+        Iterator<Map.Entry<String, List<String>>> groups = pendingNotifications.entrySet().iterator();
+        while (groups.hasNext()) {
+            Map.Entry<String, List<String>> group = groups.next();
+            if (now.isBefore(groupOpenedAt.get(group.getKey()).plus(properties.getGroupWait()))) {
+                continue;
+            }
+
+            List<String> lines = group.getValue();
+            long firing = lines.stream().filter(line -> !line.startsWith("RESOLVED")).count();
+            String subject = String.format("[FIRING:%d, RESOLVED:%d] %s", firing, lines.size() - firing, group.getKey());
+            alertService.sendAlert(subject, String.join("\n", lines));
+
+            groups.remove();
+            groupOpenedAt.remove(group.getKey());
+        }
+    }
+
+    private AlertRule ruleNamed(String name) {
+        return properties.getRules().stream()
+                .filter(rule -> rule.getName().equals(name))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static String idOf(String rule, String eventType) {
+        return eventType != null ? rule + "|" + eventType : rule;
+    }
+
+    private static String describe(Alert alert) {
+        return alert.getEventType() != null ? alert.getRule() + " (" + alert.getEventType() + ")" : alert.getRule();
+    }
+}
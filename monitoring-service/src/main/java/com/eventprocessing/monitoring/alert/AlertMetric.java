@@ -0,0 +1,83 @@
+package com.eventprocessing.monitoring.alert;
+
+import com.eventprocessing.monitoring.model.MetricsSnapshot;
+
+/**
+ * Values an alert rule can be evaluated against, read from a metrics snapshot
+ * either for the whole pipeline or for one event type
+ */
+public enum AlertMetric {
+
+    /** Dead-lettered / received over the window, in percent */
+    ERROR_RATE {
+        @Override
+        double overall(MetricsSnapshot snapshot) {
+            return snapshot.getErrorRatio() * 100;
+        }
+
+        @Override
+        double forType(MetricsSnapshot snapshot, MetricsSnapshot.TypeMetrics type) {
+            return type.getErrorRatio() * 100;
+        }
+    },
+
+    /** Events received per second over the window */
+    RECEIVED_RATE {
+        @Override
+        double overall(MetricsSnapshot snapshot) {
+            return snapshot.getReceivedPerSecond();
+        }
+
+        @Override
+        double forType(MetricsSnapshot snapshot, MetricsSnapshot.TypeMetrics type) {
+            return type.getReceivedPerSecond();
+        }
+    },
+
+    /** Events dead-lettered per second over the window */
+    FAILED_RATE {
+        @Override
+        double overall(MetricsSnapshot snapshot) {
+            return snapshot.getFailedPerSecond();
+        }
+
+        @Override
+        double forType(MetricsSnapshot snapshot, MetricsSnapshot.TypeMetrics type) {
+            return (double) type.getFailed() / snapshot.getWindowSeconds();
+        }
+    },
+
+    /**
+     * Absolute anomaly score of each series of the anomaly detector for its last
+     * closed window. Evaluated per series rather than from a snapshot; min-samples
+     * counts the windows the series' baseline has learned from.
+     */
+    ANOMALY_SCORE {
+        @Override
+        double overall(MetricsSnapshot snapshot) {
+            return 0;
+        }
+
+        @Override
+        double forType(MetricsSnapshot snapshot, MetricsSnapshot.TypeMetrics type) {
+            return 0;
+        }
+    },
+
+    /** Published events not yet acknowledged by processing; pipeline-wide only */
+    IN_FLIGHT {
+        @Override
+        double overall(MetricsSnapshot snapshot) {
+            return snapshot.getInFlight();
+        }
+
+        @Override
+        double forType(MetricsSnapshot snapshot, MetricsSnapshot.TypeMetrics type) {
+            return snapshot.getInFlight();
+        }
+    };
+
+    abstract double overall(MetricsSnapshot snapshot);
+
+    abstract double forType(MetricsSnapshot snapshot, MetricsSnapshot.TypeMetrics type);
+}
@@ -0,0 +1,25 @@
+package com.eventprocessing.monitoring.alert;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Alert engine settings (app.monitoring.alerts.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.monitoring.alerts")
+public class AlertProperties {
+
+    /**
+     * How long a group collects alert changes before they are sent as one notification
+     */
+    private Duration groupWait = Duration.ofSeconds(30);
+
+    private List<AlertRule> rules = new ArrayList<>();
+}
@@ -0,0 +1,81 @@
+package com.eventprocessing.monitoring.alert;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Declarative alert rule (app.monitoring.alerts.rules[*])
+ */
+@Data
+public class AlertRule {
+
+    private String name;
+
+    private AlertMetric metric;
+
+    private Comparison comparison = Comparison.ABOVE;
+
+    /**
+     * Value past which the rule is breached
+     */
+    private double threshold;
+
+    /**
+     * Value the metric must get back past before a firing alert resolves;
+     * defaults to the threshold, i.e. no hysteresis
+     */
+    private Double clearThreshold;
+
+    /**
+     * How long the breach must hold before PENDING turns into FIRING
+     */
+    private Duration forDuration = Duration.ZERO;
+
+    /**
+     * Sliding window the metric is computed over
+     */
+    private Duration window = Duration.ofMinutes(5);
+
+    /**
+     * Fewest events in the window for the rule to be evaluated at all
+     */
+    private long minSamples = 0;
+
+    /**
+     * Evaluate separately for each event type instead of the whole pipeline
+     */
+    private boolean perEventType = false;
+
+    /**
+     * Least time between two notifications for the same alert, so a flapping
+     * condition cannot page repeatedly
+     */
+    private Duration cooldown = Duration.ofMinutes(15);
+
+    /**
+     * Reminder interval for an alert that keeps firing; zero disables reminders
+     */
+    private Duration repeatInterval = Duration.ZERO;
+
+    /**
+     * Alerts of the same group are sent together in one notification
+     */
+    private String group = "default";
+
+    private String severity = "warning";
+
+    public enum Comparison {
+        ABOVE,
+        BELOW
+    }
+
+    boolean isBreached(double value) {
+        return comparison == Comparison.ABOVE ? value > threshold : value < threshold;
+    }
+
+    boolean isCleared(double value) {
+        double clear = clearThreshold != null ? clearThreshold : threshold;
+        return comparison == Comparison.ABOVE ? value <= clear : value >= clear;
+    }
+}
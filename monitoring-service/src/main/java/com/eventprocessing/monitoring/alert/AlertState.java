@@ -0,0 +1,16 @@
+package com.eventprocessing.monitoring.alert;
+
+/**
+ * Lifecycle of an alert instance
+ */
+public enum AlertState {
+
+    /** Breached, waiting for the rule's forDuration to elapse */
+    PENDING,
+
+    /** Breached for at least forDuration */
+    FIRING,
+
+    /** Cleared after firing; dropped after its resolution has been notified */
+    RESOLVED
+}
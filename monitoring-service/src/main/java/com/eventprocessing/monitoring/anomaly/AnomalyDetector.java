@@ -0,0 +1,185 @@
+package com.eventprocessing.monitoring.anomaly;
+
+import com.eventprocessing.common.model.EventTypeRegistry;
+import com.eventprocessing.monitoring.model.AnomalyScore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Online anomaly detection on per-type and per-source event counts and per-type
+ * dead-letter counts. Recording only bumps a LongAdder; every window close drains
+ * the counts, scores each series against its seasonal baseline and then teaches
+ * the baseline. Series without events are scored too, which is what catches a
+ * stream that stops.
+ *
+ * Observations scored as anomalous are clamped to the threshold before they are
+ * learned, so an outage is not absorbed into the baseline within a few windows.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AnomalyDetector {
+
+    private static final String TYPE = "type:";
+    private static final String SOURCE = "source:";
+    private static final String FAILED = "failed:";
+    private static final String UNKNOWN = "unknown";
+    private static final String[] TYPE_KEYS = keysById(TYPE);
+    private static final String[] FAILED_KEYS = keysById(FAILED);
+
+    private final AnomalyProperties properties;
+
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+    private volatile boolean overflowLogged;
+
+    /**
+     * Count an event read from the event topics
+     */
+    public void recordReceived(int eventTypeId, String eventType, String source) {
+        count(EventTypeRegistry.isRegistered(eventTypeId)
+                ? TYPE_KEYS[eventTypeId]
+                : TYPE + Objects.requireNonNullElse(eventType, UNKNOWN));
+        if (source != null) {
+            count(SOURCE + source);
+        }
+    }
+
+    /**
+     * Count an event read from the dead letter topic
+     */
+    public void recordFailed(int eventTypeId, String eventType) {
+        count(EventTypeRegistry.isRegistered(eventTypeId)
+                ? FAILED_KEYS[eventTypeId]
+                : FAILED + Objects.requireNonNullElse(eventType, UNKNOWN));
+    }
+
+    /**
+     * Series keys of the registered types, built once instead of per event
+     */
+    private static String[] keysById(String prefix) {
+        String[] keys = new String[EventTypeRegistry.size()];
+        for (int id = 1; id < keys.length; id++) {
+            keys[id] = prefix + EventTypeRegistry.get(id).name();
+        }
+        return keys;
+    }
+
+    /**
+     * Scores of the last closed window of every warmed-up series, most anomalous first
+     */
+    public List<AnomalyScore> getScores(boolean anomalousOnly) {
+        return series.values().stream()
+                .map(s -> s.last)
+                .filter(Objects::nonNull)
+                .filter(score -> score.getObservations() >= properties.getWarmupWindows())
+                .filter(score -> !anomalousOnly || score.getDirection() != AnomalyScore.Direction.NORMAL)
+                .sorted(Comparator.comparingDouble((AnomalyScore score) -> Math.abs(score.getScore())).reversed())
+                .toList();
+    }
+
+    public int getSeriesCount() {
+        return series.size();
+    }
+
+    @Scheduled(fixedRateString = "${app.monitoring.anomaly.window:60000}")
+    public void closeWindow() {
+        Instant windowEnd = Instant.now();
+        int slot = slotOf(windowEnd.toEpochMilli() - properties.getWindow() / 2);
+        long idleMillis = properties.getIdleEviction().toMillis();
+
+        for (Map.Entry<String, Series> entry : series.entrySet()) {
+            Series s = entry.getValue();
+            long observed = s.count.sumThenReset();
+            if (observed > 0) {
+                s.lastSeenMillis = windowEnd.toEpochMilli();
+            } else if (windowEnd.toEpochMilli() - s.lastSeenMillis > idleMillis) {
+                series.remove(entry.getKey());
+                continue;
+            }
+
+            AnomalyScore score = score(entry.getKey(), s.baseline, observed, slot, windowEnd);
+            s.last = score;
+            if (score.getDirection() != AnomalyScore.Direction.NORMAL) {
+                log.info("Anomaly on {}: {} observed={} expected={} score={}", score.getSeries(), score.getDirection(),
+                        observed, String.format("%.1f", score.getExpected()), String.format("%.1f", score.getScore()));
+            }
+
+            double learned = observed;
+            if (score.getDirection() != AnomalyScore.Direction.NORMAL) {
+                double bound = properties.getThreshold() * s.baseline.deviation(slot);
+                learned = Math.max(0, score.getExpected() + Math.signum(score.getScore()) * bound);
+            }
+            s.baseline.update(learned, slot, properties);
+        }
+    }
+
+    private AnomalyScore score(String key, SeasonalBaseline baseline, long observed, int slot, Instant windowEnd) {
+        double expected = baseline.expected(slot);
+        double score = baseline.observations() > 0 ? baseline.score(observed, slot) : 0;
+        boolean warm = baseline.observations() >= properties.getWarmupWindows();
+
+        AnomalyScore.Direction direction = AnomalyScore.Direction.NORMAL;
+        double magnitude = 0;
+        if (warm && score >= properties.getThreshold()) {
+            direction = AnomalyScore.Direction.SPIKE;
+        } else if (warm && score <= -properties.getThreshold() && expected >= properties.getMinExpected()) {
+            direction = AnomalyScore.Direction.DROP;
+        }
+        if (warm && (score > 0 || expected >= properties.getMinExpected())) {
+            magnitude = Math.abs(score);
+        }
+
+        return AnomalyScore.builder()
+                .series(key)
+                .windowEnd(windowEnd)
+                .observed(observed)
+                .expected(expected)
+                .score(score)
+                .direction(direction)
+                .magnitude(magnitude)
+                .observations(baseline.observations())
+                .build();
+    }
+
+    private void count(String key) {
+        Series s = series.get(key);
+        if (s == null) {
+            if (series.size() >= properties.getMaxSeries()) {
+                if (!overflowLogged) {
+                    overflowLogged = true;
+                    log.warn("Anomaly detection tracks {} series already; ignoring new series such as {}", series.size(), key);
+                }
+                return;
+            }
+            s = series.computeIfAbsent(key, k -> new Series(properties.getSeasonSlots()));
+        }
+        s.count.increment();
+    }
+
+    private int slotOf(long epochMillis) {
+        long period = properties.getSeasonalPeriod().toMillis();
+        return (int) (Math.floorMod(epochMillis, period) * properties.getSeasonSlots() / period);
+    }
+
+    private static final class Series {
+
+        private final LongAdder count = new LongAdder();
+        private final SeasonalBaseline baseline;
+        private volatile long lastSeenMillis = System.currentTimeMillis();
+        private volatile AnomalyScore last;
+
+        Series(int slots) {
+            this.baseline = new SeasonalBaseline(slots);
+        }
+    }
+}
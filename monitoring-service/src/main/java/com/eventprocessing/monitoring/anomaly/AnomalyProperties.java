@@ -0,0 +1,63 @@
+package com.eventprocessing.monitoring.anomaly;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Anomaly detection settings (app.monitoring.anomaly.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.monitoring.anomaly")
+public class AnomalyProperties {
+
+    /**
+     * Length of the counting window each series is scored on, in milliseconds
+     */
+    private long window = 60000;
+
+    /**
+     * Period of the seasonal profile and the number of slots it is split into;
+     * one day in 24 slots learns an hour-of-day baseline
+     */
+    private Duration seasonalPeriod = Duration.ofDays(1);
+
+    private int seasonSlots = 24;
+
+    /**
+     * Smoothing of the level, the seasonal slots and the residual variance
+     */
+    private double levelSmoothing = 0.1;
+
+    private double seasonalSmoothing = 0.05;
+
+    private double varianceSmoothing = 0.05;
+
+    /**
+     * Windows a series must have been observed for before it is scored
+     */
+    private int warmupWindows = 60;
+
+    /**
+     * Absolute score (residual in standard deviations) from which a window is anomalous
+     */
+    private double threshold = 4.0;
+
+    /**
+     * Expected count below which a drop is not scored, so quiet series cannot alarm
+     */
+    private double minExpected = 5.0;
+
+    /**
+     * Series are forgotten after this long without a single event
+     */
+    private Duration idleEviction = Duration.ofDays(7);
+
+    /**
+     * Upper bound on tracked series; new keys beyond it are ignored
+     */
+    private int maxSeries = 10000;
+}
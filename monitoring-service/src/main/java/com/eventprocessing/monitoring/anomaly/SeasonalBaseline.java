@@ -0,0 +1,70 @@
+package com.eventprocessing.monitoring.anomaly;
+
+import java.util.Arrays;
+
+/**
+ * Additive Holt-Winters baseline without a trend term: an EWMA level plus one
+ * smoothed offset per seasonal slot, and an EWMA of the squared residuals.
+ * Memory is fixed by the slot count, whatever the history length. The trend term
+ * is left out on purpose, as it would learn a sudden drop as a new slope within
+ * a few windows.
+ */
+class SeasonalBaseline {
+
+    private final double[] season;
+    private double level = Double.NaN;
+    private double variance;
+    private long observations;
+
+    SeasonalBaseline(int slots) {
+        this.season = new double[slots];
+        Arrays.fill(season, Double.NaN);
+    }
+
+    long observations() {
+        return observations;
+    }
+
+    /**
+     * Count expected in the given slot; the level alone until the slot has been seen
+     */
+    double expected(int slot) {
+        if (Double.isNaN(level)) {
+            return 0;
+        }
+        return Double.isNaN(season[slot]) ? level : Math.max(0, level + season[slot]);
+    }
+
+    /**
+     * Standard deviation of the residuals. Counts are at least Poisson-noisy, so it
+     * never drops below the square root of the expected count.
+     */
+    double deviation(int slot) {
+        return Math.sqrt(Math.max(variance, Math.max(expected(slot), 1)));
+    }
+
+    /**
+     * Residual of the observation in standard deviations
+     */
+    double score(double observed, int slot) {
+        return (observed - expected(slot)) / deviation(slot);
+    }
+
+    void update(double observed, int slot, AnomalyProperties properties) {
+        if (Double.isNaN(level)) {
+            level = observed;
+            season[slot] = 0;
+            observations++;
+            return;
+        }
+        double residual = observed - expected(slot);
+        variance += properties.getVarianceSmoothing() * (residual * residual - variance);
+
+        double seasonal = Double.isNaN(season[slot]) ? 0 : season[slot];
+        level += properties.getLevelSmoothing() * (observed - seasonal - level);
+        season[slot] = Double.isNaN(season[slot])
+                ? observed - level
+                : seasonal + properties.getSeasonalSmoothing() * (observed - level - seasonal);
+        observations++;
+    }
+}
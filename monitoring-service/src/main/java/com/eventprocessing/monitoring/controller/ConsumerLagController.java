@@ -0,0 +1,60 @@
+package com.eventprocessing.monitoring.controller;
+
+import com.eventprocessing.monitoring.lag.ConsumerLagMonitor;
+import com.eventprocessing.monitoring.lag.ScalingAdvisor;
+import com.eventprocessing.monitoring.model.ConsumerLagReport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * REST controller for consumer lag, partition skew and the scaling signal
+ */
+@RestController
+@RequestMapping("/api/monitoring/lag")
+@RequiredArgsConstructor
+public class ConsumerLagController {
+
+    private final ConsumerLagMonitor lagMonitor;
+    private final ScalingAdvisor scalingAdvisor;
+
+    /**
+     * Lag reports of all monitored consumer groups
+     */
+    @GetMapping
+    public ResponseEntity<List<ConsumerLagReport>> getReports() {
+        return ResponseEntity.ok(lagMonitor.getReports());
+    }
+
+    /**
+     * Per-partition lag, rates, time-to-drain and skew flags of one group
+     */
+    @GetMapping("/{groupId}")
+    public ResponseEntity<Object> getReport(@PathVariable String groupId) {
+        return respond(groupId, lagMonitor.getReport(groupId));
+    }
+
+    /**
+     * Replica count the group needs, for the autoscaler
+     */
+    @GetMapping("/{groupId}/recommended-replicas")
+    public ResponseEntity<Object> getRecommendedReplicas(@PathVariable String groupId) {
+        return respond(groupId, scalingAdvisor.recommend(groupId));
+    }
+
+    private static ResponseEntity<Object> respond(String groupId, Optional<?> body) {
+        return body.<ResponseEntity<Object>>map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    Map<String, Object> errorResponse = new HashMap<>();
+                    errorResponse.put("groupId", groupId);
+                    errorResponse.put("status", "NOT_FOUND");
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+                });
+    }
+}
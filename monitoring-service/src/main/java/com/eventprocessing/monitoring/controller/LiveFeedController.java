@@ -0,0 +1,47 @@
+package com.eventprocessing.monitoring.controller;
+
+import com.eventprocessing.monitoring.feed.LiveFeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * REST controller for the server-sent live metrics feed
+ */
+@RestController
+@RequestMapping("/api/monitoring/stream")
+@RequiredArgsConstructor
+public class LiveFeedController {
+
+    private final LiveFeedService liveFeedService;
+
+    /**
+     * Subscribe to delta-encoded metric updates and sampled live events
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Object> subscribe(
+            @RequestParam(defaultValue = "true") boolean events,
+            @RequestParam(defaultValue = "0") long intervalMs) {
+        try {
+            return ResponseEntity.ok(liveFeedService.subscribe(events, intervalMs));
+        } catch (IllegalStateException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("status", "FAILED");
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).contentType(MediaType.APPLICATION_JSON).body(errorResponse);
+        }
+    }
+
+    /**
+     * Subscriber count and conflation statistics
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> stats() {
+        return ResponseEntity.ok(liveFeedService.getStats());
+    }
+}
@@ -1,12 +1,21 @@
 package com.eventprocessing.monitoring.controller;
 
+import com.eventprocessing.monitoring.alert.AlertEngine;
+import com.eventprocessing.monitoring.alert.AlertRule;
+import com.eventprocessing.monitoring.anomaly.AnomalyDetector;
+import com.eventprocessing.monitoring.model.Alert;
+import com.eventprocessing.monitoring.model.AnomalyScore;
+import com.eventprocessing.monitoring.model.MetricsSnapshot;
 import com.eventprocessing.monitoring.service.CloudWatchMetricsService;
+import com.eventprocessing.monitoring.service.MetricsCollectorService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import software.amazon.awssdk.services.cloudwatch.model.StandardUnit;
 
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -18,6 +27,41 @@ import java.util.Map;
 public class MonitoringController {
 
     private final CloudWatchMetricsService cloudWatchMetricsService;
+    private final MetricsCollectorService metricsCollectorService;
+    private final AlertEngine alertEngine;
+    private final AnomalyDetector anomalyDetector;
+
+    /**
+     * Live rates, error ratio and in-flight estimate over the last windowSeconds
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<MetricsSnapshot> getMetrics(@RequestParam(defaultValue = "60") long windowSeconds) {
+        return ResponseEntity.ok(metricsCollectorService.getSnapshot(Duration.ofSeconds(Math.max(1, windowSeconds))));
+    }
+
+    /**
+     * Pending, firing and recently resolved alerts
+     */
+    @GetMapping("/alerts")
+    public ResponseEntity<List<Alert>> getAlerts() {
+        return ResponseEntity.ok(alertEngine.getAlerts());
+    }
+
+    /**
+     * Configured alert rules
+     */
+    @GetMapping("/alerts/rules")
+    public ResponseEntity<List<AlertRule>> getAlertRules() {
+        return ResponseEntity.ok(alertEngine.getRules());
+    }
+
+    /**
+     * Anomaly scores of the last closed window; only anomalous series unless all=true
+     */
+    @GetMapping("/anomalies")
+    public ResponseEntity<List<AnomalyScore>> getAnomalies(@RequestParam(defaultValue = "false") boolean all) {
+        return ResponseEntity.ok(anomalyDetector.getScores(!all));
+    }
 
     /**
      * Publish custom metric
@@ -33,7 +77,7 @@ public class MonitoringController {
 
         Map<String, String> response = new HashMap<>();
         response.put("status", "SUCCESS");
-        response.put("message", "Metric published successfully");
+        response.put("message", "Metric recorded for the next CloudWatch flush");
 
         return ResponseEntity.ok(response);
     }
@@ -0,0 +1,107 @@
+package com.eventprocessing.monitoring.controller;
+
+import com.eventprocessing.monitoring.sketch.SketchProperties;
+import com.eventprocessing.monitoring.sketch.SketchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller for distinct counts, heavy hitters and quantiles answered from
+ * stream sketches. Ranges default to the current UTC day; cluster=true also merges
+ * the sketches persisted by the other monitoring instances.
+ */
+@RestController
+@RequestMapping("/api/monitoring/sketches")
+@RequiredArgsConstructor
+public class SketchController {
+
+    private final SketchService sketchService;
+    private final SketchProperties sketchProperties;
+
+    /**
+     * Fields each kind of sketch is kept for
+     */
+    @GetMapping("/fields")
+    public ResponseEntity<Map<String, List<String>>> getFields() {
+        Map<String, List<String>> response = new HashMap<>();
+        response.put("distinct", sketchProperties.getDistinctFields());
+        response.put("heavyHitters", sketchProperties.getHeavyHitterFields());
+        response.put("quantiles", sketchProperties.getQuantileFields());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Estimated number of distinct values of a field
+     */
+    @GetMapping("/distinct")
+    public ResponseEntity<Object> distinct(
+            @RequestParam String field,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "false") boolean cluster) {
+        try {
+            return ResponseEntity.ok(sketchService.distinct(field, fromOrToday(from), toOrNow(to), cluster));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    /**
+     * Most frequent values of a field with their estimated counts
+     */
+    @GetMapping("/top")
+    public ResponseEntity<Object> top(
+            @RequestParam String field,
+            @RequestParam(defaultValue = "20") int k,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "false") boolean cluster) {
+        try {
+            return ResponseEntity.ok(sketchService.topK(field, Math.max(1, k), fromOrToday(from), toOrNow(to), cluster));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    /**
+     * Quantiles of a numeric field, each within the configured relative accuracy
+     */
+    @GetMapping("/quantiles")
+    public ResponseEntity<Object> quantiles(
+            @RequestParam String field,
+            @RequestParam(defaultValue = "0.5,0.9,0.99") List<Double> q,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "false") boolean cluster) {
+        try {
+            return ResponseEntity.ok(sketchService.quantiles(field, q, fromOrToday(from), toOrNow(to), cluster));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    private static Instant fromOrToday(Instant from) {
+        return from != null ? from : LocalDate.now(ZoneOffset.UTC).atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
+
+    private static Instant toOrNow(Instant to) {
+        return to != null ? to : Instant.now();
+    }
+
+    private static ResponseEntity<Object> badRequest(IllegalArgumentException e) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("status", "FAILED");
+        errorResponse.put("error", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+}
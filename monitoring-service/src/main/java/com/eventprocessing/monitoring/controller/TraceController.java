@@ -0,0 +1,61 @@
+package com.eventprocessing.monitoring.controller;
+
+import com.eventprocessing.monitoring.model.TraceSummary;
+import com.eventprocessing.monitoring.trace.TraceStore;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * OTLP/HTTP trace intake and the trace query API
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class TraceController {
+
+    private final TraceStore traceStore;
+
+    /**
+     * OTLP/HTTP JSON export endpoint the services' exporters post to
+     */
+    @PostMapping("/v1/traces")
+    public ResponseEntity<Object> export(@RequestBody JsonNode request) {
+        int accepted = traceStore.accept(request);
+        log.debug("Accepted {} spans", accepted);
+        // An empty ExportTraceServiceResponse signals full success
+        return ResponseEntity.ok(Map.of());
+    }
+
+    /**
+     * Slowest stored traces
+     */
+    @GetMapping("/api/monitoring/traces")
+    public ResponseEntity<List<TraceSummary>> getSlowestTraces(
+            @RequestParam(defaultValue = "0") long minDurationMs,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(traceStore.getSlowest(minDurationMs, limit));
+    }
+
+    /**
+     * Span tree and per-hop breakdown of one trace
+     */
+    @GetMapping("/api/monitoring/traces/{traceId}")
+    public ResponseEntity<Object> getTrace(@PathVariable String traceId) {
+        return traceStore.getTrace(traceId)
+                .<ResponseEntity<Object>>map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    Map<String, Object> errorResponse = new HashMap<>();
+                    errorResponse.put("traceId", traceId);
+                    errorResponse.put("status", "NOT_FOUND");
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+                });
+    }
+}
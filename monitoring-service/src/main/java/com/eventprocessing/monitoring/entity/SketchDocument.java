@@ -0,0 +1,55 @@
+package com.eventprocessing.monitoring.entity;
+
+import com.eventprocessing.common.constants.AppConstants;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Serialized sketches of one monitoring instance for one time bucket. Documents of
+ * different instances for the same bucket merge into the cluster-wide answer.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = AppConstants.COLLECTION_SKETCHES)
+public class SketchDocument {
+
+    /**
+     * instanceId:bucketStartMillis
+     */
+    @Id
+    private String id;
+
+    private String instanceId;
+
+    @Indexed
+    private Instant bucketStart;
+
+    private Instant updatedAt;
+
+    /**
+     * Field names contain dots, which Mongo does not allow as map keys
+     */
+    private List<Sketch> sketches;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Sketch {
+
+        private String kind;
+
+        private String field;
+
+        private byte[] data;
+    }
+}
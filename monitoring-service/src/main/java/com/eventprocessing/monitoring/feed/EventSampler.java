@@ -0,0 +1,48 @@
+package com.eventprocessing.monitoring.feed;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Reservoir sample of the events seen during one tick: every event has the same
+ * chance of being shown, however bursty the tick was
+ */
+final class EventSampler {
+
+    private final ObjectNode[] reservoir;
+    private long seen;
+
+    EventSampler(int size) {
+        this.reservoir = new ObjectNode[size];
+    }
+
+    synchronized void offer(String eventType, String status, String source, long timestamp) {
+        seen++;
+        int slot = seen <= reservoir.length ? (int) seen - 1 : (int) ThreadLocalRandom.current().nextLong(seen);
+        if (slot < reservoir.length) {
+            ObjectNode event = JsonNodeFactory.instance.objectNode();
+            event.put("eventType", eventType);
+            event.put("status", status);
+            event.put("source", source);
+            event.put("timestamp", timestamp);
+            reservoir[slot] = event;
+        }
+    }
+
+    /**
+     * The sample of the tick that just ended, and start the next one
+     */
+    synchronized ArrayNode drain() {
+        ArrayNode events = JsonNodeFactory.instance.arrayNode();
+        int size = (int) Math.min(seen, reservoir.length);
+        for (int i = 0; i < size; i++) {
+            events.add(reservoir[i]);
+            reservoir[i] = null;
+        }
+        seen = 0;
+        return events;
+    }
+}
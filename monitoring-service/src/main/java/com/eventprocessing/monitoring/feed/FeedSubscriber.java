@@ -0,0 +1,149 @@
+package com.eventprocessing.monitoring.feed;
+
+import com.eventprocessing.common.util.JsonUtil;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * One SSE connection. Ticks are offered without blocking; at most one send is
+ * in progress or scheduled at a time, and ticks arriving meanwhile are conflated
+ * into a single pending update (later values win, sampled events are appended up
+ * to a bound). A subscriber that keeps up is sent the shared serialization of the
+ * tick as is.
+ */
+@Slf4j
+final class FeedSubscriber {
+
+    private final SseEmitter emitter;
+    private final boolean includeEvents;
+    private final long intervalMillis;
+    private final int maxPendingEvents;
+    private final ScheduledExecutorService senders;
+    private final Consumer<FeedSubscriber> onClose;
+
+    private FeedTick pendingTick;
+    private ObjectNode pendingChanges;
+    private ArrayNode pendingEvents;
+    private boolean full;
+    private long pendingSequence;
+    private boolean sending;
+    private long lastSentAt;
+    private long conflated;
+    private long droppedEvents;
+
+    FeedSubscriber(SseEmitter emitter, boolean includeEvents, long intervalMillis, int maxPendingEvents,
+                   ScheduledExecutorService senders, Consumer<FeedSubscriber> onClose) {
+        this.emitter = emitter;
+        this.includeEvents = includeEvents;
+        this.intervalMillis = intervalMillis;
+        this.maxPendingEvents = maxPendingEvents;
+        this.senders = senders;
+        this.onClose = onClose;
+    }
+
+    /**
+     * Queue the full current state as the first update
+     */
+    synchronized void offerSnapshot(long sequence, ObjectNode values) {
+        pendingChanges = values.deepCopy();
+        pendingEvents = includeEvents ? JsonUtil.getObjectMapper().createArrayNode() : null;
+        pendingSequence = sequence;
+        full = true;
+        scheduleSend();
+    }
+
+    synchronized void offer(FeedTick tick) {
+        if (pendingTick == null && pendingChanges == null) {
+            pendingTick = tick;
+        } else {
+            materialize();
+            pendingChanges.setAll(tick.changes());
+            if (includeEvents) {
+                pendingEvents.addAll(tick.events());
+                while (pendingEvents.size() > maxPendingEvents) {
+                    pendingEvents.remove(0);
+                    droppedEvents++;
+                }
+            }
+            conflated++;
+        }
+        pendingSequence = tick.sequence();
+        scheduleSend();
+    }
+
+    synchronized long getConflated() {
+        return conflated;
+    }
+
+    synchronized long getDroppedEvents() {
+        return droppedEvents;
+    }
+
+    void close() {
+        emitter.complete();
+    }
+
+    private void scheduleSend() {
+        if (sending) {
+            return;
+        }
+        sending = true;
+        long delay = Math.max(0, lastSentAt + intervalMillis - System.currentTimeMillis());
+        senders.schedule(this::send, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void send() {
+        String data;
+        long sequence;
+        synchronized (this) {
+            sequence = pendingSequence;
+            if (pendingTick != null) {
+                data = includeEvents ? pendingTick.withEvents() : pendingTick.withoutEvents();
+            } else {
+                data = LiveFeedService.serialize(sequence, System.currentTimeMillis(), full, pendingChanges, pendingEvents);
+            }
+            pendingTick = null;
+            pendingChanges = null;
+            pendingEvents = null;
+            full = false;
+        }
+
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("metrics")
+                    .id(Long.toString(sequence))
+                    .data(data, MediaType.APPLICATION_JSON));
+        } catch (Exception e) {
+            log.debug("Live feed subscriber gone: {}", e.getMessage());
+            emitter.completeWithError(e);
+            onClose.accept(this);
+            return;
+        }
+
+        synchronized (this) {
+            lastSentAt = System.currentTimeMillis();
+            sending = false;
+            if (pendingTick != null || pendingChanges != null) {
+                scheduleSend();
+            }
+        }
+    }
+
+    /**
+     * Switch from the shared serialization to a private copy that later ticks can be merged into
+     */
+    private void materialize() {
+        if (pendingTick != null) {
+            pendingChanges = pendingTick.changes().deepCopy();
+            pendingEvents = includeEvents ? pendingTick.events().deepCopy() : null;
+            pendingTick = null;
+        }
+    }
+}
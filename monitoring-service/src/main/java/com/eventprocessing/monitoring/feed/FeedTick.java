@@ -0,0 +1,12 @@
+package com.eventprocessing.monitoring.feed;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * One upstream computation: the changed values and sampled events of a tick, also
+ * pre-serialized once for every subscriber that is keeping up
+ */
+record FeedTick(long sequence, long time, ObjectNode changes, ArrayNode events,
+                String withEvents, String withoutEvents) {
+}
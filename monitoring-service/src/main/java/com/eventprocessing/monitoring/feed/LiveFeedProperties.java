@@ -0,0 +1,54 @@
+package com.eventprocessing.monitoring.feed;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Live push feed settings (app.monitoring.feed.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.monitoring.feed")
+public class LiveFeedProperties {
+
+    /**
+     * Upstream tick in milliseconds; also the fastest rate a client can ask for
+     */
+    private long interval = 1000;
+
+    /**
+     * Window of the metrics snapshot pushed to clients
+     */
+    private Duration window = Duration.ofMinutes(1);
+
+    /**
+     * An empty update is sent after this many milliseconds of silence so dead
+     * connections are noticed
+     */
+    private long heartbeatInterval = 15000;
+
+    /**
+     * Live events sampled per tick, shared by all subscribers
+     */
+    private int eventsPerTick = 20;
+
+    /**
+     * Sampled events a slow subscriber may have queued; older ones are dropped
+     */
+    private int maxPendingEvents = 100;
+
+    private int maxSubscribers = 500;
+
+    /**
+     * Threads writing to subscribers; a slow client only ever holds one of them
+     */
+    private int senderThreads = 4;
+
+    /**
+     * Connections are closed after this long; EventSource clients reconnect by themselves
+     */
+    private Duration emitterTimeout = Duration.ofMinutes(30);
+}
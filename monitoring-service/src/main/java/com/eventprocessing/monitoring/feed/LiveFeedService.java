@@ -0,0 +1,205 @@
+package com.eventprocessing.monitoring.feed;
+
+import com.eventprocessing.common.util.JsonUtil;
+import com.eventprocessing.monitoring.alert.AlertEngine;
+import com.eventprocessing.monitoring.alert.AlertState;
+import com.eventprocessing.monitoring.metrics.StreamingMetricsEngine;
+import com.eventprocessing.monitoring.model.Alert;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent metrics feed for the dashboard. Once per tick the metrics snapshot is
+ * computed, flattened and diffed against the previous tick; only changed values are
+ * serialized, once, and offered to every subscriber together with a shared sample
+ * of live events. Upstream cost is independent of the number of viewers, and
+ * nothing is computed while nobody is connected.
+ *
+ * Updates look like {"seq":n,"time":ms,"full":bool,"changes":{path:value},"events":[..]}.
+ * Paths are JSON-pointer style (byType/order.placed/received); a null value means
+ * the path disappeared. The first update of a connection is the full state.
+ */
+@Slf4j
+@Service
+public class LiveFeedService {
+
+    private final StreamingMetricsEngine metricsEngine;
+    private final AlertEngine alertEngine;
+    private final LiveFeedProperties properties;
+    private final ScheduledExecutorService senders;
+    private final EventSampler sampler;
+
+    private final Set<FeedSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private volatile boolean active;
+    private ObjectNode current;
+    private long sequence;
+    private long lastBroadcastAt;
+
+    public LiveFeedService(StreamingMetricsEngine metricsEngine, AlertEngine alertEngine, LiveFeedProperties properties) {
+        this.metricsEngine = metricsEngine;
+        this.alertEngine = alertEngine;
+        this.properties = properties;
+        this.sampler = new EventSampler(properties.getEventsPerTick());
+
+        AtomicInteger threads = new AtomicInteger();
+        this.senders = Executors.newScheduledThreadPool(properties.getSenderThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "live-feed-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Open a feed connection
+     *
+     * @param intervalMillis slowest acceptable update rate; clamped to the upstream tick
+     */
+    public SseEmitter subscribe(boolean includeEvents, long intervalMillis) {
+        if (subscribers.size() >= properties.getMaxSubscribers()) {
+            throw new IllegalStateException("Live feed is at its limit of " + properties.getMaxSubscribers() + " subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(properties.getEmitterTimeout().toMillis());
+        FeedSubscriber subscriber = new FeedSubscriber(emitter, includeEvents,
+                Math.max(properties.getInterval(), intervalMillis), properties.getMaxPendingEvents(), senders, subscribers::remove);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        // Under the tick lock, so no tick falls between the snapshot and the first delta
+        synchronized (this) {
+            if (!active || current == null) {
+                current = flatten();
+            }
+            subscriber.offerSnapshot(sequence, current);
+            subscribers.add(subscriber);
+            active = true;
+        }
+        return emitter;
+    }
+
+    /**
+     * Offer a live event to the sample of the current tick; free while nobody listens
+     */
+    public void sample(String eventType, String status, String source, long timestamp) {
+        if (active) {
+            sampler.offer(eventType, status, source, timestamp);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.monitoring.feed.interval:1000}")
+    public synchronized void tick() {
+        if (subscribers.isEmpty()) {
+            active = false;
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        ObjectNode next = flatten();
+        ObjectNode changes = diff(current, next);
+        ArrayNode events = sampler.drain();
+        current = next;
+        if (changes.isEmpty() && events.isEmpty() && now - lastBroadcastAt < properties.getHeartbeatInterval()) {
+            return;
+        }
+
+        sequence++;
+        lastBroadcastAt = now;
+        FeedTick tick = new FeedTick(sequence, now, changes, events,
+                serialize(sequence, now, false, changes, events),
+                serialize(sequence, now, false, changes, null));
+        subscribers.forEach(subscriber -> subscriber.offer(tick));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("subscribers", subscribers.size());
+        stats.put("sequence", sequence);
+        stats.put("conflatedUpdates", subscribers.stream().mapToLong(FeedSubscriber::getConflated).sum());
+        stats.put("droppedEvents", subscribers.stream().mapToLong(FeedSubscriber::getDroppedEvents).sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(FeedSubscriber::close);
+        senders.shutdownNow();
+    }
+
+    static String serialize(long sequence, long time, boolean full, ObjectNode changes, ArrayNode events) {
+        ObjectNode update = JsonUtil.getObjectMapper().createObjectNode();
+        update.put("seq", sequence);
+        update.put("time", time);
+        update.put("full", full);
+        update.set("changes", changes);
+        if (events != null) {
+            update.set("events", events);
+        }
+        try {
+            return JsonUtil.getObjectMapper().writeValueAsString(update);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize live feed update", e);
+        }
+    }
+
+    /**
+     * Current metrics as flat path -> value pairs
+     */
+    private ObjectNode flatten() {
+        JsonNode snapshot = JsonUtil.getObjectMapper().valueToTree(metricsEngine.snapshot(properties.getWindow()));
+        ObjectNode values = JsonUtil.getObjectMapper().createObjectNode();
+        flatten("", snapshot, values);
+        // The tick time travels in the envelope; a per-tick timestamp would make every diff non-empty
+        values.remove("timestamp");
+
+        List<Alert> alerts = alertEngine.getAlerts();
+        values.put("alerts/firing", alerts.stream().filter(alert -> alert.getState() == AlertState.FIRING).count());
+        values.put("alerts/pending", alerts.stream().filter(alert -> alert.getState() == AlertState.PENDING).count());
+        return values;
+    }
+
+    private static void flatten(String prefix, JsonNode node, ObjectNode values) {
+        if (node.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                flatten(prefix.isEmpty() ? field.getKey() : prefix + "/" + field.getKey(), field.getValue(), values);
+            }
+        } else {
+            values.set(prefix, node);
+        }
+    }
+
+    private static ObjectNode diff(ObjectNode previous, ObjectNode next) {
+        ObjectNode changes = JsonUtil.getObjectMapper().createObjectNode();
+        next.fields().forEachRemaining(field -> {
+            if (previous == null || !field.getValue().equals(previous.get(field.getKey()))) {
+                changes.set(field.getKey(), field.getValue());
+            }
+        });
+        if (previous != null) {
+            previous.fieldNames().forEachRemaining(name -> {
+                if (!next.has(name)) {
+                    changes.putNull(name);
+                }
+            });
+        }
+        return changes;
+    }
+}
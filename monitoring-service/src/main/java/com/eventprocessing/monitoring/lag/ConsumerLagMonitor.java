@@ -0,0 +1,352 @@
+package com.eventprocessing.monitoring.lag;
+
+import com.eventprocessing.common.transport.MappedQueueTransport;
+import com.eventprocessing.monitoring.model.ConsumerLagReport;
+import com.eventprocessing.monitoring.model.ConsumerLagReport.PartitionLag;
+import com.eventprocessing.monitoring.service.CloudWatchMetricsService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ConsumerGroupDescription;
+import org.apache.kafka.clients.admin.ListOffsetsResult.ListOffsetsResultInfo;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.cloudwatch.model.StandardUnit;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+import static com.eventprocessing.common.constants.AppConstants.KAFKA_TOPIC_EVENTS;
+import static com.eventprocessing.common.constants.AppConstants.KAFKA_TOPIC_HIGH_PRIORITY;
+
+/**
+ * Polls committed and end offsets of the monitored consumer groups through the
+ * AdminClient and derives per-partition lag, smoothed produce and consume rates,
+ * time-to-drain and partition skew.
+ *
+ * One poll costs four AdminClient round trips (topic metadata, end and start
+ * offsets, group descriptions) plus one offset fetch per group.
+ *
+ * With the mapped transport the event topics bypass Kafka and their offsets stop
+ * moving, so each is reported as one partition read from the same-host queue: the
+ * offsets are queue positions, and lag and rates are counted in records.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConsumerLagMonitor {
+
+    private static final long TIMEOUT_SECONDS = 5;
+    private static final Set<String> MAPPED_TOPICS = Set.of(KAFKA_TOPIC_EVENTS, KAFKA_TOPIC_HIGH_PRIORITY);
+
+    private final AdminClient adminClient;
+    private final LagMonitoringProperties properties;
+    private final CloudWatchMetricsService cloudWatchMetricsService;
+    private final MeterRegistry meterRegistry;
+    private final MappedQueueTransport transport;
+
+    private final Map<String, ConsumerLagReport> reports = new ConcurrentHashMap<>();
+    private final Map<String, Double> measuredConsumerRates = new ConcurrentHashMap<>();
+    private final Map<String, PartitionTracker> trackers = new HashMap<>();
+    private final Map<String, QueueCounter> queueCounters = new HashMap<>();
+
+    public Optional<ConsumerLagReport> getReport(String groupId) {
+        return Optional.ofNullable(reports.get(groupId));
+    }
+
+    public List<ConsumerLagReport> getReports() {
+        return properties.getGroups().stream()
+                .map(reports::get)
+                .filter(report -> report != null)
+                .toList();
+    }
+
+    /**
+     * Smoothed records per second one member of the group handles, once it has been
+     * seen saturated
+     */
+    public OptionalDouble measuredConsumerRate(String groupId) {
+        Double rate = measuredConsumerRates.get(groupId);
+        return rate != null ? OptionalDouble.of(rate) : OptionalDouble.empty();
+    }
+
+    /**
+     * Total lag of a group at the last poll, 0 before the first one
+     */
+    public long totalLag(String groupId) {
+        ConsumerLagReport report = reports.get(groupId);
+        return report != null ? report.getTotalLag() : 0;
+    }
+
+    @Scheduled(fixedDelayString = "${app.monitoring.lag.interval:10000}")
+    public synchronized void poll() {
+        try {
+            List<String> mappedTopics = properties.getTopics().stream()
+                    .filter(topic -> transport.isEnabled() && MAPPED_TOPICS.contains(topic))
+                    .toList();
+            List<String> kafkaTopics = properties.getTopics().stream()
+                    .filter(topic -> !mappedTopics.contains(topic))
+                    .toList();
+            List<TopicPartition> partitions = kafkaTopics.isEmpty() ? List.of() : partitionsOf(kafkaTopics);
+            if (partitions.isEmpty() && mappedTopics.isEmpty()) {
+                return;
+            }
+            Map<TopicPartition, ListOffsetsResultInfo> endOffsets = offsets(partitions, OffsetSpec.latest());
+            Map<TopicPartition, ListOffsetsResultInfo> startOffsets = offsets(partitions, OffsetSpec.earliest());
+            Map<String, ConsumerGroupDescription> groups = adminClient.describeConsumerGroups(properties.getGroups())
+                    .all()
+                    .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            long now = System.nanoTime();
+
+            for (String groupId : properties.getGroups()) {
+                Map<TopicPartition, OffsetAndMetadata> committed = adminClient.listConsumerGroupOffsets(groupId)
+                        .partitionsToOffsetAndMetadata()
+                        .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                ConsumerGroupDescription description = groups.get(groupId);
+
+                ConsumerLagReport report = buildReport(groupId, partitions, endOffsets, startOffsets, committed,
+                        mappedTopics, description != null ? description.members().size() : 0, now);
+                reports.put(groupId, report);
+                learnConsumerRate(report);
+                publish(report);
+            }
+
+        } catch (Exception e) {
+            log.warn("Could not poll consumer lag for groups {}", properties.getGroups(), e);
+        }
+    }
+
+    private ConsumerLagReport buildReport(String groupId, List<TopicPartition> partitions,
+                                          Map<TopicPartition, ListOffsetsResultInfo> endOffsets,
+                                          Map<TopicPartition, ListOffsetsResultInfo> startOffsets,
+                                          Map<TopicPartition, OffsetAndMetadata> committed,
+                                          List<String> mappedTopics, int members, long now) {
+        List<PartitionLag> partitionLags = new ArrayList<>(partitions.size());
+        for (TopicPartition partition : partitions) {
+            long end = endOffsets.get(partition).offset();
+            OffsetAndMetadata commit = committed.get(partition);
+            // Without a commit the group would start from the log start
+            long position = commit != null ? commit.offset() : startOffsets.get(partition).offset();
+
+            PartitionTracker tracker = trackers.computeIfAbsent(groupId + "/" + partition, key -> new PartitionTracker());
+            tracker.update(end, position, now, properties.getSmoothing());
+
+            partitionLags.add(PartitionLag.builder()
+                    .topic(partition.topic())
+                    .partition(partition.partition())
+                    .endOffset(end)
+                    .committedOffset(commit != null ? commit.offset() : -1)
+                    .lag(Math.max(0, end - position))
+                    .produceRate(tracker.produceRate)
+                    .consumeRate(tracker.consumeRate)
+                    .lagRate(tracker.produceRate - tracker.consumeRate)
+                    .build());
+        }
+        for (String topic : mappedTopics) {
+            partitionLags.add(queueLag(groupId, topic, now));
+        }
+        flagSkew(partitionLags);
+
+        long totalLag = partitionLags.stream().mapToLong(PartitionLag::getLag).sum();
+        double produceRate = partitionLags.stream().mapToDouble(PartitionLag::getProduceRate).sum();
+        double consumeRate = partitionLags.stream().mapToDouble(PartitionLag::getConsumeRate).sum();
+        double lagRate = produceRate - consumeRate;
+
+        Double timeToDrain = null;
+        if (totalLag == 0) {
+            timeToDrain = 0.0;
+        } else if (lagRate < 0) {
+            timeToDrain = totalLag / -lagRate;
+        }
+
+        return ConsumerLagReport.builder()
+                .groupId(groupId)
+                .timestamp(Instant.now())
+                .members(members)
+                .totalLag(totalLag)
+                .produceRate(produceRate)
+                .consumeRate(consumeRate)
+                .lagRate(lagRate)
+                .timeToDrainSeconds(timeToDrain)
+                .partitions(partitionLags)
+                .build();
+    }
+
+    /**
+     * The group's lag on a same-host queue, as partition 0 of its topic. Records are
+     * counted between the positions of consecutive polls, so the rates stay in records.
+     */
+    private PartitionLag queueLag(String groupId, String topic, long now) {
+        long tail = transport.tail(topic);
+        long committed = transport.committed(topic, MappedQueueTransport.groupFor(topic, groupId));
+        String key = groupId + "/" + topic + "/mapped";
+
+        QueueCounter counter = queueCounters.computeIfAbsent(key, k -> new QueueCounter());
+        if (counter.tail >= 0) {
+            counter.produced += transport.records(topic, counter.tail, tail, Long.MAX_VALUE);
+            counter.consumed += transport.records(topic, counter.committed, Math.max(counter.committed, committed),
+                    Long.MAX_VALUE);
+        }
+        counter.tail = tail;
+        counter.committed = committed;
+
+        PartitionTracker tracker = trackers.computeIfAbsent(key, k -> new PartitionTracker());
+        tracker.update(counter.produced, counter.consumed, now, properties.getSmoothing());
+
+        return PartitionLag.builder()
+                .topic(topic)
+                .partition(0)
+                .endOffset(tail)
+                .committedOffset(committed)
+                .lag(transport.records(topic, committed, tail, Long.MAX_VALUE))
+                .produceRate(tracker.produceRate)
+                .consumeRate(tracker.consumeRate)
+                .lagRate(tracker.produceRate - tracker.consumeRate)
+                .build();
+    }
+
+    /**
+     * Compare each partition against the others of its topic: lag against the median
+     * (one stuck partition must not raise its own bar), inbound rate against the mean
+     */
+    private void flagSkew(List<PartitionLag> partitionLags) {
+        Map<String, List<PartitionLag>> byTopic = partitionLags.stream()
+                .collect(Collectors.groupingBy(PartitionLag::getTopic));
+
+        for (List<PartitionLag> topicPartitions : byTopic.values()) {
+            if (topicPartitions.size() < 2) {
+                continue;
+            }
+            long[] lags = topicPartitions.stream().mapToLong(PartitionLag::getLag).sorted().toArray();
+            long medianLag = lags[lags.length / 2];
+            double meanRate = topicPartitions.stream().mapToDouble(PartitionLag::getProduceRate).average().orElse(0);
+
+            for (PartitionLag partition : topicPartitions) {
+                partition.setLagSkewed(partition.getLag() >= properties.getMinSkewLag()
+                        && partition.getLag() > properties.getSkewFactor() * Math.max(1, medianLag));
+                partition.setHot(partition.getProduceRate() >= properties.getMinHotRate()
+                        && partition.getProduceRate() > properties.getSkewFactor() * meanRate);
+            }
+        }
+    }
+
+    /**
+     * Fold this poll's per-member consume rate in while the group is saturated (backlog
+     * present and not shrinking), since only then does it show capacity rather than demand
+     */
+    private void learnConsumerRate(ConsumerLagReport report) {
+        boolean saturated = report.getTotalLag() > 0 && report.getLagRate() >= 0;
+        if (saturated && report.getMembers() > 0 && report.getConsumeRate() > 0) {
+            double sample = report.getConsumeRate() / report.getMembers();
+            measuredConsumerRates.merge(report.getGroupId(), sample,
+                    (previous, current) -> previous + properties.getSmoothing() * (current - previous));
+        }
+    }
+
+    private void publish(ConsumerLagReport report) {
+        Map<String, String> dimensions = Map.of("ConsumerGroup", report.getGroupId());
+        cloudWatchMetricsService.record("ConsumerLag", report.getTotalLag(), StandardUnit.COUNT, dimensions);
+        cloudWatchMetricsService.record("ConsumerLagRate", report.getLagRate(), StandardUnit.COUNT_SECOND, dimensions);
+        if (report.getTimeToDrainSeconds() != null) {
+            cloudWatchMetricsService.record("ConsumerTimeToDrain", report.getTimeToDrainSeconds(), StandardUnit.SECONDS, dimensions);
+        }
+
+        String groupId = report.getGroupId();
+        registerGauge("kafka.consumer.lag", groupId, ConsumerLagReport::getTotalLag);
+        registerGauge("kafka.consumer.lag.rate", groupId, ConsumerLagReport::getLagRate);
+        registerGauge("kafka.consumer.time.to.drain", groupId,
+                r -> r.getTimeToDrainSeconds() != null ? r.getTimeToDrainSeconds() : Double.NaN);
+        registerGauge("kafka.consumer.skewed.partitions", groupId,
+                r -> r.getPartitions().stream().filter(PartitionLag::isLagSkewed).count());
+
+        report.getPartitions().stream()
+                .filter(partition -> partition.isLagSkewed() || partition.isHot())
+                .sorted(Comparator.comparingLong(PartitionLag::getLag).reversed())
+                .forEach(partition -> log.warn("Group {} partition {}-{}: lag={} inbound={}/s{}{}",
+                        groupId, partition.getTopic(), partition.getPartition(), partition.getLag(),
+                        String.format("%.1f", partition.getProduceRate()),
+                        partition.isLagSkewed() ? " lag-skewed" : "", partition.isHot() ? " hot" : ""));
+    }
+
+    /**
+     * Gauges read the latest report, so registering again on every poll is a no-op
+     */
+    private void registerGauge(String name, String groupId, ToDoubleFunction<ConsumerLagReport> value) {
+        Gauge.builder(name, reports, r -> r.containsKey(groupId) ? value.applyAsDouble(r.get(groupId)) : Double.NaN)
+                .tag("group", groupId)
+                .register(meterRegistry);
+    }
+
+    private List<TopicPartition> partitionsOf(List<String> topics) throws Exception {
+        Map<String, TopicDescription> descriptions = adminClient.describeTopics(topics)
+                .allTopicNames()
+                .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        List<TopicPartition> partitions = new ArrayList<>();
+        descriptions.values().forEach(topic -> topic.partitions()
+                .forEach(info -> partitions.add(new TopicPartition(topic.name(), info.partition()))));
+        return partitions;
+    }
+
+    private Map<TopicPartition, ListOffsetsResultInfo> offsets(List<TopicPartition> partitions, OffsetSpec spec) throws Exception {
+        if (partitions.isEmpty()) {
+            return Map.of();
+        }
+        Map<TopicPartition, OffsetSpec> request = new HashMap<>();
+        partitions.forEach(partition -> request.put(partition, spec));
+        return adminClient.listOffsets(request).all().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Queue positions of one group at the previous poll, and the records appended and
+     * acknowledged since monitoring started, which stand in for offsets
+     */
+    private static final class QueueCounter {
+
+        private long tail = -1;
+        private long committed;
+        private long produced;
+        private long consumed;
+    }
+
+    /**
+     * Offsets of one group on one partition at the previous poll, for the rates
+     */
+    private static final class PartitionTracker {
+
+        private long endOffset = -1;
+        private long position;
+        private long polledAt;
+        private double produceRate;
+        private double consumeRate;
+
+        void update(long end, long newPosition, long now, double smoothing) {
+            if (endOffset >= 0 && now > polledAt) {
+                double seconds = (now - polledAt) / 1e9;
+                double produced = Math.max(0, end - endOffset) / seconds;
+                double consumed = Math.max(0, newPosition - position) / seconds;
+                produceRate += smoothing * (produced - produceRate);
+                consumeRate += smoothing * (consumed - consumeRate);
+            }
+            endOffset = end;
+            position = newPosition;
+            polledAt = now;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.eventprocessing.monitoring.lag;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.eventprocessing.common.constants.AppConstants.KAFKA_TOPIC_EVENTS;
+
+/**
+ * Consumer lag monitoring settings (app.monitoring.lag.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.monitoring.lag")
+public class LagMonitoringProperties {
+
+    private List<String> groups = new ArrayList<>(List.of("event-consumer-group", "data-ingestion-group"));
+
+    private List<String> topics = new ArrayList<>(List.of(KAFKA_TOPIC_EVENTS));
+
+    /**
+     * Weight of the newest sample in the smoothed produce and consume rates
+     */
+    private double smoothing = 0.3;
+
+    /**
+     * A partition is skewed when its lag (or inbound rate) exceeds this multiple of
+     * the topic's median lag (or mean rate)
+     */
+    private double skewFactor = 3.0;
+
+    /**
+     * Lag below which a partition is never reported as skewed
+     */
+    private long minSkewLag = 1000;
+
+    /**
+     * Inbound records per second below which a partition is never reported as hot
+     */
+    private double minHotRate = 5.0;
+
+    private Scaling scaling = new Scaling();
+
+    @Data
+    public static class Scaling {
+
+        /**
+         * Spare capacity kept above the inbound rate
+         */
+        private double headroom = 0.2;
+
+        /**
+         * Time the recommended replicas should take to work off the current backlog
+         */
+        private Duration targetDrainTime = Duration.ofMinutes(5);
+
+        private int minReplicas = 1;
+
+        private int maxReplicas = 12;
+
+        /**
+         * Records per second per consumer thread, used until a saturated group has been measured
+         */
+        private double defaultConsumerRate = 10.0;
+
+        /**
+         * Listener threads per replica of each group (its listener concurrency)
+         */
+        private Map<String, Integer> consumersPerReplica = new HashMap<>();
+    }
+}
@@ -0,0 +1,88 @@
+package com.eventprocessing.monitoring.lag;
+
+import com.eventprocessing.monitoring.model.ConsumerLagReport;
+import com.eventprocessing.monitoring.model.ConsumerLagReport.PartitionLag;
+import com.eventprocessing.monitoring.model.ScalingRecommendation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Turns a group's lag report into the replica count an autoscaler should run:
+ * enough consumers for the inbound rate plus headroom, plus what it takes to
+ * work off the current backlog within the target drain time.
+ *
+ * Per-consumer throughput is the rate {@link ConsumerLagMonitor} learns once per
+ * poll; recommending only reads it, however often the autoscaler asks.
+ */
+@Component
+@RequiredArgsConstructor
+public class ScalingAdvisor {
+
+    private final ConsumerLagMonitor lagMonitor;
+    private final LagMonitoringProperties properties;
+
+    public Optional<ScalingRecommendation> recommend(String groupId) {
+        return lagMonitor.getReport(groupId).map(this::recommend);
+    }
+
+    private ScalingRecommendation recommend(ConsumerLagReport report) {
+        LagMonitoringProperties.Scaling scaling = properties.getScaling();
+        String groupId = report.getGroupId();
+        int consumersPerReplica = Math.max(1, scaling.getConsumersPerReplica().getOrDefault(groupId, 1));
+
+        double perConsumerRate = lagMonitor.measuredConsumerRate(groupId).orElse(scaling.getDefaultConsumerRate());
+        double drainRate = report.getTotalLag() / (double) Math.max(1, scaling.getTargetDrainTime().toSeconds());
+        double requiredRate = report.getProduceRate() * (1 + scaling.getHeadroom()) + drainRate;
+
+        int consumers = (int) Math.ceil(requiredRate / perConsumerRate);
+        int replicas = ceilDiv(consumers, consumersPerReplica);
+        // A partition is read by one consumer, so threads beyond the partition count idle
+        int maxUseful = Math.max(1, ceilDiv(report.getPartitions().size(), consumersPerReplica));
+        int recommended = Math.max(scaling.getMinReplicas(), Math.min(replicas, Math.min(scaling.getMaxReplicas(), maxUseful)));
+
+        return ScalingRecommendation.builder()
+                .groupId(groupId)
+                .timestamp(report.getTimestamp())
+                .currentReplicas(ceilDiv(report.getMembers(), consumersPerReplica))
+                .recommendedReplicas(recommended)
+                .maxUsefulReplicas(maxUseful)
+                .requiredRate(requiredRate)
+                .perConsumerRate(perConsumerRate)
+                .totalLag(report.getTotalLag())
+                .reason(reason(report, replicas, recommended, maxUseful))
+                .build();
+    }
+
+    private String reason(ConsumerLagReport report, int needed, int recommended, int maxUseful) {
+        StringBuilder reason = new StringBuilder(String.format("inbound %.1f/s, lag %d", report.getProduceRate(), report.getTotalLag()));
+        if (report.getTimeToDrainSeconds() != null) {
+            reason.append(String.format(", draining in %.0fs", report.getTimeToDrainSeconds()));
+        } else {
+            reason.append(String.format(", growing by %.1f/s", report.getLagRate()));
+        }
+        if (needed > recommended && recommended == maxUseful) {
+            reason.append("; capped at the partition count");
+        }
+
+        List<String> skewed = report.getPartitions().stream()
+                .filter(partition -> partition.isLagSkewed() || partition.isHot())
+                .map(partition -> partition.getTopic() + "-" + partition.getPartition())
+                .toList();
+        if (!skewed.isEmpty()) {
+            long skewedLag = report.getPartitions().stream()
+                    .filter(PartitionLag::isLagSkewed)
+                    .mapToLong(PartitionLag::getLag)
+                    .sum();
+            reason.append(String.format("; skewed partitions %s hold %d of the lag, more replicas will not drain them faster",
+                    skewed, skewedLag));
+        }
+        return reason.toString();
+    }
+
+    private static int ceilDiv(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+}
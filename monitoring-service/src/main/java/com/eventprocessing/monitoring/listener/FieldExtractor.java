@@ -0,0 +1,85 @@
+package com.eventprocessing.monitoring.listener;
+
+import com.eventprocessing.common.util.JsonUtil;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pulls a fixed set of scalar fields out of a JSON document with the streaming
+ * parser. Paths are top-level names or dotted paths into nested objects; every
+ * other subtree is skipped without being materialised, and parsing stops once all
+ * fields are found.
+ */
+final class FieldExtractor {
+
+    private static final JsonFactory JSON_FACTORY = JsonUtil.getObjectMapper().getFactory();
+
+    private final Map<String, Integer> indexes = new LinkedHashMap<>();
+    private final Set<String> parents = new HashSet<>();
+
+    FieldExtractor(List<String> paths) {
+        for (String path : paths) {
+            indexes.putIfAbsent(path, indexes.size());
+            for (int dot = path.indexOf('.'); dot > 0; dot = path.indexOf('.', dot + 1)) {
+                parents.add(path.substring(0, dot));
+            }
+        }
+    }
+
+    int indexOf(String path) {
+        return indexes.get(path);
+    }
+
+    /**
+     * Values by indexOf(path); null for absent, null-valued or non-scalar fields
+     */
+    String[] extract(String json) throws IOException {
+        String[] values = empty();
+        if (json == null) {
+            return values;
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                readObject(parser, null, values, new int[1]);
+            }
+        }
+        return values;
+    }
+
+    String[] empty() {
+        return new String[indexes.size()];
+    }
+
+    /**
+     * @return true once every field has been found
+     */
+    private boolean readObject(JsonParser parser, String prefix, String[] values, int[] found) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String path = prefix == null ? parser.getCurrentName() : prefix + "." + parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            Integer index = indexes.get(path);
+
+            if (index != null && value.isScalarValue() && value != JsonToken.VALUE_NULL && values[index] == null) {
+                values[index] = parser.getText();
+                if (++found[0] == values.length) {
+                    return true;
+                }
+            } else if (value == JsonToken.START_OBJECT && parents.contains(path)) {
+                if (readObject(parser, path, values, found)) {
+                    return true;
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,62 @@
+package com.eventprocessing.monitoring.listener;
+
+import com.eventprocessing.common.transport.MappedQueueTransport;
+import com.eventprocessing.common.transport.MappedRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.eventprocessing.common.constants.AppConstants.KAFKA_TOPIC_EVENTS;
+import static com.eventprocessing.common.constants.AppConstants.KAFKA_TOPIC_HIGH_PRIORITY;
+
+/**
+ * Mirrors the same-host event queues into {@link MetricsStreamListener} when
+ * app.transport.type is MAPPED, since the producer then publishes nothing to the Kafka
+ * event topics and the metrics, anomaly baselines and sketches would see traffic stop.
+ * Like the Kafka listener with auto-offset-reset latest, it starts at the tail rather
+ * than replaying history. The dead letter topic stays on Kafka.
+ */
+@Slf4j
+@Component
+public class MappedQueueListener {
+
+    private final MappedQueueTransport transport;
+    private final MetricsStreamListener metricsStreamListener;
+    private final String groupId;
+
+    public MappedQueueListener(MappedQueueTransport transport, MetricsStreamListener metricsStreamListener,
+                               @Value("${spring.kafka.consumer.group-id}") String groupId) {
+        this.transport = transport;
+        this.metricsStreamListener = metricsStreamListener;
+        this.groupId = groupId;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        if (!transport.isEnabled()) {
+            return;
+        }
+        mirror(KAFKA_TOPIC_EVENTS);
+        mirror(KAFKA_TOPIC_HIGH_PRIORITY);
+        log.info("Mirroring the mapped event queues into the streaming metrics");
+    }
+
+    private void mirror(String topic) {
+        String group = MappedQueueTransport.groupFor(topic, groupId);
+        transport.seekToEnd(topic, group);
+        transport.subscribe(topic, group, records -> {
+            List<ConsumerRecord<String, String>> batch = new ArrayList<>(records.size());
+            for (MappedRecord record : records) {
+                batch.add(record.toConsumerRecord());
+            }
+            metricsStreamListener.consumeEvents(batch);
+            records.get(records.size() - 1).acknowledge();
+        });
+    }
+}
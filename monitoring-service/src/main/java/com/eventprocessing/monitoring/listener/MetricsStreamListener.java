@@ -0,0 +1,104 @@
+package com.eventprocessing.monitoring.listener;
+
+import com.eventprocessing.common.model.EventTypeRegistry;
+import com.eventprocessing.monitoring.anomaly.AnomalyDetector;
+import com.eventprocessing.monitoring.feed.LiveFeedService;
+import com.eventprocessing.monitoring.metrics.StreamingMetricsEngine;
+import com.eventprocessing.monitoring.sketch.SketchService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.eventprocessing.common.constants.AppConstants.KAFKA_TOPIC_DLQ;
+import static com.eventprocessing.common.constants.AppConstants.KAFKA_TOPIC_EVENTS;
+import static com.eventprocessing.common.constants.AppConstants.KAFKA_TOPIC_HIGH_PRIORITY;
+
+/**
+ * Feeds the streaming metrics engine, the anomaly detector, the sketches and the
+ * live feed's event sample from the event and dead letter topics. Only eventType, status, source and the
+ * sketched fields are read; everything else is skipped without being materialised.
+ */
+@Slf4j
+@Component
+public class MetricsStreamListener {
+
+    private static final String EVENT_TYPE = "eventType";
+    private static final String STATUS = "status";
+    private static final String SOURCE = "source";
+
+    private final StreamingMetricsEngine metricsEngine;
+    private final AnomalyDetector anomalyDetector;
+    private final SketchService sketchService;
+    private final LiveFeedService liveFeedService;
+
+    private final FieldExtractor eventFields;
+    private final FieldExtractor deadLetterFields = new FieldExtractor(List.of(EVENT_TYPE));
+    private final int eventType;
+    private final int status;
+    private final int source;
+    private final int[] sketchPositions;
+
+    public MetricsStreamListener(StreamingMetricsEngine metricsEngine, AnomalyDetector anomalyDetector,
+                                 SketchService sketchService, LiveFeedService liveFeedService) {
+        this.metricsEngine = metricsEngine;
+        this.anomalyDetector = anomalyDetector;
+        this.sketchService = sketchService;
+        this.liveFeedService = liveFeedService;
+
+        List<String> paths = new ArrayList<>(List.of(EVENT_TYPE, STATUS, SOURCE));
+        paths.addAll(sketchService.getFields());
+        this.eventFields = new FieldExtractor(paths);
+        this.eventType = eventFields.indexOf(EVENT_TYPE);
+        this.status = eventFields.indexOf(STATUS);
+        this.source = eventFields.indexOf(SOURCE);
+        this.sketchPositions = sketchService.getFields().stream().mapToInt(eventFields::indexOf).toArray();
+    }
+
+    @KafkaListener(topics = {KAFKA_TOPIC_EVENTS, KAFKA_TOPIC_HIGH_PRIORITY}, containerFactory = "kafkaListenerContainerFactory")
+    public void consumeEvents(List<ConsumerRecord<String, String>> records) {
+        long now = System.currentTimeMillis();
+        for (ConsumerRecord<String, String> record : records) {
+            String[] fields = extract(eventFields, record);
+            int typeId = typeId(record, fields[eventType]);
+            metricsEngine.recordReceived(typeId, fields[eventType], fields[status], record.timestamp(), now);
+            anomalyDetector.recordReceived(typeId, fields[eventType], fields[source]);
+            sketchService.record(fields, sketchPositions);
+            liveFeedService.sample(fields[eventType], fields[status], fields[source], record.timestamp());
+        }
+    }
+
+    @KafkaListener(topics = KAFKA_TOPIC_DLQ, containerFactory = "kafkaListenerContainerFactory")
+    public void consumeDeadLetters(List<ConsumerRecord<String, String>> records) {
+        long now = System.currentTimeMillis();
+        for (ConsumerRecord<String, String> record : records) {
+            String failedType = extract(deadLetterFields, record)[0];
+            int typeId = typeId(record, failedType);
+            metricsEngine.recordFailed(typeId, failedType, record.timestamp(), now);
+            anomalyDetector.recordFailed(typeId, failedType);
+        }
+    }
+
+    /**
+     * The producer's event-type-id header when it matches the type, else the id looked up by name
+     */
+    private static int typeId(ConsumerRecord<String, String> record, String eventType) {
+        return EventTypeRegistry.resolve(record.headers(), eventType);
+    }
+
+    /**
+     * Fields of a JSON record; all null when it cannot be parsed
+     */
+    private static String[] extract(FieldExtractor extractor, ConsumerRecord<String, String> record) {
+        try {
+            return extractor.extract(record.value());
+        } catch (IOException e) {
+            log.debug("Unparseable record on {} at offset {}", record.topic(), record.offset());
+            return extractor.empty();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.eventprocessing.monitoring.metrics;
+
+import com.eventprocessing.monitoring.lag.ConsumerLagMonitor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Estimates in-flight events as the processing consumer group's lag on the event
+ * topics: published, but not yet acknowledged by event-consumer.
+ */
+@Component
+@RequiredArgsConstructor
+public class InFlightEstimator {
+
+    private final ConsumerLagMonitor lagMonitor;
+
+    @Value("${app.monitoring.processing-group-id:event-consumer-group}")
+    private String processingGroupId;
+
+    public long getInFlight() {
+        return lagMonitor.totalLag(processingGroupId);
+    }
+}
@@ -0,0 +1,75 @@
+package com.eventprocessing.monitoring.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free per-second event counter over a fixed horizon. Each slot packs the
+ * epoch second it belongs to (high 32 bits) with its count (low 32 bits), so a
+ * single CAS both claims a recycled slot and increments it.
+ */
+public class SlidingWindowCounter {
+
+    private static final long COUNT_MASK = 0xFFFF_FFFFL;
+
+    private final AtomicLongArray slots;
+    private final int horizonSeconds;
+    private final LongAdder total = new LongAdder();
+
+    public SlidingWindowCounter(int horizonSeconds) {
+        this.horizonSeconds = horizonSeconds;
+        this.slots = new AtomicLongArray(horizonSeconds);
+    }
+
+    /**
+     * Count one event at the given epoch second. Events older than the horizon
+     * only reach the running total.
+     */
+    public void increment(long epochSecond, long nowSecond) {
+        total.increment();
+        if (epochSecond <= nowSecond - horizonSeconds) {
+            return;
+        }
+
+        int index = (int) Math.floorMod(epochSecond, (long) horizonSeconds);
+        while (true) {
+            long current = slots.get(index);
+            long slotSecond = current >>> 32;
+            long next;
+            if (slotSecond == epochSecond) {
+                next = current + 1;
+            } else if (slotSecond > epochSecond) {
+                // Slot already recycled for a newer second
+                return;
+            } else {
+                next = (epochSecond << 32) | 1;
+            }
+            if (slots.compareAndSet(index, current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Events in the last windowSeconds seconds up to and including nowSecond
+     */
+    public long sum(long nowSecond, int windowSeconds) {
+        long from = nowSecond - Math.min(windowSeconds, horizonSeconds);
+        long sum = 0;
+        for (int i = 0; i < horizonSeconds; i++) {
+            long slot = slots.get(i);
+            long slotSecond = slot >>> 32;
+            if (slotSecond > from && slotSecond <= nowSecond) {
+                sum += slot & COUNT_MASK;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Events counted since startup, including those too old for the window
+     */
+    public long total() {
+        return total.sum();
+    }
+}
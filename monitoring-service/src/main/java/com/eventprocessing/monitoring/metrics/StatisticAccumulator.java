@@ -0,0 +1,69 @@
+package com.eventprocessing.monitoring.metrics;
+
+import software.amazon.awssdk.services.cloudwatch.model.StatisticSet;
+
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contention-free count/sum/min/max of the observations of one metric and dimension
+ * set over a flush interval. An observation racing a drain may have its parts split
+ * across two intervals, which is acceptable for monitoring data.
+ */
+public class StatisticAccumulator {
+
+    private final LongAdder count = new LongAdder();
+    private final DoubleAdder sum = new DoubleAdder();
+    private final DoubleAccumulator min = new DoubleAccumulator(Math::min, Double.POSITIVE_INFINITY);
+    private final DoubleAccumulator max = new DoubleAccumulator(Math::max, Double.NEGATIVE_INFINITY);
+    private volatile boolean pinned;
+    private int idleFlushes;
+
+    public void record(double value) {
+        count.increment();
+        sum.add(value);
+        min.accumulate(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Statistics since the previous drain, or null if nothing was recorded
+     */
+    public StatisticSet drain() {
+        long samples = count.sumThenReset();
+        if (samples == 0) {
+            idleFlushes++;
+            return null;
+        }
+        idleFlushes = 0;
+        double total = sum.sumThenReset();
+        double lowest = min.getThenReset();
+        double highest = max.getThenReset();
+        if (Double.isInfinite(lowest) || Double.isInfinite(highest)) {
+            // Extremes were reset by a racing drain; fall back to the mean
+            lowest = highest = total / samples;
+        }
+        return StatisticSet.builder()
+                .sampleCount((double) samples)
+                .sum(total)
+                .minimum(lowest)
+                .maximum(highest)
+                .build();
+    }
+
+    /**
+     * Keep the accumulator registered for good once a caller holds on to it
+     */
+    public StatisticAccumulator pin() {
+        pinned = true;
+        return this;
+    }
+
+    /**
+     * Whether the accumulator may be dropped after idling; handed-out accumulators never are
+     */
+    public boolean isEvictable(int maxIdleFlushes) {
+        return !pinned && idleFlushes >= maxIdleFlushes;
+    }
+}
@@ -0,0 +1,188 @@
+package com.eventprocessing.monitoring.metrics;
+
+import com.eventprocessing.common.model.EventStatus;
+import com.eventprocessing.common.model.EventTypeRegistry;
+import com.eventprocessing.monitoring.model.MetricsSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sliding-window event counters fed straight from the Kafka topics. Counters are kept
+ * per eventType and status: events read from the event topics count as received under
+ * the status they carry, dead-lettered events count as FAILED. Recording is lock-free;
+ * a snapshot sums the per-second slots of every counter. Counters of registered event
+ * types and known statuses are found by array index; the maps stay the source of
+ * truth for snapshots and hold the counters of everything else.
+ */
+@Component
+public class StreamingMetricsEngine {
+
+    private static final String FAILED = EventStatus.FAILED.name();
+    private static final String UNKNOWN = "unknown";
+    private static final EventStatus[] STATUSES = EventStatus.values();
+
+    private final int horizonSeconds;
+    private final InFlightEstimator inFlightEstimator;
+    private final Map<String, Map<String, SlidingWindowCounter>> received = new ConcurrentHashMap<>();
+    private final Map<String, SlidingWindowCounter> failed = new ConcurrentHashMap<>();
+    private final SlidingWindowCounter[][] receivedById = new SlidingWindowCounter[EventTypeRegistry.size()][STATUSES.length];
+    private final SlidingWindowCounter[] failedById = new SlidingWindowCounter[EventTypeRegistry.size()];
+
+    public StreamingMetricsEngine(@Value("${app.monitoring.window.horizon:PT15M}") Duration horizon,
+                                  InFlightEstimator inFlightEstimator) {
+        this.horizonSeconds = (int) horizon.toSeconds();
+        this.inFlightEstimator = inFlightEstimator;
+    }
+
+    /**
+     * Count an event read from the event topics
+     *
+     * @param eventTypeId id of eventType in EventTypeRegistry, UNREGISTERED to count by name
+     */
+    public void recordReceived(int eventTypeId, String eventType, String status, long timestampMillis, long nowMillis) {
+        receivedCounter(eventTypeId, eventType, status).increment(second(timestampMillis, nowMillis), nowMillis / 1000);
+    }
+
+    /**
+     * Count an event read from the dead letter topic
+     */
+    public void recordFailed(int eventTypeId, String eventType, long timestampMillis, long nowMillis) {
+        SlidingWindowCounter counter;
+        if (EventTypeRegistry.isRegistered(eventTypeId)) {
+            counter = failedById[eventTypeId];
+            if (counter == null) {
+                // Racing threads get the same counter from the map
+                counter = counter(failed, EventTypeRegistry.get(eventTypeId).name());
+                failedById[eventTypeId] = counter;
+            }
+        } else {
+            counter = counter(failed, key(eventType));
+        }
+        counter.increment(second(timestampMillis, nowMillis), nowMillis / 1000);
+    }
+
+    private SlidingWindowCounter receivedCounter(int eventTypeId, String eventType, String status) {
+        int statusIndex = statusIndex(status);
+        if (!EventTypeRegistry.isRegistered(eventTypeId) || statusIndex < 0) {
+            return receivedCounter(key(eventType), key(status));
+        }
+        SlidingWindowCounter counter = receivedById[eventTypeId][statusIndex];
+        if (counter == null) {
+            counter = receivedCounter(EventTypeRegistry.get(eventTypeId).name(), STATUSES[statusIndex].name());
+            receivedById[eventTypeId][statusIndex] = counter;
+        }
+        return counter;
+    }
+
+    private SlidingWindowCounter receivedCounter(String eventType, String status) {
+        Map<String, SlidingWindowCounter> byStatus = received.get(eventType);
+        if (byStatus == null) {
+            byStatus = received.computeIfAbsent(eventType, k -> new ConcurrentHashMap<>());
+        }
+        return counter(byStatus, status);
+    }
+
+    /**
+     * Rates and error ratios over the last window
+     */
+    public MetricsSnapshot snapshot(Duration window) {
+        long now = System.currentTimeMillis();
+        long nowSecond = now / 1000;
+        int windowSeconds = (int) Math.min(window.toSeconds(), horizonSeconds);
+
+        Map<String, MetricsSnapshot.TypeMetrics> byType = new TreeMap<>();
+        long totalReceivedInWindow = 0;
+        long totalReceived = 0;
+        for (Map.Entry<String, Map<String, SlidingWindowCounter>> type : received.entrySet()) {
+            Map<String, Long> byStatus = new TreeMap<>();
+            long typeReceived = 0;
+            for (Map.Entry<String, SlidingWindowCounter> status : type.getValue().entrySet()) {
+                long count = status.getValue().sum(nowSecond, windowSeconds);
+                byStatus.put(status.getKey(), count);
+                typeReceived += count;
+                totalReceived += status.getValue().total();
+            }
+            totalReceivedInWindow += typeReceived;
+            byType.put(type.getKey(), typeMetrics(typeReceived, 0, windowSeconds, byStatus));
+        }
+
+        long totalFailedInWindow = 0;
+        long totalFailed = 0;
+        for (Map.Entry<String, SlidingWindowCounter> type : failed.entrySet()) {
+            long count = type.getValue().sum(nowSecond, windowSeconds);
+            totalFailedInWindow += count;
+            totalFailed += type.getValue().total();
+            MetricsSnapshot.TypeMetrics existing = byType.get(type.getKey());
+            long typeReceived = existing != null ? existing.getReceived() : 0;
+            Map<String, Long> byStatus = existing != null ? existing.getByStatus() : new TreeMap<>();
+            byStatus.merge(FAILED, count, Long::sum);
+            byType.put(type.getKey(), typeMetrics(typeReceived, count, windowSeconds, byStatus));
+        }
+
+        return MetricsSnapshot.builder()
+                .timestamp(Instant.ofEpochMilli(now))
+                .windowSeconds(windowSeconds)
+                .received(totalReceivedInWindow)
+                .failed(totalFailedInWindow)
+                .receivedPerSecond((double) totalReceivedInWindow / windowSeconds)
+                .failedPerSecond((double) totalFailedInWindow / windowSeconds)
+                .errorRatio(ratio(totalFailedInWindow, totalReceivedInWindow))
+                .inFlight(inFlightEstimator.getInFlight())
+                .totalReceived(totalReceived)
+                .totalFailed(totalFailed)
+                .byType(byType)
+                .build();
+    }
+
+    private SlidingWindowCounter counter(Map<String, SlidingWindowCounter> counters, String key) {
+        SlidingWindowCounter counter = counters.get(key);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(key, k -> new SlidingWindowCounter(horizonSeconds));
+        }
+        return counter;
+    }
+
+    private static MetricsSnapshot.TypeMetrics typeMetrics(long received, long failed, int windowSeconds,
+                                                           Map<String, Long> byStatus) {
+        return MetricsSnapshot.TypeMetrics.builder()
+                .received(received)
+                .failed(failed)
+                .receivedPerSecond((double) received / windowSeconds)
+                .errorRatio(ratio(failed, received))
+                .byStatus(byStatus)
+                .build();
+    }
+
+    private static double ratio(long failed, long received) {
+        return received > 0 ? (double) failed / received : 0.0;
+    }
+
+    /**
+     * Epoch second of the record, never in the future so producer clock skew cannot
+     * push counts past the end of the window
+     */
+    private static long second(long timestampMillis, long nowMillis) {
+        return (timestampMillis > 0 ? Math.min(timestampMillis, nowMillis) : nowMillis) / 1000;
+    }
+
+    private static int statusIndex(String status) {
+        if (status != null) {
+            for (int i = 0; i < STATUSES.length; i++) {
+                if (STATUSES[i].name().equals(status)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static String key(String value) {
+        return value != null ? value : UNKNOWN;
+    }
+}
@@ -0,0 +1,55 @@
+package com.eventprocessing.monitoring.model;
+
+import com.eventprocessing.monitoring.alert.AlertState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One alert instance: a rule, optionally narrowed to an event type
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Alert {
+
+    private String rule;
+
+    /**
+     * Event type for per-type rules, series key for anomaly rules, null for pipeline-wide rules
+     */
+    private String eventType;
+
+    private AlertState state;
+
+    private String severity;
+
+    private String group;
+
+    /**
+     * Metric value at the last evaluation
+     */
+    private double value;
+
+    private double threshold;
+
+    /**
+     * When the current breach started
+     */
+    private Instant startsAt;
+
+    private Instant firedAt;
+
+    private Instant resolvedAt;
+
+    private Instant lastNotifiedAt;
+
+    /**
+     * Whether the current firing was notified, and so needs a resolution notice
+     */
+    private boolean firingNotified;
+}
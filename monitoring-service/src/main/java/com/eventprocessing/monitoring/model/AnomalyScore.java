@@ -0,0 +1,53 @@
+package com.eventprocessing.monitoring.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Score of one series for the last closed window against its learned baseline
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnomalyScore {
+
+    /**
+     * Series key: type:&lt;eventType&gt;, source:&lt;source&gt; or failed:&lt;eventType&gt;
+     */
+    private String series;
+
+    private Instant windowEnd;
+
+    private long observed;
+
+    private double expected;
+
+    /**
+     * Residual in standard deviations; negative for drops
+     */
+    private double score;
+
+    private Direction direction;
+
+    /**
+     * Absolute score as seen by alert rules; 0 while the baseline warms up and for
+     * drops of series too quiet to judge
+     */
+    private double magnitude;
+
+    /**
+     * Windows the baseline has learned from
+     */
+    private long observations;
+
+    public enum Direction {
+        NORMAL,
+        SPIKE,
+        DROP
+    }
+}
@@ -0,0 +1,88 @@
+package com.eventprocessing.monitoring.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Lag of one consumer group on the monitored topics, from committed and end offsets
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsumerLagReport {
+
+    private String groupId;
+
+    private Instant timestamp;
+
+    /**
+     * Members currently in the group, i.e. listener threads across all replicas
+     */
+    private int members;
+
+    private long totalLag;
+
+    /**
+     * Records appended to the topics per second (smoothed)
+     */
+    private double produceRate;
+
+    /**
+     * Offsets committed by the group per second (smoothed)
+     */
+    private double consumeRate;
+
+    /**
+     * Change of totalLag per second; positive while the group falls behind
+     */
+    private double lagRate;
+
+    /**
+     * Seconds until the backlog is gone at the current rates, null while it is not shrinking
+     */
+    private Double timeToDrainSeconds;
+
+    private List<PartitionLag> partitions;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PartitionLag {
+
+        private String topic;
+
+        private int partition;
+
+        private long endOffset;
+
+        /**
+         * Committed offset, -1 when the group has not committed on this partition
+         */
+        private long committedOffset;
+
+        private long lag;
+
+        private double produceRate;
+
+        private double consumeRate;
+
+        private double lagRate;
+
+        /**
+         * Lag far above the median partition of the topic
+         */
+        private boolean lagSkewed;
+
+        /**
+         * Inbound rate far above the topic mean, i.e. a hot partition key
+         */
+        private boolean hot;
+    }
+}
@@ -0,0 +1,76 @@
+package com.eventprocessing.monitoring.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Event rates and error ratios over a sliding window, computed from the Kafka streams
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MetricsSnapshot {
+
+    private Instant timestamp;
+
+    private int windowSeconds;
+
+    /**
+     * Events published to the event topics during the window
+     */
+    private long received;
+
+    /**
+     * Events dead-lettered during the window
+     */
+    private long failed;
+
+    private double receivedPerSecond;
+
+    private double failedPerSecond;
+
+    /**
+     * failed / received over the window, 0 when nothing was received
+     */
+    private double errorRatio;
+
+    /**
+     * Published events not yet acknowledged by the processing consumers
+     */
+    private long inFlight;
+
+    /**
+     * Events counted since startup
+     */
+    private long totalReceived;
+
+    private long totalFailed;
+
+    private Map<String, TypeMetrics> byType;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TypeMetrics {
+
+        private long received;
+
+        private long failed;
+
+        private double receivedPerSecond;
+
+        private double errorRatio;
+
+        /**
+         * Window counts per event status as carried on the records
+         */
+        private Map<String, Long> byStatus;
+    }
+}
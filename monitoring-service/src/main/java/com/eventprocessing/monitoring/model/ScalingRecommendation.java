@@ -0,0 +1,45 @@
+package com.eventprocessing.monitoring.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Replica count a consumer group needs to keep up with, and drain, its backlog
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScalingRecommendation {
+
+    private String groupId;
+
+    private Instant timestamp;
+
+    private int currentReplicas;
+
+    private int recommendedReplicas;
+
+    /**
+     * Replicas beyond which extra consumers would have no partition to read
+     */
+    private int maxUsefulReplicas;
+
+    /**
+     * Records per second the group has to consume: inbound rate plus headroom plus backlog drain
+     */
+    private double requiredRate;
+
+    /**
+     * Records per second one consumer thread sustains
+     */
+    private double perConsumerRate;
+
+    private long totalLag;
+
+    private String reason;
+}
@@ -0,0 +1,73 @@
+package com.eventprocessing.monitoring.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answer of a sketch query over [from, to); only the parts of the asked question are set
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SketchResult {
+
+    private String field;
+
+    private Instant from;
+
+    private Instant to;
+
+    /**
+     * Time buckets merged into the answer
+     */
+    private int buckets;
+
+    /**
+     * Monitoring instances merged into the answer
+     */
+    private int instances;
+
+    private Long distinct;
+
+    /**
+     * Standard error of the distinct count, relative
+     */
+    private Double relativeError;
+
+    private List<HeavyHitter> top;
+
+    /**
+     * Values counted; for heavy hitters the bound on each count's overestimate scales with it
+     */
+    private Long count;
+
+    private Map<String, Double> quantiles;
+
+    private Double min;
+
+    private Double max;
+
+    private Double mean;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HeavyHitter {
+
+        private String value;
+
+        /**
+         * Estimated occurrences, never below the true count
+         */
+        private long count;
+    }
+}
@@ -0,0 +1,87 @@
+package com.eventprocessing.monitoring.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A stored trace as a span tree plus the per-hop breakdown of where its time went
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TraceDetail {
+
+    private TraceSummary summary;
+
+    /**
+     * Spans depth-first in start order
+     */
+    private List<SpanView> spans;
+
+    /**
+     * Self time per service and span name, largest first
+     */
+    private List<Hop> hops;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SpanView {
+
+        private String spanId;
+
+        private String parentSpanId;
+
+        private String service;
+
+        private String name;
+
+        private String kind;
+
+        private int depth;
+
+        /**
+         * Start relative to the start of the trace
+         */
+        private double offsetMs;
+
+        private double durationMs;
+
+        /**
+         * Duration not covered by child spans
+         */
+        private double selfTimeMs;
+
+        private boolean error;
+
+        private String errorMessage;
+
+        private Map<String, Object> attributes;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Hop {
+
+        /**
+         * "service: span name", e.g. "event-consumer: queue wait"
+         */
+        private String name;
+
+        private double selfTimeMs;
+
+        /**
+         * Fraction of the trace duration
+         */
+        private double share;
+    }
+}
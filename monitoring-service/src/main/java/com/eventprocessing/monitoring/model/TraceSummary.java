@@ -0,0 +1,50 @@
+package com.eventprocessing.monitoring.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One stored trace: where it started, how long it took and which services it crossed
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TraceSummary {
+
+    private String traceId;
+
+    /**
+     * Service and name of the earliest root span
+     */
+    private String rootName;
+
+    private Instant startTime;
+
+    /**
+     * From the earliest span start to the latest span end
+     */
+    private double durationMs;
+
+    private int spanCount;
+
+    private List<String> services;
+
+    private boolean error;
+
+    /**
+     * The true root span was exported; false when only downstream fragments arrived,
+     * e.g. when the producer did not tail-sample a trace the consumer found slow
+     */
+    private boolean complete;
+
+    /**
+     * Kept by tail sampling rather than the head sample
+     */
+    private boolean tailSampled;
+}
@@ -1,77 +1,109 @@
 package com.eventprocessing.monitoring.service;
 
-import lombok.RequiredArgsConstructor;
+import com.eventprocessing.monitoring.metrics.StatisticAccumulator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.services.cloudwatch.CloudWatchClient;
+import software.amazon.awssdk.services.cloudwatch.CloudWatchAsyncClient;
 import software.amazon.awssdk.services.cloudwatch.model.*;
 
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Service for publishing metrics to CloudWatch
+ * Service for publishing metrics to CloudWatch.
+ *
+ * Observations are aggregated client-side into one StatisticSet per metric and
+ * dimension set and flushed once per interval, so recording costs no network call.
+ * Flushed datums are split into PutMetricData batches bounded by datum count and
+ * payload size, queued on a bounded queue and sent through the async client with a
+ * cap on in-flight requests. Batches that do not fit the queue or fail to send are
+ * dropped and counted rather than retried.
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class CloudWatchMetricsService {
 
-    private final CloudWatchClient cloudWatchClient;
+    private static final int DATUM_OVERHEAD_BYTES = 200;
+
+    private final CloudWatchAsyncClient cloudWatchClient;
+    private final Map<MetricKey, StatisticAccumulator> accumulators = new ConcurrentHashMap<>();
+    private final BlockingQueue<List<MetricDatum>> pendingBatches;
+    private final Semaphore inFlight;
+    private final Counter sentDatums;
+    private final Counter droppedQueueFull;
+    private final Counter droppedSendFailed;
 
     @Value("${aws.cloudwatch.namespace}")
     private String namespace;
 
+    @Value("${app.cloudwatch.batch-size:20}")
+    private int batchSize;
+
+    @Value("${app.cloudwatch.max-batch-bytes:40960}")
+    private int maxBatchBytes;
+
+    @Value("${app.cloudwatch.max-idle-flushes:10}")
+    private int maxIdleFlushes;
+
+    public CloudWatchMetricsService(CloudWatchAsyncClient cloudWatchClient,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.cloudwatch.queue-capacity:100}") int queueCapacity,
+                                    @Value("${app.cloudwatch.max-in-flight:4}") int maxInFlight) {
+        this.cloudWatchClient = cloudWatchClient;
+        this.pendingBatches = new ArrayBlockingQueue<>(queueCapacity);
+        this.inFlight = new Semaphore(maxInFlight);
+
+        this.sentDatums = Counter.builder("cloudwatch.datums").tag("result", "sent").register(meterRegistry);
+        this.droppedQueueFull = Counter.builder("cloudwatch.datums").tag("result", "dropped_queue_full").register(meterRegistry);
+        this.droppedSendFailed = Counter.builder("cloudwatch.datums").tag("result", "dropped_send_failed").register(meterRegistry);
+        Gauge.builder("cloudwatch.queue.batches", pendingBatches, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("cloudwatch.series", accumulators, Map::size).register(meterRegistry);
+    }
+
     /**
-     * Publish metric to CloudWatch
+     * Record an observation of a metric; it is published as part of the next flush
      */
     public void publishMetric(String metricName, double value, StandardUnit unit) {
-        try {
-            MetricDatum datum = MetricDatum.builder()
-                    .metricName(metricName)
-                    .value(value)
-                    .unit(unit)
-                    .timestamp(Instant.now())
-                    .build();
-
-            PutMetricDataRequest request = PutMetricDataRequest.builder()
-                    .namespace(namespace)
-                    .metricData(datum)
-                    .build();
+        record(metricName, value, unit, Map.of());
+    }
 
-            cloudWatchClient.putMetricData(request);
-            log.debug("Published metric: {} = {}", metricName, value);
+    /**
+     * Record an observation of a metric with dimensions
+     */
+    public void record(String metricName, double value, StandardUnit unit, Map<String, String> dimensions) {
+        accumulators.computeIfAbsent(new MetricKey(metricName, unit, dimensions), key -> new StatisticAccumulator())
+                .record(value);
+    }
 
-        } catch (Exception e) {
-            log.error("Error publishing metric to CloudWatch", e);
-        }
+    /**
+     * Accumulator for a fixed metric and dimension set. Callers recording at event
+     * rate should hold on to it: recording through it never allocates.
+     */
+    public StatisticAccumulator accumulator(String metricName, StandardUnit unit, Map<String, String> dimensions) {
+        MetricKey key = new MetricKey(metricName, unit, new TreeMap<>(dimensions));
+        return accumulators.computeIfAbsent(key, k -> new StatisticAccumulator()).pin();
     }
 
     /**
      * Publish batch metrics
      */
     public void publishBatchMetrics(List<MetricDatum> metrics) {
-        try {
-            // CloudWatch allows max 20 metrics per request
-            int batchSize = 20;
-            for (int i = 0; i < metrics.size(); i += batchSize) {
-                List<MetricDatum> batch = metrics.subList(i, Math.min(i + batchSize, metrics.size()));
-
-                PutMetricDataRequest request = PutMetricDataRequest.builder()
-                        .namespace(namespace)
-                        .metricData(batch)
-                        .build();
-
-                cloudWatchClient.putMetricData(request);
-            }
-
-            log.info("Published {} metrics to CloudWatch", metrics.size());
-
-        } catch (Exception e) {
-            log.error("Error publishing batch metrics to CloudWatch", e);
-        }
+        enqueue(metrics);
+        log.debug("Queued {} metrics for CloudWatch", metrics.size());
     }
 
     /**
@@ -95,4 +127,116 @@ public class CloudWatchMetricsService {
     public void publishErrorRateMetric(double errorRate) {
         publishMetric("ErrorRate", errorRate, StandardUnit.PERCENT);
     }
+
+    /**
+     * Turn every accumulator with observations into one StatisticSet datum and send them
+     */
+    @Scheduled(fixedDelayString = "${app.cloudwatch.flush-interval:60000}")
+    public void flush() {
+        Instant timestamp = Instant.now();
+        List<MetricDatum> data = new ArrayList<>();
+
+        accumulators.forEach((key, accumulator) -> {
+            StatisticSet statistics = accumulator.drain();
+            if (statistics != null) {
+                data.add(MetricDatum.builder()
+                        .metricName(key.name())
+                        .dimensions(key.toDimensions())
+                        .statisticValues(statistics)
+                        .unit(key.unit())
+                        .timestamp(timestamp)
+                        .build());
+            }
+        });
+        accumulators.entrySet().removeIf(entry -> entry.getValue().isEvictable(maxIdleFlushes));
+
+        enqueue(data);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flush();
+        // Give queued batches a moment to go out
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!pendingBatches.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * Split datums into count- and size-bounded batches and queue them, dropping what does not fit
+     */
+    private void enqueue(List<MetricDatum> data) {
+        List<MetricDatum> batch = new ArrayList<>(batchSize);
+        int batchBytes = 0;
+        for (MetricDatum datum : data) {
+            int datumBytes = estimateSize(datum);
+            if (!batch.isEmpty() && (batch.size() >= batchSize || batchBytes + datumBytes > maxBatchBytes)) {
+                offer(batch);
+                batch = new ArrayList<>(batchSize);
+                batchBytes = 0;
+            }
+            batch.add(datum);
+            batchBytes += datumBytes;
+        }
+        if (!batch.isEmpty()) {
+            offer(batch);
+        }
+        drain();
+    }
+
+    private void offer(List<MetricDatum> batch) {
+        if (!pendingBatches.offer(batch)) {
+            droppedQueueFull.increment(batch.size());
+            log.warn("CloudWatch queue full, dropped {} metric datums", batch.size());
+        }
+    }
+
+    /**
+     * Start as many sends as the in-flight limit allows; completions call back in
+     */
+    private void drain() {
+        while (inFlight.tryAcquire()) {
+            List<MetricDatum> batch = pendingBatches.poll();
+            if (batch == null) {
+                inFlight.release();
+                return;
+            }
+
+            PutMetricDataRequest request = PutMetricDataRequest.builder()
+                    .namespace(namespace)
+                    .metricData(batch)
+                    .build();
+
+            cloudWatchClient.putMetricData(request).whenComplete((response, error) -> {
+                inFlight.release();
+                if (error != null) {
+                    droppedSendFailed.increment(batch.size());
+                    log.error("Error publishing {} metrics to CloudWatch", batch.size(), error);
+                } else {
+                    sentDatums.increment(batch.size());
+                    log.debug("Published {} metrics to CloudWatch", batch.size());
+                }
+                drain();
+            });
+        }
+    }
+
+    private static int estimateSize(MetricDatum datum) {
+        int size = DATUM_OVERHEAD_BYTES + datum.metricName().length();
+        for (Dimension dimension : datum.dimensions()) {
+            size += dimension.name().length() + dimension.value().length() + 40;
+        }
+        return size;
+    }
+
+    private record MetricKey(String name, StandardUnit unit, Map<String, String> dimensions) {
+
+        List<Dimension> toDimensions() {
+            List<Dimension> result = new ArrayList<>(dimensions.size());
+            dimensions.forEach((dimensionName, value) ->
+                    result.add(Dimension.builder().name(dimensionName).value(value).build()));
+            return result;
+        }
+    }
 }
@@ -1,21 +1,15 @@
 package com.eventprocessing.monitoring.service;
 
-import com.eventprocessing.common.model.EventStatus;
+import com.eventprocessing.monitoring.metrics.StreamingMetricsEngine;
+import com.eventprocessing.monitoring.model.MetricsSnapshot;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.core.aggregation.Aggregation;
-import org.springframework.data.mongodb.core.aggregation.AggregationResults;
-import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.cloudwatch.model.StandardUnit;
 
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Duration;
 
 /**
  * Service for monitoring system metrics and publishing to CloudWatch
@@ -25,14 +19,14 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class MetricsCollectorService {
 
-    private final MongoTemplate mongoTemplate;
+    private final StreamingMetricsEngine metricsEngine;
     private final CloudWatchMetricsService cloudWatchMetricsService;
-    private final AlertService alertService;
 
-    @Value("${app.monitoring.alert.error-rate-threshold}")
-    private double errorRateThreshold;
+    @Value("${app.monitoring.window.error-rate:PT5M}")
+    private Duration errorRateWindow;
 
-    private long previousEventCount = 0;
+    @Value("${app.monitoring.interval}")
+    private long intervalMs;
 
     /**
      * Collect and publish metrics every minute
@@ -42,13 +36,11 @@ public class MetricsCollectorService {
         log.info("Collecting metrics...");
 
         try {
-            Map<String, Long> metrics = collectMetrics();
+            MetricsSnapshot throughput = metricsEngine.snapshot(Duration.ofMillis(intervalMs));
+            MetricsSnapshot errors = metricsEngine.snapshot(errorRateWindow);
 
             // Publish to CloudWatch
-            publishMetrics(metrics);
-
-            // Check for alerts
-            checkAndTriggerAlerts(metrics);
+            publishMetrics(throughput, errors);
 
         } catch (Exception e) {
             log.error("Error collecting metrics", e);
@@ -56,97 +48,25 @@ public class MetricsCollectorService {
     }
 
     /**
-     * Collect metrics from MongoDB
+     * Current metrics over the given window
      */
-    private Map<String, Long> collectMetrics() {
-        Map<String, Long> metrics = new HashMap<>();
-
-        // Get total event count
-        long totalEvents = mongoTemplate.count(
-                new org.springframework.data.mongodb.core.query.Query(),
-                "events");
-        metrics.put("TotalEvents", totalEvents);
-
-        // Get count by status
-        long completedEvents = mongoTemplate.count(
-                org.springframework.data.mongodb.core.query.Query.query(
-                        Criteria.where("status").is(EventStatus.COMPLETED)),
-                "events");
-        metrics.put("CompletedEvents", completedEvents);
-
-        long failedEvents = mongoTemplate.count(
-                org.springframework.data.mongodb.core.query.Query.query(
-                        Criteria.where("status").is(EventStatus.FAILED)),
-                "events");
-        metrics.put("FailedEvents", failedEvents);
-
-        long processingEvents = mongoTemplate.count(
-                org.springframework.data.mongodb.core.query.Query.query(
-                        Criteria.where("status").is(EventStatus.PROCESSING)),
-                "events");
-        metrics.put("ProcessingEvents", processingEvents);
-
-        // Get events in last minute
-        Instant oneMinuteAgo = Instant.now().minus(1, ChronoUnit.MINUTES);
-        long recentEvents = mongoTemplate.count(
-                org.springframework.data.mongodb.core.query.Query.query(
-                        Criteria.where("createdAt").gte(oneMinuteAgo)),
-                "events");
-        metrics.put("RecentEvents", recentEvents);
-
-        return metrics;
+    public MetricsSnapshot getSnapshot(Duration window) {
+        return metricsEngine.snapshot(window);
     }
 
     /**
      * Publish metrics to CloudWatch
      */
-    private void publishMetrics(Map<String, Long> metrics) {
-        metrics.forEach(
-                (key, value) -> cloudWatchMetricsService.publishMetric(key, value.doubleValue(), StandardUnit.COUNT));
-
-        // Calculate and publish throughput
-        long currentTotal = metrics.get("TotalEvents");
-        long eventsProcessed = currentTotal - previousEventCount;
-        previousEventCount = currentTotal;
-
-        cloudWatchMetricsService.publishThroughputMetric(eventsProcessed, 60);
-
-        // Calculate and publish error rate
-        long completed = metrics.get("CompletedEvents");
-        long failed = metrics.get("FailedEvents");
-        long total = completed + failed;
-
-        if (total > 0) {
-            double errorRate = ((double) failed / total) * 100;
-            cloudWatchMetricsService.publishErrorRateMetric(errorRate);
-        }
-    }
-
-    /**
-     * Check metrics and trigger alerts if thresholds exceeded
-     */
-    private void checkAndTriggerAlerts(Map<String, Long> metrics) {
-        long completed = metrics.get("CompletedEvents");
-        long failed = metrics.get("FailedEvents");
-        long total = completed + failed;
+    private void publishMetrics(MetricsSnapshot throughput, MetricsSnapshot errors) {
+        cloudWatchMetricsService.publishMetric("TotalEvents", throughput.getTotalReceived(), StandardUnit.COUNT);
+        cloudWatchMetricsService.publishMetric("FailedEvents", throughput.getTotalFailed(), StandardUnit.COUNT);
+        cloudWatchMetricsService.publishMetric("RecentEvents", throughput.getReceived(), StandardUnit.COUNT);
+        cloudWatchMetricsService.publishMetric("InFlightEvents", throughput.getInFlight(), StandardUnit.COUNT);
 
-        if (total > 0) {
-            double errorRate = ((double) failed / total) * 100;
-
-            if (errorRate > errorRateThreshold) {
-                alertService.sendAlert(
-                        "High Error Rate",
-                        String.format("Error rate is %.2f%%, exceeding threshold of %.2f%%",
-                                errorRate, errorRateThreshold));
-            }
-        }
+        cloudWatchMetricsService.publishThroughputMetric(throughput.getReceived(), throughput.getWindowSeconds());
 
-        // Check for stale processing events
-        long processingEvents = metrics.get("ProcessingEvents");
-        if (processingEvents > 100) {
-            alertService.sendAlert(
-                    "High Processing Queue",
-                    String.format("%d events stuck in PROCESSING state", processingEvents));
+        if (errors.getReceived() > 0) {
+            cloudWatchMetricsService.publishErrorRateMetric(errors.getErrorRatio() * 100);
         }
     }
 }
@@ -0,0 +1,76 @@
+package com.eventprocessing.monitoring.sketch;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Count-Min sketch: depth rows of width counters. Estimates never undercount and
+ * overcount by at most e/width of the total with probability 1 - e^-depth.
+ * Not thread-safe.
+ */
+public final class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final long[] counters;
+    private long total;
+
+    public CountMinSketch(int width, int depth) {
+        if (Integer.bitCount(width) != 1 || depth < 1) {
+            throw new IllegalArgumentException("Count-Min width must be a power of two and depth positive: " + width + "x" + depth);
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counters = new long[width * depth];
+    }
+
+    public void add(long hash, long count) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int row = 0; row < depth; row++) {
+            counters[row * width + ((h1 + row * h2) & (width - 1))] += count;
+        }
+        total += count;
+    }
+
+    public long estimate(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[row * width + ((h1 + row * h2) & (width - 1))]);
+        }
+        return min;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void merge(CountMinSketch other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("Cannot merge Count-Min sketches of different dimensions");
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+        total += other.total;
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        buffer.putInt(width).putInt(depth).putLong(total);
+        buffer.asLongBuffer().put(counters);
+        buffer.position(buffer.position() + counters.length * Long.BYTES);
+    }
+
+    int serializedSize() {
+        return 2 * Integer.BYTES + Long.BYTES + counters.length * Long.BYTES;
+    }
+
+    static CountMinSketch readFrom(ByteBuffer buffer) {
+        CountMinSketch sketch = new CountMinSketch(buffer.getInt(), buffer.getInt());
+        sketch.total = buffer.getLong();
+        buffer.asLongBuffer().get(sketch.counters);
+        buffer.position(buffer.position() + sketch.counters.length * Long.BYTES);
+        return sketch;
+    }
+}
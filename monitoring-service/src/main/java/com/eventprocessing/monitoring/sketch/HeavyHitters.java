@@ -0,0 +1,108 @@
+package com.eventprocessing.monitoring.sketch;
+
+import com.eventprocessing.monitoring.model.SketchResult;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Top-K heavy hitters: a Count-Min sketch counts every value, and up to 2k
+ * candidates whose estimate beat the admission floor are remembered by name.
+ * Pruning back to k only happens once the candidate map doubles, so additions
+ * stay O(1) amortised. Not thread-safe.
+ */
+public final class HeavyHitters {
+
+    private final int k;
+    private final CountMinSketch counts;
+    private final Map<String, Long> candidates = new HashMap<>();
+    private long admissionFloor;
+
+    public HeavyHitters(int k, int width, int depth) {
+        this(k, new CountMinSketch(width, depth));
+    }
+
+    private HeavyHitters(int k, CountMinSketch counts) {
+        this.k = k;
+        this.counts = counts;
+    }
+
+    public void add(String value) {
+        long hash = Hashing.hash64(value);
+        counts.add(hash, 1);
+        long estimate = counts.estimate(hash);
+        if (estimate > admissionFloor || candidates.size() < 2 * k || candidates.containsKey(value)) {
+            candidates.put(value, estimate);
+            if (candidates.size() > 2 * k) {
+                prune();
+            }
+        }
+    }
+
+    /**
+     * Up to n values with the highest estimated counts, highest first
+     */
+    public List<SketchResult.HeavyHitter> top(int n) {
+        return candidates.keySet().stream()
+                .map(value -> new SketchResult.HeavyHitter(value, counts.estimate(Hashing.hash64(value))))
+                .sorted(Comparator.comparingLong(SketchResult.HeavyHitter::getCount).reversed())
+                .limit(Math.min(n, k))
+                .toList();
+    }
+
+    public long getTotal() {
+        return counts.getTotal();
+    }
+
+    public void merge(HeavyHitters other) {
+        counts.merge(other.counts);
+        other.candidates.keySet().forEach(value -> candidates.putIfAbsent(value, 0L));
+        candidates.replaceAll((value, count) -> counts.estimate(Hashing.hash64(value)));
+        if (candidates.size() > 2 * k) {
+            prune();
+        }
+    }
+
+    public byte[] toBytes() {
+        List<byte[]> values = new ArrayList<>(candidates.size());
+        int size = 2 * Integer.BYTES + counts.serializedSize();
+        for (String value : candidates.keySet()) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            values.add(bytes);
+            size += Integer.BYTES + bytes.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size).putInt(k);
+        counts.writeTo(buffer);
+        buffer.putInt(values.size());
+        values.forEach(bytes -> buffer.putInt(bytes.length).put(bytes));
+        return buffer.array();
+    }
+
+    public static HeavyHitters fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int k = buffer.getInt();
+        HeavyHitters sketch = new HeavyHitters(k, CountMinSketch.readFrom(buffer));
+        int candidates = buffer.getInt();
+        for (int i = 0; i < candidates; i++) {
+            byte[] value = new byte[buffer.getInt()];
+            buffer.get(value);
+            String name = new String(value, StandardCharsets.UTF_8);
+            sketch.candidates.put(name, sketch.counts.estimate(Hashing.hash64(name)));
+        }
+        return sketch;
+    }
+
+    private void prune() {
+        List<Map.Entry<String, Long>> ranked = new ArrayList<>(candidates.entrySet());
+        ranked.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        candidates.clear();
+        ranked.subList(0, k).forEach(entry -> candidates.put(entry.getKey(), entry.getValue()));
+        admissionFloor = ranked.get(k - 1).getValue();
+    }
+}
@@ -0,0 +1,183 @@
+package com.eventprocessing.monitoring.sketch;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Relative-error quantile sketch in the style of DDSketch: values fall into
+ * logarithmic buckets of ratio gamma = (1 + a) / (1 - a), so every quantile is
+ * answered within relative accuracy a. Bucket counts add up, which makes two
+ * sketches of the same accuracy exactly mergeable. Beyond maxBuckets per sign the
+ * lowest buckets are collapsed, trading accuracy on the smallest values only.
+ * Not thread-safe.
+ */
+public final class QuantileSketch {
+
+    private static final double MIN_INDEXABLE = 1e-9;
+
+    private final double relativeAccuracy;
+    private final int maxBuckets;
+    private final double logGamma;
+    private final TreeMap<Integer, Long> positive = new TreeMap<>();
+    private final TreeMap<Integer, Long> negative = new TreeMap<>();
+    private long zeroCount;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double sum;
+
+    public QuantileSketch(double relativeAccuracy, int maxBuckets) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("Relative accuracy must be in (0, 1): " + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.maxBuckets = maxBuckets;
+        this.logGamma = Math.log((1 + relativeAccuracy) / (1 - relativeAccuracy));
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return;
+        }
+        if (value > MIN_INDEXABLE) {
+            increment(positive, key(value), 1);
+        } else if (value < -MIN_INDEXABLE) {
+            increment(negative, key(-value), 1);
+        } else {
+            zeroCount++;
+        }
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Value at quantile q in [0, 1], NaN while empty
+     */
+    public double quantile(double q) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (q <= 0) {
+            return min;
+        }
+        if (q >= 1) {
+            return max;
+        }
+        long rank = (long) Math.floor(q * (count - 1));
+        long seen = 0;
+        // Most negative first: the largest magnitudes of the negative store
+        for (Map.Entry<Integer, Long> bucket : negative.descendingMap().entrySet()) {
+            seen += bucket.getValue();
+            if (seen > rank) {
+                return clamp(-value(bucket.getKey()));
+            }
+        }
+        seen += zeroCount;
+        if (seen > rank) {
+            return 0;
+        }
+        for (Map.Entry<Integer, Long> bucket : positive.entrySet()) {
+            seen += bucket.getValue();
+            if (seen > rank) {
+                return clamp(value(bucket.getKey()));
+            }
+        }
+        return max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return count > 0 ? min : Double.NaN;
+    }
+
+    public double getMax() {
+        return count > 0 ? max : Double.NaN;
+    }
+
+    public double getMean() {
+        return count > 0 ? sum / count : Double.NaN;
+    }
+
+    public double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge quantile sketches of different accuracy");
+        }
+        other.positive.forEach((key, bucketCount) -> increment(positive, key, bucketCount));
+        other.negative.forEach((key, bucketCount) -> increment(negative, key, bucketCount));
+        zeroCount += other.zeroCount;
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public byte[] toBytes() {
+        int entries = positive.size() + negative.size();
+        ByteBuffer buffer = ByteBuffer.allocate(Double.BYTES * 4 + Integer.BYTES * 3 + Long.BYTES * 2
+                + entries * (Integer.BYTES + Long.BYTES));
+        buffer.putDouble(relativeAccuracy).putInt(maxBuckets)
+                .putLong(zeroCount).putLong(count)
+                .putDouble(min).putDouble(max).putDouble(sum);
+        writeStore(buffer, positive);
+        writeStore(buffer, negative);
+        return buffer.array();
+    }
+
+    public static QuantileSketch fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        QuantileSketch sketch = new QuantileSketch(buffer.getDouble(), buffer.getInt());
+        sketch.zeroCount = buffer.getLong();
+        sketch.count = buffer.getLong();
+        sketch.min = buffer.getDouble();
+        sketch.max = buffer.getDouble();
+        sketch.sum = buffer.getDouble();
+        readStore(buffer, sketch.positive);
+        readStore(buffer, sketch.negative);
+        return sketch;
+    }
+
+    private void increment(TreeMap<Integer, Long> store, int key, long bucketCount) {
+        store.merge(key, bucketCount, Long::sum);
+        while (store.size() > maxBuckets) {
+            Map.Entry<Integer, Long> lowest = store.pollFirstEntry();
+            store.merge(store.firstKey(), lowest.getValue(), Long::sum);
+        }
+    }
+
+    private int key(double magnitude) {
+        return (int) Math.ceil(Math.log(magnitude) / logGamma);
+    }
+
+    /**
+     * Midpoint of a bucket, within relativeAccuracy of every value in it
+     */
+    private double value(int key) {
+        return 2 * Math.exp(key * logGamma) / (1 + Math.exp(logGamma));
+    }
+
+    private double clamp(double value) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static void writeStore(ByteBuffer buffer, TreeMap<Integer, Long> store) {
+        buffer.putInt(store.size());
+        store.forEach((key, bucketCount) -> buffer.putInt(key).putLong(bucketCount));
+    }
+
+    private static void readStore(ByteBuffer buffer, TreeMap<Integer, Long> store) {
+        int entries = buffer.getInt();
+        for (int i = 0; i < entries; i++) {
+            store.put(buffer.getInt(), buffer.getLong());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.eventprocessing.monitoring.sketch;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sketch settings (app.monitoring.sketch.*). Fields are top-level event fields or
+ * dotted paths into nested objects such as payload.userId.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.monitoring.sketch")
+public class SketchProperties {
+
+    private List<String> distinctFields = new ArrayList<>();
+
+    private List<String> heavyHitterFields = new ArrayList<>();
+
+    /**
+     * Numeric fields whose distribution is kept
+     */
+    private List<String> quantileFields = new ArrayList<>();
+
+    /**
+     * Sketches are kept per bucket, the unit in which ranges are answered
+     */
+    private Duration bucket = Duration.ofHours(1);
+
+    private Duration retention = Duration.ofDays(2);
+
+    private int hllPrecision = 12;
+
+    private int topK = 50;
+
+    private int countMinWidth = 1024;
+
+    private int countMinDepth = 4;
+
+    private double quantileAccuracy = 0.01;
+
+    private int quantileMaxBuckets = 2048;
+}
@@ -0,0 +1,229 @@
+package com.eventprocessing.monitoring.sketch;
+
+import com.eventprocessing.monitoring.entity.SketchDocument;
+import com.eventprocessing.monitoring.model.SketchResult;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * Keeps HyperLogLog, heavy-hitter and quantile sketches of the configured event
+ * fields per time bucket, and answers range queries by merging the buckets.
+ *
+ * Local answers merge in-memory sketches only. Every instance persists its dirty
+ * buckets to Mongo each flush; a cluster-wide answer additionally merges the
+ * persisted buckets of the other instances, so it lags by up to one flush.
+ */
+@Slf4j
+@Service
+public class SketchService {
+
+    private final SketchProperties properties;
+    private final MongoTemplate mongoTemplate;
+    private final String instanceId;
+    private final List<String> fields;
+    private final long bucketMillis;
+    private final ConcurrentNavigableMap<Long, SketchSet> buckets = new ConcurrentSkipListMap<>();
+    private volatile SketchSet current;
+
+    public SketchService(SketchProperties properties, MongoTemplate mongoTemplate,
+                         @Value("${app.monitoring.sketch.instance-id:${HOSTNAME:monitoring-local}}") String instanceId) {
+        this.properties = properties;
+        this.mongoTemplate = mongoTemplate;
+        this.instanceId = instanceId;
+        this.bucketMillis = properties.getBucket().toMillis();
+
+        Set<String> configured = new LinkedHashSet<>(properties.getDistinctFields());
+        configured.addAll(properties.getHeavyHitterFields());
+        configured.addAll(properties.getQuantileFields());
+        this.fields = List.copyOf(configured);
+    }
+
+    /**
+     * Every field any sketch is kept for, in the order record() expects them
+     */
+    public List<String> getFields() {
+        return fields;
+    }
+
+    /**
+     * Record one event into the current bucket
+     *
+     * @param positions positions[i] is the index in values of getFields().get(i)
+     */
+    public void record(String[] values, int[] positions) {
+        if (fields.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        SketchSet set = current;
+        if (set == null || now - set.getBucketStart() >= bucketMillis) {
+            set = buckets.computeIfAbsent(now - now % bucketMillis, start -> new SketchSet(start, fields, properties));
+            current = set;
+        }
+        set.record(values, positions);
+    }
+
+    public SketchResult distinct(String field, Instant from, Instant to, boolean cluster) {
+        int index = indexOf(field, properties.getDistinctFields());
+        HyperLogLog merged = new HyperLogLog(properties.getHllPrecision());
+        Collection<SketchSet> local = localBuckets(from, to);
+        local.forEach(set -> set.mergeDistinct(index, merged));
+        int[] remote = cluster ? mergeRemote(field, SketchSet.DISTINCT, from, to,
+                data -> merged.merge(HyperLogLog.fromBytes(data))) : new int[2];
+
+        return result(field, from, to, local.size() + remote[0], 1 + remote[1])
+                .distinct(merged.estimate())
+                .relativeError(merged.relativeError())
+                .build();
+    }
+
+    public SketchResult topK(String field, int k, Instant from, Instant to, boolean cluster) {
+        int index = indexOf(field, properties.getHeavyHitterFields());
+        HeavyHitters merged = new HeavyHitters(properties.getTopK(), properties.getCountMinWidth(), properties.getCountMinDepth());
+        Collection<SketchSet> local = localBuckets(from, to);
+        local.forEach(set -> set.mergeHeavyHitters(index, merged));
+        int[] remote = cluster ? mergeRemote(field, SketchSet.HEAVY_HITTERS, from, to,
+                data -> merged.merge(HeavyHitters.fromBytes(data))) : new int[2];
+
+        return result(field, from, to, local.size() + remote[0], 1 + remote[1])
+                .top(merged.top(k))
+                .count(merged.getTotal())
+                .build();
+    }
+
+    public SketchResult quantiles(String field, List<Double> qs, Instant from, Instant to, boolean cluster) {
+        int index = indexOf(field, properties.getQuantileFields());
+        QuantileSketch merged = new QuantileSketch(properties.getQuantileAccuracy(), properties.getQuantileMaxBuckets());
+        Collection<SketchSet> local = localBuckets(from, to);
+        local.forEach(set -> set.mergeQuantiles(index, merged));
+        int[] remote = cluster ? mergeRemote(field, SketchSet.QUANTILES, from, to,
+                data -> merged.merge(QuantileSketch.fromBytes(data))) : new int[2];
+
+        Map<String, Double> quantiles = new LinkedHashMap<>();
+        qs.forEach(q -> quantiles.put("p" + String.valueOf(q * 100).replaceAll("\\.0$", ""), merged.quantile(q)));
+        return result(field, from, to, local.size() + remote[0], 1 + remote[1])
+                .quantiles(quantiles)
+                .count(merged.getCount())
+                .min(merged.getMin())
+                .max(merged.getMax())
+                .mean(merged.getMean())
+                .build();
+    }
+
+    /**
+     * Persist buckets changed since the last flush and forget expired ones
+     */
+    @Scheduled(fixedDelayString = "${app.monitoring.sketch.flush-interval:60000}")
+    public void flush() {
+        Instant now = Instant.now();
+        try {
+            for (SketchSet set : buckets.values()) {
+                List<SketchDocument.Sketch> sketches = set.drainChanges();
+                if (sketches != null) {
+                    mongoTemplate.save(SketchDocument.builder()
+                            .id(instanceId + ":" + set.getBucketStart())
+                            .instanceId(instanceId)
+                            .bucketStart(Instant.ofEpochMilli(set.getBucketStart()))
+                            .updatedAt(now)
+                            .sketches(sketches)
+                            .build());
+                }
+            }
+
+            Instant cutoff = now.minus(properties.getRetention());
+            buckets.headMap(cutoff.toEpochMilli() - bucketMillis).clear();
+            mongoTemplate.remove(Query.query(Criteria.where("bucketStart").lt(cutoff)), SketchDocument.class);
+
+        } catch (Exception e) {
+            log.error("Error persisting sketches", e);
+        }
+    }
+
+    /**
+     * Pick up this instance's persisted buckets after a restart
+     */
+    @PostConstruct
+    public void restore() {
+        if (fields.isEmpty()) {
+            return;
+        }
+        try {
+            Query query = Query.query(Criteria.where("instanceId").is(instanceId)
+                    .and("bucketStart").gte(Instant.now().minus(properties.getRetention())));
+            for (SketchDocument document : mongoTemplate.find(query, SketchDocument.class)) {
+                long start = document.getBucketStart().toEpochMilli();
+                buckets.computeIfAbsent(start, s -> new SketchSet(s, fields, properties)).restore(document.getSketches());
+            }
+            log.info("Restored {} sketch buckets of instance {}", buckets.size(), instanceId);
+
+        } catch (Exception e) {
+            log.warn("Could not restore persisted sketches; starting empty", e);
+        }
+    }
+
+    private Collection<SketchSet> localBuckets(Instant from, Instant to) {
+        long start = from.toEpochMilli() - Math.floorMod(from.toEpochMilli(), bucketMillis);
+        return buckets.subMap(start, true, to.toEpochMilli(), false).values();
+    }
+
+    /**
+     * Merge the persisted sketches of other instances
+     *
+     * @return buckets and instances merged
+     */
+    private int[] mergeRemote(String field, String kind, Instant from, Instant to, Consumer<byte[]> merge) {
+        Instant start = Instant.ofEpochMilli(from.toEpochMilli() - Math.floorMod(from.toEpochMilli(), bucketMillis));
+        Query query = Query.query(Criteria.where("instanceId").ne(instanceId)
+                .and("bucketStart").gte(start).lt(to));
+        int merged = 0;
+        Set<String> instances = new HashSet<>();
+        for (SketchDocument document : mongoTemplate.find(query, SketchDocument.class)) {
+            for (SketchDocument.Sketch sketch : document.getSketches()) {
+                if (kind.equals(sketch.getKind()) && field.equals(sketch.getField())) {
+                    try {
+                        merge.accept(sketch.getData());
+                        merged++;
+                        instances.add(document.getInstanceId());
+                    } catch (IllegalArgumentException e) {
+                        log.warn("Skipping {} sketch of {} persisted by {} with other settings", kind, field, document.getInstanceId());
+                    }
+                }
+            }
+        }
+        return new int[]{merged, instances.size()};
+    }
+
+    private int indexOf(String field, List<String> configured) {
+        if (!configured.contains(field)) {
+            throw new IllegalArgumentException("No sketch is kept for field " + field + "; configured: " + configured);
+        }
+        return fields.indexOf(field);
+    }
+
+    private static SketchResult.SketchResultBuilder result(String field, Instant from, Instant to, int buckets, int instances) {
+        return SketchResult.builder()
+                .field(field)
+                .from(from)
+                .to(to)
+                .buckets(buckets)
+                .instances(instances);
+    }
+}
@@ -0,0 +1,152 @@
+package com.eventprocessing.monitoring.sketch;
+
+import com.eventprocessing.monitoring.entity.SketchDocument;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sketches of every configured field for one time bucket. Listener threads record
+ * under the set's monitor; queries merge single sketches out of it under the same
+ * monitor into a thread-confined accumulator.
+ */
+final class SketchSet {
+
+    static final String DISTINCT = "distinct";
+    static final String HEAVY_HITTERS = "heavyHitters";
+    static final String QUANTILES = "quantiles";
+
+    private final long bucketStart;
+    private final List<String> fields;
+    private final HyperLogLog[] distinct;
+    private final HeavyHitters[] heavyHitters;
+    private final QuantileSketch[] quantiles;
+    private boolean dirty;
+
+    SketchSet(long bucketStart, List<String> fields, SketchProperties properties) {
+        this.bucketStart = bucketStart;
+        this.fields = fields;
+        this.distinct = new HyperLogLog[fields.size()];
+        this.heavyHitters = new HeavyHitters[fields.size()];
+        this.quantiles = new QuantileSketch[fields.size()];
+        for (int i = 0; i < fields.size(); i++) {
+            String field = fields.get(i);
+            if (properties.getDistinctFields().contains(field)) {
+                distinct[i] = new HyperLogLog(properties.getHllPrecision());
+            }
+            if (properties.getHeavyHitterFields().contains(field)) {
+                heavyHitters[i] = new HeavyHitters(properties.getTopK(), properties.getCountMinWidth(), properties.getCountMinDepth());
+            }
+            if (properties.getQuantileFields().contains(field)) {
+                quantiles[i] = new QuantileSketch(properties.getQuantileAccuracy(), properties.getQuantileMaxBuckets());
+            }
+        }
+    }
+
+    long getBucketStart() {
+        return bucketStart;
+    }
+
+    /**
+     * Record one event; values[positions[i]] is the value of fields[i], null when absent
+     */
+    synchronized void record(String[] values, int[] positions) {
+        for (int i = 0; i < positions.length; i++) {
+            String value = values[positions[i]];
+            if (value == null) {
+                continue;
+            }
+            if (distinct[i] != null) {
+                distinct[i].add(Hashing.hash64(value));
+            }
+            if (heavyHitters[i] != null) {
+                heavyHitters[i].add(value);
+            }
+            if (quantiles[i] != null) {
+                try {
+                    quantiles[i].add(Double.parseDouble(value));
+                } catch (NumberFormatException e) {
+                    // Non-numeric values of a numeric field are not counted
+                }
+            }
+        }
+        dirty = true;
+    }
+
+    synchronized void mergeDistinct(int field, HyperLogLog target) {
+        if (distinct[field] != null) {
+            target.merge(distinct[field]);
+        }
+    }
+
+    synchronized void mergeHeavyHitters(int field, HeavyHitters target) {
+        if (heavyHitters[field] != null) {
+            target.merge(heavyHitters[field]);
+        }
+    }
+
+    synchronized void mergeQuantiles(int field, QuantileSketch target) {
+        if (quantiles[field] != null) {
+            target.merge(quantiles[field]);
+        }
+    }
+
+    /**
+     * Serialized sketches if anything was recorded since the last call, else null
+     */
+    synchronized List<SketchDocument.Sketch> drainChanges() {
+        if (!dirty) {
+            return null;
+        }
+        dirty = false;
+        List<SketchDocument.Sketch> sketches = new ArrayList<>();
+        for (int i = 0; i < fields.size(); i++) {
+            if (distinct[i] != null) {
+                sketches.add(new SketchDocument.Sketch(DISTINCT, fields.get(i), distinct[i].toBytes()));
+            }
+            if (heavyHitters[i] != null) {
+                sketches.add(new SketchDocument.Sketch(HEAVY_HITTERS, fields.get(i), heavyHitters[i].toBytes()));
+            }
+            if (quantiles[i] != null) {
+                sketches.add(new SketchDocument.Sketch(QUANTILES, fields.get(i), quantiles[i].toBytes()));
+            }
+        }
+        return sketches;
+    }
+
+    /**
+     * Fold persisted sketches back in after a restart; sketches of fields or
+     * settings no longer configured are skipped
+     */
+    synchronized void restore(List<SketchDocument.Sketch> sketches) {
+        for (SketchDocument.Sketch sketch : sketches) {
+            int i = fields.indexOf(sketch.getField());
+            if (i < 0) {
+                continue;
+            }
+            try {
+                switch (sketch.getKind()) {
+                    case DISTINCT -> {
+                        if (distinct[i] != null) {
+                            distinct[i].merge(HyperLogLog.fromBytes(sketch.getData()));
+                        }
+                    }
+                    case HEAVY_HITTERS -> {
+                        if (heavyHitters[i] != null) {
+                            heavyHitters[i].merge(HeavyHitters.fromBytes(sketch.getData()));
+                        }
+                    }
+                    case QUANTILES -> {
+                        if (quantiles[i] != null) {
+                            quantiles[i].merge(QuantileSketch.fromBytes(sketch.getData()));
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                // Persisted with other precision or dimensions
+            }
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.eventprocessing.monitoring.trace;
+
+import com.eventprocessing.monitoring.model.TraceDetail;
+import com.eventprocessing.monitoring.model.TraceSummary;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Local stand-in for an OTLP trace collector. Accepts OTLP/HTTP JSON exports from
+ * the services and keeps the most recently updated traces in memory, so a slow
+ * event can be followed across producer, consumer and ingestion without running
+ * a tracing backend. Spans of one trace arrive from several services at different
+ * times and are stitched together by trace id.
+ */
+@Slf4j
+@Component
+public class TraceStore {
+
+    private final int maxTraces;
+    private final int maxSpansPerTrace;
+
+    /**
+     * Access-ordered, so the least recently updated trace is evicted first
+     */
+    private final LinkedHashMap<String, List<StoredSpan>> traces = new LinkedHashMap<>(256, 0.75f, true);
+
+    public TraceStore(@Value("${app.monitoring.traces.max-traces:10000}") int maxTraces,
+                      @Value("${app.monitoring.traces.max-spans-per-trace:1000}") int maxSpansPerTrace) {
+        this.maxTraces = maxTraces;
+        this.maxSpansPerTrace = maxSpansPerTrace;
+    }
+
+    /**
+     * Store the spans of one OTLP export request
+     *
+     * @return number of spans accepted
+     */
+    public int accept(JsonNode request) {
+        int accepted = 0;
+        for (JsonNode resourceSpans : request.path("resourceSpans")) {
+            String service = attributes(resourceSpans.path("resource").path("attributes"))
+                    .getOrDefault("service.name", "unknown").toString();
+            for (JsonNode scopeSpans : resourceSpans.path("scopeSpans")) {
+                for (JsonNode span : scopeSpans.path("spans")) {
+                    StoredSpan stored = parse(service, span);
+                    if (stored != null && add(stored)) {
+                        accepted++;
+                    }
+                }
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Slowest stored traces, optionally only those at least minDurationMs long
+     */
+    public List<TraceSummary> getSlowest(long minDurationMs, int limit) {
+        List<List<StoredSpan>> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(traces.size());
+            traces.values().forEach(spans -> snapshot.add(new ArrayList<>(spans)));
+        }
+        return snapshot.stream()
+                .map(TraceStore::summarize)
+                .filter(summary -> summary.getDurationMs() >= minDurationMs)
+                .sorted(Comparator.comparingDouble(TraceSummary::getDurationMs).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * All stored spans of a trace as a tree, with the time spent in each hop
+     */
+    public Optional<TraceDetail> getTrace(String traceId) {
+        List<StoredSpan> spans;
+        synchronized (this) {
+            List<StoredSpan> stored = traces.get(traceId);
+            if (stored == null) {
+                return Optional.empty();
+            }
+            spans = new ArrayList<>(stored);
+        }
+        return Optional.of(detail(spans));
+    }
+
+    private synchronized boolean add(StoredSpan span) {
+        List<StoredSpan> spans = traces.computeIfAbsent(span.traceId(), id -> new ArrayList<>());
+        if (spans.size() >= maxSpansPerTrace) {
+            return false;
+        }
+        spans.add(span);
+        if (traces.size() > maxTraces) {
+            String eldest = traces.keySet().iterator().next();
+            traces.remove(eldest);
+        }
+        return true;
+    }
+
+    private static StoredSpan parse(String service, JsonNode span) {
+        String traceId = span.path("traceId").asText(null);
+        String spanId = span.path("spanId").asText(null);
+        if (traceId == null || spanId == null) {
+            return null;
+        }
+        JsonNode status = span.path("status");
+        return new StoredSpan(
+                traceId,
+                spanId,
+                span.path("parentSpanId").asText(null),
+                service,
+                span.path("name").asText(""),
+                kindName(span.path("kind").asInt()),
+                Long.parseLong(span.path("startTimeUnixNano").asText("0")),
+                Long.parseLong(span.path("endTimeUnixNano").asText("0")),
+                status.path("code").asInt() == 2,
+                status.path("message").asText(null),
+                attributes(span.path("attributes")));
+    }
+
+    private static Map<String, Object> attributes(JsonNode attributes) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (JsonNode attribute : attributes) {
+            JsonNode value = attribute.path("value");
+            Object parsed;
+            if (value.has("boolValue")) {
+                parsed = value.get("boolValue").asBoolean();
+            } else if (value.has("intValue")) {
+                parsed = value.get("intValue").asLong();
+            } else if (value.has("doubleValue")) {
+                parsed = value.get("doubleValue").asDouble();
+            } else {
+                parsed = value.path("stringValue").asText();
+            }
+            values.put(attribute.path("key").asText(), parsed);
+        }
+        return values;
+    }
+
+    private static String kindName(int kind) {
+        return switch (kind) {
+            case 2 -> "SERVER";
+            case 3 -> "CLIENT";
+            case 4 -> "PRODUCER";
+            case 5 -> "CONSUMER";
+            default -> "INTERNAL";
+        };
+    }
+
+    private static TraceSummary summarize(List<StoredSpan> spans) {
+        long start = Long.MAX_VALUE;
+        long end = Long.MIN_VALUE;
+        Set<String> spanIds = new HashSet<>();
+        Set<String> services = new LinkedHashSet<>();
+        boolean error = false;
+        boolean tailSampled = false;
+        for (StoredSpan span : spans) {
+            start = Math.min(start, span.start());
+            end = Math.max(end, span.end());
+            spanIds.add(span.spanId());
+            services.add(span.service());
+            error |= span.error();
+            tailSampled |= Boolean.TRUE.equals(span.attributes().get("sampling.tail"));
+        }
+        // The root is the earliest span whose parent was not exported (or that has none)
+        StoredSpan root = spans.stream()
+                .filter(span -> span.parentSpanId() == null || !spanIds.contains(span.parentSpanId()))
+                .min(Comparator.comparingLong(StoredSpan::start))
+                .orElse(spans.get(0));
+
+        return TraceSummary.builder()
+                .traceId(root.traceId())
+                .rootName(root.service() + ": " + root.name())
+                .startTime(Instant.ofEpochSecond(0, start))
+                .durationMs((end - start) / 1e6)
+                .spanCount(spans.size())
+                .services(new ArrayList<>(services))
+                .error(error)
+                .complete(root.parentSpanId() == null)
+                .tailSampled(tailSampled)
+                .build();
+    }
+
+    private static TraceDetail detail(List<StoredSpan> spans) {
+        TraceSummary summary = summarize(spans);
+        long traceStart = summary.getStartTime().getEpochSecond() * 1_000_000_000L + summary.getStartTime().getNano();
+
+        Map<String, List<StoredSpan>> children = new HashMap<>();
+        Set<String> spanIds = new HashSet<>();
+        spans.forEach(span -> spanIds.add(span.spanId()));
+        List<StoredSpan> roots = new ArrayList<>();
+        for (StoredSpan span : spans) {
+            if (span.parentSpanId() != null && spanIds.contains(span.parentSpanId())) {
+                children.computeIfAbsent(span.parentSpanId(), id -> new ArrayList<>()).add(span);
+            } else {
+                roots.add(span);
+            }
+        }
+
+        List<TraceDetail.SpanView> views = new ArrayList<>(spans.size());
+        Map<String, Double> hopMillis = new LinkedHashMap<>();
+        roots.sort(Comparator.comparingLong(StoredSpan::start));
+        for (StoredSpan root : roots) {
+            walk(root, 0, traceStart, children, views, hopMillis);
+        }
+
+        List<TraceDetail.Hop> hops = hopMillis.entrySet().stream()
+                .map(entry -> TraceDetail.Hop.builder()
+                        .name(entry.getKey())
+                        .selfTimeMs(entry.getValue())
+                        .share(summary.getDurationMs() > 0 ? entry.getValue() / summary.getDurationMs() : 0)
+                        .build())
+                .sorted(Comparator.comparingDouble(TraceDetail.Hop::getSelfTimeMs).reversed())
+                .toList();
+
+        return TraceDetail.builder()
+                .summary(summary)
+                .spans(views)
+                .hops(hops)
+                .build();
+    }
+
+    /**
+     * Depth-first in start order; self time is the span's duration not covered by its children
+     */
+    private static void walk(StoredSpan span, int depth, long traceStart, Map<String, List<StoredSpan>> children,
+                             List<TraceDetail.SpanView> views, Map<String, Double> hopMillis) {
+        List<StoredSpan> own = children.getOrDefault(span.spanId(), List.of());
+        own.sort(Comparator.comparingLong(StoredSpan::start));
+
+        long covered = 0;
+        long coveredUntil = span.start();
+        for (StoredSpan child : own) {
+            long from = Math.max(coveredUntil, Math.max(child.start(), span.start()));
+            long to = Math.min(child.end(), span.end());
+            if (to > from) {
+                covered += to - from;
+                coveredUntil = to;
+            }
+        }
+        double selfMs = Math.max(0, span.end() - span.start() - covered) / 1e6;
+        hopMillis.merge(span.service() + ": " + span.name(), selfMs, Double::sum);
+
+        views.add(TraceDetail.SpanView.builder()
+                .spanId(span.spanId())
+                .parentSpanId(span.parentSpanId())
+                .service(span.service())
+                .name(span.name())
+                .kind(span.kind())
+                .depth(depth)
+                .offsetMs((span.start() - traceStart) / 1e6)
+                .durationMs((span.end() - span.start()) / 1e6)
+                .selfTimeMs(selfMs)
+                .error(span.error())
+                .errorMessage(span.errorMessage())
+                .attributes(span.attributes())
+                .build());
+
+        for (StoredSpan child : own) {
+            walk(child, depth + 1, traceStart, children, views, hopMillis);
+        }
+    }
+
+    private record StoredSpan(String traceId, String spanId, String parentSpanId, String service, String name,
+                              String kind, long start, long end, boolean error, String errorMessage,
+                              Map<String, Object> attributes) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.eventprocessing.monitoring.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountMinSketchTest {
+
+    private static final int WIDTH = 1024;
+    private static final int DEPTH = 4;
+
+    @Test
+    void neverUndercountsAndStaysWithinItsBound() {
+        CountMinSketch sketch = sketchOf(0, 5_000);
+        long bound = (long) Math.ceil(Math.E / WIDTH * sketch.getTotal());
+
+        for (int i = 0; i < 5_000; i += 97) {
+            long estimate = sketch.estimate(hash(i));
+            assertThat(estimate).isGreaterThanOrEqualTo(occurrences(i)).isLessThanOrEqualTo(occurrences(i) + bound);
+        }
+    }
+
+    @Test
+    void serializationKeepsEveryEstimate() {
+        CountMinSketch sketch = sketchOf(0, 5_000);
+        ByteBuffer buffer = ByteBuffer.allocate(sketch.serializedSize());
+        sketch.writeTo(buffer);
+        buffer.flip();
+
+        CountMinSketch restored = CountMinSketch.readFrom(buffer);
+
+        assertThat(buffer.hasRemaining()).isFalse();
+        assertThat(restored.getTotal()).isEqualTo(sketch.getTotal());
+        for (int i = 0; i < 5_000; i++) {
+            assertThat(restored.estimate(hash(i))).isEqualTo(sketch.estimate(hash(i)));
+        }
+    }
+
+    @Test
+    void mergeEqualsTheSketchOfTheUnion() {
+        CountMinSketch a = sketchOf(0, 3_000);
+        CountMinSketch b = sketchOf(2_000, 5_000);
+        CountMinSketch union = sketchOf(0, 3_000);
+        addRange(union, 2_000, 5_000);
+
+        a.merge(b);
+
+        assertThat(a.getTotal()).isEqualTo(union.getTotal());
+        for (int i = 0; i < 5_000; i++) {
+            assertThat(a.estimate(hash(i))).isEqualTo(union.estimate(hash(i)));
+        }
+    }
+
+    private static CountMinSketch sketchOf(int fromInclusive, int toExclusive) {
+        CountMinSketch sketch = new CountMinSketch(WIDTH, DEPTH);
+        addRange(sketch, fromInclusive, toExclusive);
+        return sketch;
+    }
+
+    /**
+     * Value i is added 1 + i % 10 times
+     */
+    private static void addRange(CountMinSketch sketch, int fromInclusive, int toExclusive) {
+        for (int i = fromInclusive; i < toExclusive; i++) {
+            sketch.add(hash(i), occurrences(i));
+        }
+    }
+
+    private static long occurrences(int i) {
+        return 1 + i % 10;
+    }
+
+    private static long hash(int i) {
+        return Hashing.hash64("value-" + i);
+    }
+}
@@ -0,0 +1,67 @@
+package com.eventprocessing.monitoring.sketch;
+
+import com.eventprocessing.monitoring.model.SketchResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HeavyHittersTest {
+
+    @Test
+    void findsTheHeaviestValuesAmongNoise() {
+        HeavyHitters sketch = new HeavyHitters(5, 1024, 4);
+        addSkewed(sketch, 0);
+
+        assertThat(values(sketch.top(3))).containsExactly("hot-0", "hot-1", "hot-2");
+        assertThat(sketch.top(1).get(0).getCount()).isGreaterThanOrEqualTo(3_000);
+    }
+
+    @Test
+    void serializationKeepsTheTopList() {
+        HeavyHitters sketch = new HeavyHitters(5, 1024, 4);
+        addSkewed(sketch, 0);
+
+        HeavyHitters restored = HeavyHitters.fromBytes(sketch.toBytes());
+
+        assertThat(restored.top(5)).isEqualTo(sketch.top(5));
+        assertThat(restored.getTotal()).isEqualTo(sketch.getTotal());
+    }
+
+    @Test
+    void mergeEqualsTheSketchOfTheUnion() {
+        HeavyHitters a = new HeavyHitters(5, 1024, 4);
+        HeavyHitters b = new HeavyHitters(5, 1024, 4);
+        HeavyHitters union = new HeavyHitters(5, 1024, 4);
+        addSkewed(a, 0);
+        addSkewed(b, 10_000);
+        addSkewed(union, 0);
+        addSkewed(union, 10_000);
+
+        a.merge(b);
+
+        assertThat(a.getTotal()).isEqualTo(union.getTotal());
+        assertThat(a.top(5)).isEqualTo(union.top(5));
+    }
+
+    /**
+     * hot-i appears 3000 / (i + 1) times among 2000 values seen once
+     */
+    private static void addSkewed(HeavyHitters sketch, int noiseOffset) {
+        for (int round = 0; round < 3_000; round++) {
+            for (int hot = 0; hot < 5; hot++) {
+                if (round % (hot + 1) == 0) {
+                    sketch.add("hot-" + hot);
+                }
+            }
+            if (round < 2_000) {
+                sketch.add("noise-" + (noiseOffset + round));
+            }
+        }
+    }
+
+    private static List<String> values(List<SketchResult.HeavyHitter> hitters) {
+        return hitters.stream().map(SketchResult.HeavyHitter::getValue).toList();
+    }
+}
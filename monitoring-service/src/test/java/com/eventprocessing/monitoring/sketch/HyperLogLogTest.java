@@ -0,0 +1,55 @@
+package com.eventprocessing.monitoring.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimatesWithinItsStandardError() {
+        for (int distinct : new int[]{10, 1_000, 100_000}) {
+            HyperLogLog sketch = sketchOf(0, distinct);
+            assertThat((double) sketch.estimate())
+                    .as("%d distinct values", distinct)
+                    .isCloseTo(distinct, within(Math.max(1, 4 * sketch.relativeError() * distinct)));
+        }
+    }
+
+    @Test
+    void serializationKeepsTheEstimate() {
+        HyperLogLog sketch = sketchOf(0, 50_000);
+
+        HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+
+        assertThat(restored.estimate()).isEqualTo(sketch.estimate());
+        assertThat(restored.toBytes()).isEqualTo(sketch.toBytes());
+    }
+
+    @Test
+    void mergeEqualsTheSketchOfTheUnion() {
+        HyperLogLog a = sketchOf(0, 30_000);
+        HyperLogLog b = sketchOf(20_000, 60_000);
+
+        a.merge(b);
+
+        assertThat(a.toBytes()).isEqualTo(sketchOf(0, 60_000).toBytes());
+        assertThat(a.estimate()).isEqualTo(sketchOf(0, 60_000).estimate());
+    }
+
+    @Test
+    void rejectsMergingOtherPrecisions() {
+        assertThatThrownBy(() -> new HyperLogLog(12).merge(new HyperLogLog(10)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static HyperLogLog sketchOf(int fromInclusive, int toExclusive) {
+        HyperLogLog sketch = new HyperLogLog(12);
+        for (int i = fromInclusive; i < toExclusive; i++) {
+            sketch.add(Hashing.hash64("user-" + i));
+        }
+        return sketch;
+    }
+}
@@ -0,0 +1,77 @@
+package com.eventprocessing.monitoring.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class QuantileSketchTest {
+
+    private static final double ACCURACY = 0.01;
+    private static final double[] QUANTILES = {0, 0.1, 0.5, 0.9, 0.99, 0.999, 1};
+
+    @Test
+    void answersQuantilesWithinTheRelativeAccuracy() {
+        double[] values = values(0, 10_000);
+        QuantileSketch sketch = sketchOf(values);
+        Arrays.sort(values);
+
+        for (double q : QUANTILES) {
+            double exact = values[(int) Math.floor(q * (values.length - 1))];
+            assertThat(sketch.quantile(q)).as("q=%s", q).isCloseTo(exact, within(Math.abs(exact) * ACCURACY + 1e-9));
+        }
+    }
+
+    @Test
+    void serializationKeepsEveryQuantile() {
+        QuantileSketch sketch = sketchOf(values(0, 10_000));
+
+        QuantileSketch restored = QuantileSketch.fromBytes(sketch.toBytes());
+
+        assertThat(restored.getCount()).isEqualTo(sketch.getCount());
+        assertThat(restored.getMin()).isEqualTo(sketch.getMin());
+        assertThat(restored.getMax()).isEqualTo(sketch.getMax());
+        assertThat(restored.getMean()).isEqualTo(sketch.getMean());
+        for (double q : QUANTILES) {
+            assertThat(restored.quantile(q)).isEqualTo(sketch.quantile(q));
+        }
+    }
+
+    @Test
+    void mergeEqualsTheSketchOfTheUnion() {
+        QuantileSketch a = sketchOf(values(0, 4_000));
+        QuantileSketch b = sketchOf(values(4_000, 10_000));
+        QuantileSketch union = sketchOf(values(0, 10_000));
+
+        a.merge(b);
+
+        assertThat(a.getCount()).isEqualTo(union.getCount());
+        assertThat(a.getMin()).isEqualTo(union.getMin());
+        assertThat(a.getMax()).isEqualTo(union.getMax());
+        assertThat(a.getMean()).isCloseTo(union.getMean(), within(1e-9));
+        for (double q : QUANTILES) {
+            assertThat(a.quantile(q)).as("q=%s", q).isEqualTo(union.quantile(q));
+        }
+    }
+
+    /**
+     * Log-spread latencies with a few negative and zero values, so every store is used
+     */
+    private static double[] values(int fromInclusive, int toExclusive) {
+        double[] values = new double[toExclusive - fromInclusive];
+        for (int i = fromInclusive; i < toExclusive; i++) {
+            values[i - fromInclusive] = i % 100 == 0 ? 0 : i % 37 == 0 ? -(i % 50) : Math.exp((i * 7919 % 10_000) / 1_000.0);
+        }
+        return values;
+    }
+
+    private static QuantileSketch sketchOf(double[] values) {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY, 4096);
+        for (double value : values) {
+            sketch.add(value);
+        }
+        return sketch;
+    }
+}